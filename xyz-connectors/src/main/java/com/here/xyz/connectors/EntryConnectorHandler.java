@@ -25,6 +25,10 @@ import static com.here.xyz.responses.XyzError.EXCEPTION;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CountingOutputStream;
 import com.here.xyz.Payload;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
@@ -39,9 +43,11 @@ import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.util.runtime.FunctionRuntime;
 import com.here.xyz.util.runtime.LambdaFunctionRuntime;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -72,6 +78,10 @@ public abstract class EntryConnectorHandler extends AbstractConnectorHandler imp
    */
   @SuppressWarnings("WeakerAccess")
   private static final int RELOCATION_THRESHOLD_SIZE = 6 * 1024 * 1024;
+  /**
+   * The number of leading bytes of an in-process response which get compressed to estimate the compressed size of the whole response.
+   */
+  private static final int COMPRESSION_SAMPLE_SIZE = 64 * 1024;
   /**
    * The maximal size of uncompressed bytes. Exceeding that limit leads to the response getting gzipped.
    */
@@ -115,23 +125,8 @@ public abstract class EntryConnectorHandler extends AbstractConnectorHandler imp
 
         dataOut = reqHandler.handleEvent(event);
       }
-      catch (ErrorResponseException e) {
-        switch (e.getErrorResponse().getError()) {
-          case EXCEPTION, BAD_GATEWAY, TIMEOUT -> logger.error("[{}] Unexpected exception in connector:", streamId, e);
-          default -> logger.warn("[{}] Exception in connector:", streamId, e);
-        }
-        if (e.getInternalDetails() != null)
-          logger.warn("[{}] Internal details of exception: {}", streamId, e.getInternalDetails());
-
-        e.getErrorResponse().setStreamId(streamId);
-        dataOut = e.getErrorResponse();
-      }
       catch (Exception e) {
-        logger.error("{} Unexpected exception occurred:", streamId, e);
-        dataOut = new ErrorResponse()
-            .withStreamId(streamId)
-            .withError(EXCEPTION)
-            .withErrorMessage("Unexpected exception occurred.");
+        dataOut = toErrorResponse(e, streamId);
       }
 
       writeDataOut(output, dataOut, ifNoneMatch, streamId, maxUncompressedResponseSize);
@@ -144,6 +139,150 @@ public abstract class EntryConnectorHandler extends AbstractConnectorHandler imp
     }
   }
 
+  /**
+   * Processes an event which is handed over by a caller running in the same JVM.
+   * Neither the event nor the response get serialized for the transport. The response is post-processed the same way as
+   * by {@link #handleRequest(InputStream, OutputStream, Context)}: Errors are converted into an {@link ErrorResponse}, the response
+   * size is checked and the ETag is calculated. For the latter, the response is serialized into a hashing stream only.
+   *
+   * NOTE: The event instance is shared with the caller, so the connector's modifications of it are visible to the caller.
+   *
+   * @param event The event to be processed
+   * @param context The execution context
+   * @return The response together with its serialized size
+   */
+  public InProcessResponse handleEventInProcess(Event event, Context context) {
+    String streamId = event.getStreamId();
+    new LambdaFunctionRuntime(context, streamId);
+
+    Typed dataOut;
+    try {
+      dataOut = handleEvent(event);
+    }
+    catch (Exception e) {
+      dataOut = toErrorResponse(e, streamId);
+    }
+
+    try {
+      return postProcessInProcess(dataOut, event.getIfNoneMatch(), streamId, getMaxUncompressedResponseSize(event));
+    }
+    catch (Exception e) {
+      logger.error("{} Unexpected exception occurred:", streamId, e);
+      return new InProcessResponse(new ErrorResponse()
+          .withStreamId(streamId)
+          .withError(EXCEPTION)
+          .withErrorMessage("Unexpected exception occurred."), -1);
+    }
+  }
+
+  private InProcessResponse postProcessInProcess(Typed dataOut, String ifNoneMatch, String streamId, long maxUncompressedResponseSize)
+      throws IOException {
+    if (dataOut == null)
+      return new InProcessResponse(null, 0);
+
+    if (dataOut instanceof BinaryResponse binaryResponse) {
+      //NOTE: BinaryResponses contain an ETag automatically, nothing to calculate here
+      long byteSize = binaryResponse.getBytes() == null ? 0 : binaryResponse.getBytes().length;
+      if (byteSize > maxUncompressedResponseSize)
+        return tooLargeInProcess(streamId, byteSize);
+      if (XyzResponse.etagMatches(ifNoneMatch, binaryResponse.getEtag()))
+        return new InProcessResponse(new NotModifiedResponse().withEtag(binaryResponse.getEtag()), byteSize);
+      CompressionSamplingOutputStream sampler = new CompressionSamplingOutputStream(OutputStream.nullOutputStream());
+      if (binaryResponse.getBytes() != null)
+        sampler.write(binaryResponse.getBytes());
+      return new InProcessResponse(dataOut, byteSize, sampler.estimateCompressedSize(byteSize));
+    }
+
+    //Calculate the ETag over the same bytes which would have been written out
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    CompressionSamplingOutputStream sampler = new CompressionSamplingOutputStream(Funnels.asOutputStream(hasher));
+    CountingOutputStream os = new CountingOutputStream(sampler);
+    dataOut.writeTo(os);
+    long byteSize = os.getCount();
+    if (byteSize > maxUncompressedResponseSize)
+      return tooLargeInProcess(streamId, byteSize);
+
+    String etag = "\"" + hasher.hash() + "\"";
+    if (XyzResponse.etagMatches(ifNoneMatch, etag))
+      return new InProcessResponse(new NotModifiedResponse().withEtag(etag), byteSize);
+    if (dataOut instanceof XyzResponse response)
+      response.setEtag(etag);
+    return new InProcessResponse(dataOut, byteSize, sampler.estimateCompressedSize(byteSize));
+  }
+
+  /**
+   * Forwards all bytes to the underlying stream and compresses the first {@link #COMPRESSION_SAMPLE_SIZE} bytes on the side,
+   * so that the compressed size of the whole output can be estimated without compressing all of it.
+   */
+  private static class CompressionSamplingOutputStream extends FilterOutputStream {
+    private final CountingOutputStream compressed = new CountingOutputStream(OutputStream.nullOutputStream());
+    private final GZIPOutputStream gzip;
+    private int sampled;
+
+    CompressionSamplingOutputStream(OutputStream out) throws IOException {
+      super(out);
+      gzip = new GZIPOutputStream(compressed);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      if (sampled < COMPRESSION_SAMPLE_SIZE) {
+        gzip.write(b);
+        sampled++;
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      int sampleLength = Math.min(len, COMPRESSION_SAMPLE_SIZE - sampled);
+      if (sampleLength > 0) {
+        gzip.write(b, off, sampleLength);
+        sampled += sampleLength;
+      }
+    }
+
+    /**
+     * @param byteSize The overall number of bytes which have been written
+     * @return The estimated compressed size, extrapolated from the compression ratio of the sample
+     */
+    long estimateCompressedSize(long byteSize) throws IOException {
+      gzip.finish();
+      if (sampled == 0)
+        return 0;
+      return sampled == byteSize ? compressed.getCount() : (long) Math.ceil((double) compressed.getCount() / sampled * byteSize);
+    }
+  }
+
+  private static InProcessResponse tooLargeInProcess(String streamId, long byteSize) {
+    logger.warn("{} Response payload was too large to send. ({} bytes)", streamId, byteSize);
+    return new InProcessResponse(new ErrorResponse()
+        .withStreamId(streamId)
+        .withError(XyzError.PAYLOAD_TO_LARGE)
+        .withErrorMessage("Response size is too large"), byteSize);
+  }
+
+  private static ErrorResponse toErrorResponse(Exception e, String streamId) {
+    if (e instanceof ErrorResponseException ere) {
+      switch (ere.getErrorResponse().getError()) {
+        case EXCEPTION, BAD_GATEWAY, TIMEOUT -> logger.error("[{}] Unexpected exception in connector:", streamId, ere);
+        default -> logger.warn("[{}] Exception in connector:", streamId, ere);
+      }
+      if (ere.getInternalDetails() != null)
+        logger.warn("[{}] Internal details of exception: {}", streamId, ere.getInternalDetails());
+
+      ere.getErrorResponse().setStreamId(streamId);
+      return ere.getErrorResponse();
+    }
+
+    logger.error("{} Unexpected exception occurred:", streamId, e);
+    return new ErrorResponse()
+        .withStreamId(streamId)
+        .withError(EXCEPTION)
+        .withErrorMessage("Unexpected exception occurred.");
+  }
+
   /**
    * Read the connector event from the provided input stream
    *
@@ -272,4 +411,17 @@ public abstract class EntryConnectorHandler extends AbstractConnectorHandler imp
       return Long.MAX_VALUE;
     }
   }
+
+  /**
+   * The result of {@link #handleEventInProcess(Event, Context)}.
+   *
+   * @param payload The response
+   * @param byteSize The size of the serialized response in bytes or -1 if it is unknown
+   * @param compressedByteSize The estimated size of the serialized response once it is gzip-compressed or -1 if it is unknown
+   */
+  public record InProcessResponse(Typed payload, long byteSize, long compressedByteSize) {
+    public InProcessResponse(Typed payload, long byteSize) {
+      this(payload, byteSize, byteSize);
+    }
+  }
 }
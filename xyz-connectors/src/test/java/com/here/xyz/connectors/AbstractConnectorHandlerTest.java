@@ -19,12 +19,14 @@
 
 package com.here.xyz.connectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.Payload;
+import com.here.xyz.connectors.EntryConnectorHandler.InProcessResponse;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.events.Event;
@@ -38,6 +40,8 @@ import com.here.xyz.models.geojson.implementation.Point;
 import com.here.xyz.models.geojson.implementation.Properties;
 import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.HealthStatus;
+import com.here.xyz.responses.NotModifiedResponse;
+import com.here.xyz.responses.XyzError;
 import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.util.service.aws.lambda.SimulatedContext;
 import java.io.BufferedReader;
@@ -53,6 +57,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import io.vertx.core.json.JsonObject;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -125,6 +130,49 @@ public class AbstractConnectorHandlerTest {
     assertTrue(!((FeatureCollection) result).getFeatures().isEmpty());
   }
 
+  @Test
+  public void handleEventInProcess() throws IOException {
+    HealthCheckEvent event = new HealthCheckEvent();
+    XyzResponse serialized = handleRequest(event);
+
+    InProcessResponse inProcess = new TestStorageConnector().handleEventInProcess(event, TEST_CONTEXT);
+    assertTrue(inProcess.payload() instanceof HealthStatus);
+    assertEquals(serialized.getEtag(), ((HealthStatus) inProcess.payload()).getEtag());
+    assertEquals(37, inProcess.byteSize());
+
+    event.setIfNoneMatch(serialized.getEtag());
+    assertTrue(new TestStorageConnector().handleEventInProcess(event, TEST_CONTEXT).payload() instanceof NotModifiedResponse);
+  }
+
+  @Test
+  public void handleEventInProcessEstimatesCompressedSize() throws IOException {
+    GetFeaturesByBBoxEvent event = new GetFeaturesByBBoxEvent();
+    event.setConnectorParams(new HashMap<>());
+
+    InProcessResponse inProcess = new TestStorageConnector().handleEventInProcess(event, TEST_CONTEXT);
+    assertTrue(inProcess.payload() instanceof FeatureCollection);
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(inProcess.payload().toByteArray());
+    }
+    //The estimation is extrapolated from a sample, so it may deviate slightly from the actual compressed size
+    assertTrue(inProcess.compressedByteSize() < inProcess.byteSize());
+    assertTrue(Math.abs(inProcess.compressedByteSize() - compressed.size()) < compressed.size() / 10);
+  }
+
+  @Test
+  public void handleEventInProcessMaxUncompressedResponseSize() {
+    HealthCheckEvent event = new HealthCheckEvent();
+    event.setConnectorParams(new HashMap<>(Map.of(
+        "MAX_UNCOMPRESSED_RESPONSE_SIZE", "1"
+    )));
+
+    InProcessResponse result = new TestStorageConnector().handleEventInProcess(event, TEST_CONTEXT);
+    assertTrue(result.payload() instanceof ErrorResponse);
+    assertEquals(XyzError.PAYLOAD_TO_LARGE, ((ErrorResponse) result.payload()).getError());
+  }
+
   @Ignore("This is a test for the relocation client. To run it, an S3 bucket and valid credentials are required.")
   @Test
   public void testRelocatedEvent() throws Exception {
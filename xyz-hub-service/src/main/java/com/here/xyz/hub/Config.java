@@ -55,6 +55,28 @@ public class Config extends BaseConfig {
    */
   public int CACHE_SIZE_MB;
 
+  /**
+   * Whether the in-memory cache should store its values outside the JVM heap.
+   * The size of the off-heap cache is also limited by the JVM option -XX:MaxDirectMemorySize.
+   */
+  public boolean CACHE_OFF_HEAP;
+
+  /**
+   * The maximum size in kilobytes of a value to be admitted to the in-memory cache. Larger values are only stored in the
+   * lower cache levels (e.g., Redis or S3).
+   */
+  public int CACHE_IN_MEMORY_MAX_VALUE_SIZE_KB = 1024;
+
+  /**
+   * The time in seconds for which an expired cache value is still served while it gets revalidated by one single request.
+   */
+  public long CACHE_STALE_TTL_SECONDS = 60;
+
+  /**
+   * The time in seconds for which a "not found" result of a storage connector is cached.
+   */
+  public long CACHE_NEGATIVE_TTL_SECONDS = 10;
+
   /**
    * The hostname, which under instances can use to contact the this service node.
    */
@@ -331,6 +353,18 @@ public class Config extends BaseConfig {
    */
   public float REMOTE_FUNCTION_CONNECTION_HIGH_UTILIZATION_THRESHOLD;
 
+  /**
+   * Whether to adapt the maximum number of concurrent connections of each RemoteFunctionClient at runtime, based on the measured latency
+   * of the remote function. If active, the configured maximum connections of a connector are the upper bound.
+   */
+  public boolean REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY;
+
+  /**
+   * Whether to invoke embedded connectors by handing over the event objects directly rather than serializing the events and parsing the
+   * responses. The event instances are shared with the connector in that case.
+   */
+  public boolean EMBEDDED_FUNCTION_IN_PROCESS;
+
   /**
    * A value between 0 and 1 defining a threshold as percentage of utilized service memory for in-flight request after which to start
    * prioritizing more important connectors over less important ones.
@@ -363,6 +397,52 @@ public class Config extends BaseConfig {
    */
   public boolean PUBLISH_METRICS;
 
+  /**
+   * Whether to gather the custom service metrics also if they're not published to CloudWatch, so that they can be scraped
+   * in the OpenMetrics format from the admin metrics endpoint.
+   */
+  public boolean EXPOSE_METRICS;
+
+  /**
+   * The portion (0 - 1) of requests for which the durations of the hot-path stages are sent to the client as Server-Timing header.
+   * The durations of all requests are aggregated into the StageLatency metric anyways.
+   */
+  public double SERVER_TIMING_SAMPLE_RATE;
+
+  /**
+   * The number of worker threads for CPU-heavy transformations of responses (e.g. MVT encoding, compression).
+   * 0 means one thread per available processor.
+   */
+  public int CPU_WORKER_THREADS;
+
+  /**
+   * The maximum number of transformations waiting for a CPU worker thread.
+   */
+  public int CPU_WORKER_QUEUE_SIZE;
+
+  /**
+   * The utilization (0 - 1) of the CPU worker queue above which requests which need a transformation will be throttled.
+   */
+  public float CPU_WORKER_QUEUE_HIGH_UTILIZATION_THRESHOLD;
+
+  /**
+   * The size in bytes of a storage response, from which on the feature collection is streamed to the client in chunks while it is
+   * being serialized. 0 means that responses are never streamed.
+   */
+  public int STREAMING_RESPONSE_MIN_SIZE;
+
+  /**
+   * The maximum number of responses which are streamed to clients at the same time. Further large responses are serialized as a whole.
+   * 0 means the default of 16.
+   */
+  public int STREAMING_RESPONSE_THREADS;
+
+  /**
+   * The maximum time in milliseconds to wait for a client to receive the next chunk of a streamed response, before the response gets
+   * aborted. 0 means the default of 30 seconds.
+   */
+  public long STREAMING_RESPONSE_WRITE_TIMEOUT;
+
   /**
    * The verticles class names to be deployed, separated by comma
    */
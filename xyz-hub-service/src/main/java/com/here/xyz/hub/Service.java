@@ -19,9 +19,16 @@
 
 package com.here.xyz.hub;
 
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.COUNT;
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MICROSECONDS;
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.PERCENT;
+
+import com.here.xyz.hub.auth.VerifiedTokenCache;
 import com.here.xyz.hub.cache.CacheClient;
 import com.here.xyz.hub.cache.InMemoryCacheClient;
 import com.here.xyz.hub.cache.MultiLevelCacheClient;
+import com.here.xyz.hub.cache.OffHeapCacheClient;
 import com.here.xyz.hub.cache.RedisCacheClient;
 import com.here.xyz.hub.cache.S3CacheClient;
 import com.here.xyz.hub.config.BranchConfigClient;
@@ -33,20 +40,33 @@ import com.here.xyz.hub.config.SpaceConfigClient;
 import com.here.xyz.hub.config.SubscriptionConfigClient;
 import com.here.xyz.hub.config.TagConfigClient;
 import com.here.xyz.hub.connectors.ConfigUpdateThread;
+import com.here.xyz.hub.connectors.RemoteFunctionClient;
 import com.here.xyz.hub.connectors.WarmupRemoteFunctionThread;
 import com.here.xyz.hub.rest.admin.MessageBroker;
 import com.here.xyz.hub.rest.admin.Node;
+import com.here.xyz.hub.task.RequestTimeline;
+import com.here.xyz.hub.util.metrics.CacheEvents;
+import com.here.xyz.hub.util.metrics.CoalescedRequests;
+import com.here.xyz.hub.util.metrics.CpuWorkerQueueDepth;
+import com.here.xyz.hub.util.metrics.DbConnectionPoolMetric;
 import com.here.xyz.hub.util.metrics.GcDurationMetric;
 import com.here.xyz.hub.util.metrics.GlobalInflightRequestMemory;
 import com.here.xyz.hub.util.metrics.GlobalUsedRfcConnections;
 import com.here.xyz.hub.util.metrics.MajorGcCountMetric;
 import com.here.xyz.hub.util.metrics.MemoryMetric;
+import com.here.xyz.hub.util.metrics.OriginatingRequests;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection;
+import com.here.xyz.hub.util.metrics.base.CWAggregatedValuesPublisher;
+import com.here.xyz.hub.util.metrics.base.CWAttributedMetricCollectionPublisher;
 import com.here.xyz.hub.util.metrics.base.CWBareValueMetricPublisher;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric;
 import com.here.xyz.hub.util.metrics.base.MetricPublisher;
 import com.here.xyz.hub.util.metrics.net.ConnectionMetrics;
 import com.here.xyz.hub.util.metrics.net.ConnectionMetrics.HubMetricsFactory;
+import com.here.xyz.util.db.datasource.HikariPooledDataSources.PoolMetrics;
 import com.here.xyz.util.service.Core;
 import com.here.xyz.util.service.errors.ErrorManager;
+import com.here.xyz.util.service.logging.LogUtil;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.DeploymentOptions;
@@ -143,12 +163,12 @@ public class Service extends Core {
   /**
    * The cache client for the volatile service cache.
    */
-  public static CacheClient volatileCacheClient;
+  public static MultiLevelCacheClient volatileCacheClient;
 
   /**
    * The cache client for the static service cache.
    */
-  public static CacheClient staticCacheClient;
+  public static MultiLevelCacheClient staticCacheClient;
 
   /**
    * The node's MessageBroker which is used to send AdminMessages.
@@ -210,8 +230,12 @@ public class Service extends Core {
   }
 
   private static Future<JsonObject> initializeClients(JsonObject config) {
-    volatileCacheClient = new MultiLevelCacheClient(InMemoryCacheClient.getInstance(), RedisCacheClient.getInstance());
-    staticCacheClient = new MultiLevelCacheClient(InMemoryCacheClient.getInstance(), S3CacheClient.getInstance());
+    CacheClient inMemoryCacheClient = configuration.CACHE_OFF_HEAP ? OffHeapCacheClient.getInstance() : InMemoryCacheClient.getInstance();
+    int maxInMemoryValueSize = configuration.CACHE_IN_MEMORY_MAX_VALUE_SIZE_KB * 1024;
+    volatileCacheClient = new MultiLevelCacheClient(inMemoryCacheClient, RedisCacheClient.getInstance())
+        .withMaxUpperLevelValueSize(maxInMemoryValueSize);
+    staticCacheClient = new MultiLevelCacheClient(inMemoryCacheClient, S3CacheClient.getInstance())
+        .withMaxUpperLevelValueSize(maxInMemoryValueSize);
     MessageBroker.getInstance().onSuccess(mb -> {
       messageBroker = mb;
       Node.initialize();
@@ -336,13 +360,42 @@ public class Service extends Core {
   }
 
   private static void startMetricPublishers() {
-    if (configuration.PUBLISH_METRICS) {
+    if (configuration.PUBLISH_METRICS || configuration.EXPOSE_METRICS) {
       ConnectionMetrics.initialize();
       metricPublishers.add(new CWBareValueMetricPublisher(new MemoryMetric("JvmMemoryUtilization")));
       metricPublishers.add(new CWBareValueMetricPublisher(new MajorGcCountMetric("MajorGcCount")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GcDurationMetric("GcDuration")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GlobalUsedRfcConnections("GlobalUsedRfcConnections")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GlobalInflightRequestMemory("GlobalInflightRequestMemory")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new OriginatingRequests("OriginatingRequests")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new CoalescedRequests("CoalescedRequests")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new CpuWorkerQueueDepth("CpuWorkerQueueDepth")));
+      if (configuration.CACHE_OFF_HEAP && OffHeapCacheClient.getInstance() instanceof OffHeapCacheClient offHeapCacheClient)
+        metricPublishers.add(new CWAttributedMetricCollectionPublisher(new CacheEvents("CacheEvents", "InMemory",
+            offHeapCacheClient.getStatistics())));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(new CacheEvents("CacheEvents", "VerifiedTokens",
+          VerifiedTokenCache.getInstance().getStatistics())));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(
+          MultiLevelCacheClient.levelLatency = new AttributedMetricCollection<>("CacheLevelLatency", MILLISECONDS)));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(
+          RemoteFunctionClient.connectorLatency = new AttributedMetricCollection<>("ConnectorLatency", MICROSECONDS)));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(
+          RequestTimeline.stageLatency = new AttributedMetricCollection<>("StageLatency", MILLISECONDS)));
+      //The average wait time can be derived from the rates of the (cumulative) wait time and the checkouts
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(new DbConnectionPoolMetric("DbPoolCheckouts", COUNT,
+          PoolMetrics::getCheckouts, true)));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(new DbConnectionPoolMetric("DbPoolWaitTime", MICROSECONDS,
+          poolMetrics -> poolMetrics.getWaitingNanos() / 1_000d, true)));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(new DbConnectionPoolMetric("DbPoolTimeouts", COUNT,
+          PoolMetrics::getTimeouts, true)));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(new DbConnectionPoolMetric("DbPoolPendingThreads", COUNT,
+          PoolMetrics::getPendingThreads, false)));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher(new DbConnectionPoolMetric("DbPoolUtilization", PERCENT,
+          poolMetrics -> poolMetrics.getUtilization() * 100d, false)));
+      AbstractHttpServerVerticle.registerResponseEndObservers(RequestTimeline::publish);
+      final HistogramMetric requestLatency = new HistogramMetric("RequestLatency", MILLISECONDS);
+      metricPublishers.add(new CWAggregatedValuesPublisher(requestLatency));
+      AbstractHttpServerVerticle.registerResponseEndObservers(context -> requestLatency.addValue(LogUtil.getAccessLog(context).ms));
       metricPublishers.addAll(ConnectionMetrics.startConnectionMetricPublishers());
     }
   }
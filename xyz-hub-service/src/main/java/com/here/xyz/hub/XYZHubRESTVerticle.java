@@ -22,7 +22,6 @@ package com.here.xyz.hub;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 import com.here.xyz.hub.auth.ExtendedJWTAuthHandler;
-import com.here.xyz.hub.auth.XyzAuthProvider;
 import com.here.xyz.hub.rest.AdminApi;
 import com.here.xyz.hub.rest.BranchApi;
 import com.here.xyz.hub.rest.ChangesetApi;
@@ -43,6 +42,7 @@ import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.auth.PubSecKeyOptions;
+import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
@@ -245,7 +245,7 @@ public class XYZHubRESTVerticle extends AbstractHttpServerVerticle {
         new PubSecKeyOptions().setAlgorithm("RS256")
             .setBuffer(Service.configuration.getJwtPubKey()));
 
-    return new ExtendedJWTAuthHandler(new XyzAuthProvider(vertx, authConfig), null);
+    return new ExtendedJWTAuthHandler(JWTAuth.create(vertx, authConfig), null);
   }
 
   private static class DelegatingHandler<E> implements Handler<E> {
@@ -29,6 +29,7 @@ import com.here.xyz.hub.task.Task;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
 import com.here.xyz.models.hub.jwt.ActionMatrix;
 import com.here.xyz.models.hub.jwt.AttributeMap;
+import com.here.xyz.models.hub.jwt.CompiledActionMatrix;
 import com.here.xyz.models.hub.jwt.JWTPayload;
 import com.here.xyz.util.service.BaseHttpServerVerticle;
 import com.here.xyz.util.service.HttpException;
@@ -60,7 +61,17 @@ public abstract class Authorization {
   }
 
   protected static void evaluateRights(Marker marker, ActionMatrix requestRights, ActionMatrix tokenRights) throws HttpException {
-    if (tokenRights == null || !tokenRights.matches(requestRights)) {
+    evaluateRights(marker, requestRights, tokenRights, tokenRights != null && tokenRights.matches(requestRights));
+  }
+
+  protected static void evaluateRights(Marker marker, ActionMatrix requestRights, CompiledActionMatrix tokenRights) throws HttpException {
+    evaluateRights(marker, requestRights, tokenRights == null ? null : tokenRights.getActionMatrix(),
+        tokenRights != null && tokenRights.matches(requestRights));
+  }
+
+  private static void evaluateRights(Marker marker, ActionMatrix requestRights, ActionMatrix tokenRights, boolean granted)
+      throws HttpException {
+    if (!granted) {
       logger.warn(marker, "Token access rights: {}", Json.encode(tokenRights));
       logger.warn(marker, "Request access rights: {}", Json.encode(requestRights));
       throw new HttpException(FORBIDDEN, getForbiddenMessage(requestRights, tokenRights));
@@ -72,7 +83,7 @@ public abstract class Authorization {
 
   }
 
-  static <X extends Task> void evaluateRights(ActionMatrix requestRights, ActionMatrix tokenRights, X task, Callback<X> callback) {
+  static <X extends Task> void evaluateRights(ActionMatrix requestRights, CompiledActionMatrix tokenRights, X task, Callback<X> callback) {
     try {
       evaluateRights(task.getMarker(), requestRights, tokenRights);
       callback.call(task);
@@ -85,6 +96,10 @@ public abstract class Authorization {
     return "Insufficient rights. Token access: " + Json.encode(tokenRights) + "\nRequest access: " + Json.encode(requestRights);
   }
 
+  static String getForbiddenMessage(ActionMatrix requestRights, CompiledActionMatrix tokenRights) {
+    return getForbiddenMessage(requestRights, tokenRights == null ? null : tokenRights.getActionMatrix());
+  }
+
   public static Future<Void> authorizeManageSpacesRights(RoutingContext context, String spaceId) {
     return authorizeManageSpacesRights(context, spaceId, null);
   }
@@ -99,7 +114,7 @@ public abstract class Authorization {
 
     final XyzHubActionMatrix requestRights = new XyzHubActionMatrix().manageSpaces(attributeMap);
     try {
-      evaluateRights(LogUtil.getMarker(context), requestRights, getXyzHubMatrix(BaseHttpServerVerticle.getJWT(context)));
+      evaluateRights(LogUtil.getMarker(context), requestRights, getCompiledXyzHubMatrix(BaseHttpServerVerticle.getJWT(context)));
       return Future.succeededFuture();
     } catch (HttpException e) {
       return Future.failedFuture(e);
@@ -107,6 +122,22 @@ public abstract class Authorization {
   }
 
   public static XyzHubActionMatrix getXyzHubMatrix(JWTPayload jwt) {
+    //The action matrix of verified tokens has been compiled already
+    if (jwt instanceof VerifiedJWTPayload verifiedJwt)
+      return verifiedJwt.getXyzHubMatrix();
+    return compileXyzHubMatrix(jwt);
+  }
+
+  /**
+   * Returns the action matrix of the token in its compiled form, which should be preferred for matching request matrices.
+   */
+  public static CompiledActionMatrix getCompiledXyzHubMatrix(JWTPayload jwt) {
+    if (jwt instanceof VerifiedJWTPayload verifiedJwt)
+      return verifiedJwt.getCompiledXyzHubMatrix();
+    return CompiledActionMatrix.compile(compileXyzHubMatrix(jwt));
+  }
+
+  static XyzHubActionMatrix compileXyzHubMatrix(JWTPayload jwt) {
     if (jwt.urm == null)
       return null;
     final ActionMatrix hereActionMatrix = jwt.urm.get(URMServiceId.XYZ_HUB);
@@ -22,8 +22,10 @@ package com.here.xyz.hub.auth;
 import static com.here.xyz.hub.rest.ApiParam.Query.ACCESS_TOKEN;
 
 import com.here.xyz.hub.Service;
+import com.here.xyz.hub.auth.VerifiedTokenCache.VerifiedToken;
 import com.here.xyz.hub.rest.ApiParam.Query;
 import com.here.xyz.util.Compression;
+import com.here.xyz.util.service.BaseHttpServerVerticle;
 import com.here.xyz.util.service.logging.LogUtil;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -66,6 +68,8 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
   private static final String ANONYMOUS_JWT_RESOURCE_FILE = "/auth/dummyJwt.json";
   private static final JsonObject ANONYMOUS_JWT = JsonObject.mapFrom(JwtGenerator.readTokenPayload(ANONYMOUS_JWT_RESOURCE_FILE, true));
 
+  private final VerifiedTokenCache tokenCache = VerifiedTokenCache.getInstance();
+
   public ExtendedJWTAuthHandler(JWTAuth authProvider, String realm) {
     super(authProvider, realm);
   }
@@ -91,6 +95,15 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
 //      jwt = ANONYMOUS_JWT_RAW;
     }
 
+    // Tokens which were verified already can be taken from the cache
+    final VerifiedToken verifiedToken = jwt == null ? null : tokenCache.get(jwt);
+    if (verifiedToken != null) {
+      context.request().headers().set(HttpHeaders.AUTHORIZATION, "Bearer " + verifiedToken.decodedToken());
+      context.put(BaseHttpServerVerticle.JWT, verifiedToken.payload());
+      handler.handle(Future.succeededFuture(verifiedToken.user()));
+      return;
+    }
+
     // stores the token (raw, as it was received) temporarily in the context
     context.put(RAW_TOKEN, jwt);
 
@@ -111,12 +124,18 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
       context.request().headers().set(HttpHeaders.AUTHORIZATION, "Bearer " + jwt);
     }
 
+    final String decodedJwt = jwt;
     super.authenticate(context, authn -> {
       if (authn.failed()) {
         handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
       }
       else {
-        authn.result().principal().put("jwt", context.remove(RAW_TOKEN));
+        final String rawJwt = context.remove(RAW_TOKEN);
+        authn.result().principal().put("jwt", rawJwt);
+        final VerifiedJWTPayload payload = VerifiedJWTPayload.fromPrincipal(authn.result().principal());
+        context.put(BaseHttpServerVerticle.JWT, payload);
+        if (rawJwt != null)
+          tokenCache.put(rawJwt, new VerifiedToken(authn.result(), decodedJwt, payload));
         handler.handle(authn);
       }
     });
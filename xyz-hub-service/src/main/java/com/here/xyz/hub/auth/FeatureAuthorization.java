@@ -31,8 +31,8 @@ import com.here.xyz.hub.task.FeatureTask;
 import com.here.xyz.hub.task.FeatureTask.ConditionalOperation;
 import com.here.xyz.hub.task.FeatureTask.GeometryQuery;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
-import com.here.xyz.models.hub.jwt.ActionMatrix;
 import com.here.xyz.models.hub.jwt.AttributeMap;
+import com.here.xyz.models.hub.jwt.CompiledActionMatrix;
 import com.here.xyz.util.service.HttpException;
 import com.here.xyz.util.service.logging.LogUtil;
 import io.vertx.ext.web.RoutingContext;
@@ -52,7 +52,7 @@ public class FeatureAuthorization extends Authorization {
     if(getJWT(context).skipAuth)
       return;
 
-    final ActionMatrix tokenRights = getXyzHubMatrix(getJWT(context));
+    final CompiledActionMatrix tokenRights = getCompiledXyzHubMatrix(getJWT(context));
     final XyzHubActionMatrix requestRights = new XyzHubActionMatrix();
 
     //CREATE & UPDATE == WRITE
@@ -97,7 +97,7 @@ public class FeatureAuthorization extends Authorization {
     }
 
 
-    evaluateRights(requestRights, getXyzHubMatrix(task.getJwt()), task, callback);
+    evaluateRights(requestRights, getCompiledXyzHubMatrix(task.getJwt()), task, callback);
   }
 
   /**
@@ -109,7 +109,7 @@ public class FeatureAuthorization extends Authorization {
       return;
     }
 
-    final ActionMatrix tokenRights = getXyzHubMatrix(getJWT(task.context));
+    final CompiledActionMatrix tokenRights = getCompiledXyzHubMatrix(getJWT(task.context));
     final XyzHubActionMatrix requestRights = new XyzHubActionMatrix();
 
     //READ
@@ -31,6 +31,8 @@ import static com.here.xyz.hub.auth.XyzHubAttributeMap.SPACE;
 import static com.here.xyz.hub.auth.XyzHubAttributeMap.STORAGE;
 import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.here.xyz.XyzSerializable.Static;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.models.Connector;
@@ -46,8 +48,8 @@ import com.here.xyz.hub.util.diff.Difference;
 import com.here.xyz.hub.util.diff.Difference.DiffMap;
 import com.here.xyz.hub.util.diff.Patcher;
 import com.here.xyz.models.hub.jwt.AttributeMap;
+import com.here.xyz.models.hub.jwt.CompiledActionMatrix;
 import com.here.xyz.util.service.HttpException;
-import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.json.jackson.DatabindCodec;
 import java.util.ArrayList;
@@ -83,24 +85,21 @@ public class SpaceAuthorization extends Authorization {
       return;
     }
 
-    if (getXyzHubMatrix(task.getJwt()) == null) {
+    final CompiledActionMatrix tokenRights = getCompiledXyzHubMatrix(task.getJwt());
+    if (tokenRights == null) {
       callback.exception(new HttpException(FORBIDDEN, "Insufficient rights to read the requested resource."));
       return;
     }
 
     if (task.canReadConnectorsProperties) {
       final XyzHubActionMatrix connectorsReadMatrix = new XyzHubActionMatrix().accessConnectors(new XyzHubAttributeMap());
-      task.canReadConnectorsProperties = getXyzHubMatrix(task.getJwt()).matches(connectorsReadMatrix);
+      task.canReadConnectorsProperties = tokenRights.matches(connectorsReadMatrix);
     }
 
     if (task.responseType == ApiResponseType.SPACE && task.responseSpaces != null && task.responseSpaces.size() == 1) {
       Space space = task.responseSpaces.get(0);
 
-      final XyzHubActionMatrix tokenRights = getXyzHubMatrix(task.getJwt());
-      if (tokenRights == null)
-        throw new HttpException(FORBIDDEN, "Insufficient rights to read the requested resource.");
-
-      task.canReadConnectorsProperties = tokenRights.containsKey(XyzHubActionMatrix.ACCESS_CONNECTORS) && !tokenRights.get(XyzHubActionMatrix.ACCESS_CONNECTORS).isEmpty();
+      task.canReadConnectorsProperties = canReadConnectorProperties(tokenRights);
 
       AttributeMap xyzhubFilter = new XyzHubAttributeMap()
           .withValue(OWNER, space.getOwner())
@@ -117,7 +116,7 @@ public class SpaceAuthorization extends Authorization {
         return;
       }
 
-      if (tokenRights.entrySet().stream().flatMap(e -> e.getValue().stream()).noneMatch(f -> f.matches(xyzhubFilter)))
+      if (!tokenRights.matchesAnyAction(xyzhubFilter))
         throw new HttpException(FORBIDDEN, "Insufficient rights to read the requested resource.");
     }
 
@@ -129,7 +128,7 @@ public class SpaceAuthorization extends Authorization {
   }
 
   public static void authorizeModifyOp(ConditionalOperation task, Callback<ConditionalOperation> callback) throws Exception {
-    final XyzHubActionMatrix tokenRights = getXyzHubMatrix(task.getJwt());
+    CompiledActionMatrix tokenRights = getCompiledXyzHubMatrix(task.getJwt());
     final XyzHubActionMatrix requestRights = new XyzHubActionMatrix();
 
     final Entry<Space> entry = task.modifyOp.entries.get(0);
@@ -137,11 +136,8 @@ public class SpaceAuthorization extends Authorization {
     final Space head = entry.head;
     final Space target = entry.result;
 
-    final Map templateAsMap = asMap(task.template);
-    final Map inputAsMap = asMap(DatabindCodec.mapper().convertValue(input, Space.class));
-    final Map targetAsMap = asMap(target);
-    final Map headAsMap = asMap(head);
-
+    Map targetAsMap = null, headAsMap = null;
+    final SpaceDiff diff;
     boolean isAdminEdit, isBasicEdit, isStorageEdit, isListenersEdit, isProcessorsEdit, isPackagesEdit, isSearchablePropertiesEdit, isSortablePropertiesEdit;
     final AttributeMap xyzhubFilter;
 
@@ -156,25 +152,22 @@ public class SpaceAuthorization extends Authorization {
       xyzhubFilter = new XyzHubAttributeMap()
           .withValue(OWNER, input.get("owner"))
           .withValue(SPACE, input.get("id"));
-      isBasicEdit = isBasicEdit(templateAsMap, inputAsMap);
-      isAdminEdit = isAdminEdit(templateAsMap, inputAsMap);
-      isStorageEdit = isPropertyEdit(templateAsMap, inputAsMap, STORAGE);
-      isListenersEdit = isPropertyEdit(templateAsMap, inputAsMap, LISTENERS);
-      isProcessorsEdit = isPropertyEdit(templateAsMap, inputAsMap, PROCESSORS);
-      isPackagesEdit = isPropertyEdit(templateAsMap, inputAsMap, PACKAGES);
-      isSearchablePropertiesEdit = isPropertyEdit(templateAsMap, inputAsMap, SEARCHABLE_PROPERTIES);
-      isSortablePropertiesEdit   = isPropertyEdit(templateAsMap, inputAsMap, SORTABLE_PROPERTIES);
+      diff = SpaceDiff.of(asMap(task.template), asMap(DatabindCodec.mapper().convertValue(input, Space.class)));
+      isBasicEdit = diff.isBasicEdit();
+      isAdminEdit = diff.isAdminEdit();
+      isStorageEdit = diff.isPropertyEdit(STORAGE);
+      isListenersEdit = diff.isPropertyEdit(LISTENERS);
+      isProcessorsEdit = diff.isPropertyEdit(PROCESSORS);
+      isPackagesEdit = diff.isPropertyEdit(PACKAGES);
+      isSearchablePropertiesEdit = diff.isPropertyEdit(SEARCHABLE_PROPERTIES);
+      isSortablePropertiesEdit   = diff.isPropertyEdit(SORTABLE_PROPERTIES);
 
       final XyzHubActionMatrix adminMatrix = new XyzHubActionMatrix().adminSpaces(xyzhubFilter);
       boolean hasAdminPermissions = tokenRights != null && tokenRights.matches(adminMatrix);
       //If the creation contains a different space ID than the randomly-generated one.
-      if (!hasAdminPermissions && isPropertyEdit(templateAsMap, inputAsMap, ID) && tokenRights != null && tokenRights
-          .containsKey(MANAGE_SPACES)) {
-        tokenRights.put(MANAGE_SPACES, tokenRights.get(MANAGE_SPACES)
-            .stream()
-            .filter(permission -> permission.containsKey(SPACE) || permission.isEmpty())
-            .collect(Collectors.toList()));
-      }
+      if (!hasAdminPermissions && diff.isPropertyEdit(ID) && tokenRights != null && tokenRights.getActionMatrix()
+          .containsKey(MANAGE_SPACES))
+        tokenRights = withSpaceBoundManageSpaces(tokenRights);
     }
     // UPDATE, DELETE
     else {
@@ -182,15 +175,19 @@ public class SpaceAuthorization extends Authorization {
           .withValue(OWNER, head.getOwner())
           .withValue(SPACE, head.getId())
           .withValue(PACKAGES, head.getPackages());
-      isBasicEdit = isBasicEdit(targetAsMap, headAsMap);
-      isAdminEdit = !task.isDelete() && isAdminEdit(targetAsMap, headAsMap);
-      isStorageEdit = !task.isDelete() && isPropertyEdit(targetAsMap, headAsMap, STORAGE);
-      isListenersEdit = !task.isDelete() && isPropertyEdit(targetAsMap, headAsMap, LISTENERS);
-      isProcessorsEdit = !task.isDelete() && isPropertyEdit(targetAsMap, headAsMap, PROCESSORS);
-      isPackagesEdit = !task.isDelete() && isPropertyEdit(targetAsMap, headAsMap, PACKAGES);
-      isSearchablePropertiesEdit = !task.isDelete() && isPropertyEdit(targetAsMap, headAsMap, SEARCHABLE_PROPERTIES);
-      isSortablePropertiesEdit = !task.isDelete() && isPropertyEdit(targetAsMap, headAsMap, SORTABLE_PROPERTIES);
+      targetAsMap = asMap(target);
+      headAsMap = asMap(head);
+      diff = SpaceDiff.of(targetAsMap, headAsMap);
+      isBasicEdit = diff.isBasicEdit();
+      isAdminEdit = !task.isDelete() && diff.isAdminEdit();
+      isStorageEdit = !task.isDelete() && diff.isPropertyEdit(STORAGE);
+      isListenersEdit = !task.isDelete() && diff.isPropertyEdit(LISTENERS);
+      isProcessorsEdit = !task.isDelete() && diff.isPropertyEdit(PROCESSORS);
+      isPackagesEdit = !task.isDelete() && diff.isPropertyEdit(PACKAGES);
+      isSearchablePropertiesEdit = !task.isDelete() && diff.isPropertyEdit(SEARCHABLE_PROPERTIES);
+      isSortablePropertiesEdit = !task.isDelete() && diff.isPropertyEdit(SORTABLE_PROPERTIES);
     }
+    final CompiledActionMatrix effectiveTokenRights = tokenRights;
 
     //Mark in the task, if the app is allowed to read the admin properties.
     final XyzHubActionMatrix adminMatrix = new XyzHubActionMatrix().adminSpaces(xyzhubFilter);
@@ -206,6 +203,10 @@ public class SpaceAuthorization extends Authorization {
     if (isStorageEdit || isListenersEdit || isProcessorsEdit) {
 
       Set<String> connectorIds = new HashSet<>();
+      if (task.isCreate() && (isListenersEdit || isProcessorsEdit)) {
+        targetAsMap = asMap(target);
+        headAsMap = asMap(head);
+      }
 
       //Check for storage.
       if (isStorageEdit) connectorIds.add(getStorageFromInput(entry));
@@ -236,9 +237,9 @@ public class SpaceAuthorization extends Authorization {
     CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0]))
         .thenRun(() -> {
           if (connectorsRights.get("accessConnectors") != null && !connectorsRights.get("accessConnectors").isEmpty()) {
-            task.canReadConnectorsProperties = tokenRights != null && tokenRights.matches(connectorsRights);
+            task.canReadConnectorsProperties = effectiveTokenRights != null && effectiveTokenRights.matches(connectorsRights);
             if (!task.canReadConnectorsProperties) {
-              callback.exception(new HttpException(FORBIDDEN, getForbiddenMessage(connectorsRights, tokenRights)));
+              callback.exception(new HttpException(FORBIDDEN, getForbiddenMessage(connectorsRights, effectiveTokenRights)));
               return;
             }
           }
@@ -252,7 +253,8 @@ public class SpaceAuthorization extends Authorization {
               getPackagesFromInput(entry).forEach(packageId -> requestRights.managePackages(
                   XyzHubAttributeMap.forIdValues(target.getOwner(), packageId)));
             } else {
-              boolean isOwner = tokenRights != null && tokenRights.matches(new XyzHubActionMatrix().manageSpaces(xyzhubFilter));
+              boolean isOwner = effectiveTokenRights != null
+                  && effectiveTokenRights.matches(new XyzHubActionMatrix().manageSpaces(xyzhubFilter));
               if (!isOwner) {
                 // then it's just a package removal
                 List<String> removedPackages = new ArrayList<>(getPackagesFromSpace(head));
@@ -284,7 +286,7 @@ public class SpaceAuthorization extends Authorization {
             requestRights.manageSpaces(xyzhubFilter);
           }
 
-          evaluateRights(requestRights, tokenRights, task, callback);
+          evaluateRights(requestRights, effectiveTokenRights, task, callback);
         }).exceptionally(t -> {
           logger.error((Marker) task.context.get("marker"), "Exception while checking connector permissions", t);
           callback.exception(t);
@@ -311,45 +313,61 @@ public class SpaceAuthorization extends Authorization {
     return Collections.emptySet();
   }
 
-  private static boolean isAdminEdit(Map state1, Map state2) {
-    try {
-      DiffMap diff = (DiffMap) Patcher.getDifference(state1, state2);
+  /**
+   * The difference between two states of a space, which is calculated only once to check which kinds of properties are edited.
+   *
+   * @param diff The difference or null, if there is no difference
+   * @param unknown Whether the difference could not be calculated, in which case all properties are considered to be edited
+   */
+  private record SpaceDiff(DiffMap diff, boolean unknown) {
+
+    static SpaceDiff of(Map state1, Map state2) {
+      try {
+        return new SpaceDiff((DiffMap) Patcher.getDifference(state1, state2), false);
+      }
+      catch (Exception e) {
+        return new SpaceDiff(null, true);
+      }
+    }
+
+    boolean isAdminEdit() {
       final List<String> basicPlusPackagesList = Stream.concat(basicEdit.stream(), packageEdit.stream()).collect(Collectors.toList());
+      return unknown || diff != null && !basicPlusPackagesList.containsAll(diff.keySet());
+    }
 
-      return diff != null && !basicPlusPackagesList.containsAll(diff.keySet());
-    } catch (Exception e) {
-      return true;
+    boolean isBasicEdit() {
+      return unknown || diff != null && basicEdit.containsAll(diff.keySet());
     }
-  }
 
-  private static boolean isBasicEdit(Map state1, Map state2) {
-    try {
-      DiffMap diff = (DiffMap) Patcher.getDifference(state1, state2);
-      return diff != null && basicEdit.containsAll(diff.keySet());
-    } catch (Exception e) {
-      return true;
+    boolean isPropertyEdit(String property) {
+      return unknown || diff != null && diff.containsKey(property);
     }
   }
 
-  private static boolean isPropertyEdit(Map state1, Map state2, String property) {
-    try {
-      DiffMap diff = (DiffMap) Patcher.getDifference(state1, state2);
-      return diff != null && diff.containsKey(property);
-    } catch (Exception e) {
-      return true;
-    }
+  /**
+   * Returns a copy of the given token rights, which only keeps the manageSpaces permissions that are bound to a space.
+   * The original token rights must not be modified, as they are shared by all requests of the same token.
+   */
+  private static CompiledActionMatrix withSpaceBoundManageSpaces(CompiledActionMatrix tokenRights) {
+    final XyzHubActionMatrix restrictedRights = new XyzHubActionMatrix();
+    restrictedRights.putAll(tokenRights.getActionMatrix());
+    restrictedRights.put(MANAGE_SPACES, tokenRights.getActionMatrix().get(MANAGE_SPACES)
+        .stream()
+        .filter(permission -> permission.containsKey(SPACE) || permission.isEmpty())
+        .collect(Collectors.toList()));
+    return CompiledActionMatrix.compile(restrictedRights);
   }
 
-  private static boolean canReadConnectorProperties(XyzHubActionMatrix tokenRights) {
+  private static boolean canReadConnectorProperties(CompiledActionMatrix tokenRights) {
     if (tokenRights == null) {
       return false;
     }
 
-    if (tokenRights.get(XyzHubActionMatrix.ACCESS_CONNECTORS) == null) {
+    if (tokenRights.getActionMatrix().get(XyzHubActionMatrix.ACCESS_CONNECTORS) == null) {
       return false;
     }
 
-    return !tokenRights.get(XyzHubActionMatrix.ACCESS_CONNECTORS).isEmpty();
+    return !tokenRights.getActionMatrix().get(XyzHubActionMatrix.ACCESS_CONNECTORS).isEmpty();
   }
 
   private static String getStorageFromInput(Entry<Space> entry) {
@@ -384,9 +402,12 @@ public class SpaceAuthorization extends Authorization {
 
   private static Map asMap(Object object) {
     try {
+      //Convert through a token buffer rather than through a serialized JSON string
+      final ObjectMapper mapper = DatabindCodec.mapper();
+      final TokenBuffer buffer = new TokenBuffer(mapper, false);
+      mapper.writerWithView(Static.class).writeValue(buffer, object);
       //noinspection unchecked
-      return ModifyOp.filter(
-          Json.decodeValue(DatabindCodec.mapper().writerWithView(Static.class).writeValueAsString(object), Map.class), ModifySpaceOp.metadataFilter);
+      return ModifyOp.filter(mapper.readValue(buffer.asParser(), Map.class), ModifySpaceOp.metadataFilter);
     } catch (Exception e) {
       return Collections.emptyMap();
     }
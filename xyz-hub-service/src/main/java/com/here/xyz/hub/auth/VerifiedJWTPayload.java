@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.auth;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.here.xyz.models.hub.jwt.CompiledActionMatrix;
+import com.here.xyz.models.hub.jwt.JWTPayload;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+import java.util.Collections;
+
+/**
+ * The payload of a verified token, which additionally carries the action matrix of the token in its compiled form.
+ * Instances are shared by all requests which are using the same token and must not be modified.
+ */
+public class VerifiedJWTPayload extends JWTPayload {
+
+  @JsonIgnore
+  private XyzHubActionMatrix xyzHubMatrix;
+
+  @JsonIgnore
+  private CompiledActionMatrix compiledXyzHubMatrix;
+
+  static VerifiedJWTPayload fromPrincipal(JsonObject principal) {
+    VerifiedJWTPayload payload = DatabindCodec.mapper().convertValue(principal, VerifiedJWTPayload.class);
+    payload.xyzHubMatrix = Authorization.compileXyzHubMatrix(payload);
+    //The matrix is shared by all requests using the token, so at least its actions may not be modified by them
+    if (payload.xyzHubMatrix != null)
+      payload.xyzHubMatrix.replaceAll((action, attributeMaps) -> attributeMaps == null ? null
+          : Collections.unmodifiableList(attributeMaps));
+    payload.compiledXyzHubMatrix = CompiledActionMatrix.compile(payload.xyzHubMatrix);
+    return payload;
+  }
+
+  /**
+   * Returns the action matrix of the token, which is shared by all requests using the token and must not be modified.
+   * Callers which need to restrict the matrix for a specific request have to work on a copy of it.
+   */
+  XyzHubActionMatrix getXyzHubMatrix() {
+    return xyzHubMatrix;
+  }
+
+  CompiledActionMatrix getCompiledXyzHubMatrix() {
+    return compiledXyzHubMatrix;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.auth;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.here.xyz.hub.cache.CacheStatistics;
+import com.here.xyz.util.service.Core;
+import io.vertx.ext.auth.User;
+import java.util.concurrent.TimeUnit;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * Caches the results of the authentication of tokens.
+ * Clients usually re-use the same token for many requests, so the decoding, decompression and signature verification of a token as well
+ * as the conversion of its action matrix only has to be done once per token.
+ *
+ * The entries are keyed by the SHA-256 digest of the token as it was received by the service and expire together with the token, but
+ * latest after {@link #MAX_TTL_MS}.
+ */
+public class VerifiedTokenCache {
+
+  private static final int MAX_SIZE = 8 * 1024;
+  private static final long MAX_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+  private static final VerifiedTokenCache instance = new VerifiedTokenCache();
+
+  private final CacheStatistics statistics = new CacheStatistics();
+  private final ExpiringMap<HashCode, VerifiedToken> tokens = ExpiringMap.builder()
+      .maxSize(MAX_SIZE)
+      .variableExpiration()
+      .expirationPolicy(ExpirationPolicy.CREATED)
+      .build();
+
+  public static VerifiedTokenCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * @param rawToken The token as it was received by the service
+   * @return The verified token or null if the token is not cached or already expired
+   */
+  public VerifiedToken get(String rawToken) {
+    VerifiedToken token = tokens.get(digest(rawToken));
+    //The map expires its entries asynchronously, so the expiry of the token itself has to be checked as well
+    if (token == null || token.isExpired()) {
+      statistics.recordMiss();
+      return null;
+    }
+    statistics.recordHit();
+    return token;
+  }
+
+  /**
+   * @param rawToken The token as it was received by the service
+   * @param token The verified token
+   */
+  public void put(String rawToken, VerifiedToken token) {
+    long ttl = Math.min(token.expiresAt() - Core.currentTimeMillis(), MAX_TTL_MS);
+    if (ttl > 0)
+      tokens.put(digest(rawToken), token, ttl, MILLISECONDS);
+  }
+
+  public CacheStatistics getStatistics() {
+    return statistics;
+  }
+
+  private static HashCode digest(String rawToken) {
+    return Hashing.sha256().hashString(rawToken, UTF_8);
+  }
+
+  /**
+   * @param user The authenticated user
+   * @param decodedToken The token after decoding / decompression
+   * @param payload The payload of the token including its pre-compiled action matrix
+   */
+  public record VerifiedToken(User user, String decodedToken, VerifiedJWTPayload payload) {
+
+    long expiresAt() {
+      //Tokens without an expiry are kept for the maximum TTL
+      return payload.exp > 0 ? TimeUnit.SECONDS.toMillis(payload.exp) : Core.currentTimeMillis() + MAX_TTL_MS;
+    }
+
+    boolean isExpired() {
+      return payload.exp > 0 && TimeUnit.SECONDS.toMillis(payload.exp) <= Core.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the events of a cache, e.g., for publishing them as metrics.
+ */
+public class CacheStatistics {
+
+  public static final String HIT = "Hit";
+  public static final String MISS = "Miss";
+  public static final String EVICTION = "Eviction";
+  public static final String EXPIRATION = "Expiration";
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public void recordEviction() {
+    evictions.increment();
+  }
+
+  public void recordExpiration() {
+    expirations.increment();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public long getExpirationCount() {
+    return expirations.sum();
+  }
+
+  /**
+   * Returns the counts of all events since the last call of this method and resets the counters.
+   *
+   * @return The counts by event name
+   */
+  public Map<String, Long> getAndReset() {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    counts.put(HIT, hits.sumThenReset());
+    counts.put(MISS, misses.sumThenReset());
+    counts.put(EVICTION, evictions.sumThenReset());
+    counts.put(EXPIRATION, expirations.sumThenReset());
+    return counts;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.here.xyz.responses.XyzResponse;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * A response which has already been encoded into the exact bytes which are sent to the client.
+ * Instances of this class are written into the cache, so that a cache HIT can be written to the HTTP response directly without having to
+ * deserialize and re-serialize the original {@link XyzResponse}.
+ *
+ * The cache value layout (following the value-type byte) is:
+ * <pre>
+ * [flags: 1 byte][uncompressed length: 4 bytes][content-type length: 2 bytes][content-type][etag length: 2 bytes, -1 for null][etag][body]
+ * </pre>
+ *
+ * NOTE: Instances of this class are never serialized to JSON.
+ */
+public class EncodedResponse extends XyzResponse<EncodedResponse> {
+
+  private static final byte GZIPPED = 1;
+  private static final int FIXED_HEADER_SIZE = 1 + 4 + 2 + 2;
+
+  private final String contentType;
+  private final Buffer body;
+  private final boolean gzipped;
+  private final int uncompressedLength;
+
+  /**
+   * @param contentType The content-type header value to be sent with the body
+   * @param body The (optionally gzipped) body as it should be sent to the client
+   * @param gzipped Whether the body is gzip-compressed
+   * @param uncompressedLength The length of the body before it was compressed by the service
+   */
+  public EncodedResponse(String contentType, Buffer body, boolean gzipped, int uncompressedLength) {
+    this.contentType = contentType;
+    this.body = body;
+    this.gzipped = gzipped;
+    this.uncompressedLength = uncompressedLength;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public Buffer getBody() {
+    return body;
+  }
+
+  public boolean isGzipped() {
+    return gzipped;
+  }
+
+  public int getUncompressedLength() {
+    return uncompressedLength;
+  }
+
+  /**
+   * Writes this response into a new cache value which is prefixed by the specified value-type byte.
+   * The body is copied exactly once.
+   *
+   * @param valueType The value-type byte to be written as the first byte of the cache value
+   * @return The cache value
+   */
+  public byte[] toCacheValue(byte valueType) {
+    byte[] contentTypeBytes = contentType.getBytes(UTF_8);
+    byte[] etagBytes = getEtag() == null ? new byte[0] : getEtag().getBytes(UTF_8);
+    byte[] value = new byte[1 + FIXED_HEADER_SIZE + contentTypeBytes.length + etagBytes.length + body.length()];
+
+    ByteBuffer header = ByteBuffer.wrap(value)
+        .put(valueType)
+        .put(gzipped ? GZIPPED : 0)
+        .putInt(uncompressedLength)
+        .putShort((short) contentTypeBytes.length)
+        .put(contentTypeBytes)
+        .putShort((short) (getEtag() == null ? -1 : etagBytes.length))
+        .put(etagBytes);
+    body.getBytes(value, header.position());
+    return value;
+  }
+
+  /**
+   * Reads a response from a cache value which was written by {@link #toCacheValue(byte)}.
+   * The body of the returned response is a view on the specified cache value, no bytes are copied.
+   *
+   * @param value The cache value including the leading value-type byte
+   * @return The encoded response
+   */
+  public static EncodedResponse fromCacheValue(byte[] value) {
+    return fromCacheValue(ByteBuffer.wrap(value));
+  }
+
+  /**
+   * Reads a response from a cache value which was written by {@link #toCacheValue(byte)}.
+   * The body of the returned response is a view on the backing array of the specified buffer, no bytes are copied.
+   *
+   * @param cacheValue The cache value including the leading value-type byte, it must be backed by an array
+   * @return The encoded response
+   */
+  public static EncodedResponse fromCacheValue(ByteBuffer cacheValue) {
+    byte[] value = cacheValue.array();
+    int start = cacheValue.arrayOffset() + cacheValue.position();
+    int end = start + cacheValue.remaining();
+    ByteBuffer header = ByteBuffer.wrap(value, start + 1, end - start - 1);
+    boolean gzipped = (header.get() & GZIPPED) != 0;
+    int uncompressedLength = header.getInt();
+    String contentType = readString(header, header.getShort());
+    short etagLength = header.getShort();
+    String etag = etagLength < 0 ? null : readString(header, etagLength);
+
+    int bodyStart = header.position();
+    Buffer body = Buffer.buffer(Unpooled.wrappedBuffer(value, bodyStart, end - bodyStart));
+    return new EncodedResponse(contentType, body, gzipped, uncompressedLength).withEtag(etag);
+  }
+
+  private static String readString(ByteBuffer buffer, int length) {
+    String s = new String(buffer.array(), buffer.position(), length, UTF_8);
+    buffer.position(buffer.position() + length);
+    return s;
+  }
+}
@@ -16,47 +16,179 @@
  * SPDX-License-Identifier: Apache-2.0
  * License-Filename: LICENSE
  */
-
 package com.here.xyz.hub.cache;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
+import com.here.xyz.util.service.Core;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * A cache client which combines multiple cache levels. Reads are going through the levels in the given order until a value is found.
+ *
+ * Each value is written together with a format header and its expiration time. Values which are not in the current format are
+ * treated as cache MISS. Once expired, the value is kept for another
+ * {@link com.here.xyz.hub.Config#CACHE_STALE_TTL_SECONDS stale period}, so that it can still be served while it is being revalidated.
+ * Use {@link #getEntry(String)} to also get stale values and {@link #acquireRevalidationLock(String)} to ensure that only one
+ * request revalidates an expired value at a time.
+ */
 public class MultiLevelCacheClient implements CacheClient {
 
+  private static final byte ENTRY_MARKER = 0x7E;
+  /**
+   * The version of the format in which the values are written. It must be increased with each incompatible change of the format.
+   * It is also part of the cache keys (see {@link com.here.xyz.hub.task.FeatureTask#getCacheKey()}), so that nodes using different
+   * formats (e.g., during a deployment) are not reading the values of each other at all.
+   */
+  public static final byte ENTRY_FORMAT_VERSION = 1;
+  private static final int ENTRY_HEADER_SIZE = 1 + 1 + 8;
+  private static final String REVALIDATION_LOCK_PREFIX = "revalidate:";
+  /**
+   * The time in seconds for which a revalidation of an expired value is locked.
+   * If the revalidation fails, the next attempt will be possible after that time.
+   */
+  static final long REVALIDATION_LOCK_TTL = 10;
+
+  private static final String LEVEL = "level";
+  /**
+   * The latencies of the reads by cache level.
+   */
+  public static AttributedMetricCollection<HistogramValues> levelLatency;
+  private static final Map<String, HistogramMetric> levelLatencyMetrics = new ConcurrentHashMap<>();
+
   final List<CacheClient> clients;
+  private int maxUpperLevelValueSize = Integer.MAX_VALUE;
+  //The local locks are expiring together with their entries, so no cleanup is necessary
+  private final Cache<String, Boolean> localRevalidationLocks = CacheBuilder.newBuilder()
+      .expireAfterWrite(REVALIDATION_LOCK_TTL, TimeUnit.SECONDS)
+      .build();
 
   public MultiLevelCacheClient(CacheClient... clients) {
     this.clients = Arrays.asList(clients);
   }
 
+  /**
+   * Returns the value only if it has not expired yet.
+   */
   @Override
   public Future<byte[]> get(String key) {
+    return getEntry(key).map(entry -> entry == null || entry.isStale() ? null : entry.getBytes());
+  }
+
+  /**
+   * Returns the cache entry including values which have expired already but are still within their stale period.
+   */
+  public Future<CacheEntry> getEntry(String key) {
     return get(0, key);
   }
 
-  private Future<byte[]> get(final int i, final String key) {
+  private Future<CacheEntry> get(final int i, final String key) {
+    final long start = Core.currentTimeMillis();
     return clients.get(i).get(key).compose(result -> {
+      recordLatency(clients.get(i), Core.currentTimeMillis() - start);
       if (result == null) {
         if (clients.size() > i + 1)
           return get(i + 1, key);
         else
           return Future.succeededFuture(null);
       }
-      else {
-        int j = i;
-        while (--j >= 0) {
-          clients.get(j).set(key, result, Integer.MAX_VALUE);
-        }
-        return Future.succeededFuture(result);
-      }
+      CacheEntry entry = CacheEntry.fromCacheValue(result, getLevelName(clients.get(i)));
+      if (entry == null)
+        //The value has been written in another format, treat it like a MISS on this level
+        return clients.size() > i + 1 ? get(i + 1, key) : Future.succeededFuture(null);
+      if (i > 0)
+        promote(i, key, result, entry);
+      return Future.succeededFuture(entry);
     });
   }
 
+  /**
+   * Writes a value which was found on a lower level to all upper levels, so that subsequent reads are served by the faster levels.
+   * The writing is done asynchronously, so that it does not delay the response which is waiting for the value.
+   */
+  private void promote(int level, String key, byte[] cacheValue, CacheEntry entry) {
+    long ttl = entry.expiresAt == Long.MAX_VALUE ? Integer.MAX_VALUE
+        : Math.max(1, TimeUnit.MILLISECONDS.toSeconds(entry.expiresAt - Core.currentTimeMillis()) + getStaleTtl());
+    Runnable promotion = () -> {
+      for (int j = level - 1; j >= 0; j--)
+        if (isAdmitted(j, cacheValue))
+          clients.get(j).set(key, cacheValue, ttl);
+    };
+    Context context = Vertx.currentContext();
+    if (context != null)
+      context.runOnContext(v -> promotion.run());
+    else
+      promotion.run();
+  }
+
+  /**
+   * Large values are not admitted to the upper levels, as they would displace many smaller values from these (usually small) levels.
+   * The last level is the persistent one and admits all values.
+   */
+  private boolean isAdmitted(int level, byte[] cacheValue) {
+    return level == clients.size() - 1 || cacheValue.length <= maxUpperLevelValueSize;
+  }
+
+  /**
+   * Sets the maximum size of values which are admitted to all levels except the last one.
+   *
+   * @param maxUpperLevelValueSize The maximum value size in bytes
+   * @return This client
+   */
+  public MultiLevelCacheClient withMaxUpperLevelValueSize(int maxUpperLevelValueSize) {
+    this.maxUpperLevelValueSize = maxUpperLevelValueSize;
+    return this;
+  }
+
+  private static void recordLatency(CacheClient client, long latency) {
+    if (levelLatency == null) return;
+    levelLatencyMetrics.computeIfAbsent(getLevelName(client), levelName -> {
+      HistogramMetric m = new HistogramMetric(levelLatency.getName(), levelLatency.getUnit());
+      levelLatency.addMetric(m, new Attribute<>(LEVEL, levelName));
+      return m;
+    }).addValue(latency);
+  }
+
+  /**
+   * @return The name of the cache level, e.g. "Redis" for the {@link RedisCacheClient}
+   */
+  static String getLevelName(CacheClient client) {
+    return client.getClass().getSimpleName().replace("CacheClient", "");
+  }
+
+  private static long getStaleTtl() {
+    return Service.configuration != null ? Service.configuration.CACHE_STALE_TTL_SECONDS : 0;
+  }
+
+  /**
+   * Writes the value to all levels. The value will be kept for the stale period after its ttl has passed.
+   *
+   * @param ttl The time in seconds after which the value is expired
+   */
   @Override
   public void set(String key, byte[] value, long ttl) {
-    clients.forEach(c -> c.set(key, value, ttl));
+    set(key, value, ttl, getStaleTtl());
+  }
+
+  public void set(String key, byte[] value, long ttl, long staleTtl) {
+    byte[] cacheValue = CacheEntry.toCacheValue(value, expiresAt(ttl));
+    long physicalTtl = ttl > Long.MAX_VALUE / 1000 - staleTtl ? ttl : ttl + staleTtl;
+    for (int i = 0; i < clients.size(); i++)
+      if (isAdmitted(i, cacheValue))
+        clients.get(i).set(key, cacheValue, physicalTtl);
   }
 
   @Override
@@ -68,4 +200,88 @@ public class MultiLevelCacheClient implements CacheClient {
   public void shutdown() {
     clients.forEach(c -> c.shutdown());
   }
+
+  /**
+   * Tries to acquire the lock for revalidating the (expired) value of the specified key.
+   * The lock is held locally on this node and, if available, in the Redis cache, so that only one request in the whole cluster
+   * revalidates the value while all others may serve the stale value.
+   * The lock is not released explicitly, it expires after {@link #REVALIDATION_LOCK_TTL} seconds.
+   *
+   * @param key The cache key
+   * @return Whether the lock was acquired
+   */
+  public Future<Boolean> acquireRevalidationLock(String key) {
+    if (localRevalidationLocks.asMap().putIfAbsent(key, Boolean.TRUE) != null)
+      return Future.succeededFuture(false);
+
+    for (CacheClient client : clients)
+      if (client instanceof RedisCacheClient redisCacheClient)
+        return redisCacheClient.acquireLockAsync(REVALIDATION_LOCK_PREFIX + key, REVALIDATION_LOCK_TTL);
+    return Future.succeededFuture(true);
+  }
+
+  private static long expiresAt(long ttlSeconds) {
+    long now = Core.currentTimeMillis();
+    return ttlSeconds >= (Long.MAX_VALUE - now) / 1000 ? Long.MAX_VALUE : now + TimeUnit.SECONDS.toMillis(ttlSeconds);
+  }
+
+  /**
+   * A value which was read from the cache together with its expiration time.
+   */
+  public static class CacheEntry {
+
+    private final byte[] cacheValue;
+    private final int offset;
+    public final long expiresAt;
+    /**
+     * The name of the cache level which served the value.
+     */
+    public final String level;
+
+    CacheEntry(byte[] cacheValue, int offset, long expiresAt, String level) {
+      this.cacheValue = cacheValue;
+      this.offset = offset;
+      this.expiresAt = expiresAt;
+      this.level = level;
+    }
+
+    /**
+     * Returns the value as a view on the bytes which were read from the cache level, no bytes are copied.
+     * The returned buffer starts at position 0, its backing array must not be modified.
+     *
+     * @return The cached value
+     */
+    public ByteBuffer getValue() {
+      return ByteBuffer.wrap(cacheValue, offset, cacheValue.length - offset).slice();
+    }
+
+    /**
+     * @return A copy of the cached value
+     */
+    public byte[] getBytes() {
+      return Arrays.copyOfRange(cacheValue, offset, cacheValue.length);
+    }
+
+    /**
+     * @return Whether the value has expired and should be revalidated
+     */
+    public boolean isStale() {
+      return expiresAt <= Core.currentTimeMillis();
+    }
+
+    static byte[] toCacheValue(byte[] value, long expiresAt) {
+      byte[] cacheValue = new byte[ENTRY_HEADER_SIZE + value.length];
+      ByteBuffer.wrap(cacheValue).put(ENTRY_MARKER).put(ENTRY_FORMAT_VERSION).putLong(expiresAt).put(value);
+      return cacheValue;
+    }
+
+    /**
+     * @return The cache entry or null, if the value was not written in the current format
+     */
+    static CacheEntry fromCacheValue(byte[] cacheValue, String level) {
+      if (cacheValue.length < ENTRY_HEADER_SIZE || cacheValue[0] != ENTRY_MARKER || cacheValue[1] != ENTRY_FORMAT_VERSION)
+        return null;
+      return new CacheEntry(cacheValue, ENTRY_HEADER_SIZE, ByteBuffer.wrap(cacheValue, 2, 8).getLong(), level);
+    }
+  }
 }
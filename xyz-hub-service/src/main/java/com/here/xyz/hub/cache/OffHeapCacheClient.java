@@ -0,0 +1,400 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.util.service.Core;
+import io.vertx.core.Future;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An in-memory cache which stores the values outside the JVM heap, so that large cache sizes do not put any pressure on the GC.
+ *
+ * The memory is split into segments, each of them consisting of one direct {@link ByteBuffer} which is divided into small blocks of a
+ * fixed size. A value is stored in as many blocks as needed, so there is no fragmentation and at most one partially used block per value.
+ * Only the keys and block indices are kept on the heap.
+ * The number of segments is proportional to the number of cores. Values can be as large as one segment, larger values are not cached, as
+ * each of them would evict a large share of all other entries.
+ *
+ * Reads are looked up in a concurrent index and the value is copied without holding the segment's lock. As the blocks of an entry
+ * could be released and reused by a concurrent write meanwhile, the entry is validated after copying and the read is treated as a miss
+ * if the entry was released. Recording the access for the eviction policy is skipped if the segment is locked by another thread.
+ *
+ * The eviction follows a segmented LRU policy: New entries are added to the probationary area and only get promoted to the protected
+ * area once they are read again. That way a scan of many entries which are read only once can not evict the frequently used entries.
+ * Expired entries are removed when they are read or by a periodic sweep, whichever comes first.
+ *
+ * NOTE: The direct memory is limited by the JVM option -XX:MaxDirectMemorySize, which defaults to the maximum heap size.
+ */
+public class OffHeapCacheClient implements CacheClient {
+
+  private static final Logger logger = LogManager.getLogger();
+  static final int BLOCK_SIZE = 1024;
+  /**
+   * The minimum size of a segment, as long as the overall capacity allows it. It is the maximum size of a value which can be cached.
+   */
+  private static final long MIN_SEGMENT_BYTES = 32 * 1024 * 1024;
+  private static final long SWEEP_INTERVAL_MS = 30_000;
+  private static final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "off-heap-cache-sweeper");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /**
+   * The share of a segment's blocks which may be used by the protected area.
+   */
+  private static final double PROTECTED_RATIO = 0.8;
+
+  private static CacheClient instance;
+
+  private final Segment[] segments;
+  private final CacheStatistics statistics = new CacheStatistics();
+  private ScheduledFuture<?> sweeping;
+
+  OffHeapCacheClient(long capacityBytes) {
+    this(capacityBytes, segmentCount(capacityBytes, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Calculates the number of segments, which is the next power of two of twice the number of cores, but at least 4.
+   * Smaller capacities get fewer segments, so that each segment is at least {@link #MIN_SEGMENT_BYTES} large.
+   */
+  static int segmentCount(long capacityBytes, int cores) {
+    int segmentCount = Integer.highestOneBit(Math.max(4, cores * 2) - 1) << 1;
+    while (segmentCount > 1 && capacityBytes / segmentCount < MIN_SEGMENT_BYTES)
+      segmentCount >>= 1;
+    return segmentCount;
+  }
+
+  /**
+   * @param capacityBytes The overall capacity of the cache
+   * @param segmentCount The number of segments, must be a power of two
+   */
+  OffHeapCacheClient(long capacityBytes, int segmentCount) {
+    int blocksPerSegment = (int) Math.min(Math.max(capacityBytes / segmentCount / BLOCK_SIZE, 1), Integer.MAX_VALUE / BLOCK_SIZE);
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++)
+      segments[i] = new Segment(blocksPerSegment);
+  }
+
+  /**
+   * Returns the off-heap cache client. If the direct memory can not be allocated, the on-heap {@link InMemoryCacheClient} is returned.
+   */
+  public static synchronized CacheClient getInstance() {
+    if (instance == null) {
+      try {
+        OffHeapCacheClient offHeapCache = new OffHeapCacheClient((long) Service.configuration.CACHE_SIZE_MB * 1024 * 1024);
+        offHeapCache.startSweeping(SWEEP_INTERVAL_MS);
+        instance = offHeapCache;
+      }
+      catch (OutOfMemoryError e) {
+        logger.error("Unable to allocate {}MB of direct memory for the off-heap cache. Falling back to the on-heap cache.",
+            Service.configuration.CACHE_SIZE_MB, e);
+        //Keep the fallback, so that the allocation is not retried by subsequent calls
+        instance = InMemoryCacheClient.getInstance();
+      }
+    }
+    return instance;
+  }
+
+  public CacheStatistics getStatistics() {
+    return statistics;
+  }
+
+  @Override
+  public Future<byte[]> get(String key) {
+    return Future.succeededFuture(getValue(key));
+  }
+
+  byte[] getValue(String key) {
+    byte[] value = segmentFor(key).get(key);
+    if (value == null)
+      statistics.recordMiss();
+    else
+      statistics.recordHit();
+    return value;
+  }
+
+  @Override
+  public void set(String key, byte[] value, long ttl) {
+    segmentFor(key).put(key, value, expiresAt(ttl));
+  }
+
+  @Override
+  public void remove(String key) {
+    segmentFor(key).remove(key);
+  }
+
+  @Override
+  public void shutdown() {
+    //The direct memory is released together with the buffers
+    if (sweeping != null)
+      sweeping.cancel(false);
+  }
+
+  private void startSweeping(long intervalMs) {
+    sweeping = sweeper.scheduleWithFixedDelay(this::sweepExpired, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Removes all expired entries, so that their blocks are released even if they are never read again.
+   * The segments are swept one after another, so only one segment is locked at a time.
+   */
+  void sweepExpired() {
+    long now = Core.currentTimeMillis();
+    for (Segment segment : segments)
+      segment.sweepExpired(now);
+  }
+
+  private Segment segmentFor(String key) {
+    int h = key.hashCode();
+    return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+  }
+
+  private static long expiresAt(long ttlSeconds) {
+    if (ttlSeconds <= 0 || ttlSeconds >= (Long.MAX_VALUE - Core.currentTimeMillis()) / 1000)
+      return Long.MAX_VALUE;
+    return Core.currentTimeMillis() + ttlSeconds * 1000;
+  }
+
+  private static class CacheEntry {
+    final int[] blocks;
+    final int length;
+    final long expiresAt;
+    boolean isProtected;
+    volatile boolean released;
+
+    CacheEntry(int[] blocks, int length, long expiresAt) {
+      this.blocks = blocks;
+      this.length = length;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private class Segment {
+    private final ByteBuffer memory;
+    private final int[] freeBlocks;
+    private int freeBlockCount;
+    private final int maxProtectedBlocks;
+    private int protectedBlockCount;
+    //All modifications are done while holding the lock, only the index may be read without it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<String, CacheEntry> index = new ConcurrentHashMap<>();
+    //Both maps are in access-order, so the eldest entry is always the least recently used one
+    private final LinkedHashMap<String, CacheEntry> probationEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, CacheEntry> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    Segment(int blockCount) {
+      memory = ByteBuffer.allocateDirect(blockCount * BLOCK_SIZE);
+      freeBlocks = new int[blockCount];
+      for (int i = 0; i < blockCount; i++)
+        freeBlocks[i] = blockCount - 1 - i;
+      freeBlockCount = blockCount;
+      maxProtectedBlocks = (int) (blockCount * PROTECTED_RATIO);
+    }
+
+    byte[] get(String key) {
+      CacheEntry entry = index.get(key);
+      if (entry == null)
+        return null;
+
+      if (entry.expiresAt <= Core.currentTimeMillis()) {
+        lock.lock();
+        try {
+          //The entry might have been replaced in the meantime
+          if (index.get(key) == entry) {
+            remove(key, entry);
+            statistics.recordExpiration();
+          }
+        }
+        finally {
+          lock.unlock();
+        }
+        return null;
+      }
+
+      byte[] value = read(entry);
+      //Ensure that the value was read completely before validating the entry
+      VarHandle.acquireFence();
+      if (entry.released)
+        return null;
+      recordAccess(key, entry);
+      return value;
+    }
+
+    private void recordAccess(String key, CacheEntry entry) {
+      //Rather skip recording the access than blocking the reader
+      if (!lock.tryLock())
+        return;
+      try {
+        if (entry.released)
+          return;
+        if (entry.isProtected)
+          //Moves the entry to the end of the access-order
+          protectedEntries.get(key);
+        else
+          promote(key, entry);
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    void put(String key, byte[] value, long expiresAt) {
+      int requiredBlocks = (value.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+      lock.lock();
+      try {
+        if (requiredBlocks > freeBlocks.length) {
+          //The value is too large to be cached at all
+          remove(key);
+          return;
+        }
+
+        CacheEntry existing = index.get(key);
+        if (existing != null)
+          remove(key, existing);
+
+        while (freeBlockCount < requiredBlocks)
+          evict();
+
+        CacheEntry entry = new CacheEntry(allocate(requiredBlocks), value.length, expiresAt);
+        write(entry, value);
+        probationEntries.put(key, entry);
+        index.put(key, entry);
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    void sweepExpired(long now) {
+      lock.lock();
+      try {
+        sweepExpired(probationEntries, now);
+        sweepExpired(protectedEntries, now);
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    private void sweepExpired(LinkedHashMap<String, CacheEntry> entries, long now) {
+      Iterator<Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+      while (it.hasNext()) {
+        Entry<String, CacheEntry> entry = it.next();
+        if (entry.getValue().expiresAt <= now) {
+          it.remove();
+          index.remove(entry.getKey());
+          if (entry.getValue().isProtected)
+            protectedBlockCount -= entry.getValue().blocks.length;
+          release(entry.getValue());
+          statistics.recordExpiration();
+        }
+      }
+    }
+
+    void remove(String key) {
+      lock.lock();
+      try {
+        CacheEntry entry = index.get(key);
+        if (entry != null)
+          remove(key, entry);
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(String key, CacheEntry entry) {
+      if (entry.isProtected) {
+        protectedEntries.remove(key);
+        protectedBlockCount -= entry.blocks.length;
+      }
+      else
+        probationEntries.remove(key);
+      index.remove(key);
+      release(entry);
+    }
+
+    private void promote(String key, CacheEntry entry) {
+      probationEntries.remove(key);
+      entry.isProtected = true;
+      protectedEntries.put(key, entry);
+      protectedBlockCount += entry.blocks.length;
+
+      //Demote the least recently used protected entries back to the probationary area
+      Iterator<Entry<String, CacheEntry>> it = protectedEntries.entrySet().iterator();
+      while (protectedBlockCount > maxProtectedBlocks && it.hasNext()) {
+        Entry<String, CacheEntry> eldest = it.next();
+        if (eldest.getValue() == entry)
+          break;
+        it.remove();
+        eldest.getValue().isProtected = false;
+        protectedBlockCount -= eldest.getValue().blocks.length;
+        probationEntries.put(eldest.getKey(), eldest.getValue());
+      }
+    }
+
+    private void evict() {
+      LinkedHashMap<String, CacheEntry> victims = probationEntries.isEmpty() ? protectedEntries : probationEntries;
+      Entry<String, CacheEntry> eldest = victims.entrySet().iterator().next();
+      remove(eldest.getKey(), eldest.getValue());
+      statistics.recordEviction();
+    }
+
+    private int[] allocate(int blockCount) {
+      int[] blocks = new int[blockCount];
+      for (int i = 0; i < blockCount; i++)
+        blocks[i] = freeBlocks[--freeBlockCount];
+      return blocks;
+    }
+
+    private void release(CacheEntry entry) {
+      //Invalidates concurrent reads of the entry, before its blocks may be reused
+      entry.released = true;
+      for (int block : entry.blocks)
+        freeBlocks[freeBlockCount++] = block;
+    }
+
+    private void write(CacheEntry entry, byte[] value) {
+      for (int i = 0, offset = 0; i < entry.blocks.length; i++, offset += BLOCK_SIZE)
+        memory.put(entry.blocks[i] * BLOCK_SIZE, value, offset, Math.min(BLOCK_SIZE, value.length - offset));
+    }
+
+    private byte[] read(CacheEntry entry) {
+      byte[] value = new byte[entry.length];
+      for (int i = 0, offset = 0; i < entry.blocks.length; i++, offset += BLOCK_SIZE)
+        memory.get(entry.blocks[i] * BLOCK_SIZE, value, offset, Math.min(BLOCK_SIZE, entry.length - offset));
+      return value;
+    }
+  }
+}
@@ -28,7 +28,6 @@ import io.vertx.redis.client.Redis;
 import io.vertx.redis.client.RedisOptions;
 import io.vertx.redis.client.Request;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -123,26 +122,31 @@ public class RedisCacheClient implements CacheClient {
    * @return true in case the lock was successfully acquired. False otherwise.
    */
   public boolean acquireLock(String key, long ttl) {
-    Request req = Request.cmd(Command.SET).arg(key).arg(RND).arg("NX").arg("EX").arg(ttl);
-    CompletableFuture<Boolean> f = new CompletableFuture<>();
-    getClient().send(req).onComplete(ar -> {
-      if (ar.failed()) {
-        logger.warn("Error acquiring lock for key {}.", key, ar.cause());
-        f.complete(false);
-      }
-      else if (ar.result() == null)
-        f.complete(false);
-      else
-        f.complete("OK".equals(ar.result().toString()));
-    });
     try {
-      return f.get();
+      return acquireLockAsync(key, ttl).toCompletionStage().toCompletableFuture().get();
     }
     catch (ExecutionException | InterruptedException e) {
       return false;
     }
   }
 
+  /**
+   * Acquires the lock on the specified key and sets a ttl in seconds without blocking the calling thread.
+   * @see #acquireLock(String, long)
+   * @param key the key which the lock will be acquired
+   * @param ttl the expiration time in seconds for this lock be automatically released
+   * @return A future which succeeds with true in case the lock was successfully acquired. False otherwise.
+   */
+  public Future<Boolean> acquireLockAsync(String key, long ttl) {
+    Request req = Request.cmd(Command.SET).arg(key).arg(RND).arg("NX").arg("EX").arg(ttl);
+    return getClient().send(req)
+        .map(response -> response != null && "OK".equals(response.toString()))
+        .otherwise(t -> {
+          logger.warn("Error acquiring lock for key {}.", key, t);
+          return false;
+        });
+  }
+
   /**
    * Releases the lock acquired by acquireLock. The key must match with the lock acquired previously.
    * @param key the key which the lock was acquired
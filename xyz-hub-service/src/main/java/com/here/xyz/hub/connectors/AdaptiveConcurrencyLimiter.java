@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+/**
+ * A concurrency limiter which adapts the number of concurrent invocations of one remote function by comparing the latency of each
+ * response with the latency the remote function shows under normal load.
+ *
+ * As long as the measured latency stays within the tolerated range of that baseline, the limit grows slowly (by about the square root of
+ * the current limit). Once the remote function gets slower (e.g. because its database is overloaded), the limit shrinks proportionally
+ * to the latency increase. Invocations which timed out or have been throttled by the remote function lead to a multiplicative decrease,
+ * which is applied at most once per (recent) round-trip time, so that a burst of drops caused by one latency spike reduces the limit only once.
+ * That way a slow remote function sheds load early rather than piling up requests which would time out anyway.
+ *
+ * The baseline latency is a slowly moving average of all measured latencies rather than a fixed minimum, so that the limiter can follow
+ * long-term changes of the workload.
+ */
+class AdaptiveConcurrencyLimiter {
+
+  /**
+   * The number of samples which are taken into account for the baseline latency.
+   */
+  private static final int BASELINE_WINDOW = 600;
+  /**
+   * The number of samples to be collected before the limit gets adjusted at all.
+   */
+  private static final int WARMUP_SAMPLES = 10;
+  /**
+   * The factor by which the measured latency may exceed the baseline latency before the limit gets reduced.
+   */
+  private static final double TOLERANCE = 1.5;
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final int minLimit;
+  private volatile int maxLimit;
+  private volatile double limit;
+  private volatile double baselineRttNanos;
+  private volatile double recentRttNanos;
+  private long samples;
+  private long lastBackoffNanos;
+  private boolean backedOff;
+
+  /**
+   * @param minLimit The lower bound for the limit
+   * @param maxLimit The upper bound and initial value for the limit
+   */
+  AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = Math.max(minLimit, maxLimit);
+    this.limit = this.maxLimit;
+  }
+
+  /**
+   * Takes the measurement of one completed invocation into account.
+   *
+   * @param rttNanos The latency of the invocation in nanoseconds
+   * @param inFlight The number of invocations which were running when this invocation completed
+   * @param dropped Whether the invocation timed out or was throttled by the remote function
+   */
+  void onSample(long rttNanos, int inFlight, boolean dropped) {
+    onSample(rttNanos, inFlight, dropped, System.nanoTime());
+  }
+
+  synchronized void onSample(long rttNanos, int inFlight, boolean dropped, long nowNanos) {
+    if (dropped) {
+      //All invocations which were in flight during the same overload will be dropped, so back off only once for them
+      long backoffIntervalNanos = recentRttNanos > 0 ? (long) recentRttNanos : rttNanos;
+      if (!backedOff || nowNanos - lastBackoffNanos >= backoffIntervalNanos) {
+        limit = clamp(limit * BACKOFF_RATIO);
+        lastBackoffNanos = nowNanos;
+        backedOff = true;
+      }
+      return;
+    }
+    if (rttNanos <= 0)
+      return;
+
+    samples++;
+    recentRttNanos = samples == 1 ? rttNanos : recentRttNanos * (1d - SMOOTHING) + rttNanos * SMOOTHING;
+    if (samples <= WARMUP_SAMPLES) {
+      baselineRttNanos += (rttNanos - baselineRttNanos) / samples;
+      return;
+    }
+    baselineRttNanos += (rttNanos - baselineRttNanos) / BASELINE_WINDOW;
+    //Let the baseline drift back down quickly if the remote function got much faster again
+    if (baselineRttNanos > 2 * rttNanos)
+      baselineRttNanos *= 0.95;
+
+    //Do not grow the limit if it's not even used (the sample would not tell anything about the behavior under load)
+    if (inFlight < limit / 2)
+      return;
+
+    double gradient = Math.max(MIN_GRADIENT, Math.min(1d, TOLERANCE * baselineRttNanos / rttNanos));
+    double newLimit = limit * gradient + Math.sqrt(limit);
+    limit = clamp(limit * (1d - SMOOTHING) + newLimit * SMOOTHING);
+  }
+
+  private double clamp(double value) {
+    return Math.max(minLimit, Math.min(maxLimit, value));
+  }
+
+  /**
+   * @return The current number of concurrent invocations which should be allowed
+   */
+  int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Updates the upper bound of the limit, e.g. after the connector configuration has changed.
+   * As long as the limit has not been adjusted by any measurement, it starts at the new upper bound.
+   *
+   * @param maxLimit The new upper bound
+   */
+  synchronized void setMaxLimit(int maxLimit) {
+    this.maxLimit = Math.max(minLimit, maxLimit);
+    limit = samples == 0 && !backedOff ? this.maxLimit : clamp(limit);
+  }
+
+  /**
+   * @return The baseline latency in milliseconds or 0 if no measurements have been taken yet
+   */
+  double getBaselineRtt() {
+    return baselineRttNanos / 1_000_000d;
+  }
+
+  /**
+   * @return The recent (smoothed) latency in milliseconds or 0 if no measurements have been taken yet
+   */
+  double getRecentRtt() {
+    return recentRttNanos / 1_000_000d;
+  }
+
+  /**
+   * Estimates how many invocations can wait in the queue so that they still could be executed within the specified timeout.
+   *
+   * @param timeoutMillis The time in milliseconds an invocation may take at most including its waiting time in the queue
+   * @return The maximum feasible number of waiting invocations or {@link Long#MAX_VALUE} if no measurements have been taken yet
+   */
+  long getMaxFeasibleQueueSize(long timeoutMillis) {
+    double rttMillis = getRecentRtt();
+    if (rttMillis <= 0)
+      return Long.MAX_VALUE;
+    return (long) Math.ceil(getLimit() * (timeoutMillis / rttMillis));
+  }
+}
@@ -21,8 +21,11 @@ package com.here.xyz.hub.connectors;
 
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.here.xyz.connectors.EntryConnectorHandler;
+import com.here.xyz.connectors.EntryConnectorHandler.InProcessResponse;
+import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig;
+import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig.Embedded;
 import com.here.xyz.util.service.Core;
 import com.here.xyz.util.service.aws.lambda.SimulatedContext;
 import io.vertx.core.AsyncResult;
@@ -46,6 +49,15 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
    * The thread pool being used for running calls to embedded connectors asynchronously.
    */
   private ExecutorService embeddedExecutor;
+  /**
+   * The connector class of the current configuration or null if it could not be loaded.
+   */
+  private volatile Class<?> handlerClass;
+  /**
+   * The connector instances for in-process invocations. Connector instances hold state of the event they are currently processing,
+   * so each thread of the {@link #embeddedExecutor} re-uses its own instance.
+   */
+  private volatile ThreadLocal<EntryConnectorHandler> inProcessHandler;
 
   EmbeddedFunctionClient(Connector connectorConfig) {
     super(connectorConfig);
@@ -56,6 +68,25 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
     super.setConnectorConfig(newConnectorConfig);
     shutdown(embeddedExecutor);
     createExecutorService(newConnectorConfig.id);
+    loadHandlerClass();
+  }
+
+  private void loadHandlerClass() {
+    String className = ((Embedded) getConnectorConfig().getRemoteFunction()).className;
+    try {
+      handlerClass = Class.forName(className);
+    }
+    catch (ClassNotFoundException | NoClassDefFoundError e) {
+      //The error will be reported for each call
+      handlerClass = null;
+    }
+    inProcessHandler = new ThreadLocal<>();
+  }
+
+  @Override
+  public boolean supportsInProcessInvocation() {
+    return Service.configuration.EMBEDDED_FUNCTION_IN_PROCESS && handlerClass != null
+        && EntryConnectorHandler.class.isAssignableFrom(handlerClass);
   }
 
   private void createExecutorService(String connectorId) {
@@ -88,38 +119,64 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
 
   @Override
   protected void invoke(FunctionCall fc, Handler<AsyncResult<byte[]>> callback) {
-    final RemoteFunctionConfig remoteFunction = getConnectorConfig().getRemoteFunction();
-    logger.info(fc.marker, "Invoke embedded lambda '{}' for event: {}", remoteFunction.id, new String(fc.bytes));
+    final Embedded remoteFunction = (Embedded) getConnectorConfig().getRemoteFunction();
+    logger.info(fc.marker, "Invoke embedded lambda '{}'. Event size: {}", remoteFunction.id, fc.bytes.length);
     embeddedExecutor.execute(() -> {
-      String className = null;
       try {
-        className = ((Connector.RemoteFunctionConfig.Embedded) remoteFunction).className;
-        final Class<?> mainClass = Class.forName(className);
-        final RequestStreamHandler reqHandler = (RequestStreamHandler) mainClass.newInstance();
+        final RequestStreamHandler reqHandler = (RequestStreamHandler) newHandler(remoteFunction);
         final ByteArrayOutputStream output = new ByteArrayOutputStream();
         reqHandler.handleRequest(new ByteArrayInputStream(fc.bytes), output,
-            new EmbeddedContext(fc.marker, remoteFunction.id,
-                ((Connector.RemoteFunctionConfig.Embedded) remoteFunction).env));
+            new EmbeddedContext(fc.marker, remoteFunction.id, remoteFunction.env));
         logger.info(fc.marker, "Handling response of embedded lambda call to '{}'.", remoteFunction.id);
         byte[] responseBytes = output.toByteArray();
         callback.handle(Future.succeededFuture(responseBytes));
       }
-      catch (ClassNotFoundException e) {
-        logger.error(fc.marker, "Configuration error, the specified class '{}' was not found {}", className, e);
-        callback.handle(Future.failedFuture(e));
+      catch (Throwable e) {
+        handleFailure(fc, remoteFunction, e, callback);
       }
-      catch (NoClassDefFoundError e) {
-        logger.error(fc.marker, "Configuration error, the specified class '{}' is referring to '{}' which does not exist", className,
-            e.getMessage());
-        callback.handle(Future.failedFuture(e));
+    });
+  }
+
+  @Override
+  protected void invokeInProcess(FunctionCall fc, Handler<AsyncResult<InProcessResponse>> callback) {
+    final Embedded remoteFunction = (Embedded) getConnectorConfig().getRemoteFunction();
+    logger.info(fc.marker, "Invoke embedded lambda '{}' in-process.", remoteFunction.id);
+    final ThreadLocal<EntryConnectorHandler> handlers = inProcessHandler;
+    embeddedExecutor.execute(() -> {
+      try {
+        EntryConnectorHandler handler = handlers.get();
+        if (handler == null)
+          handlers.set(handler = (EntryConnectorHandler) newHandler(remoteFunction));
+        InProcessResponse response = handler.handleEventInProcess(fc.event,
+            new EmbeddedContext(fc.marker, remoteFunction.id, remoteFunction.env));
+        logger.info(fc.marker, "Handling response of embedded lambda call to '{}'.", remoteFunction.id);
+        callback.handle(Future.succeededFuture(response));
       }
       catch (Throwable e) {
-        logger.error(fc.marker, "Exception occurred, while trying to execute embedded lambda with id '{}' {}", remoteFunction.id, e);
-        callback.handle(Future.failedFuture(e));
+        handleFailure(fc, remoteFunction, e, callback);
       }
     });
   }
 
+  private Object newHandler(Embedded remoteFunction) throws ReflectiveOperationException {
+    Class<?> mainClass = handlerClass;
+    if (mainClass == null)
+      //Try again to get the actual error
+      mainClass = Class.forName(remoteFunction.className);
+    return mainClass.getDeclaredConstructor().newInstance();
+  }
+
+  private static <R> void handleFailure(FunctionCall fc, Embedded remoteFunction, Throwable e, Handler<AsyncResult<R>> callback) {
+    if (e instanceof ClassNotFoundException)
+      logger.error(fc.marker, "Configuration error, the specified class '{}' was not found {}", remoteFunction.className, e);
+    else if (e instanceof NoClassDefFoundError)
+      logger.error(fc.marker, "Configuration error, the specified class '{}' is referring to '{}' which does not exist",
+          remoteFunction.className, e.getMessage());
+    else
+      logger.error(fc.marker, "Exception occurred, while trying to execute embedded lambda with id '{}' {}", remoteFunction.id, e);
+    callback.handle(Future.failedFuture(e));
+  }
+
   /**
    * Context used by embedded lambda connectors.
    */
@@ -32,6 +32,7 @@ import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig;
 import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig.Http;
+import com.here.xyz.hub.rest.Api;
 import com.here.xyz.util.service.Core;
 import com.here.xyz.util.service.HttpException;
 import com.here.xyz.util.service.errors.DetailedHttpException;
@@ -42,6 +43,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.core.net.impl.ConnectionBase;
@@ -116,21 +118,7 @@ public class HTTPFunctionClient extends RemoteFunctionClient {
                   if (fc.fireAndForget) return;
                   try {
                     validateHttpStatus(response.statusCode(), response.statusMessage());
-                    response.body(ar -> {
-                      if (ar.failed())
-                        handleFailure(fc.marker, callback, ar.cause());
-                      else {
-                        try {
-                          byte[] responseBytes = ar.result().getBytes();
-                          if (responseBytes == null || responseBytes.length == 0)
-                            throw new HttpException(BAD_GATEWAY, "Response body from remote HTTP connector service was empty.");
-                          callback.handle(Future.succeededFuture(responseBytes));
-                        }
-                        catch (Exception e) {
-                          handleFailure(fc.marker, callback, new HttpException(BAD_GATEWAY, "Error while handling response of HTTP connector.", e));
-                        }
-                      }
-                    });
+                    readBody(fc, response, callback);
                   }
                   catch (Exception e) {
                     handleFailure(fc.marker, callback, e);
@@ -146,6 +134,19 @@ public class HTTPFunctionClient extends RemoteFunctionClient {
     }
   }
 
+  /**
+   * Reads the response body using the {@link ResponseBodyReader}, limited to the maximum service response size.
+   */
+  private void readBody(FunctionCall fc, HttpClientResponse response, Handler<AsyncResult<byte[]>> callback) {
+    final long maxLength = Api.MAX_SERVICE_RESPONSE_SIZE > 0 ? Api.MAX_SERVICE_RESPONSE_SIZE : Integer.MAX_VALUE - 8;
+    ResponseBodyReader.read(response, maxLength, ar -> {
+      if (ar.failed())
+        handleFailure(fc.marker, callback, ar.cause());
+      else
+        callback.handle(ar);
+    });
+  }
+
   private static class BodyHolder {
     private BodyHolder(Buffer body) {
       this.body = body;
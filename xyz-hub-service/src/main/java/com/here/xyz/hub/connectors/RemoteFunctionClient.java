@@ -23,15 +23,27 @@ import static com.here.xyz.hub.util.AtomicUtils.compareAndDecrement;
 import static com.here.xyz.hub.util.AtomicUtils.compareAndIncrementUpTo;
 import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.QUOTA;
 import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.STORAGE_QUEUE_FULL;
+import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.io.ByteStreams;
 import com.here.xyz.Payload;
+import com.here.xyz.connectors.EntryConnectorHandler.InProcessResponse;
+import com.here.xyz.events.Event;
+import com.here.xyz.events.ModifyFeaturesEvent;
+import com.here.xyz.events.WriteFeaturesEvent;
+import com.here.xyz.events.WriteFeaturesEvent.Modification;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.RpcClient.RpcContext;
 import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.util.ByteSizeAware;
 import com.here.xyz.hub.util.LimitedQueue;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
 import com.here.xyz.psql.DatabaseHandler;
+import com.here.xyz.responses.BinaryResponse;
 import com.here.xyz.util.db.AuroraAcuMonitor;
 import com.here.xyz.util.db.AuroraAcuMonitorManager;
 import com.here.xyz.util.db.ConnectorParameters;
@@ -39,6 +51,7 @@ import com.here.xyz.util.db.DBClusterResolver;
 import com.here.xyz.util.db.ECPSTool;
 import com.here.xyz.util.db.datasource.DatabaseSettings;
 import com.here.xyz.util.service.Core;
+import com.here.xyz.util.service.HttpException;
 import com.here.xyz.util.service.rest.TooManyRequestsException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
@@ -47,6 +60,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.impl.ConcurrentHashSet;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
@@ -71,6 +85,14 @@ public abstract class RemoteFunctionClient {
   private static final Logger logger = LogManager.getLogger();
   private static int MEASUREMENT_INTERVAL = 1000; //1s
   private static final int MIN_CONNECTIONS_PER_NODE = 4;
+  /**
+   * The estimated size of an event without any features, see {@link #estimateByteSize(Event)}.
+   */
+  private static final long ESTIMATED_EVENT_BYTE_SIZE = 1024;
+  /**
+   * The estimated size of one feature of an event, see {@link #estimateByteSize(Event)}.
+   */
+  private static final long ESTIMATED_FEATURE_BYTE_SIZE = 2048;
 
   private static final String WRITER = "WRITER";
   private static final String READER = "READER";
@@ -91,6 +113,13 @@ public abstract class RemoteFunctionClient {
   private static final Set<RemoteFunctionClient> clientInstances = new ConcurrentHashSet<>();
   private static final LongAdder globalMinConnectionSum = new LongAdder();
   private static final LongAdder globalMaxConnectionSum = new LongAdder();
+
+  /**
+   * The latency of all invocations by connector. Only recorded if metrics are being published.
+   */
+  public static AttributedMetricCollection<HistogramValues> connectorLatency;
+  private static final Map<String, HistogramMetric> connectorLatencyMetrics = new ConcurrentHashMap<>();
+  private static final String CONNECTOR = "connector";
 //  private static AtomicLong lastSizeAdjustment;
 
   protected Connector connectorConfig;
@@ -102,12 +131,10 @@ public abstract class RemoteFunctionClient {
   private final AtomicLong lastThroughputMeasurement = new AtomicLong(Core.currentTimeMillis());
   private final LimitedQueue<FunctionCall> queue = new LimitedQueue<>(0, 0);
   private final AtomicInteger usedConnections = new AtomicInteger(0);
+  //The limit starts at the max connections once the connector config has been set, see #setConnectorConfig(Connector)
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, MIN_CONNECTIONS_PER_NODE);
   private static final ConcurrentHashMap<String, AtomicInteger> usedConnectionsByRequesterAndClusterRole = new ConcurrentHashMap<>();
   private static final ConcurrentHashMap<String, AuroraAcuMonitor> acuMonitorsByClusterRole = new ConcurrentHashMap<>();
-//  /**
-//   * Sliding average request execution time in seconds.
-//   */
-//  private double SARET = 1d; // 1 second initial value
 
   /**
    * The number of requests per second currently being executed by this RemoteFunctionClient.
@@ -122,7 +149,7 @@ public abstract class RemoteFunctionClient {
   /**
    * An approximation for the maximum number of requests per second which can be executed based on the performance of the remote function.
    */
-  private double rateOfService;
+  private volatile double rateOfService;
 
   RemoteFunctionClient(Connector connectorConfig) {
     if (connectorConfig == null) {
@@ -130,8 +157,6 @@ public abstract class RemoteFunctionClient {
     }
     setConnectorConfig(connectorConfig);
 
-//    recalculateRateOfService();
-
    /*
     For simplicity also here just set the value to maximum long. That means that we don't take the performance of the
     connector into account for defining the maximum queue length. Doing so this would just be a performance- / cost-
@@ -167,10 +192,20 @@ public abstract class RemoteFunctionClient {
   }
 
   protected FunctionCall submit(final Marker marker, byte[] bytes, boolean fireAndForget, boolean hasPriority, final Handler<AsyncResult<byte[]>> callback, RpcClient.RpcContext context) {
-    //This is the point where new requests arrive so measure the arrival time
-    invokeStarted();
+    return submit(new FunctionCall(marker, bytes, null, fireAndForget, hasPriority, completionHandler(callback)), callback, context);
+  }
+
+  /**
+   * Submits a call which hands over the event object itself to the remote function, rather than its serialized bytes.
+   * Must only be used if {@link #supportsInProcessInvocation()} returns true.
+   */
+  protected FunctionCall submit(final Marker marker, Event event, boolean hasPriority, final Handler<AsyncResult<InProcessResponse>> callback, RpcClient.RpcContext context) {
+    return submit(new FunctionCall(marker, null, event, false, hasPriority, completionHandler(callback)), callback, context);
+  }
 
-    FunctionCall fc = new FunctionCall(marker, bytes, fireAndForget, hasPriority, r -> {
+  @SuppressWarnings("unchecked")
+  private <R> Handler<AsyncResult<?>> completionHandler(Handler<AsyncResult<R>> callback) {
+    return r -> {
       //This is the point where the request's response came back so measure the throughput
       invokeCompleted();
 
@@ -178,15 +213,20 @@ public abstract class RemoteFunctionClient {
         callback.handle(Future.failedFuture(r.cause()));
         return;
       }
-      callback.handle(Future.succeededFuture(r.result()));
-    });
+      callback.handle(Future.succeededFuture((R) r.result()));
+    };
+  }
 
+  private <R> FunctionCall submit(FunctionCall fc, Handler<AsyncResult<R>> callback, RpcClient.RpcContext context) {
+    //This is the point where new requests arrive so measure the arrival time
+    invokeStarted();
+    fc.rpcContext = context;
 
-    if (!hasPriority){
+    if (!fc.hasPriority){
       if (context.getRequesterId() != null) {
         String role = resolveEffectiveRole(context);
         String key = buildRequesterKey(role, context);
-        if (checkRequesterThrottling(marker, callback, context, key)) {
+        if (checkRequesterThrottling(fc.marker, callback, context, key)) {
           return fc;
         }
         fc.requesterKey = key;
@@ -234,7 +274,7 @@ public abstract class RemoteFunctionClient {
     }
   }
 
-  private boolean checkRequesterThrottling(Marker marker, Handler<AsyncResult<byte[]>> callback, RpcContext context, String key) {
+  private <R> boolean checkRequesterThrottling(Marker marker, Handler<AsyncResult<R>> callback, RpcContext context, String key) {
       AtomicInteger connectionCount = usedConnectionsByRequesterAndClusterRole.computeIfAbsent(key, k -> new AtomicInteger());
       AuroraAcuMonitor acuMonitor = getEffectiveMonitor(context);
       int maxConnectionsPerRequester = (acuMonitor != null && acuMonitor.getUtilization() < HIGH_THRESHOLD)
@@ -345,6 +385,27 @@ public abstract class RemoteFunctionClient {
 
   protected abstract void invoke(final FunctionCall fc, final Handler<AsyncResult<byte[]>> callback);
 
+  /**
+   * Invokes the remote function by handing over the event object of the call directly.
+   * Clients for which {@link #supportsInProcessInvocation()} returns true should override this method.
+   * By default, the event gets serialized and the remote function is invoked using {@link #invoke(FunctionCall, Handler)}. The response
+   * bytes are handed back within a JSON {@link BinaryResponse}, which gets parsed by the caller like any other serialized response.
+   */
+  protected void invokeInProcess(final FunctionCall fc, final Handler<AsyncResult<InProcessResponse>> callback) {
+    fc.bytes = fc.event.toByteArray();
+    invoke(fc, r -> callback.handle(r.map(bytes -> new InProcessResponse(new BinaryResponse()
+        .withMimeType("application/json")
+        .withBytes(bytes), bytes.length))));
+  }
+
+  /**
+   * @return Whether the remote function runs in the same JVM and can be invoked with event objects directly
+   * @see #submit(Marker, Event, boolean, Handler, RpcContext)
+   */
+  public boolean supportsInProcessInvocation() {
+    return false;
+  }
+
   public double getThroughput() {
     measureThroughput();
     return throughput;
@@ -381,6 +442,7 @@ public abstract class RemoteFunctionClient {
     this.connectorConfig = connectorConfig;
     globalMinConnectionSum.add(getMinConnections() - oldMinConnections);
     globalMaxConnectionSum.add(getMaxConnections() - oldMaxConnections);
+    concurrencyLimiter.setMaxLimit(getMaxConnections());
     adjustQueueByteSizes();
   }
 
@@ -453,13 +515,17 @@ public abstract class RemoteFunctionClient {
   }
 
   private void _invoke(final FunctionCall fc, RpcClient.RpcContext context) {
-    //long start = System.nanoTime();
-    invoke(fc, r -> {
-      //long end = System.nanoTime();
-      //TODO: Activate performance calculation once it's implemented completely
-      //recalculatePerformance(end - start, TimeUnit.NANOSECONDS);
-      //Look into queue if there is something further to do
-      FunctionCall nextFc = queue.remove();
+    long start = System.nanoTime();
+    if (fc.rpcContext != null)
+      fc.rpcContext.setQueueWaitNanos(start - fc.submitTime);
+    Handler<AsyncResult<?>> onCompletion = r -> {
+      final long executionTimeNanos = System.nanoTime() - start;
+      if (fc.rpcContext != null)
+        fc.rpcContext.setExecutionNanos(executionTimeNanos);
+      recordLatency(executionTimeNanos);
+      recalculatePerformance(executionTimeNanos, r);
+      //Look into queue if there is something further to do, unless the connection limit was lowered in the meantime
+      FunctionCall nextFc = usedConnections.intValue() > getWeightedMaxConnections() ? null : queue.remove();
       if (nextFc == null && !fc.hasPriority) {
         if(usedConnections.intValue() > 0) {
           usedConnections.getAndDecrement(); //Free the connection only in case it's not needed for the next invocation
@@ -480,24 +546,43 @@ public abstract class RemoteFunctionClient {
       if (nextFc != null) {
         _invoke(nextFc, context);
       }
-    });
+    };
+
+    if (fc.event != null)
+      invokeInProcess(fc, onCompletion::handle);
+    else
+      invoke(fc, onCompletion::handle);
   }
 
-//  private void recalculatePerformance(long executionTime, TimeUnit timeUnit) {
-//    recalculateSARET(executionTime, timeUnit);
-//    recalculateRateOfService();
-//    adjustQueueElementCount();
-//  }
+  private void recordLatency(long executionTimeNanos) {
+    if (connectorLatency == null) return;
+    //Embedded connectors often respond in less than a millisecond, so the latency is recorded in microseconds
+    connectorLatencyMetrics.computeIfAbsent(connectorConfig.id, connectorId -> {
+      HistogramMetric m = new HistogramMetric(connectorLatency.getName(), connectorLatency.getUnit());
+      connectorLatency.addMetric(m, new Attribute<>(CONNECTOR, connectorId));
+      return m;
+    }).addValue(executionTimeNanos / 1_000d);
+  }
 
-//  private void recalculateSARET(long executionTime, TimeUnit timeUnit) {
-//    double executionTimeSeconds = (double) (timeUnit.toMicros(executionTime)) / 1_000_000d;
-//    double requestRelevance = 1 / (rateOfService * REQUEST_RELEVANCE_FACTOR);
-//    SARET = executionTimeSeconds * requestRelevance + SARET * (1d - requestRelevance);
-//  }
+  private void recalculatePerformance(long executionTimeNanos, AsyncResult<?> r) {
+    if (!Service.configuration.REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY)
+      return;
+    concurrencyLimiter.onSample(executionTimeNanos, usedConnections.intValue(), r.failed() && isOverloadIndication(r.cause()));
+    recalculateRateOfService();
+  }
 
-//  private void recalculateRateOfService() {
-//    rateOfService = getMaxConnections() / SARET;
-//  }
+  /**
+   * Checks whether the specified failure of an invocation indicates that the remote function (or the resource behind it) is overloaded.
+   */
+  private static boolean isOverloadIndication(Throwable t) {
+    return t instanceof TooManyRequestsException || t instanceof HttpException && ((HttpException) t).status == GATEWAY_TIMEOUT;
+  }
+
+  private void recalculateRateOfService() {
+    double rttMillis = concurrencyLimiter.getRecentRtt();
+    if (rttMillis > 0)
+      rateOfService = concurrencyLimiter.getLimit() / (rttMillis / 1000d);
+  }
 
   public double getRateOfService() {
     return rateOfService;
@@ -514,13 +599,21 @@ public abstract class RemoteFunctionClient {
   public int getWeightedMaxConnections() {
     if (getGlobalUsedConnectionsPercentage() > Service.configuration.REMOTE_FUNCTION_CONNECTION_HIGH_UTILIZATION_THRESHOLD) {
       //Distribute available connections based on the client's priority
-      return Math.min((int) (Service.configuration.REMOTE_FUNCTION_MAX_CONNECTIONS * getPriority()), getMaxConnections());
+      return Math.min((int) (Service.configuration.REMOTE_FUNCTION_MAX_CONNECTIONS * getPriority()), getConcurrencyLimit());
     }
     else {
-      return getMaxConnections();
+      return getConcurrencyLimit();
     }
   }
 
+  /**
+   * @return The maximum number of concurrent connections as currently determined by the adaptive concurrency limiter or the configured
+   *  maximum connections if adaptive concurrency limiting is not active.
+   */
+  public int getConcurrencyLimit() {
+    return Service.configuration.REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY ? concurrencyLimiter.getLimit() : getMaxConnections();
+  }
+
   public int getUsedConnections() {
     return usedConnections.intValue();
   }
@@ -550,14 +643,16 @@ public abstract class RemoteFunctionClient {
     return queue.getByteSize();
   }
 
-//  /**
-//   * Sets the maximum feasible element count of the queue with respect to the {@link #REQUEST_TIMEOUT} and the {@link #rateOfService} of
-//   * this RemoteFunctionClient.
-//   */
-//  private void adjustQueueElementCount() {
-//    long maxFeasibleElements = (long) Math.ceil(rateOfService * REQUEST_TIMEOUT);
-//    queue.setMaxSize(maxFeasibleElements);
-//  }
+  /**
+   * Sets the maximum feasible element count of the queue with respect to the {@link #MAX_REQUEST_TIMEOUT} and the measured performance of
+   * this RemoteFunctionClient. Calls which could not be executed in time anyways will be discarded.
+   */
+  private void adjustQueueElementCount() {
+    if (!Service.configuration.REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY)
+      return;
+    queue.setMaxSize(concurrencyLimiter.getMaxFeasibleQueueSize(MAX_REQUEST_TIMEOUT))
+        .forEach(RemoteFunctionClient::discard);
+  }
 
   private void enqueue(final FunctionCall fc) {
     /*if (Core.currentTimeMillis() > lastSizeAdjustment.get() + SIZE_ADJUSTMENT_INTERVAL
@@ -566,38 +661,79 @@ public abstract class RemoteFunctionClient {
       adjustQueueByteSizes();
     }*/
 
+    adjustQueueElementCount();
     //In any case add the element to the queue
-    queue.add(fc)
+    queue.add(fc, fc.hasPriority)
         //Send timeout for discarded (old) calls
-        .forEach(timeoutFc ->
-            timeoutFc.callback
-                .handle(Future.failedFuture(new TooManyRequestsException("Remote function is busy or cannot be invoked.", STORAGE_QUEUE_FULL))));
+        .forEach(RemoteFunctionClient::discard);
+  }
+
+  private static void discard(FunctionCall timeoutFc) {
+    timeoutFc.callback
+        .handle(Future.failedFuture(new TooManyRequestsException("Remote function is busy or cannot be invoked.", STORAGE_QUEUE_FULL)));
+  }
+
+  /**
+   * Estimates the size of an event which is handed over directly without serializing it.
+   * Although the event is referenced by the caller anyway, the memory which is needed for processing it should be bounded by the queue.
+   * The estimation is based on the number of features which are written by the event.
+   */
+  static long estimateByteSize(Event event) {
+    long featureCount = 0;
+    if (event instanceof ModifyFeaturesEvent modifyEvent)
+      featureCount = size(modifyEvent.getInsertFeatures()) + size(modifyEvent.getUpdateFeatures()) + size(modifyEvent.getUpsertFeatures())
+          + (modifyEvent.getDeleteFeatures() == null ? 0 : modifyEvent.getDeleteFeatures().size());
+    else if (event instanceof WriteFeaturesEvent writeEvent && writeEvent.getModifications() != null)
+      for (Modification modification : writeEvent.getModifications()) {
+        try {
+          featureCount += modification.getFeatureData() == null ? 0 : size(modification.getFeatureData().getFeatures());
+        }
+        catch (JsonProcessingException e) {
+          //The features have not been parsed, so the size is unknown
+        }
+        featureCount += size(modification.getFeatureIds());
+      }
+    return ESTIMATED_EVENT_BYTE_SIZE + featureCount * ESTIMATED_FEATURE_BYTE_SIZE;
+  }
+
+  private static long size(Collection<?> collection) {
+    return collection == null ? 0 : collection.size();
   }
 
   public class FunctionCall implements ByteSizeAware {
 
     final Marker marker;
-    final byte[] bytes;
+    byte[] bytes;
+    /**
+     * The event to be handed over directly, in case of an in-process invocation. In that case {@link #bytes} is null.
+     */
+    final Event event;
+    private final long byteSize;
     final boolean fireAndForget;
     final boolean hasPriority;
     final Context context = Core.vertx.getOrCreateContext();
+    final long submitTime = System.nanoTime();
 
-    private final Handler<AsyncResult<byte[]>> callback;
+    private final Handler<AsyncResult<?>> callback;
     private Runnable cancelHandler;
     private volatile boolean cancelled;
     private String requesterKey;
+    private RpcClient.RpcContext rpcContext;
 
-    public FunctionCall(Marker marker, byte[] bytes, boolean fireAndForget, boolean hasPriority, Handler<AsyncResult<byte[]>> callback) {
+    public FunctionCall(Marker marker, byte[] bytes, Event event, boolean fireAndForget, boolean hasPriority, Handler<AsyncResult<?>> callback) {
       this.marker = marker;
       this.bytes = bytes;
+      this.event = event;
       this.callback = callback;
       this.fireAndForget = fireAndForget;
       this.hasPriority = hasPriority;
+      //NOTE: The size must not change while the call is in the queue
+      byteSize = bytes != null ? bytes.length : estimateByteSize(event);
     }
 
     @Override
     public long getByteSize() {
-      return bytes.length;
+      return byteSize;
     }
 
     public void setCancelHandler(Runnable cancelHandler) {
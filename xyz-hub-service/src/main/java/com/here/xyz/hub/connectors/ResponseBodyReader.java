@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_GATEWAY;
+
+import com.here.xyz.hub.rest.Api;
+import com.here.xyz.util.service.HttpException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import java.util.Arrays;
+
+/**
+ * Reads the response body of a remote function chunk by chunk directly into the resulting byte array.
+ * If the connector sends a content-length, the array is allocated once with the exact size, so the body is held in memory only once.
+ * Bodies which are exceeding the maximum response size are rejected as soon as that is known, without reading them any further.
+ */
+class ResponseBodyReader {
+
+  private byte[] bytes;
+  private int length;
+  private boolean failed;
+
+  private ResponseBodyReader(long contentLength) {
+    bytes = new byte[contentLength >= 0 ? (int) contentLength : 8 * 1024];
+  }
+
+  /**
+   * Starts reading the body of the specified response.
+   *
+   * @param response The response to read the body from
+   * @param maxLength The maximum number of bytes the body may have
+   * @param callback Is called exactly once, either with the bytes of the body or with the failure
+   */
+  static void read(HttpClientResponse response, long maxLength, Handler<AsyncResult<byte[]>> callback) {
+    final String contentLengthHeader = response.getHeader(CONTENT_LENGTH);
+    final long contentLength = contentLengthHeader == null ? -1 : Long.parseLong(contentLengthHeader);
+    if (contentLength > maxLength) {
+      response.request().reset();
+      callback.handle(Future.failedFuture(new HttpException(Api.RESPONSE_PAYLOAD_TOO_LARGE, Api.RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE)));
+      return;
+    }
+
+    final ResponseBodyReader body = new ResponseBodyReader(contentLength);
+    response.handler(chunk -> {
+      if (body.failed)
+        return;
+      if (body.length + chunk.length() > maxLength) {
+        body.failed = true;
+        response.request().reset();
+        callback.handle(Future.failedFuture(new HttpException(Api.RESPONSE_PAYLOAD_TOO_LARGE, Api.RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE)));
+        return;
+      }
+      body.append(chunk);
+    });
+    response.exceptionHandler(t -> {
+      if (body.failed)
+        return;
+      body.failed = true;
+      callback.handle(Future.failedFuture(t));
+    });
+    response.endHandler(v -> {
+      if (body.failed)
+        return;
+      byte[] responseBytes = body.toByteArray();
+      if (responseBytes.length == 0)
+        callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Response body from remote HTTP connector service was empty.")));
+      else
+        callback.handle(Future.succeededFuture(responseBytes));
+    });
+  }
+
+  private void append(Buffer chunk) {
+    if (length + chunk.length() > bytes.length)
+      bytes = Arrays.copyOf(bytes, Math.max(length + chunk.length(), bytes.length * 2));
+    chunk.getBytes(bytes, length);
+    length += chunk.length();
+  }
+
+  private byte[] toByteArray() {
+    return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+  }
+}
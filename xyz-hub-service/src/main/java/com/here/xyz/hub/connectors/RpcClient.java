@@ -38,6 +38,7 @@ import com.google.common.io.ByteStreams;
 import com.here.xyz.Payload;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
+import com.here.xyz.connectors.EntryConnectorHandler.InProcessResponse;
 import com.here.xyz.connectors.RelocationClient;
 import com.here.xyz.events.Event;
 import com.here.xyz.events.GetFeaturesByTileEvent;
@@ -55,21 +56,29 @@ import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.HealthStatus;
 import com.here.xyz.responses.StatisticsResponse;
 import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.runtime.VirtualThreads;
 import com.here.xyz.util.service.Core;
 import com.here.xyz.util.service.HttpException;
 import com.here.xyz.util.service.errors.DetailedHttpException;
 import com.here.xyz.util.service.rest.TooManyRequestsException;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonObject;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -81,6 +90,11 @@ public class RpcClient {
 
   private static final ConcurrentHashMap<String, RpcClient> connectorIdToClient = new ConcurrentHashMap<>();
   private static final RelocationClient relocationClient = new RelocationClient(Service.configuration.XYZ_HUB_S3_BUCKET);
+  /**
+   * The maximum number of blocking tasks (e.g. relocations) which are running on virtual threads at the same time.
+   */
+  private static final int MAX_VIRTUAL_BLOCKING_TASKS = 256;
+  private static final Semaphore virtualBlockingTaskPermits = new Semaphore(MAX_VIRTUAL_BLOCKING_TASKS);
 
   private RemoteFunctionClient functionClient;
 
@@ -209,23 +223,52 @@ public class RpcClient {
 
   private void relocateAsync(Marker marker, byte[] bytes, Handler<AsyncResult<byte[]>> callback) {
     logger.info(marker, "Relocating event. Total event byte size: {}", bytes.length);
-    Core.vertx.executeBlocking(
-        future -> {
-          try {
-            future.complete(relocationClient.relocate(marker.getName(), Payload.compress(bytes)));
-          }
-          catch (Exception e) {
-            logger.error("An error occurred when trying to relocate the event.", e);
-            future.fail(new HttpException(BAD_GATEWAY, "Unable to relocate event.", e));
-          }
-        },
-        ar -> {
-          if (ar.failed())
-            callback.handle(Future.failedFuture(ar.cause()));
-          else
-            callback.handle(Future.succeededFuture((byte[]) ar.result()));
-        }
-    );
+    runBlocking(() -> {
+      try {
+        return relocationClient.relocate(marker.getName(), Payload.compress(bytes));
+      }
+      catch (Exception e) {
+        logger.error("An error occurred when trying to relocate the event.", e);
+        throw new HttpException(BAD_GATEWAY, "Unable to relocate event.", e);
+      }
+    }, callback);
+  }
+
+  /**
+   * Runs the provided blocking task on an own virtual thread rather than on a thread of the Vert.x worker pool.
+   * At most {@link #MAX_VIRTUAL_BLOCKING_TASKS} tasks are running on virtual threads at the same time. Further tasks, as well as all tasks
+   * on runtimes without virtual threads, are running on the (bounded) Vert.x worker pool instead.
+   * The callback is called on the context of the caller.
+   *
+   * @param task The blocking task
+   * @param callback The callback to be called with the result of the task
+   */
+  private static <R> void runBlocking(BlockingTask<R> task, Handler<AsyncResult<R>> callback) {
+    if (!VirtualThreads.isSupported() || !virtualBlockingTaskPermits.tryAcquire()) {
+      Core.vertx.executeBlocking(task::run, false).onComplete(callback);
+      return;
+    }
+
+    Context context = Core.vertx.getOrCreateContext();
+    CompletableFuture.supplyAsync(() -> {
+      try {
+        return task.run();
+      }
+      catch (Exception e) {
+        throw new CompletionException(e);
+      }
+      finally {
+        virtualBlockingTaskPermits.release();
+      }
+    }, VirtualThreads.sharedExecutor())
+        .whenComplete((result, t) -> context.runOnContext(v -> callback.handle(t == null
+            ? Future.succeededFuture(result)
+            : Future.failedFuture(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t))));
+  }
+
+  @FunctionalInterface
+  private interface BlockingTask<R> {
+    R run() throws Exception;
   }
 
   /**
@@ -269,9 +312,10 @@ public class RpcClient {
     final Connector connector = getConnector();
     injectConnectorParams(event, connector);
     final boolean expectBinaryResponse = expectBinaryResponse(event);
-    final String eventJson = event.serialize();
-    final byte[] eventBytes = eventJson.getBytes();
-    final RpcContext context = new RpcContext(connector).withRequestSize(eventBytes.length);
+    final boolean inProcess = functionClient.supportsInProcessInvocation();
+    final String eventJson = inProcess ? null : event.serialize();
+    final byte[] eventBytes = inProcess ? null : eventJson.getBytes();
+    final RpcContext context = new RpcContext(connector).withRequestSize(inProcess ? -1 : eventBytes.length);
 
     //Check whether the event type is allowed on the connector
     String region = Service.configuration == null ? null : Service.configuration.AWS_REGION;
@@ -282,12 +326,18 @@ public class RpcClient {
     }
     event.setSourceRegion(region);
 
-    logger.info(marker, "Invoking remote function \"{}\". Total uncompressed event size: {}, Event: {}", connector.id, eventBytes.length,
-            preview(eventJson, 4092));
-
     context.setRequesterId(requesterId);
     context.setExecuteOnPrimary(event.executeOnPrimary());
 
+    if (inProcess) {
+      logger.info(marker, "Invoking remote function \"{}\" in-process. Event type: {}", connector.id, event.getClass().getSimpleName());
+      invokeInProcess(marker, context, event, hasPriority, callback);
+      return context;
+    }
+
+    logger.info(marker, "Invoking remote function \"{}\". Total uncompressed event size: {}, Event: {}", connector.id, eventBytes.length,
+            preview(eventJson, 4092));
+
     invokeWithRelocation(marker, context, eventBytes, false, hasPriority, bytesResult -> {
       if (functionClient == null) {
         logger.warn("RpcClient for connector with ID {} was destroyed in the meantime, cancelling handling of response.",
@@ -303,7 +353,7 @@ public class RpcClient {
 
       // this is the original event size sent by the connector, it can be different from the payload size, in case of relocation.
       context.setResponseSize(bytesResult.result().length);
-      parseResponse(marker, bytesResult.result(), expectBinaryResponse, r -> {
+      parseResponse(marker, context, bytesResult.result(), expectBinaryResponse, r -> {
         if (r.failed()) {
           logger.warn(marker, "Error while handling the response from connector \"{}\".", connector.id, r.cause());
           callback.handle(Future.failedFuture(r.cause()));
@@ -315,6 +365,60 @@ public class RpcClient {
     return context;
   }
 
+  /**
+   * Hands over the event object to a remote function which runs in the same JVM and takes the response object as it is.
+   * Neither the event nor the response get serialized / parsed.
+   */
+  private void invokeInProcess(final Marker marker, RpcContext context, Event event, boolean hasPriority,
+      final Handler<AsyncResult<XyzResponse>> callback) {
+    final Connector connector = getConnector();
+    try {
+      context.functionCall = functionClient.submit(marker, event, hasPriority, responseResult -> {
+        if (functionClient == null) {
+          logger.warn("RpcClient for connector with ID {} was destroyed in the meantime, cancelling handling of response.",
+              connector.id);
+          context.cancelRequest();
+        }
+        if (context.cancelled)
+          return;
+        if (responseResult.failed()) {
+          callback.handle(Future.failedFuture(responseResult.cause()));
+          return;
+        }
+
+        final InProcessResponse response = responseResult.result();
+        context.setResponseSize((int) response.byteSize());
+        if (response.payload() instanceof BinaryResponse binaryResponse && isJsonMimeType(binaryResponse.getMimeType())) {
+          //A JSON string encoded within a BinaryResponse still needs to be decoded
+          parseResponse(marker, context, binaryResponse.getBytes(), false, callback);
+          return;
+        }
+        try {
+          checkResponseSize(marker, response);
+          validateResponsePayload(marker, response.payload());
+          postProcessResponsePayload(marker, response.payload());
+          callback.handle(Future.succeededFuture((XyzResponse) response.payload()));
+        }
+        catch (NullPointerException e) {
+          logger.warn(marker, "Received empty response from connector \"{}\".", connector.id, e);
+          callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Received an empty response from the connector.")));
+        }
+        catch (HttpException e) {
+          logger.warn(marker, "Error from connector.", e);
+          callback.handle(Future.failedFuture(e));
+        }
+        catch (Exception e) {
+          logger.warn(marker, "Unexpected exception while processing connector \"{}\" response.", connector.id, e);
+          callback.handle(
+              Future.failedFuture(new HttpException(BAD_GATEWAY, "Unexpected exception while processing connector response.")));
+        }
+      }, context);
+    }
+    catch (Exception e) {
+      callback.handle(Future.failedFuture(e));
+    }
+  }
+
   //TODO: Remove this injection of "connectorId" connector-param when the hash of ECPS is used as cache key for any connections in the PSQL connector
   private static void injectConnectorParams(Event event, Connector connector) {
     Map<String, Object> connectorParams = new HashMap<>(connector.params);
@@ -433,42 +537,56 @@ public class RpcClient {
     return response.containsKey("status") && !response.containsKey("type");
   }
 
-  @SuppressWarnings({"rawtypes", "UnusedAssignment"})
-  private void parseResponse(final Marker marker, byte[] bytes, boolean expectBinaryResponse, final Handler<AsyncResult<XyzResponse>> callback) {
-    String stringResponse = null;
+  /**
+   * Parses the response and measures the time it took to parse it within the specified rpc context.
+   */
+  private void parseResponse(final Marker marker, RpcContext context, byte[] bytes, boolean expectBinaryResponse,
+      final Handler<AsyncResult<XyzResponse>> callback) {
+    final long parseStart = System.nanoTime();
+    parseResponse(marker, bytes, expectBinaryResponse, r -> {
+      context.setParseNanos(System.nanoTime() - parseStart);
+      callback.handle(r);
+    });
+  }
 
+  @SuppressWarnings("rawtypes")
+  private void parseResponse(final Marker marker, byte[] bytes, boolean expectBinaryResponse, final Handler<AsyncResult<XyzResponse>> callback) {
     try {
       checkResponseSize(marker, bytes);
 
-      if (Payload.isGzipped(bytes))
-        bytes = Payload.decompress(bytes);
-      checkUncompressedResponseSize(marker, bytes);
-
+      //Decompress the payload while parsing it, rather than decompressing it into another array and decoding that into a String first
+      InputStream payload = Payload.prepareInputStream(new ByteArrayInputStream(bytes));
       if (expectBinaryResponse) {
+        if (Payload.isGzipped(bytes))
+          bytes = ByteStreams.toByteArray(payload);
+        checkUncompressedResponseSize(marker, bytes);
         tryDecodeBinaryResponse(marker, bytes, callback);
         return;
       }
 
-      stringResponse = new String(bytes);
-      bytes = null; //GC may collect the bytes now.
-
-      Typed payload;
+      Typed payloadObject;
       try {
-        payload = XyzSerializable.deserialize(stringResponse);
+        if (Payload.isGzipped(bytes))
+          payloadObject = XyzSerializable.deserializeRaw(limitUncompressedResponseSize(marker, payload));
+        else {
+          //The raw features are kept as a view on the received bytes, so they are neither parsed nor copied
+          checkUncompressedResponseSize(marker, bytes);
+          payloadObject = XyzSerializable.deserializeRaw(bytes);
+        }
       }
       catch (InvalidTypeIdException e) {
-        JsonObject response = new JsonObject(stringResponse);
+        JsonObject response = new JsonObject(toResponseString(bytes));
 
         if (!isOldHealthStatus(response)) throw e;
 
         //Keep backward compatibility for old HealthStatus responses
         logger.warn(marker, "Connector {} responds with an old version of the HealthStatus response.", getConnector().id);
-        payload = new HealthStatus().withStatus(response.getString("status"));
+        payloadObject = new HealthStatus().withStatus(response.getString("status"));
       }
 
-      if (payload instanceof RelocatedEvent) {
+      if (payloadObject instanceof RelocatedEvent) {
         //Unwrap the RelocatedEvent and download the actual content, afterwards call this method again with the unwrapped result
-        processRelocatedEventAsync((RelocatedEvent) payload, ar -> {
+        processRelocatedEventAsync((RelocatedEvent) payloadObject, ar -> {
           if (ar.failed()) {
             callback.handle(Future.failedFuture(ar.cause()));
             return;
@@ -477,9 +595,9 @@ public class RpcClient {
         });
       }
       else {
-        validateResponsePayload(marker, payload);
-        postProcessResponsePayload(marker, payload);
-        callback.handle(Future.succeededFuture((XyzResponse) payload));
+        validateResponsePayload(marker, payloadObject);
+        postProcessResponsePayload(marker, payloadObject);
+        callback.handle(Future.succeededFuture((XyzResponse) payloadObject));
       }
     }
     catch (NullPointerException e) {
@@ -487,11 +605,13 @@ public class RpcClient {
       callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Received an empty response from the connector.")));
     }
     catch (JsonMappingException e) {
+      //NOTE: The response string is only decoded in case of an error
+      final String stringResponse = toResponseString(bytes);
       logger.warn(marker, "Mapping error in the provided content {} from connector \"{}\".", stringResponse, getConnector().id, e);
       callback.handle(Future.failedFuture(getJsonMappingErrorMessage(stringResponse)));
     }
     catch (JsonParseException | DecodeException e) {
-      logger.warn(marker, "Parsing error in the provided content {} from connector \"{}\".", stringResponse, getConnector().id, e);
+      logger.warn(marker, "Parsing error in the provided content {} from connector \"{}\".", toResponseString(bytes), getConnector().id, e);
       callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Invalid content provided by the connector: Invalid JSON string. "
           + (e instanceof JsonParseException ? "Error at line " + ((JsonParseException) e).getLocation().getLineNr() + ", column "
           + ((JsonParseException) e).getLocation().getColumnNr() + "." : ""))));
@@ -500,13 +620,107 @@ public class RpcClient {
       logger.warn(marker, "Error from connector.", e);
       callback.handle(Future.failedFuture(e));
     }
+    catch (ResponseSizeExceededException e) {
+      callback.handle(Future.failedFuture(e.httpException));
+    }
     catch (Exception e) {
-      logger.warn(marker, "Unexpected exception while processing connector \"{}\" response: {}.", getConnector().id, stringResponse, e);
+      logger.warn(marker, "Unexpected exception while processing connector \"{}\" response: {}.", getConnector().id,
+          toResponseString(bytes), e);
       callback.handle(
           Future.failedFuture(new HttpException(BAD_GATEWAY, "Unexpected exception while processing connector response.")));
     }
   }
 
+  /**
+   * Decodes the (possibly compressed) response into a String. This should only be used for logging / error handling purposes.
+   */
+  private static String toResponseString(byte[] bytes) {
+    try {
+      return bytes == null ? null : new String(Payload.isGzipped(bytes) ? Payload.decompress(bytes) : bytes);
+    }
+    catch (IOException e) {
+      return "<invalid compressed content>";
+    }
+  }
+
+  /**
+   * Wraps the decompressed payload, so that reading it fails as soon as it exceeds the maximum uncompressed response size.
+   * That way an oversized response is never fully decompressed into memory.
+   */
+  private InputStream limitUncompressedResponseSize(Marker marker, InputStream payload) {
+    final long maxSize = Service.configuration.MAX_UNCOMPRESSED_RESPONSE_SIZE;
+    if (maxSize <= 0)
+      return payload;
+    return new SizeLimitedInputStream(payload, maxSize, () -> throwResponseSizeException(marker));
+  }
+
+  /**
+   * An input stream which fails with a {@link ResponseSizeExceededException} as soon as more than the maximum number of bytes were read.
+   */
+  static class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private final SizeExceededHandler sizeExceededHandler;
+    private long count;
+
+    /**
+     * @param in The stream to read from
+     * @param maxSize The maximum number of bytes which may be read
+     * @param sizeExceededHandler Is called once the maximum size was exceeded and must throw the according {@link HttpException}
+     */
+    SizeLimitedInputStream(InputStream in, long maxSize, SizeExceededHandler sizeExceededHandler) {
+      super(in);
+      this.maxSize = maxSize;
+      this.sizeExceededHandler = sizeExceededHandler;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0)
+        count(1);
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0)
+        count(n);
+      return n;
+    }
+
+    private void count(int n) throws IOException {
+      count += n;
+      if (count > maxSize) {
+        try {
+          sizeExceededHandler.onSizeExceeded();
+        }
+        catch (HttpException e) {
+          throw new ResponseSizeExceededException(e);
+        }
+      }
+    }
+
+    @FunctionalInterface
+    interface SizeExceededHandler {
+      void onSizeExceeded() throws HttpException;
+    }
+  }
+
+  /**
+   * Carries the {@link HttpException} for a too large response through the JSON parser.
+   */
+  static class ResponseSizeExceededException extends IOException {
+
+    final HttpException httpException;
+
+    private ResponseSizeExceededException(HttpException httpException) {
+      super(httpException.getMessage());
+      this.httpException = httpException;
+    }
+  }
+
   /**
    * Try to decode the binary response and fall back to JSON-decoding in case it fails.
    * @param marker
@@ -531,8 +745,7 @@ public class RpcClient {
       return;
     }
 
-    if (binaryResponse.getMimeType() != null && binaryResponse.getMimeType().startsWith("application/")
-        && binaryResponse.getMimeType().endsWith("json")) {
+    if (isJsonMimeType(binaryResponse.getMimeType())) {
       //In case we got a JSON string encoded within a BinaryResponse, it needs to be un-packed and continued with the JSON-decoding
       parseResponse(marker, binaryResponse.getBytes(), false, callback);
     }
@@ -540,27 +753,21 @@ public class RpcClient {
       callback.handle(Future.succeededFuture(binaryResponse));
   }
 
+  private static boolean isJsonMimeType(String mimeType) {
+    return mimeType != null && mimeType.startsWith("application/") && mimeType.endsWith("json");
+  }
+
   private void processRelocatedEventAsync(RelocatedEvent relocatedEvent, Handler<AsyncResult<byte[]>> callback) {
-    Core.vertx.executeBlocking(
-        future -> {
-          try {
-            InputStream input = relocationClient.processRelocatedEvent(relocatedEvent, getConnector().getRemoteFunction().getRegion());
-            future.complete(ByteStreams.toByteArray(input));
-          }
-          catch (Exception e) {
-            logger.error("An error occurred when processing a relocated response.", e);
-            future.fail(new HttpException(BAD_GATEWAY, "Unable to load the relocated event.", e));
-          }
-        },
-        ar -> {
-          if (ar.failed()) {
-            callback.handle(Future.failedFuture(ar.cause()));
-          }
-          else {
-            callback.handle(Future.succeededFuture((byte[]) ar.result()));
-          }
-        }
-    );
+    runBlocking(() -> {
+      try {
+        InputStream input = relocationClient.processRelocatedEvent(relocatedEvent, getConnector().getRemoteFunction().getRegion());
+        return ByteStreams.toByteArray(input);
+      }
+      catch (Exception e) {
+        logger.error("An error occurred when processing a relocated response.", e);
+        throw new HttpException(BAD_GATEWAY, "Unable to load the relocated event.", e);
+      }
+    }, callback);
   }
 
   /**
@@ -611,6 +818,21 @@ public class RpcClient {
     }
   }
 
+  /**
+   * Applies the same size checks as {@link #checkResponseSize(Marker, byte[])} and {@link #checkUncompressedResponseSize(Marker, byte[])}
+   * for a response which was not serialized for the transport.
+   */
+  protected void checkResponseSize(Marker marker, InProcessResponse response) throws HttpException {
+    final long byteSize = response.byteSize();
+    if (Api.MAX_SERVICE_RESPONSE_SIZE > 0 && byteSize > Api.MAX_SERVICE_RESPONSE_SIZE
+        || Service.configuration.MAX_UNCOMPRESSED_RESPONSE_SIZE > 0 && byteSize > Service.configuration.MAX_UNCOMPRESSED_RESPONSE_SIZE)
+      throwResponseSizeException(marker);
+
+    //The compressed size has been estimated by the connector already, so nothing has to be compressed here (on the event loop)
+    if (Api.MAX_HTTP_RESPONSE_SIZE > 0 && byteSize > Api.MAX_HTTP_RESPONSE_SIZE && response.compressedByteSize() > Api.MAX_HTTP_RESPONSE_SIZE)
+      throwResponseSizeException(marker);
+  }
+
   protected void checkUncompressedResponseSize(Marker marker, byte[] bytes) throws HttpException {
     if (ArrayUtils.isEmpty(bytes))
       throw new NullPointerException("Response string is null or empty");
@@ -647,6 +869,9 @@ public class RpcClient {
     private volatile boolean cancelled = false;
 
     private boolean executeOnPrimary;
+    private long queueWaitNanos = -1;
+    private long executionNanos = -1;
+    private long parseNanos = -1;
 
     private final Connector connector;
     private FunctionCall functionCall;
@@ -706,5 +931,38 @@ public class RpcClient {
       this.executeOnPrimary = executeOnPrimary;
     }
 
+    /**
+     * @return The time in nanoseconds the call had to wait in the queue of the remote function client or -1 if it was not invoked
+     */
+    public long getQueueWaitNanos() {
+      return queueWaitNanos;
+    }
+
+    void setQueueWaitNanos(long queueWaitNanos) {
+      this.queueWaitNanos = queueWaitNanos;
+    }
+
+    /**
+     * @return The time in nanoseconds the connector took to execute the call or -1 if it was not executed
+     */
+    public long getExecutionNanos() {
+      return executionNanos;
+    }
+
+    void setExecutionNanos(long executionNanos) {
+      this.executionNanos = executionNanos;
+    }
+
+    /**
+     * @return The time in nanoseconds it took to parse the response of the connector or -1 if it was not parsed
+     */
+    public long getParseNanos() {
+      return parseNanos;
+    }
+
+    void setParseNanos(long parseNanos) {
+      this.parseNanos = parseNanos;
+    }
+
   }
 }
\ No newline at end of file
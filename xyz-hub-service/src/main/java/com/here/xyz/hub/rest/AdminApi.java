@@ -38,6 +38,7 @@ import com.here.xyz.hub.config.BranchConfigClient;
 import com.here.xyz.hub.connectors.RemoteFunctionClient;
 import com.here.xyz.hub.connectors.statistics.StorageStatisticsProvider;
 import com.here.xyz.hub.rest.ApiParam.Query;
+import com.here.xyz.hub.util.metrics.base.OpenMetricsExposition;
 import com.here.xyz.models.hub.Branch.DeletedBranch;
 import com.here.xyz.models.hub.jwt.ActionMatrix;
 import com.here.xyz.util.service.BaseHttpServerVerticle;
@@ -62,6 +63,7 @@ public class AdminApi extends Api {
   public static final String ADMIN_STORAGE_STATISTICS = MAIN_ADMIN_ENDPOINT + "statistics/spaces/storage";
   public static final String ADMIN_BRANCHES = MAIN_ADMIN_ENDPOINT + "branches";
   public static final String ADMIN_METRICS_ENDPOINT = MAIN_ADMIN_ENDPOINT + "metrics";
+  public static final String ADMIN_OPENMETRICS_ENDPOINT = ADMIN_METRICS_ENDPOINT + "/openmetrics";
 
   private static final String ADMIN_CAPABILITY_MESSAGING = "messaging";
   public static final String ADMIN_CAPABILITY_STATISTICS = "statistics";
@@ -89,6 +91,10 @@ public class AdminApi extends Api {
     router.route(HttpMethod.GET, ADMIN_METRICS_ENDPOINT)
         .handler(auth)
         .handler(this::onGetMetrics);
+
+    router.route(HttpMethod.GET, ADMIN_OPENMETRICS_ENDPOINT)
+        .handler(auth)
+        .handler(this::onGetOpenMetrics);
   }
 
   private void onMessage(final RoutingContext context) {
@@ -189,6 +195,21 @@ public class AdminApi extends Api {
     }
   }
 
+  private void onGetOpenMetrics(final RoutingContext context) {
+    try {
+      context
+          .response()
+          .putHeader(CONTENT_TYPE, OpenMetricsExposition.CONTENT_TYPE)
+          .setStatusCode(OK.code())
+          .setStatusMessage(OK.reasonPhrase())
+          .end(OpenMetricsExposition.render());
+    }
+    catch (Exception e) {
+      logger.error("Error creating OpenMetrics metric response", e);
+      sendErrorResponse(context, e);
+    }
+  }
+
   private String _buildPrometheusResponse() {
     StringBuilder sb = new StringBuilder();
 
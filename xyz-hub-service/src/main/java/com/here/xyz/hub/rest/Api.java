@@ -22,6 +22,8 @@ package com.here.xyz.hub.rest;
 import static com.here.xyz.Payload.compress;
 import static com.here.xyz.Payload.decompress;
 import static com.here.xyz.Payload.isGzipped;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.COMPRESSION;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.SERIALIZATION;
 import static com.here.xyz.util.service.BaseHttpServerVerticle.HeaderValues.APPLICATION_GEO_JSON;
 import static com.here.xyz.util.service.BaseHttpServerVerticle.HeaderValues.APPLICATION_JSON;
 import static com.here.xyz.util.service.BaseHttpServerVerticle.HeaderValues.TEXT_PLAIN;
@@ -40,11 +42,15 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.XyzSerializable.Public;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.XYZHubRESTVerticle;
+import com.here.xyz.hub.cache.EncodedResponse;
 import com.here.xyz.hub.connectors.models.Space.CacheProfile;
 import com.here.xyz.hub.rest.ApiParam.Query;
+import com.here.xyz.hub.rest.StreamingResponse.ResponseTooLargeException;
 import com.here.xyz.hub.task.FeatureTask;
+import com.here.xyz.hub.task.FeatureTaskHandler;
 import com.here.xyz.hub.task.SpaceTask;
 import com.here.xyz.hub.task.Task;
+import com.here.xyz.hub.util.CpuWorkerPool;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.hub.Space.Internal;
 import com.here.xyz.models.hub.Space.WithConnectors;
@@ -56,11 +62,13 @@ import com.here.xyz.responses.StatisticsResponse;
 import com.here.xyz.responses.XyzError;
 import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.responses.changesets.ChangesetCollection;
+import com.here.xyz.util.service.Core;
 import com.here.xyz.util.service.HttpException;
 import com.here.xyz.util.service.logging.LogUtil;
 import com.here.xyz.util.service.rest.TooManyRequestsException;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerResponse;
@@ -157,6 +165,11 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
       return;
     }
 
+    if (response instanceof EncodedResponse encodedResponse) {
+      sendEncodedResponse(task, encodedResponse);
+      return;
+    }
+
     if (task.responseType.binary && response instanceof BinaryResponse) {
       sendBinaryResponse(task, ((BinaryResponse) response).getMimeType(), ((BinaryResponse) response).getBytes());
       return;
@@ -172,7 +185,19 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
           if (response instanceof FeatureCollection) {
             // Warning: We need to use "toString()" here and NOT Json.encode, because in fact the feature collection may be an
             // LazyParsedFeatureCollection and in that case only toString will work as intended!
-            sendGeoJsonResponse(task, response.serialize());
+            //If all writer threads are busy, the response is serialized as a whole instead
+            if (isStreamingResponse(task) && StreamingResponse.reserveWriter()) {
+              sendStreamingResponse(task, response);
+              return;
+            }
+            if (task.getStorageResponseSize() >= CpuWorkerPool.OFFLOAD_BYTES) {
+              //Serialize large responses on a worker to not block the event-loop
+              CpuWorkerPool.getInstance().submit(() -> serialize(task, response))
+                  .onSuccess(geoJson -> sendGeoJsonResponse(task, geoJson))
+                  .onFailure(t -> sendErrorResponse(task, t));
+              return;
+            }
+            sendGeoJsonResponse(task, serialize(task, response));
             return;
           }
           break;
@@ -241,6 +266,152 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
             + response.getClass().getSimpleName() + "'");
   }
 
+  private static boolean isStreamingResponse(final FeatureTask task) {
+    return Service.configuration != null && Service.configuration.STREAMING_RESPONSE_MIN_SIZE > 0
+        && task.getStorageResponseSize() >= Service.configuration.STREAMING_RESPONSE_MIN_SIZE;
+  }
+
+  /**
+   * Streams the response to the client in chunks while it is being serialized on a worker thread, so that the whole serialized response
+   * never has to be held in memory. The chunks which were not written to the connection yet are accounted as inflight request memory of
+   * the task's storage.
+   * As the status has been sent already once the first chunk was written, a failure during the serialization can only be signaled to the
+   * client by resetting the connection.
+   * A writer thread must have been reserved using {@link StreamingResponse#reserveWriter()} before.
+   *
+   * @param task the feature task for which to stream the response.
+   * @param response the response to be serialized.
+   */
+  private void sendStreamingResponse(final FeatureTask task, final XyzResponse response) {
+    final long maxResponseLength = getMaxResponseLength(task.context);
+    if (task.getStorageResponseSize() > maxResponseLength) {
+      StreamingResponse.releaseWriter();
+      sendErrorResponse(task.context, new HttpException(RESPONSE_PAYLOAD_TOO_LARGE, RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE));
+      return;
+    }
+
+    final HttpServerResponse httpResponse = task.context.response().setStatusCode(OK.code()).setChunked(true);
+    setCacheControlHeader(task, httpResponse);
+    httpResponse.putHeader(CONTENT_TYPE, APPLICATION_GEO_JSON);
+
+    final String storageId = task.storage.id;
+    final io.vertx.core.Context vertxContext = Core.vertx.getOrCreateContext();
+    final long writeTimeout = Service.configuration.STREAMING_RESPONSE_WRITE_TIMEOUT > 0
+        ? Service.configuration.STREAMING_RESPONSE_WRITE_TIMEOUT : StreamingResponse.DEFAULT_WRITE_TIMEOUT_MS;
+    final StreamingResponse stream = new StreamingResponse(vertxContext, httpResponse, maxResponseLength, writeTimeout,
+        bytes -> {
+          if (bytes > 0)
+            FeatureTaskHandler.registerRequestMemory(storageId, bytes);
+          else
+            FeatureTaskHandler.deregisterRequestMemory(storageId, -bytes);
+        });
+    final long serializationStart = System.nanoTime();
+    final Promise<Void> promise = Promise.promise();
+    StreamingResponse.runWriter(() -> {
+      try {
+        response.writeTo(stream);
+        stream.end();
+        vertxContext.runOnContext(v -> promise.complete());
+      }
+      catch (Exception e) {
+        vertxContext.runOnContext(v -> promise.fail(e));
+      }
+    });
+    promise.future()
+        .onSuccess(v -> task.getTimeline().add(SERIALIZATION, System.nanoTime() - serializationStart - stream.getWaitingNanos()))
+        .onFailure(t -> {
+          if (!httpResponse.headWritten()) {
+            sendErrorResponse(task, t instanceof ResponseTooLargeException
+                ? new HttpException(RESPONSE_PAYLOAD_TOO_LARGE, RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE) : t);
+            return;
+          }
+          logger.warn(task.getMarker(), "Streaming the response was aborted after {} bytes.", stream.getLength(), t);
+          if (!httpResponse.closed())
+            httpResponse.reset();
+        });
+  }
+
+  private static String serialize(final FeatureTask task, final XyzResponse response) {
+    final long serializationStart = System.nanoTime();
+    final String serialized = response.serialize();
+    task.getTimeline().add(SERIALIZATION, System.nanoTime() - serializationStart);
+    return serialized;
+  }
+
+  /**
+   * Encodes the response of the given feature task into the bytes which would be sent to the client for it.
+   * The result can be sent by {@link #sendResponse(FeatureTask)} without any further serialization and can be written to the cache as is.
+   *
+   * @param task the feature task of which to encode the response.
+   * @return the encoded response or null, if the task's response can not be sent as a plain successful response.
+   */
+  public static EncodedResponse encodeResponse(final FeatureTask task) throws JsonProcessingException {
+    final XyzResponse response = task.getResponse();
+    if (response instanceof EncodedResponse encodedResponse)
+      return encodedResponse;
+    if (response == null || response instanceof ErrorResponse || response instanceof NotModifiedResponse
+        || ApiResponseType.EMPTY == task.responseType)
+      return null;
+
+    if (task.responseType.binary && response instanceof BinaryResponse binaryResponse) {
+      byte[] bytes = binaryResponse.getBytes();
+      if (bytes == null || bytes.length == 0)
+        return null;
+      final int uncompressedLength = bytes.length;
+      final boolean gzip = acceptsGzip(task) && !isPreventCompression(task);
+      final long compressionStart = System.nanoTime();
+      try {
+        if (gzip && !isGzipped(bytes))
+          bytes = compress(bytes);
+        else if (!gzip && isGzipped(bytes))
+          bytes = decompress(bytes);
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      task.getTimeline().add(COMPRESSION, System.nanoTime() - compressionStart);
+      return new EncodedResponse(binaryResponse.getMimeType(), Buffer.buffer(bytes), gzip, uncompressedLength)
+          .withEtag(response.getEtag());
+    }
+
+    final String body;
+    final String contentType;
+    final long serializationStart = System.nanoTime();
+    switch (task.responseType) {
+      case FEATURE_COLLECTION:
+        if (!(response instanceof FeatureCollection))
+          return null;
+        body = response.serialize();
+        contentType = APPLICATION_GEO_JSON;
+        break;
+      case FEATURE:
+        if (!(response instanceof FeatureCollection collection) || collection.getFeatures() == null
+            || collection.getFeatures().size() == 0)
+          return null;
+        body = Json.encode(collection.getFeatures().get(0));
+        contentType = APPLICATION_GEO_JSON;
+        break;
+      case CHANGESET_COLLECTION:
+        if (!(response instanceof ChangesetCollection))
+          return null;
+        body = Json.encode(response);
+        contentType = APPLICATION_JSON;
+        break;
+      case STATISTICS_RESPONSE:
+        if (!(response instanceof StatisticsResponse))
+          return null;
+        body = Json.encode(response);
+        contentType = APPLICATION_JSON;
+        break;
+      default:
+        return null;
+    }
+
+    final byte[] bytes = body.getBytes();
+    task.getTimeline().add(SERIALIZATION, System.nanoTime() - serializationStart);
+    return new EncodedResponse(contentType, Buffer.buffer(bytes), false, bytes.length).withEtag(response.getEtag());
+  }
+
   /**
    * @deprecated Please only use {@link XyzSerializable#serialize(Object, Class)} directly instead.
    * Helper method which returns the marker for the JSON writer depending on which parameters the user has access in the response. These
@@ -375,13 +546,60 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
     super.sendResponseBytes(context, httpResponse, response);
   }
 
-  private void sendResponse(final Task task, HttpResponseStatus status, String contentType, byte[] response) {
-    HttpServerResponse httpResponse = task.context.response().setStatusCode(status.code());
+  /**
+   * Sends an already encoded response to the client without performing any further serialization.
+   * A gzipped body is only decompressed if the client does not accept the gzip encoding.
+   *
+   * @param task the task for which to send the response.
+   * @param encodedResponse the pre-encoded response.
+   */
+  private void sendEncodedResponse(final Task task, EncodedResponse encodedResponse) {
+    HttpServerResponse httpResponse = task.context.response().setStatusCode(OK.code());
+    setCacheControlHeader(task, httpResponse);
+    setDecompressedSizeHeaders(encodedResponse.getUncompressedLength(), task.context);
 
-    CacheProfile cacheProfile = task.getCacheProfile();
-    if (cacheProfile.browserTTL > 0)
-      httpResponse.putHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + (cacheProfile.browserTTL / 1000));
+    if (encodedResponse.getUncompressedLength() > getMaxResponseLength(task.context)) {
+      sendErrorResponse(task.context, new HttpException(RESPONSE_PAYLOAD_TOO_LARGE, RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE));
+      return;
+    }
+
+    Buffer body = encodedResponse.getBody();
+    if (encodedResponse.isGzipped()) {
+      if (acceptsGzip(task))
+        httpResponse.putHeader(CONTENT_ENCODING, "gzip");
+      else if (encodedResponse.getUncompressedLength() >= CpuWorkerPool.OFFLOAD_BYTES) {
+        //Decompress large responses on a worker to not block the event-loop
+        CpuWorkerPool.getInstance().submit(() -> decompressBody(task, encodedResponse.getBody()))
+            .onSuccess(decompressedBody -> httpResponse.putHeader(CONTENT_TYPE, encodedResponse.getContentType()).end(decompressedBody))
+            .onFailure(t -> sendErrorResponse(task, t));
+        return;
+      }
+      else
+        body = decompressBody(task, body);
+    }
+    httpResponse.putHeader(CONTENT_TYPE, encodedResponse.getContentType());
+    httpResponse.end(body);
+  }
 
+  /**
+   * Decompresses the gzipped body of an encoded response. This method does not touch the HTTP response, so it can be executed on a worker.
+   */
+  private static Buffer decompressBody(Task task, Buffer body) {
+    final long compressionStart = System.nanoTime();
+    try {
+      return Buffer.buffer(decompress(body.getBytes()));
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    finally {
+      task.getTimeline().add(COMPRESSION, System.nanoTime() - compressionStart);
+    }
+  }
+
+  private void sendResponse(final Task task, HttpResponseStatus status, String contentType, byte[] response) {
+    HttpServerResponse httpResponse = task.context.response().setStatusCode(status.code());
+    setCacheControlHeader(task, httpResponse);
     setDecompressedSizeHeaders(response, task.context);
 
     if (response == null || response.length == 0) {
@@ -392,6 +610,19 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
     }
     else if (response.length > getMaxResponseLength(task.context))
       sendErrorResponse(task.context, new HttpException(RESPONSE_PAYLOAD_TOO_LARGE, RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE));
+    else if (task.responseType.binary && response.length >= CpuWorkerPool.OFFLOAD_BYTES) {
+      //(De-)compress large responses on a worker to not block the event-loop
+      final byte[] uncompressedResponse = response;
+      final boolean gzip = acceptsGzip(task) && !isPreventCompression(task);
+      CpuWorkerPool.getInstance().submit(() -> encodeContent(task, uncompressedResponse, gzip))
+          .onSuccess(encodedResponse -> {
+            if (gzip)
+              httpResponse.putHeader(CONTENT_ENCODING, "gzip");
+            httpResponse.putHeader(CONTENT_TYPE, contentType);
+            httpResponse.end(Buffer.buffer(encodedResponse));
+          })
+          .onFailure(t -> sendErrorResponse(task, t));
+    }
     else {
       response = ensureContentEncoding(task, response);
       httpResponse.putHeader(CONTENT_TYPE, contentType);
@@ -399,29 +630,51 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
     }
   }
 
+  private static void setCacheControlHeader(Task task, HttpServerResponse httpResponse) {
+    CacheProfile cacheProfile = task.getCacheProfile();
+    if (cacheProfile.browserTTL > 0)
+      httpResponse.putHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + (cacheProfile.browserTTL / 1000));
+  }
+
   private static byte[] ensureContentEncoding(Task task, byte[] response) {
-    HttpServerResponse httpResponse = task.context.response();
     if (task.responseType.binary) {
-      final String acceptedContentEncoding = task.context.request().getHeader(ACCEPT_ENCODING);
-      String acceptEncoding = acceptedContentEncoding == null ? acceptedContentEncoding : acceptedContentEncoding.toLowerCase();
-      if (acceptedContentEncoding != null && (acceptEncoding.contains("gzip") || acceptEncoding.contains("*"))
-          && !acceptEncoding.contains("gzip;q=0") && !isPreventCompression(task)) {
-        httpResponse.putHeader(CONTENT_ENCODING, "gzip");
-        if (!isGzipped(response))
-          response = compress(response);
+      final boolean gzip = acceptsGzip(task) && !isPreventCompression(task);
+      if (gzip)
+        task.context.response().putHeader(CONTENT_ENCODING, "gzip");
+      response = encodeContent(task, response, gzip);
+    }
+    return response;
+  }
+
+  /**
+   * (De-)compresses the binary response as necessary. This method does not touch the HTTP response, so it can be executed on a worker.
+   */
+  private static byte[] encodeContent(Task task, byte[] response, boolean gzip) {
+    final long compressionStart = System.nanoTime();
+    if (gzip) {
+      if (!isGzipped(response))
+        response = compress(response);
+    }
+    else if (isGzipped(response)) {
+      try {
+        response = decompress(response);
       }
-      else if (isGzipped(response)) {
-        try {
-          response = decompress(response);
-        }
-        catch (IOException e) {
-          throw new RuntimeException(e);
-        }
+      catch (IOException e) {
+        throw new RuntimeException(e);
       }
     }
+    task.getTimeline().add(COMPRESSION, System.nanoTime() - compressionStart);
     return response;
   }
 
+  private static boolean acceptsGzip(Task task) {
+    final String acceptedContentEncoding = task.context.request().getHeader(ACCEPT_ENCODING);
+    if (acceptedContentEncoding == null)
+      return false;
+    String acceptEncoding = acceptedContentEncoding.toLowerCase();
+    return (acceptEncoding.contains("gzip") || acceptEncoding.contains("*")) && !acceptEncoding.contains("gzip;q=0");
+  }
+
   private static boolean isPreventCompression(Task task) {
     if (!(task instanceof FeatureTask featureTask) || featureTask.storage.blockMimetypeCompression == null
         || !(featureTask.getResponse() instanceof BinaryResponse binaryResponse))
@@ -431,10 +684,13 @@ public abstract class Api extends com.here.xyz.util.service.rest.Api {
   }
 
   private void setDecompressedSizeHeaders(byte[] response, RoutingContext context) {
+    setDecompressedSizeHeaders(response == null ? 0 : response.length, context);
+  }
+
+  private void setDecompressedSizeHeaders(long responseSize, RoutingContext context) {
     if (Service.configuration != null && Service.configuration.INCLUDE_HEADERS_FOR_DECOMPRESSED_IO_SIZE) {
       //The body is discarded already, but the request size is stored in the access log object
       long requestSize = LogUtil.getAccessLog(context).reqInfo.size;
-      long responseSize = response == null ? 0 : response.length;
       context.response().putHeader(Service.configuration.DECOMPRESSED_INPUT_SIZE_HEADER_NAME, String.valueOf(requestSize));
       context.response().putHeader(Service.configuration.DECOMPRESSED_OUTPUT_SIZE_HEADER_NAME, String.valueOf(responseSize));
     }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.rest;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.util.service.Core;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * An output stream which writes the bytes of a large response body as chunks to the HTTP response while they are being produced.
+ * That way the body never has to be held in memory as a whole and the first bytes are sent to the client early.
+ * Compression is applied incrementally per chunk by the HTTP server's content compressor, if the client accepts it.
+ *
+ * The stream is meant to be written by one of the dedicated writer threads (see {@link #reserveWriter()}). All operations on the HTTP
+ * response are executed on the Vert.x context of the request. The writing thread is blocked as long as the write-queue of the HTTP
+ * response is full or too many chunks are waiting to be written, so that a slow client can not cause the body to pile up in memory.
+ * As the number of writer threads is bounded, a client which does not receive any data within the write timeout fails the stream.
+ *
+ * NOTE: The HTTP response must have been prepared to be chunked (incl. the status and all headers) before writing to the stream.
+ */
+class StreamingResponse extends OutputStream {
+
+  static final int CHUNK_SIZE = 64 * 1024;
+  private static final int MAX_QUEUED_CHUNKS = 4;
+  private static final long WAIT_INTERVAL_MS = 1_000;
+  private static final int DEFAULT_WRITER_THREADS = 16;
+  static final long DEFAULT_WRITE_TIMEOUT_MS = 30_000;
+
+  private static final ExecutorService writers = Executors.newCachedThreadPool(Core.newThreadFactory("responseWriter"));
+  private static volatile Semaphore writerPermits;
+
+  private final Context context;
+  private final HttpServerResponse response;
+  private final long maxLength;
+  private final long writeTimeoutNanos;
+  private final IntConsumer inflightBytes;
+
+  private final Object lock = new Object();
+  private int queuedChunks;
+  private boolean handingOver;
+  private boolean writeQueueFull;
+  private Throwable failure;
+
+  private byte[] chunk = new byte[CHUNK_SIZE];
+  private int position;
+  private long length;
+  private long waitingNanos;
+  private boolean ended;
+
+  /**
+   * @param context The Vert.x context of the request
+   * @param response The prepared chunked HTTP response
+   * @param maxLength The maximum number of bytes which may be written to the response
+   * @param writeTimeoutMs The maximum time in milliseconds to wait for the HTTP response to become writable again
+   * @param inflightBytes Is called with the number of bytes of each chunk when it's handed over to the HTTP response and with the
+   *  negative number of bytes once the chunk was written to the connection
+   */
+  StreamingResponse(Context context, HttpServerResponse response, long maxLength, long writeTimeoutMs, IntConsumer inflightBytes) {
+    this.context = context;
+    this.response = response;
+    this.maxLength = maxLength;
+    this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+    this.inflightBytes = inflightBytes;
+  }
+
+  /**
+   * Reserves one of the writer threads. If a writer could be reserved, it must be started using {@link #runWriter(Runnable)} or
+   * released again using {@link #releaseWriter()}.
+   *
+   * @return Whether a writer thread is available
+   */
+  static boolean reserveWriter() {
+    if (writerPermits == null) {
+      synchronized (StreamingResponse.class) {
+        if (writerPermits == null)
+          writerPermits = new Semaphore(Service.configuration != null && Service.configuration.STREAMING_RESPONSE_THREADS > 0
+              ? Service.configuration.STREAMING_RESPONSE_THREADS : DEFAULT_WRITER_THREADS);
+      }
+    }
+    return writerPermits.tryAcquire();
+  }
+
+  static void releaseWriter() {
+    writerPermits.release();
+  }
+
+  /**
+   * Runs the writer on the previously reserved writer thread and releases the thread once the writer has finished.
+   */
+  static void runWriter(Runnable writer) {
+    writers.execute(() -> {
+      try {
+        writer.run();
+      }
+      finally {
+        releaseWriter();
+      }
+    });
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (position == chunk.length)
+      writeChunk();
+    chunk[position++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (position == chunk.length)
+        writeChunk();
+      int n = Math.min(len, chunk.length - position);
+      System.arraycopy(b, off, chunk, position, n);
+      position += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * Does nothing, as the chunks are only written once they are full.
+   */
+  @Override
+  public void flush() {}
+
+  /**
+   * Does nothing, as the serializer closes the stream also if it fails. Use {@link #end()} to complete the HTTP response.
+   */
+  @Override
+  public void close() {}
+
+  /**
+   * Writes the last chunk and ends the HTTP response.
+   */
+  void end() throws IOException {
+    if (ended)
+      return;
+    if (position > 0)
+      writeChunk();
+    ended = true;
+    checkFailure();
+    context.runOnContext(v -> {
+      if (!response.closed() && !response.ended())
+        response.end();
+    });
+  }
+
+  /**
+   * @return The number of bytes which have been written to the stream so far
+   */
+  long getLength() {
+    return length + position;
+  }
+
+  /**
+   * @return The time in nanoseconds the writing thread had to wait for the HTTP response to become writable
+   */
+  long getWaitingNanos() {
+    return waitingNanos;
+  }
+
+  private void writeChunk() throws IOException {
+    if (ended)
+      throw new IOException("The response was ended already.");
+    if (length + position > maxLength)
+      throw new ResponseTooLargeException();
+    awaitWritable();
+
+    final int chunkLength = position;
+    final Buffer buffer = Buffer.buffer(chunk).slice(0, chunkLength);
+    length += chunkLength;
+    chunk = new byte[CHUNK_SIZE];
+    position = 0;
+
+    synchronized (lock) {
+      queuedChunks++;
+      handingOver = true;
+    }
+    inflightBytes.accept(chunkLength);
+    context.runOnContext(v -> {
+      if (response.closed() || response.ended()) {
+        onHandedOver(false);
+        onChunkWritten(chunkLength, new IOException("The connection to the client was closed."));
+        return;
+      }
+      response.write(buffer).onComplete(ar -> onChunkWritten(chunkLength, ar.failed() ? ar.cause() : null));
+      final boolean full = response.writeQueueFull();
+      if (full)
+        response.drainHandler(drained -> {
+          synchronized (lock) {
+            writeQueueFull = false;
+            lock.notifyAll();
+          }
+        });
+      onHandedOver(full);
+    });
+  }
+
+  private void onHandedOver(boolean writeQueueFull) {
+    synchronized (lock) {
+      //The next chunk is only handed over after this one, so that the state of the write-queue is always known by the writing thread
+      handingOver = false;
+      if (writeQueueFull)
+        this.writeQueueFull = true;
+      lock.notifyAll();
+    }
+  }
+
+  private void onChunkWritten(int chunkLength, Throwable error) {
+    inflightBytes.accept(-chunkLength);
+    synchronized (lock) {
+      queuedChunks--;
+      if (error != null && failure == null)
+        failure = error;
+      lock.notifyAll();
+    }
+  }
+
+  private void awaitWritable() throws IOException {
+    final long waitStart = System.nanoTime();
+    try {
+      synchronized (lock) {
+        while (failure == null && (handingOver || writeQueueFull || queuedChunks >= MAX_QUEUED_CHUNKS)) {
+          //The connection might get closed while the write-queue is full, in which case no drain handler will be called
+          if (response.closed())
+            failure = new IOException("The connection to the client was closed.");
+          //Do not block the writer thread for a client which does not receive any data
+          else if (System.nanoTime() - waitStart >= writeTimeoutNanos)
+            failure = new IOException("Timed out waiting for the client to receive the response.");
+          else
+            lock.wait(Math.max(1, Math.min(WAIT_INTERVAL_MS, TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos))));
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the client to receive the response.");
+    }
+    finally {
+      waitingNanos += System.nanoTime() - waitStart;
+    }
+    checkFailure();
+  }
+
+  private void checkFailure() throws IOException {
+    synchronized (lock) {
+      if (failure != null)
+        throw failure instanceof IOException ioException ? ioException : new IOException(failure);
+    }
+  }
+
+  /**
+   * Thrown if more bytes than the allowed maximum are written to the stream.
+   */
+  static class ResponseTooLargeException extends IOException {
+
+    ResponseTooLargeException() {
+      super("The response exceeds the maximum response size.");
+    }
+  }
+}
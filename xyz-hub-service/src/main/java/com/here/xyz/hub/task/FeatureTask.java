@@ -21,6 +21,11 @@ package com.here.xyz.hub.task;
 
 import static com.here.xyz.events.ContextAwareEvent.SpaceContext.EXTENSION;
 import static com.here.xyz.events.ContextAwareEvent.SpaceContext.SUPER;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.AUTH;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.READ_CACHE;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.RESOLVE_SPACE;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.THROTTLE;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.TRANSFORM_RESPONSE;
 import static com.here.xyz.models.hub.Space.TABLE_NAME;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_GATEWAY;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
@@ -48,6 +53,7 @@ import com.here.xyz.events.SearchForFeaturesEvent;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.auth.Authorization;
 import com.here.xyz.hub.auth.FeatureAuthorization;
+import com.here.xyz.hub.cache.MultiLevelCacheClient;
 import com.here.xyz.hub.config.BranchConfigClient;
 import com.here.xyz.hub.config.TagConfigClient;
 import com.here.xyz.hub.connectors.RpcClient;
@@ -83,6 +89,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -121,6 +128,17 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
    */
   public final int requestBodySize;
 
+  /**
+   * The number of bytes of the storage connector's response or -1 if it is not known (yet).
+   */
+  int storageResponseSize = -1;
+
+  /**
+   * Hands the final response of this task over to the identical requests which are waiting for its storage invocation.
+   * Only set if this task is the originating request of a coalesced storage invocation.
+   */
+  Consumer<XyzResponse> coalescedRequestsRelease;
+
   public static final class FeatureKey {
 
     public static final String ID = "id";
@@ -229,7 +247,8 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
       //noinspection UnstableApiUsage
       Hasher hasher = Hashing.murmur3_128().newHasher()
           .putString(getEvent().getCacheString(), Charset.defaultCharset())
-          .putString(responseType.toString(), Charset.defaultCharset());
+          .putString(responseType.toString(), Charset.defaultCharset())
+          .putByte(MultiLevelCacheClient.ENTRY_FORMAT_VERSION);
 
       if (!readOnlyAccess) {
         hasher.putLong(space.getContentUpdatedAt());
@@ -260,6 +279,15 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     return response.getEtag();
   }
 
+  /**
+   * Returns the size of the storage connector's response, which can be used to estimate the effort to transform or serialize the response.
+   *
+   * @return the number of bytes of the storage connector's response or -1 if it is not known (yet).
+   */
+  public int getStorageResponseSize() {
+    return storageResponseSize;
+  }
+
   /**
    * Returns the current response.
    *
@@ -338,17 +366,17 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<GeometryQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
           .then(this::resolveRefSpace)
           .then(this::resolveRefConnector)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(this::loadReferenceFeature)
           .then(this::verifyResourceExists)
           .then(FeatureTaskHandler::checkImmutability)
           .then(FeatureTaskHandler::validate)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::writeCache);
     }
@@ -468,13 +496,13 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<BBoxQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::checkImmutability)
           .then(FeatureTaskHandler::validate)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::writeCache);
     }
@@ -498,15 +526,16 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<TileQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::checkImmutability)
           .then(FeatureTaskHandler::validate)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
+          .then(THROTTLE, FeatureTaskHandler::throttleTransformation)
           .then(FeatureTaskHandler::invoke)
-          .then(FeatureTaskHandler::transformResponse)
+          .then(TRANSFORM_RESPONSE, FeatureTaskHandler::transformResponse)
           .then(FeatureTaskHandler::writeCache);
     }
 
@@ -533,12 +562,12 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
 
     public TaskPipeline<IdsQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::checkImmutability)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::convertResponse)
           .then(FeatureTaskHandler::writeCache);
@@ -554,13 +583,13 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<IterateQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::checkImmutability)
           .then(FeatureTaskHandler::validate)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::writeCache);
     }
@@ -575,13 +604,13 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<SearchQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::checkImmutability)
           .then(FeatureTaskHandler::validate)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::writeCache);
     }
@@ -598,11 +627,11 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<GetStatistics> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(this::resolveVersionRef)
-          .then(FeatureTaskHandler::readCache)
+          .then(READ_CACHE, FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::convertResponse)
           .then(FeatureTaskHandler::writeCache);
@@ -629,7 +658,7 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<ModifySpaceQuery> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(this::resolveVersionRef)
           .then(SpaceTaskHandler::invokeConditionally);
     }
@@ -645,7 +674,7 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     public TaskPipeline<ModifySubscriptionQuery> createPipeline() {
 
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(FeatureTaskHandler::invoke);
     }
   }
@@ -687,9 +716,9 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     @Override
     public TaskPipeline<ConditionalOperation> createPipeline() {
       return TaskPipeline.create(this)
-          .then(FeatureTaskHandler::resolveSpace)
+          .then(RESOLVE_SPACE, FeatureTaskHandler::resolveSpace)
           .then(FeatureTaskHandler::registerRequestMemory)
-          .then(FeatureTaskHandler::throttle)
+          .then(THROTTLE, FeatureTaskHandler::throttle)
           .then(this::resolveVersionRef)
           .then(FeatureTaskHandler::injectSpaceParams)
           .then(FeatureTaskHandler::checkPreconditions)
@@ -699,8 +728,8 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
           .then(FeatureTaskHandler::verifyResourceExists)
           .then(FeatureTaskHandler::updateTags)
           .then(FeatureTaskHandler::processConditionalOp)
-          .then(Authorization::authorizeComposite)
-          .then(FeatureAuthorization::authorize)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::enforceUsageQuotas)
           .then(FeatureTaskHandler::extractUnmodifiedFeatures)
           .then(FeatureTaskHandler::injectMinVersion)
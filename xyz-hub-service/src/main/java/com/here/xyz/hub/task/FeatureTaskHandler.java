@@ -30,6 +30,7 @@ import static com.here.xyz.hub.task.FeatureTask.FeatureKey.PROPERTIES;
 import static com.here.xyz.hub.task.FeatureTask.FeatureKey.TYPE;
 import static com.here.xyz.util.service.BaseHttpServerVerticle.HeaderValues.APPLICATION_VND_HERE_FEATURE_MODIFICATION_LIST;
 import static com.here.xyz.util.service.BaseHttpServerVerticle.HeaderValues.APPLICATION_VND_MAPBOX_VECTOR_TILE;
+import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.CPU;
 import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.MEMORY;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_GATEWAY;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
@@ -38,6 +39,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.PRECONDITION_REQUIRED;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.Payload;
@@ -58,7 +60,8 @@ import com.here.xyz.events.ModifySubscriptionEvent;
 import com.here.xyz.events.SelectiveEvent;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.XYZHubRESTVerticle;
-import com.here.xyz.hub.cache.CacheClient;
+import com.here.xyz.hub.cache.EncodedResponse;
+import com.here.xyz.hub.cache.MultiLevelCacheClient;
 import com.here.xyz.hub.connectors.RpcClient;
 import com.here.xyz.hub.connectors.RpcClient.RpcContext;
 import com.here.xyz.hub.connectors.models.Connector;
@@ -73,6 +76,8 @@ import com.here.xyz.hub.rest.ApiParam;
 import com.here.xyz.hub.rest.ApiResponseType;
 import com.here.xyz.hub.rest.FeatureApi;
 import com.here.xyz.hub.task.FeatureTask.ConditionalOperation;
+import com.here.xyz.hub.task.FeatureTask.GetStatistics;
+import com.here.xyz.hub.task.FeatureTask.IdsQuery;
 import com.here.xyz.hub.task.FeatureTask.ReadQuery;
 import com.here.xyz.hub.task.FeatureTask.TileQuery;
 import com.here.xyz.hub.task.FeatureTask.TileQuery.TransformationContext;
@@ -80,8 +85,8 @@ import com.here.xyz.hub.task.ModifyFeatureOp.FeatureEntry;
 import com.here.xyz.hub.task.ModifyOp.Entry;
 import com.here.xyz.hub.task.ModifyOp.ModifyOpError;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
-import com.here.xyz.hub.util.geo.MapBoxVectorTileBuilder;
-import com.here.xyz.hub.util.geo.MapBoxVectorTileFlattenedBuilder;
+import com.here.xyz.hub.util.CpuWorkerPool;
+import com.here.xyz.hub.util.geo.StreamingMvtEncoder;
 import com.here.xyz.models.geojson.WebMercatorTile;
 import com.here.xyz.models.geojson.exceptions.InvalidGeometryException;
 import com.here.xyz.models.geojson.implementation.Feature;
@@ -108,10 +113,12 @@ import com.here.xyz.util.service.errors.DetailedHttpException;
 import com.here.xyz.util.service.logging.LogUtil;
 import com.here.xyz.util.service.rest.TooManyRequestsException;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.Cookie;
 import io.vertx.core.json.DecodeException;
@@ -119,6 +126,8 @@ import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -131,8 +140,11 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import net.jodah.expiringmap.ExpirationPolicy;
 import net.jodah.expiringmap.ExpiringMap;
@@ -154,11 +166,21 @@ public class FeatureTaskHandler {
       .build();
   private static final byte JSON_VALUE = 1;
   private static final byte BINARY_VALUE = 2;
+  /**
+   * A cache value containing the already encoded response bytes.
+   * @see EncodedResponse
+   */
+  private static final byte ENCODED_VALUE = 3;
+  /**
+   * A cache value containing the message of a "not found" error of the storage (negative caching).
+   */
+  private static final byte NOT_FOUND_VALUE = 4;
   private static SnsAsyncClient snsClient;
   private static final ConcurrentHashMap<String, Long> contentModificationTimers = new ConcurrentHashMap<>();
   private static final ConcurrentHashMap<String, Long> contentModificationAdminTimers = new ConcurrentHashMap<>();
   private static final long CONTENT_MODIFICATION_INTERVAL = 1_000; //1s
   private static final long CONTENT_MODIFICATION_ADMIN_INTERVAL = 300_000; //5min
+  private static final int MVT_OFFLOAD_BYTES = 16 * 1024;
 
   /**
    * The latest versions of the space contents as it has been seen on this service node. The key is the space ID and the value is the
@@ -176,6 +198,16 @@ public class FeatureTaskHandler {
   private static final ConcurrentHashMap<String, LongAdder> inflightRequestMemory = new ConcurrentHashMap<>();
   private static final LongAdder globalInflightRequestMemory = new LongAdder();
 
+  /**
+   * Contains the pending (coalesced) read requests for each cache key, for which a storage invocation is currently in progress.
+   * The first request for a cache key is the originating request which performs the actual storage invocation. All further identical
+   * requests are waiting for the final response of that request instead of invoking the storage themselves.
+   */
+  private static final ConcurrentHashMap<String, ConcurrentLinkedQueue<Handler<AsyncResult<CoalescedResponse>>>> pendingInvocations =
+      new ConcurrentHashMap<>();
+  private static final LongAdder originatingRequests = new LongAdder();
+  private static final LongAdder coalescedRequests = new LongAdder();
+
   /**
    * Sends the event to the connector client and write the response as the responseCollection of the task.
    *
@@ -192,6 +224,14 @@ public class FeatureTaskHandler {
       callback.call(task);
       return;
     }
+    if (isCoalescable(task)) {
+      coalesceInvocation(task, callback);
+      return;
+    }
+    invokeStorage(task, callback);
+  }
+
+  private static <T extends FeatureTask> void invokeStorage(T task, Callback<T> callback) {
     /**
      * NOTE: The event may only be consumed once.
      *  Once it was consumed, it should only be referenced in the request-phase.
@@ -252,7 +292,9 @@ public class FeatureTaskHandler {
         responseContext.rpcContext = getRpcClient(task.storage).execute(task.getMarker(), eventToExecute, storageResult -> {
           if (task.getState().isFinal()) return;
           addConnectorPerformanceInfo(task, Core.currentTimeMillis() - storageRequestStart, responseContext.rpcContext, "S");
+          task.storageResponseSize = responseContext.rpcContext.getResponseSize();
           if (storageResult.failed()) {
+            writeNotFoundCache(task, storageResult.cause());
             callback.exception(storageResult.cause());
             return;
           }
@@ -320,6 +362,182 @@ public class FeatureTaskHandler {
     if (event instanceof ModifySpaceEvent) sendSpaceModificationNotification(task.getMarker(), event);
   }
 
+  private static <T extends FeatureTask> boolean isReadTask(T task) {
+    return task instanceof ReadQuery || task instanceof IdsQuery || task instanceof GetStatistics;
+  }
+
+  /**
+   * Read requests can be coalesced, if their response only depends on the event (which is reflected by the cache key).
+   * That is not the case if the space has processors or listeners or if the storage connector is trusted, because those could get
+   * request-specific information (e.g., the JWT or forwarded headers).
+   */
+  private static <T extends FeatureTask> boolean isCoalescable(T task) {
+    return isReadTask(task)
+        && !task.storage.trusted
+        && (task.space.getProcessors() == null || task.space.getProcessors().isEmpty())
+        && (task.space.getListeners() == null || task.space.getListeners().isEmpty())
+        && task.getCacheKey() != null;
+  }
+
+  /**
+   * Ensures that only one storage invocation is in progress for identical read requests at a time.
+   * The first request for a cache key performs the storage invocation. All identical requests arriving in the meantime will wait
+   * for the final response of that request, after it went through the whole task pipeline (see {@link #writeCache(FeatureTask, Callback)}).
+   * That way the response is transformed and encoded only once.
+   */
+  private static <T extends FeatureTask> void coalesceInvocation(T task, Callback<T> callback) {
+    final String cacheKey = task.getCacheKey();
+    final Context context = Vertx.currentContext();
+    final Handler<AsyncResult<CoalescedResponse>> waitingHandler = result -> {
+      if (context != null)
+        context.runOnContext(v -> handleCoalescedResult(task, callback, result));
+      else
+        handleCoalescedResult(task, callback, result);
+    };
+
+    final boolean[] isOriginating = {false};
+    final ConcurrentLinkedQueue<Handler<AsyncResult<CoalescedResponse>>> waitingHandlers = pendingInvocations.compute(cacheKey,
+        (key, handlers) -> {
+          if (handlers == null) {
+            isOriginating[0] = true;
+            return new ConcurrentLinkedQueue<>();
+          }
+          handlers.add(waitingHandler);
+          return handlers;
+        });
+
+    if (!isOriginating[0]) {
+      coalescedRequests.increment();
+      //Add "Coalesced" stream-info
+      XYZHubRESTVerticle.addStreamInfo(task.context, "COAL", 1);
+      logger.debug(task.getMarker(), "Waiting for in-flight storage invocation with cache key {}", cacheKey);
+      return;
+    }
+
+    originatingRequests.increment();
+    task.coalescedRequestsRelease = response -> releaseCoalescedInvocations(cacheKey, waitingHandlers,
+        () -> Future.succeededFuture(CoalescedResponse.of(task, (XyzResponse) response)));
+    //If the originating request gets cancelled or fails after the storage invocation, the waiting requests have to invoke the storage
+    //on their own
+    task.addCancellingHandler(t -> releaseCoalescedInvocations(cacheKey, waitingHandlers, () -> Future.succeededFuture()));
+    task.context.addEndHandler(ar -> releaseCoalescedInvocations(cacheKey, waitingHandlers, () -> Future.succeededFuture()));
+    invokeStorage(task, new Callback<T>() {
+      @Override
+      public void exception(Throwable e) {
+        releaseCoalescedInvocations(cacheKey, waitingHandlers, () -> Future.failedFuture(e));
+        callback.exception(e);
+      }
+
+      @Override
+      public void call(T value) {
+        callback.call(value);
+      }
+    });
+  }
+
+  private static void releaseCoalescedInvocations(String cacheKey,
+      ConcurrentLinkedQueue<Handler<AsyncResult<CoalescedResponse>>> waitingHandlers, Supplier<AsyncResult<CoalescedResponse>> resultSupplier) {
+    //Only the one who removes the entry may complete the waiting handlers, no further handlers can be added after the removal
+    if (!pendingInvocations.remove(cacheKey, waitingHandlers) || waitingHandlers.isEmpty())
+      return;
+    AsyncResult<CoalescedResponse> result = resultSupplier.get();
+    waitingHandlers.forEach(handler -> handler.handle(result));
+  }
+
+  private static <T extends FeatureTask> void handleCoalescedResult(T task, Callback<T> callback, AsyncResult<CoalescedResponse> result) {
+    if (task.getState().isFinal()) return;
+    if (result.failed()) {
+      task.consumeEvent();
+      callback.exception(result.cause());
+      return;
+    }
+    if (result.result() == null) {
+      //No result is available (e.g., the originating request was cancelled), so try again
+      invoke(task, callback);
+      return;
+    }
+    try {
+      final CoalescedResponse coalescedResponse = result.result();
+      task.setResponse(coalescedResponse.read());
+      task.consumeEvent();
+      //The memory is accounted until the response was sent to the client
+      final String storageId = task.storage.id;
+      coalescedResponse.registerMemory(storageId);
+      task.context.addEndHandler(ar -> coalescedResponse.deregisterMemory(storageId));
+      //The response was not produced by this task, so it must not be written to the cache once again
+      task.setCacheHit(true);
+      callback.call(task);
+    }
+    catch (JsonProcessingException e) {
+      logger.error(task.getMarker(), "Unable to read the response of the coalesced request.", e);
+      callback.exception(new HttpException(INTERNAL_SERVER_ERROR, "Unable to read the response of the coalesced request.", e));
+    }
+  }
+
+  /**
+   * The final response of an originating request as it is handed over to the requests which were waiting for it.
+   * Encoded responses and error responses are not modified anymore, so all waiting requests share the same instance. All other responses
+   * are handed over as their cache value, so that each waiting request reads its own copy, as those responses are not thread-safe.
+   */
+  private static class CoalescedResponse {
+    private final XyzResponse sharedResponse;
+    private final byte[] cacheValue;
+    private final int size;
+    private final AtomicInteger sharedResponseReaders = new AtomicInteger();
+
+    private CoalescedResponse(XyzResponse sharedResponse, byte[] cacheValue, int size) {
+      this.sharedResponse = sharedResponse;
+      this.cacheValue = cacheValue;
+      this.size = size;
+    }
+
+    /**
+     * @return The response to be handed over or null, if the response only applies to the originating request or can not be copied
+     */
+    static CoalescedResponse of(FeatureTask task, XyzResponse response) {
+      if (response instanceof EncodedResponse encodedResponse)
+        return new CoalescedResponse(response, null, encodedResponse.getBody().length());
+      if (response instanceof ErrorResponse)
+        return new CoalescedResponse(response, null, 0);
+      //A NotModifiedResponse is only valid for the ETag of the originating request
+      if (response == null || response instanceof NotModifiedResponse)
+        return null;
+      try {
+        byte[] cacheValue = transformCacheValue(response);
+        return new CoalescedResponse(null, cacheValue, cacheValue.length);
+      }
+      catch (Exception e) {
+        logger.warn(task.getMarker(), "Unable to copy the response for coalesced requests with cache key {}", task.getCacheKey(), e);
+        return null;
+      }
+    }
+
+    XyzResponse read() throws JsonProcessingException {
+      return sharedResponse != null ? sharedResponse : transformCacheValue(ByteBuffer.wrap(cacheValue));
+    }
+
+    /**
+     * Accounts the memory of the response for one more reader. A shared response is only accounted once, as long as it has any reader.
+     */
+    void registerMemory(String storageId) {
+      if (sharedResponse == null || sharedResponseReaders.getAndIncrement() == 0)
+        registerRequestMemory(storageId, size);
+    }
+
+    void deregisterMemory(String storageId) {
+      if (sharedResponse == null || sharedResponseReaders.decrementAndGet() == 0)
+        deregisterRequestMemory(storageId, size);
+    }
+  }
+
+  public static long getAndResetOriginatingRequestCount() {
+    return originatingRequests.sumThenReset();
+  }
+
+  public static long getAndResetCoalescedRequestCount() {
+    return coalescedRequests.sumThenReset();
+  }
+
   private static RpcClient getRpcClient(Connector refConnector) throws HttpException {
     try {
       return RpcClient.getInstanceFor(refConnector);
@@ -339,27 +557,37 @@ public class FeatureTaskHandler {
     XYZHubRESTVerticle.addStreamInfo(task.context, eventPrefix + "Time", storageTime);
     if (rpcContext != null)
       XYZHubRESTVerticle.addStreamInfo(task.context, eventPrefix + "ResSize", rpcContext.getResponseSize());
+    task.getTimeline().add(rpcContext);
   }
 
   private static <T extends FeatureTask> void addProcessorPerformanceInfo(T task, long processorTime, RpcContext rpcContext, int processorNo) {
     addConnectorPerformanceInfo(task, processorTime, rpcContext, "P" + processorNo);
   }
 
-  private static XyzResponse transformCacheValue(byte[] value) throws JsonProcessingException {
-    byte type = value[0];
-    byte[] byteValue = Buffer.buffer(value).getBytes(1, value.length);
+  /**
+   * @param value A view on the cache value, it must start at position 0 and be backed by an array
+   */
+  private static XyzResponse transformCacheValue(ByteBuffer value) throws JsonProcessingException {
+    byte type = value.get(0);
+    if (type == ENCODED_VALUE)
+      //Fast path: The encoded bytes will be written to the HTTP response as they are, without any parsing
+      return EncodedResponse.fromCacheValue(value);
+    int start = value.arrayOffset() + 1;
+    int length = value.remaining() - 1;
     switch (type) {
       case JSON_VALUE: {
-        return XyzSerializable.deserialize(new String(byteValue));
+        return XyzSerializable.deserialize(new String(value.array(), start, length, UTF_8));
       }
       case BINARY_VALUE: {
-        return BinaryResponse.fromByteArray(byteValue);
+        return BinaryResponse.fromByteArray(Arrays.copyOfRange(value.array(), start, start + length));
       }
     }
     return null;
   }
 
   private static byte[] transformCacheValue(XyzResponse value) {
+    if (value instanceof EncodedResponse encodedResponse)
+      return encodedResponse.toCacheValue(ENCODED_VALUE);
     byte[] type = {value instanceof BinaryResponse ? BINARY_VALUE : JSON_VALUE};
     Buffer b = Buffer.buffer(type).appendBytes(value.toByteArray());
     return b.getBytes();
@@ -384,14 +612,40 @@ public class FeatureTaskHandler {
     }
 
     final long cacheRequestStart = Core.currentTimeMillis();
-    CacheClient cacheClient = task.getCacheProfile().staticTTL > 0 ? Service.staticCacheClient : Service.volatileCacheClient;
-    cacheClient.get(cacheKey)
-        .onSuccess(cacheResult -> {
+    MultiLevelCacheClient cacheClient = task.getCacheProfile().staticTTL > 0 ? Service.staticCacheClient : Service.volatileCacheClient;
+    cacheClient.getEntry(cacheKey)
+        .compose(cacheEntry -> {
+          if (cacheEntry == null || !cacheEntry.isStale())
+            return Future.succeededFuture(cacheEntry);
+          //The value has expired: Only one request revalidates it, all others are served with the stale value in the meantime
+          return cacheClient.acquireRevalidationLock(cacheKey).map(revalidate -> {
+            if (revalidate) {
+              //Add "Cache-Revalidation" stream-info
+              XYZHubRESTVerticle.addStreamInfo(task.context, "CR", 1);
+              logger.info(task.getMarker(), "Revalidating expired cache entry for cache key {}", cacheKey);
+              return null;
+            }
+            //Add "Cache-Stale" stream-info
+            XYZHubRESTVerticle.addStreamInfo(task.context, "CS", 1);
+            return cacheEntry;
+          });
+        })
+        .onSuccess(cacheEntry -> {
+          ByteBuffer cacheResult = cacheEntry == null ? null : cacheEntry.getValue();
           if (cacheResult == null) {
             //Cache MISS: Just go on in the task pipeline
             XYZHubRESTVerticle.addStreamInfo(task.context, "CH",0);
             logger.info(task.getMarker(), "Cache MISS for cache key {}", cacheKey);
           }
+          else if (cacheResult.get(0) == NOT_FOUND_VALUE) {
+            //Negative cache HIT: The storage has recently responded that the requested resource does not exist
+            XYZHubRESTVerticle.addStreamInfo(task.context, "CH", 1);
+            XYZHubRESTVerticle.addStreamInfo(task.context, "CTime", Core.currentTimeMillis() - cacheRequestStart);
+            logger.info(task.getMarker(), "Cache HIT (not found) for cache key {}", cacheKey);
+            callback.exception(new HttpException(NOT_FOUND,
+                new String(cacheResult.array(), cacheResult.arrayOffset() + 1, cacheResult.remaining() - 1, UTF_8)));
+            return;
+          }
           else {
             //Cache HIT: Set the response for the task to the result from the cache so invoke (in the task pipeline) won't have anything to do
             try {
@@ -399,8 +653,9 @@ public class FeatureTaskHandler {
               task.setCacheHit(true);
               //Add "Cache-Hit" stream-info
               XYZHubRESTVerticle.addStreamInfo(task.context, "CH", 1);
-              //Add "Cache-Type" stream-info (static / volatile)
-              XYZHubRESTVerticle.addStreamInfo(task.context, "CT", cacheClient == Service.staticCacheClient ? "S" : "V");
+              //Add "Cache-Type" stream-info (static / volatile) together with the cache level which served the value
+              XYZHubRESTVerticle.addStreamInfo(task.context, "CT",
+                  (cacheClient == Service.staticCacheClient ? "S" : "V") + "-" + cacheEntry.level);
               logger.info(task.getMarker(), "Cache HIT for cache key {}", cacheKey);
             }
             catch (JsonProcessingException e) {
@@ -419,9 +674,48 @@ public class FeatureTaskHandler {
         });
   }
 
+  /**
+   * Caches the information that the requested resource does not exist for a short time, so that repeated requests for it do not
+   * reach the storage.
+   * Only NotFound errors which were reported by the storage for a read request are cached (see {@link RpcClient}), as those are
+   * depending on the same inputs as the cache key. Other errors (e.g., timeouts or a missing space) are never cached.
+   * The negative entries are only written to the volatile cache, so they do not apply to static caching profiles. They are kept for
+   * {@link com.here.xyz.hub.Config#CACHE_NEGATIVE_TTL_SECONDS} at most and never outlive the service TTL of the space.
+   */
+  private static <T extends FeatureTask> void writeNotFoundCache(T task, Throwable cause) {
+    if (!(cause instanceof HttpException httpException) || httpException.status != NOT_FOUND || !isReadTask(task)
+        || !isCachingEnabled(task.getCacheProfile()) || task.getCacheProfile().staticTTL > 0)
+      return;
+    String cacheKey = task.getCacheKey();
+    if (cacheKey == null)
+      return;
+    byte[] message = String.valueOf(cause.getMessage()).getBytes(UTF_8);
+    byte[] cacheValue = Buffer.buffer(new byte[]{NOT_FOUND_VALUE}).appendBytes(message).getBytes();
+    long ttl = Math.min(Service.configuration.CACHE_NEGATIVE_TTL_SECONDS,
+        TimeUnit.MILLISECONDS.toSeconds(task.getCacheProfile().serviceTTL));
+    if (ttl > 0)
+      Service.volatileCacheClient.set(cacheKey, cacheValue, ttl, 0);
+  }
+
   public static <T extends FeatureTask> void writeCache(T task, Callback<T> callback) {
-    callback.call(task);
-    //From here everything is done asynchronous
+    final boolean cachingEnabled = isCachingEnabled(task.getCacheProfile());
+    if (task.isCacheHit() || !cachingEnabled && task.coalescedRequestsRelease == null) {
+      callback.call(task);
+      return;
+    }
+    encodeResponse(task).onSuccess(v -> {
+      //The requests waiting for this one share the encoded response
+      if (task.coalescedRequestsRelease != null)
+        task.coalescedRequestsRelease.accept(task.getResponse());
+      if (task.getState().isFinal()) return;
+      callback.call(task);
+      //From here everything is done asynchronous
+      if (cachingEnabled)
+        writeCacheValue(task);
+    });
+  }
+
+  private static <T extends FeatureTask> void writeCacheValue(T task) {
     final CacheProfile cacheProfile = task.getCacheProfile();
     //noinspection rawtypes
     XyzResponse response = task.getResponse();
@@ -453,6 +747,51 @@ public class FeatureTaskHandler {
     }
   }
 
+  private static boolean isCachingEnabled(CacheProfile cacheProfile) {
+    return cacheProfile != null && (cacheProfile.serviceTTL > 0 || cacheProfile.staticTTL > 0);
+  }
+
+  /**
+   * Replaces the response of the task by its encoded form, so that the very same bytes can be sent to the client and written to the cache.
+   * That way the response gets serialized only once and later cache HITs do not need to be deserialized at all.
+   * Large responses are encoded on the {@link CpuWorkerPool} to not block the event-loop.
+   * If the response can not be encoded, it stays untouched.
+   *
+   * @return A future which is completed once the response was encoded, it never fails
+   */
+  static <T extends FeatureTask> Future<Void> encodeResponse(T task) {
+    if (!isLargeResponse(task)) {
+      try {
+        onResponseEncoded(task, Api.encodeResponse(task));
+      }
+      catch (Exception e) {
+        logger.warn(task.getMarker(), "Unable to encode the response for the cache.", e);
+      }
+      return Future.succeededFuture();
+    }
+
+    return CpuWorkerPool.getInstance().submit(() -> Api.encodeResponse(task))
+        .compose(encodedResponse -> {
+          onResponseEncoded(task, encodedResponse);
+          return Future.<Void>succeededFuture();
+        }, t -> {
+          //The response will be sent (and serialized) as usual, but it won't be written to the cache
+          logger.warn(task.getMarker(), "Unable to encode the response for the cache.", t);
+          return Future.succeededFuture();
+        });
+  }
+
+  private static <T extends FeatureTask> void onResponseEncoded(T task, EncodedResponse encodedResponse) {
+    if (encodedResponse != null)
+      task.setResponse(encodedResponse);
+  }
+
+  private static boolean isLargeResponse(FeatureTask task) {
+    if (task.getResponse() instanceof BinaryResponse binaryResponse && binaryResponse.getBytes() != null)
+      return binaryResponse.getBytes().length >= CpuWorkerPool.OFFLOAD_BYTES;
+    return task.getStorageResponseSize() >= CpuWorkerPool.OFFLOAD_BYTES;
+  }
+
   /**
    * @param task the FeatureTask instance
    * @param event The pre-processed event
@@ -949,7 +1288,7 @@ public class FeatureTaskHandler {
     }
   }
 
-  private static void registerRequestMemory(String storageId, int byteSize) {
+  public static void registerRequestMemory(String storageId, int byteSize) {
     if (byteSize <= 0) return;
     LongAdder usedMemory = inflightRequestMemory.get(storageId);
     if (usedMemory == null)
@@ -1402,29 +1741,68 @@ public class FeatureTaskHandler {
       return;
     }
 
-    TransformationContext tc = task.transformationContext;
-    try {
-      byte[] mvt;
-      if (MVT == task.responseType) {
-        mvt = new MapBoxVectorTileBuilder()
-            .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
-                ((FeatureCollection) task.getResponse()).getFeatures());
+    final FeatureCollection featureCollection = (FeatureCollection) task.getResponse();
+    final boolean flattened = MVT_FLATTENED == task.responseType;
+    //Small tiles are encoded right away, as that is cheaper than handing them over to a worker
+    if (task.getStorageResponseSize() >= 0 && task.getStorageResponseSize() < MVT_OFFLOAD_BYTES) {
+      try {
+        onTransformed(task, encodeMvt(task, featureCollection, flattened, null, 1), callback);
       }
-      else {
-        mvt = new MapBoxVectorTileFlattenedBuilder()
-            .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
-                ((FeatureCollection) task.getResponse()).getFeatures());
-      }
-      task.setResponse(new BinaryResponse()
-              .withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE)
-              .withBytes(mvt)
-              .withEtag(task.getResponse().getEtag()));
-      callback.call(task);
+      catch (Exception e) {
+        onTransformationFailure(task, e, callback);
+      }
+      return;
     }
-    catch (Exception e) {
-      logger.warn(task.getMarker(), "Exception while transforming the response.", e);
-      callback.exception(new HttpException(INTERNAL_SERVER_ERROR, "Error while transforming the response."));
+
+    final CpuWorkerPool workers = CpuWorkerPool.getInstance();
+    workers.submit(() -> encodeMvt(task, featureCollection, flattened, workers, workers.getPoolSize()))
+        .onSuccess(mvt -> {
+          if (task.getState().isFinal()) return;
+          onTransformed(task, mvt, callback);
+        })
+        .onFailure(e -> {
+          if (task.getState().isFinal()) return;
+          onTransformationFailure(task, e, callback);
+        });
+  }
+
+  private static byte[] encodeMvt(TileQuery task, FeatureCollection featureCollection, boolean flattened, Executor executor,
+      int parallelism) throws IOException {
+    final TransformationContext tc = task.transformationContext;
+    return StreamingMvtEncoder.encode(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
+        featureCollection.getFeatures(), flattened, executor, parallelism);
+  }
+
+  private static void onTransformed(TileQuery task, byte[] mvt, Callback<TileQuery> callback) {
+    task.setResponse(new BinaryResponse()
+        .withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE)
+        .withBytes(mvt)
+        .withEtag(task.getResponse().getEtag()));
+    callback.call(task);
+  }
+
+  private static void onTransformationFailure(TileQuery task, Throwable e, Callback<TileQuery> callback) {
+    if (e instanceof TooManyRequestsException) {
+      XYZHubRESTVerticle.addStreamInfo(task.context, "THR", CPU.shortCut); //Reason for throttling is the CPU
+      callback.exception(e);
+      return;
     }
+    logger.warn(task.getMarker(), "Exception while transforming the response.", e);
+    callback.exception(new HttpException(INTERNAL_SERVER_ERROR, "Error while transforming the response."));
+  }
+
+  /**
+   * Throttles requests which will need a CPU-heavy transformation of their response, in case the CPU workers are saturated already.
+   */
+  static void throttleTransformation(TileQuery task, Callback<TileQuery> callback) {
+    if ((task.responseType == MVT || task.responseType == MVT_FLATTENED) && CpuWorkerPool.getInstance().isSaturated()) {
+      XYZHubRESTVerticle.addStreamInfo(task.context, "THR", CPU.shortCut); //Reason for throttling is the CPU
+      TooManyRequestsException e = new TooManyRequestsException("Too many transformations for the service node.", CPU);
+      logger.warn(task.getMarker(), e.getMessage(), e);
+      callback.exception(e);
+      return;
+    }
+    callback.call(task);
   }
 
   public static <X extends FeatureTask<?, X>> void checkImmutability(X task, Callback<X> callback) {
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.task;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.RpcClient.RpcContext;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
+import io.vertx.ext.web.RoutingContext;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Collects the durations of the hot-path stages of one request.
+ * The timeline of a request is bound to its routing context. When the response has been sent, the durations of all recorded stages are
+ * aggregated into the {@link #stageLatency} metric. For sampled requests (see {@link com.here.xyz.hub.Config#SERVER_TIMING_SAMPLE_RATE})
+ * the timeline is additionally sent to the client as Server-Timing header.
+ */
+public class RequestTimeline {
+
+  public static final String TIMELINE = "timeline";
+  public static final String SERVER_TIMING = "Server-Timing";
+  private static final Stage[] STAGES = Stage.values();
+
+  public static AttributedMetricCollection<HistogramValues> stageLatency;
+  private static volatile HistogramMetric[] stageLatencyMetrics;
+
+  private final long[] nanos = new long[STAGES.length];
+  private int recordedStages;
+
+  public enum Stage {
+    AUTH("auth"),
+    RESOLVE_SPACE("resolveSpace"),
+    READ_CACHE("readCache"),
+    THROTTLE("throttle"),
+    RPC_QUEUE("rpcQueue"),
+    CONNECTOR("connector"),
+    PARSE_RESPONSE("parseResponse"),
+    TRANSFORM_RESPONSE("transformResponse"),
+    SERIALIZATION("serialization"),
+    COMPRESSION("compression");
+
+    public final String name;
+
+    Stage(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * Returns the timeline of the request of the specified routing context. If there is none yet, it will be created.
+   *
+   * @param context The routing context of the request
+   * @return The timeline of the request
+   */
+  public static RequestTimeline of(RoutingContext context) {
+    RequestTimeline timeline = context.get(TIMELINE);
+    if (timeline == null) {
+      context.put(TIMELINE, timeline = new RequestTimeline());
+      if (isSampled()) {
+        final RequestTimeline sampledTimeline = timeline;
+        context.addHeadersEndHandler(v -> {
+          if (sampledTimeline.recordedStages != 0)
+            context.response().putHeader(SERVER_TIMING, sampledTimeline.toServerTiming());
+        });
+      }
+    }
+    return timeline;
+  }
+
+  private static boolean isSampled() {
+    double sampleRate = Service.configuration == null ? 0 : Service.configuration.SERVER_TIMING_SAMPLE_RATE;
+    return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /**
+   * Adds the specified duration to a stage. Stages which are passed multiple times (e.g. multiple authorization steps or multiple
+   * connector calls) accumulate their durations.
+   *
+   * @param stage The stage
+   * @param durationNanos The duration in nanoseconds
+   */
+  public void add(Stage stage, long durationNanos) {
+    if (durationNanos < 0)
+      return;
+    nanos[stage.ordinal()] += durationNanos;
+    recordedStages |= 1 << stage.ordinal();
+  }
+
+  /**
+   * Adds the durations which have been measured during a call to a connector.
+   *
+   * @param rpcContext The context of the connector call
+   */
+  public void add(RpcContext rpcContext) {
+    if (rpcContext == null)
+      return;
+    add(Stage.RPC_QUEUE, rpcContext.getQueueWaitNanos());
+    add(Stage.CONNECTOR, rpcContext.getExecutionNanos());
+    add(Stage.PARSE_RESPONSE, rpcContext.getParseNanos());
+  }
+
+  /**
+   * @param stage The stage
+   * @return The duration of the stage in nanoseconds or -1, if the stage has not been recorded
+   */
+  public long get(Stage stage) {
+    return isRecorded(stage) ? nanos[stage.ordinal()] : -1;
+  }
+
+  private boolean isRecorded(Stage stage) {
+    return (recordedStages & 1 << stage.ordinal()) != 0;
+  }
+
+  /**
+   * @return The recorded stages in the format of the Server-Timing header, e.g. "auth;dur=0.102, readCache;dur=1.523"
+   */
+  public String toServerTiming() {
+    StringBuilder sb = new StringBuilder();
+    for (Stage stage : STAGES) {
+      if (!isRecorded(stage))
+        continue;
+      if (sb.length() > 0)
+        sb.append(", ");
+      sb.append(stage.name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos[stage.ordinal()] / 1_000_000d));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Aggregates the durations of all recorded stages into the {@link #stageLatency} metric.
+   */
+  void publish() {
+    if (stageLatency == null || recordedStages == 0)
+      return;
+    HistogramMetric[] metrics = getStageLatencyMetrics();
+    for (Stage stage : STAGES)
+      if (isRecorded(stage))
+        metrics[stage.ordinal()].addValue(nanos[stage.ordinal()] / 1_000_000d);
+  }
+
+  /**
+   * Publishes the timeline of the request of the specified routing context, if there is one.
+   *
+   * @param context The routing context of the request of which the response has been sent
+   */
+  public static void publish(RoutingContext context) {
+    RequestTimeline timeline = context.get(TIMELINE);
+    if (timeline != null)
+      timeline.publish();
+  }
+
+  private static HistogramMetric[] getStageLatencyMetrics() {
+    if (stageLatencyMetrics == null) {
+      synchronized (RequestTimeline.class) {
+        if (stageLatencyMetrics == null) {
+          HistogramMetric[] metrics = new HistogramMetric[STAGES.length];
+          for (Stage stage : STAGES) {
+            metrics[stage.ordinal()] = new HistogramMetric(stageLatency.getName(), MILLISECONDS);
+            stageLatency.addMetric(metrics[stage.ordinal()], new Attribute<>("stage", stage.name));
+          }
+          stageLatencyMetrics = metrics;
+        }
+      }
+    }
+    return stageLatencyMetrics;
+  }
+}
@@ -20,6 +20,7 @@
 package com.here.xyz.hub.task;
 
 
+import static com.here.xyz.hub.task.RequestTimeline.Stage.AUTH;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 
 import com.google.common.base.Strings;
@@ -175,11 +176,11 @@ public abstract class SpaceTask<X extends SpaceTask<?>> extends Task<Event, X> {
     @Override
     public TaskPipeline createPipeline() {
       return TaskPipeline.create(this)
-          .then(Authorization::authorizeComposite)
+          .then(AUTH, Authorization::authorizeComposite)
           .then(SpaceTaskHandler::readFromJWT)
           .then(SpaceTaskHandler::readSpaces)
           .then(SpaceTaskHandler::checkSpaceExists)
-          .then(SpaceAuthorization::authorizeReadSpaces)
+          .then(AUTH, SpaceAuthorization::authorizeReadSpaces)
           .then(SpaceTaskHandler::convertResponse);
     }
   }
@@ -232,8 +233,8 @@ public abstract class SpaceTask<X extends SpaceTask<?>> extends Task<Event, X> {
           .then(SpaceTaskHandler::handleReadOnlyUpdate)
           .then(SpaceTaskHandler::validate)
           .then(SpaceTaskHandler::resolveExtensions)
-          .then(Authorization::authorizeComposite)
-          .then(SpaceAuthorization::authorizeModifyOp)
+          .then(AUTH, Authorization::authorizeComposite)
+          .then(AUTH, SpaceAuthorization::authorizeModifyOp)
           .then(SpaceTaskHandler::enforceUsageQuotas)
           .then(SpaceTaskHandler::performSubResourceUpdates)
           .then(SpaceTaskHandler::sendEvents)
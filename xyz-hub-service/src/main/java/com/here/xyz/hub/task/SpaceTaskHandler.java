@@ -65,6 +65,7 @@ import com.here.xyz.models.hub.Space.ConnectorRef;
 import com.here.xyz.models.hub.Tag;
 import com.here.xyz.models.hub.jwt.ActionMatrix;
 import com.here.xyz.models.hub.jwt.AttributeMap;
+import com.here.xyz.models.hub.jwt.CompiledActionMatrix;
 import com.here.xyz.models.hub.jwt.JWTPayload;
 import com.here.xyz.responses.ChangesetsStatisticsResponse;
 import com.here.xyz.util.Async;
@@ -515,16 +516,15 @@ public class SpaceTaskHandler {
     List<String> operations = Arrays
         .asList("readFeatures", "createFeatures", "updateFeatures", "deleteFeatures", "manageSpaces", "adminSpaces");
 
-    final ActionMatrix accessMatrix = Authorization.getXyzHubMatrix(task.getJwt());
+    final CompiledActionMatrix accessMatrix = Authorization.getCompiledXyzHubMatrix(task.getJwt());
 
     task.responseSpaces = task.responseSpaces.stream().map(g -> {
           final SpaceWithRights space = DatabindCodec.mapper().convertValue(g, SpaceWithRights.class);
           space.rights = new ArrayList<>();
+          final AttributeMap resource = new AttributeMap().withValue("owner", g.getOwner()).withValue("space", g.getId())
+              .withValue("packages", g.getPackages());
           for (String op : operations) {
-            final ActionMatrix readAccessMatrix = new ActionMatrix()
-                .addAction(op, new AttributeMap().withValue("owner", g.getOwner()).withValue("space", g.getId())
-                    .withValue("packages", g.getPackages()));
-            if (accessMatrix.matches(readAccessMatrix)) {
+            if (accessMatrix.matches(op, resource)) {
               space.rights.add(op);
             }
           }
@@ -203,6 +203,15 @@ public abstract class Task<T extends Event, X extends Task<T, ?>> {
     return BaseHttpServerVerticle.getJWT(context);
   }
 
+  /**
+   * Returns the timeline which records the durations of the hot-path stages of the request.
+   *
+   * @return the request timeline
+   */
+  public RequestTimeline getTimeline() {
+    return RequestTimeline.of(context);
+  }
+
   /**
    * Returns the cache profile.
    *
@@ -224,7 +233,7 @@ public abstract class Task<T extends Event, X extends Task<T, ?>> {
    */
   public TaskPipeline<X> getPipeline() {
     if (pipeline == null)
-      pipeline = createPipeline();
+      pipeline = createPipeline().withTimeline(getTimeline());
 
     return pipeline;
   }
@@ -19,6 +19,7 @@
 
 package com.here.xyz.hub.task;
 
+import com.here.xyz.hub.task.RequestTimeline.Stage;
 import com.here.xyz.util.service.BaseHttpServerVerticle.RequestCancelledException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -33,6 +34,7 @@ public class TaskPipeline<V> {
   private final State<V> state;
   private TaskPipeline<V> next;
   private C2<V, Callback<V>> ifNotNull;
+  private Stage stage;
   private C1<V> finish;
   private C2<V, Throwable> finishException;
   private AtomicBoolean consumed = new AtomicBoolean(false);
@@ -82,6 +84,34 @@ public class TaskPipeline<V> {
     return next;
   }
 
+  /**
+   * Invokes the method when the chain did not produce any exception and the chain value not null; otherwise the next stage is executed.
+   * The time until the method reported its result is added to the specified stage of the pipeline's timeline, if there is one.
+   *
+   * @param stage the stage of the request timeline which is measured.
+   * @param nextFunction the method to be invoked.
+   * @return the next stage.
+   * @throws NullPointerException if the given method is null.
+   * @throws IllegalStateException if this chain stage has already been initialized.
+   * @see #withTimeline(RequestTimeline)
+   */
+  public TaskPipeline<V> then(Stage stage, C2<V, Callback<V>> nextFunction) throws NullPointerException, IllegalStateException {
+    TaskPipeline<V> next = then(nextFunction);
+    this.stage = stage;
+    return next;
+  }
+
+  /**
+   * Sets the timeline into which the durations of the measured stages of this pipeline are recorded.
+   *
+   * @param timeline the request timeline.
+   * @return this chain stage.
+   */
+  public TaskPipeline<V> withTimeline(RequestTimeline timeline) {
+    state.timeline = timeline;
+    return this;
+  }
+
   /**
    * Registers a finishing state that will have the on-success method being invoked when the chain did not produce any exception. If the
    * chain produced an exception or the success handler produced an exception, then the provided exception handler is invoked.
@@ -142,11 +172,13 @@ public class TaskPipeline<V> {
       throw new IllegalStateException("This chain stage was already consumed");
 
     state.next = next;
+    state.stopStage();
 
     //If there is no exception present.
     if (state.exception == null) {
       try {
         if (this.ifNotNull != null && state.value != null) {
+          state.startStage(stage);
           this.ifNotNull.call(state.value, state);
           return;
         }
@@ -238,6 +270,23 @@ public class TaskPipeline<V> {
     private V value;
     private Throwable exception;
     private TaskPipeline<V> next;
+    private RequestTimeline timeline;
+    private Stage stage;
+    private long stageStart;
+
+    private void startStage(Stage stage) {
+      if (stage == null || timeline == null)
+        return;
+      this.stage = stage;
+      stageStart = System.nanoTime();
+    }
+
+    private void stopStage() {
+      if (stage == null)
+        return;
+      timeline.add(stage, System.nanoTime() - stageStart);
+      stage = null;
+    }
 
     @Override
     public void exception(Throwable e) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.util;
+
+import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.CPU;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.util.service.Core;
+import com.here.xyz.util.service.rest.TooManyRequestsException;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of worker threads for CPU-heavy transformations of responses, like the MVT encoding, the compression or the
+ * serialization of large responses. Executing these on the workers keeps them from blocking the event-loop threads.
+ *
+ * The pool has a fixed number of threads and a bounded queue. If the queue is full, submitted transformations fail with a
+ * {@link TooManyRequestsException}. Requests which will need a transformation are throttled already when the queue utilization
+ * exceeds {@link com.here.xyz.hub.Config#CPU_WORKER_QUEUE_HIGH_UTILIZATION_THRESHOLD}.
+ */
+public class CpuWorkerPool implements Executor {
+
+  /**
+   * The minimum size in bytes of a response of which the transformation should be executed on the workers.
+   */
+  public static final int OFFLOAD_BYTES = 64 * 1024;
+  private static final int DEFAULT_QUEUE_SIZE = 1024;
+
+  private static volatile CpuWorkerPool instance;
+
+  private final ThreadPoolExecutor executor;
+  private final int queueSize;
+
+  private CpuWorkerPool(int threads, int queueSize) {
+    this.queueSize = queueSize;
+    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+        Core.newThreadFactory("cpuWorker"));
+  }
+
+  public static CpuWorkerPool getInstance() {
+    if (instance == null) {
+      synchronized (CpuWorkerPool.class) {
+        if (instance == null) {
+          int threads = Service.configuration != null && Service.configuration.CPU_WORKER_THREADS > 0
+              ? Service.configuration.CPU_WORKER_THREADS : Runtime.getRuntime().availableProcessors();
+          int queueSize = Service.configuration != null && Service.configuration.CPU_WORKER_QUEUE_SIZE > 0
+              ? Service.configuration.CPU_WORKER_QUEUE_SIZE : DEFAULT_QUEUE_SIZE;
+          instance = new CpuWorkerPool(threads, queueSize);
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Executes the transformation on one of the workers.
+   * The returned future is completed on the Vert.x context of the caller, if there is one.
+   *
+   * @param transformation The transformation to be executed
+   * @return A future which is completed with the result of the transformation or is failed with a {@link TooManyRequestsException}
+   *  if the queue of the workers is full
+   */
+  public <R> Future<R> submit(Callable<R> transformation) {
+    final Context context = Vertx.currentContext();
+    final Promise<R> promise = Promise.promise();
+    try {
+      executor.execute(() -> {
+        R result = null;
+        Exception error = null;
+        try {
+          result = transformation.call();
+        }
+        catch (Exception e) {
+          error = e;
+        }
+        final R r = result;
+        final Exception e = error;
+        if (context == null)
+          complete(promise, r, e);
+        else
+          context.runOnContext(v -> complete(promise, r, e));
+      });
+    }
+    catch (RejectedExecutionException e) {
+      return Future.failedFuture(new TooManyRequestsException("Too many transformations for the service node.", CPU));
+    }
+    return promise.future();
+  }
+
+  private static <R> void complete(Promise<R> promise, R result, Exception error) {
+    if (error != null)
+      promise.fail(error);
+    else
+      promise.complete(result);
+  }
+
+  /**
+   * Executes the command on one of the workers.
+   *
+   * @throws RejectedExecutionException if the queue of the workers is full
+   */
+  @Override
+  public void execute(Runnable command) throws RejectedExecutionException {
+    executor.execute(command);
+  }
+
+  /**
+   * @return The number of worker threads
+   */
+  public int getPoolSize() {
+    return executor.getMaximumPoolSize();
+  }
+
+  /**
+   * @return The number of transformations waiting for a worker
+   */
+  public int getQueueDepth() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * @return The portion (0 - 1) of the queue which is utilized
+   */
+  public float getQueueUtilization() {
+    return (float) getQueueDepth() / queueSize;
+  }
+
+  /**
+   * @return Whether the queue utilization exceeds the configured threshold, so that new transformations should be throttled
+   */
+  public boolean isSaturated() {
+    float threshold = Service.configuration != null && Service.configuration.CPU_WORKER_QUEUE_HIGH_UTILIZATION_THRESHOLD > 0
+        ? Service.configuration.CPU_WORKER_QUEUE_HIGH_UTILIZATION_THRESHOLD : 1;
+    return getQueueUtilization() >= threshold;
+  }
+}
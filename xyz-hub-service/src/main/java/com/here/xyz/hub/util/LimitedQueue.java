@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017-2019 HERE Europe B.V.
+ * Copyright (C) 2017-2026 HERE Europe B.V.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,10 +23,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * A queue with limits on the number of elements and their size.
+ * A lock-free queue with limits on the number of elements and their size.
+ *
+ * The element count and the byte size are kept together in one immutable {@link Usage} which is swapped atomically, so both values are
+ * always consistent with each other and can be read in O(1).
+ * Elements which are added with priority are kept in a separate lane. That lane is always served first by {@link #remove()} and is only
+ * touched by the discarding of old elements once the normal lane is empty.
  */
 public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
 
@@ -35,10 +40,11 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
     this.maxByteSize = maxByteSize;
   }
 
-  private final ConcurrentLinkedQueue<E> _queue = new ConcurrentLinkedQueue<>();
-  private final LongAdder byteSize = new LongAdder();
-  private long maxByteSize;
-  private long maxSize;
+  private final ConcurrentLinkedQueue<E> priorityLane = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<E> lane = new ConcurrentLinkedQueue<>();
+  private final AtomicReference<Usage> usage = new AtomicReference<>(Usage.EMPTY);
+  private volatile long maxByteSize;
+  private volatile long maxSize;
 
   /**
    * Adds an element and optionally returns the elements, which had to be discarded to accommodate the new one.
@@ -46,45 +52,81 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
    * @return The elements, which had to be discarded to accommodate the new one.
    */
   public List<E> add(E element) {
+    return add(element, false);
+  }
+
+  /**
+   * Adds an element to the normal or to the priority lane and optionally returns the elements, which had to be discarded to accommodate
+   * the new one.
+   *
+   * @param priority Whether the element should be added to the priority lane
+   * @return The elements, which had to be discarded to accommodate the new one.
+   */
+  public List<E> add(E element, boolean priority) {
+    final long elementByteSize = element.getByteSize();
     // If the maximum queue size is not large enough to fit the element, then the new element needs to be discarded.
-    if (element.getByteSize() > maxByteSize) {
+    if (elementByteSize > maxByteSize) {
       return Collections.singletonList(element);
     }
 
-    // Add the element and update the size
-    byteSize.add(element.getByteSize());
-    // Note: When a context switch happens exactly at this point, then we have a disconnection between the
-    //       added element and the byte size!
-    _queue.add(element);
+    //Reserve the space first, so that the usage never under-counts the elements which are contained in the lanes
+    usage.accumulateAndGet(new Usage(1, elementByteSize), Usage::plus);
+    (priority ? priorityLane : lane).add(element);
 
     return discard();
   }
 
   /**
    * Removes the head of the queue and returns it.
+   * Elements of the priority lane are always returned before the elements of the normal lane.
    *
    * @return The head of the queue or null if the queue is empty
    */
   public E remove() {
-    E removed = _queue.poll();
+    E removed = priorityLane.poll();
+    if (removed == null) {
+      removed = lane.poll();
+    }
     if (removed != null) {
-      byteSize.add(-removed.getByteSize());
+      release(removed);
     }
     return removed;
   }
 
+  private E removeOldest() {
+    E removed = lane.poll();
+    if (removed == null) {
+      removed = priorityLane.poll();
+    }
+    if (removed != null) {
+      release(removed);
+    }
+    return removed;
+  }
+
+  private void release(E element) {
+    usage.accumulateAndGet(new Usage(-1, -element.getByteSize()), Usage::plus);
+  }
+
   private List<E> discard() {
-    List<E> discardedElements = new ArrayList<>();
+    List<E> discardedElements = null;
 
     // Check if older elements need to be discarded to make space for the new one.
-    while (byteSize.longValue() > maxByteSize || _queue.size() > maxSize) {
-      E discarded = remove();
+    for (Usage current = usage.get(); current.exceeds(maxSize, maxByteSize); current = usage.get()) {
+      E discarded = removeOldest();
       if (discarded != null) {
+        if (discardedElements == null) {
+          discardedElements = new ArrayList<>();
+        }
         discardedElements.add(discarded);
       }
+      else {
+        //The space was already reserved by another producer, which did not yet add its element to the lane
+        Thread.onSpinWait();
+      }
     }
 
-    return discardedElements;
+    return discardedElements == null ? Collections.emptyList() : discardedElements;
   }
 
   public List<E> setMaxByteSize(long byteSize) {
@@ -112,16 +154,32 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
   }
 
   public long getSize() {
-    return _queue.size();
+    return usage.get().size;
   }
 
-  /**
-   * Returns the estimated size of the queue in byte. Be aware that the value can be wrong, dependent on context switched happening
-   *
-   * @return
-   */
   @Override
   public long getByteSize() {
-    return byteSize.longValue();
+    return usage.get().byteSize;
+  }
+
+  private static final class Usage {
+
+    private static final Usage EMPTY = new Usage(0, 0);
+
+    private final long size;
+    private final long byteSize;
+
+    private Usage(long size, long byteSize) {
+      this.size = size;
+      this.byteSize = byteSize;
+    }
+
+    private Usage plus(Usage other) {
+      return new Usage(size + other.size, byteSize + other.byteSize);
+    }
+
+    private boolean exceeds(long maxSize, long maxByteSize) {
+      return size > maxSize || byteSize > maxByteSize;
+    }
   }
 }
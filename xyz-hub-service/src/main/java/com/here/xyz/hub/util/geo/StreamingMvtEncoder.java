@@ -0,0 +1,692 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.geo;
+
+import static com.google.protobuf.WireFormat.WIRETYPE_LENGTH_DELIMITED;
+import static com.here.xyz.models.geojson.WebMercatorTile.EarthRadius;
+import static com.here.xyz.models.geojson.WebMercatorTile.MaxLatitude;
+import static com.here.xyz.models.geojson.WebMercatorTile.MinLatitude;
+import static com.here.xyz.models.geojson.WebMercatorTile.TileSizeInPixel;
+
+import com.google.protobuf.CodedOutputStream;
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.util.geo.GeoTools;
+import io.vertx.core.json.Json;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Lineal;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.Puntal;
+import org.locationtech.jts.geom.TopologyException;
+
+/**
+ * A Mapbox Vector Tile encoder which processes the features of a tile one-by-one and writes the protobuf encoding of each feature directly
+ * into an output buffer.
+ *
+ * No intermediate protobuf builders are created. The WGS'84 coordinates are projected into the pixel space of the tile in one step using
+ * the closed-form WebMercator formulas rather than a GeoTools transformation, and each property key and value of the layer is interned
+ * and encoded only once.
+ * Nested properties are either encoded as JSON strings or - if flattened - as one tag per leaf value, prefixed by the path of its parents.
+ *
+ * Instances are not thread-safe and can be used for one tile only.
+ */
+public class StreamingMvtEncoder {
+
+  private static final int EXTENT = 4096;
+  private static final int VERSION = 2;
+
+  //Field numbers of the vector tile messages, see: https://github.com/mapbox/vector-tile-spec/blob/master/2.1/vector_tile.proto
+  private static final int TILE_LAYERS = 3;
+  private static final int LAYER_NAME = 1;
+  private static final int LAYER_FEATURES = 2;
+  private static final int LAYER_KEYS = 3;
+  private static final int LAYER_VALUES = 4;
+  private static final int LAYER_EXTENT = 5;
+  private static final int LAYER_VERSION = 15;
+  private static final int FEATURE_TAGS = 2;
+  private static final int FEATURE_TYPE = 3;
+  private static final int FEATURE_GEOMETRY = 4;
+  private static final int VALUE_STRING = 1;
+  private static final int VALUE_FLOAT = 2;
+  private static final int VALUE_DOUBLE = 3;
+  private static final int VALUE_SINT = 6;
+
+  private static final int GEOM_TYPE_POINT = 1;
+  private static final int GEOM_TYPE_LINESTRING = 2;
+  private static final int GEOM_TYPE_POLYGON = 3;
+
+  private static final int CMD_MOVE_TO = 1;
+  private static final int CMD_LINE_TO = 2;
+  private static final int CMD_CLOSE_PATH = 7;
+
+  private static final double DEG_TO_RAD = Math.PI / 180d;
+
+  //Tiles with at least that many features are processed in parallel chunks, if an executor is given
+  private static final int PARALLEL_THRESHOLD = 2048;
+  private static final int CHUNK_SIZE = 512;
+
+  private final String layerName;
+  private final boolean flattened;
+  private final double left;
+  private final double top;
+  private final double scale;
+  private final Envelope clipEnvelope;
+  private final Geometry clipGeometry;
+
+  private final Map<String, Integer> keyIndexes = new HashMap<>();
+  private final Map<Object, Integer> valueIndexes = new HashMap<>();
+  private final ByteSink keys = new ByteSink();
+  private final ByteSink values = new ByteSink();
+  private final ByteSink features = new ByteSink();
+
+  private final IntBuffer tags = new IntBuffer();
+  private final IntBuffer commands = new IntBuffer();
+  private final IntBuffer points = new IntBuffer();
+  private final List<Geometry> parts = new ArrayList<>();
+  private Feature taggedFeature;
+  private int cursorX;
+  private int cursorY;
+
+  private final CoordinateSequenceFilter projection = new CoordinateSequenceFilter() {
+    @Override
+    public void filter(CoordinateSequence seq, int i) {
+      seq.setOrdinate(i, 0, (EarthRadius * seq.getX(i) * DEG_TO_RAD - left) * scale);
+      double lat = Math.max(MinLatitude, Math.min(MaxLatitude, seq.getY(i))) * DEG_TO_RAD;
+      seq.setOrdinate(i, 1, (top - EarthRadius * Math.log(Math.tan(Math.PI / 4d + lat / 2d))) * scale);
+    }
+
+    @Override
+    public boolean isDone() {
+      return false;
+    }
+
+    @Override
+    public boolean isGeometryChanged() {
+      return true;
+    }
+  };
+
+  /**
+   * Creates a new encoder for a tile with one layer.
+   *
+   * @param wmTile The tile to be encoded
+   * @param margin The margin in pixels around the tile, up to which the geometries should be kept
+   * @param layerName The name of the layer
+   * @param flattened Whether all attributes of the features should be flattened into separate properties
+   */
+  public StreamingMvtEncoder(WebMercatorTile wmTile, int margin, String layerName, boolean flattened) {
+    this.layerName = layerName;
+    this.flattened = flattened;
+    //NOTE: The y-axis of the WebMercatorTile bounds is inverted, so the top of the tile in projected coordinates is the larger value
+    left = Math.min(wmTile.left, wmTile.right);
+    top = Math.max(wmTile.top, wmTile.bottom);
+    scale = EXTENT / Math.abs(wmTile.right - wmTile.left);
+
+    double buffer = (double) margin * EXTENT / TileSizeInPixel;
+    clipEnvelope = new Envelope(-buffer, EXTENT + buffer, -buffer, EXTENT + buffer);
+    clipGeometry = new GeometryFactory(new PrecisionModel()).toGeometry(clipEnvelope);
+  }
+
+  /**
+   * Encodes a tile with one layer that contains the given features.
+   */
+  public static byte[] encode(WebMercatorTile wmTile, int margin, String layerName, List<Feature> featureList, boolean flattened)
+      throws IOException {
+    return encode(wmTile, margin, layerName, featureList, flattened, null, 1);
+  }
+
+  /**
+   * Encodes a tile with one layer that contains the given features.
+   * If an executor is given and the tile contains many features, the geometries are projected, validated and clipped in parallel chunks.
+   * At most {@code parallelism - 1} helper tasks are submitted to the executor, which pull the chunks from a shared counter.
+   * The features are still written in their original order by the calling thread, which also processes all chunks that have not been
+   * picked up by a helper in the meantime. So the executor may well be the (bounded) executor the calling thread belongs to.
+   *
+   * @param executor The executor for the parallel processing of the geometries or null to process all geometries in the calling thread
+   * @param parallelism The maximum number of threads (including the calling one) which should process the geometries
+   */
+  public static byte[] encode(WebMercatorTile wmTile, int margin, String layerName, List<Feature> featureList, boolean flattened,
+      Executor executor, int parallelism) throws IOException {
+    StreamingMvtEncoder encoder = new StreamingMvtEncoder(wmTile, margin, layerName, flattened);
+    if (featureList != null) {
+      if (executor != null && parallelism > 1 && featureList.size() >= PARALLEL_THRESHOLD)
+        encoder.addFeatures(featureList, executor, parallelism);
+      else
+        for (int i = 0; i < featureList.size(); i++)
+          encoder.addFeature(featureList.get(i));
+    }
+    return encoder.toByteArray();
+  }
+
+  /**
+   * Encodes the given feature into the layer.
+   * Features without a geometry or with a geometry which is not within the (extended) tile bounds are skipped.
+   */
+  public StreamingMvtEncoder addFeature(Feature feature) throws IOException {
+    parts.clear();
+    prepareGeometry(feature, clipGeometry, parts);
+    addGeometryParts(feature, parts);
+    return this;
+  }
+
+  private void addFeatures(List<Feature> featureList, Executor executor, int parallelism) throws IOException {
+    final int chunkCount = (featureList.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    final List<CompletableFuture<List<List<Geometry>>>> chunks = new ArrayList<>(chunkCount);
+    for (int c = 0; c < chunkCount; c++)
+      chunks.add(new CompletableFuture<>());
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final Runnable helper = () -> {
+      int c;
+      while ((c = nextChunk.getAndIncrement()) < chunkCount)
+        prepareChunk(featureList, c, chunks.get(c));
+    };
+
+    //Only as many helpers are submitted as can actually run in parallel, they all pull the next chunk from the shared counter
+    final int helperCount = Math.min(parallelism - 1, chunkCount - 1);
+    for (int h = 0; h < helperCount; h++) {
+      try {
+        executor.execute(helper);
+      }
+      catch (RejectedExecutionException e) {
+        //The remaining chunks will be processed by the calling thread and the helpers which are already submitted
+        break;
+      }
+    }
+
+    try {
+      for (int c = 0; c < chunkCount; c++) {
+        final CompletableFuture<List<List<Geometry>>> chunk = chunks.get(c);
+        //Help processing the chunks in the calling thread, until the next chunk to be written is ready
+        int next;
+        while (!chunk.isDone() && (next = nextChunk.getAndIncrement()) < chunkCount)
+          prepareChunk(featureList, next, chunks.get(next));
+        List<List<Geometry>> chunkParts;
+        try {
+          chunkParts = chunk.get();
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while processing the geometries of the tile.", e);
+        }
+        catch (ExecutionException e) {
+          if (e.getCause() instanceof RuntimeException runtimeException)
+            throw runtimeException;
+          throw new IOException(e.getCause());
+        }
+        for (int i = 0; i < chunkParts.size(); i++)
+          addGeometryParts(featureList.get(c * CHUNK_SIZE + i), chunkParts.get(i));
+      }
+    }
+    finally {
+      //Make sure the helpers stop picking up chunks, in case the encoding has failed
+      nextChunk.set(chunkCount);
+    }
+  }
+
+  private void prepareChunk(List<Feature> featureList, int c, CompletableFuture<List<List<Geometry>>> chunk) {
+    try {
+      chunk.complete(prepareGeometries(featureList.subList(c * CHUNK_SIZE, Math.min((c + 1) * CHUNK_SIZE, featureList.size()))));
+    }
+    catch (RuntimeException e) {
+      chunk.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Prepares the geometries of a chunk of features. Each chunk uses its own copy of the clip geometry.
+   */
+  private List<List<Geometry>> prepareGeometries(List<Feature> chunkFeatures) {
+    final Geometry chunkClipGeometry = clipGeometry.copy();
+    final List<List<Geometry>> chunkParts = new ArrayList<>(chunkFeatures.size());
+    for (int i = 0; i < chunkFeatures.size(); i++) {
+      List<Geometry> featureParts = new ArrayList<>(1);
+      prepareGeometry(chunkFeatures.get(i), chunkClipGeometry, featureParts);
+      chunkParts.add(featureParts);
+    }
+    return chunkParts;
+  }
+
+  /**
+   * Projects the geometry of the feature into the pixel space of the tile, validates it and clips it to the (extended) tile bounds.
+   * This method does not modify the state of the encoder, so it may be called concurrently as long as each thread uses its own clip
+   * geometry.
+   *
+   * @param parts The list to which the clipped parts of the geometry which are to be encoded are added
+   */
+  private void prepareGeometry(Feature feature, Geometry clipGeometry, List<Geometry> parts) {
+    if (feature == null || feature.getGeometry() == null)
+      return;
+    final Geometry wgs84Geometry = feature.getGeometry().getJTSGeometry();
+    if (wgs84Geometry == null)
+      return;
+
+    //NOTE: The JTS geometry is cached by the feature's geometry, so it must not be modified in place
+    Geometry tileGeometry = wgs84Geometry.copy();
+    tileGeometry.apply(projection);
+    try {
+      tileGeometry = GeoTools.validate(tileGeometry);
+      if (tileGeometry == null)
+        return;
+    }
+    catch (Exception e) {
+      return;
+    }
+
+    collectParts(tileGeometry, false, clipGeometry, parts);
+  }
+
+  private void collectParts(Geometry geometry, boolean clipped, Geometry clipGeometry, List<Geometry> parts) {
+    if (geometry.getClass() == GeometryCollection.class) {
+      //Like the JtsAdapter, write each part of a heterogeneous collection as a separate feature
+      for (int i = 0; i < geometry.getNumGeometries(); i++)
+        collectParts(geometry.getGeometryN(i), clipped, clipGeometry, parts);
+      return;
+    }
+
+    if (!clipped) {
+      Geometry clippedGeometry = clip(geometry, clipGeometry);
+      if (clippedGeometry != null)
+        collectParts(clippedGeometry, true, clipGeometry, parts);
+      return;
+    }
+
+    parts.add(geometry);
+  }
+
+  private void addGeometryParts(Feature feature, List<Geometry> parts) throws IOException {
+    for (int i = 0; i < parts.size(); i++) {
+      int geomType = encodeGeometry(parts.get(i));
+      if (geomType == 0)
+        continue;
+      if (taggedFeature != feature) {
+        encodeTags(feature);
+        taggedFeature = feature;
+      }
+      writeFeature(geomType);
+    }
+  }
+
+  private Geometry clip(Geometry geometry, Geometry clipGeometry) {
+    if (geometry.isEmpty())
+      return null;
+    Envelope envelope = geometry.getEnvelopeInternal();
+    if (!clipEnvelope.intersects(envelope))
+      return null;
+    if (clipEnvelope.covers(envelope))
+      return geometry;
+    try {
+      Geometry intersection = clipGeometry.intersection(geometry);
+      return intersection.isEmpty() ? null : intersection;
+    }
+    catch (TopologyException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the geometry commands for the specified geometry, which is already projected into the pixel space of the tile.
+   *
+   * @return The type of the encoded geometry or 0 if nothing was left to be encoded
+   */
+  private int encodeGeometry(Geometry geometry) {
+    commands.clear();
+    cursorX = 0;
+    cursorY = 0;
+
+    if (geometry instanceof Puntal) {
+      encodePoints(geometry);
+      return commands.size == 0 ? 0 : GEOM_TYPE_POINT;
+    }
+    if (geometry instanceof Lineal) {
+      for (int i = 0; i < geometry.getNumGeometries(); i++)
+        encodeLine(((LineString) geometry.getGeometryN(i)).getCoordinateSequence(), false, 0);
+      return commands.size == 0 ? 0 : GEOM_TYPE_LINESTRING;
+    }
+    if (geometry instanceof Polygonal) {
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        Polygon polygon = (Polygon) geometry.getGeometryN(i);
+        //Exterior rings must have a positive area, interior rings a negative one
+        if (!encodeLine(polygon.getExteriorRing().getCoordinateSequence(), true, 1))
+          continue;
+        for (int r = 0; r < polygon.getNumInteriorRing(); r++)
+          encodeLine(polygon.getInteriorRingN(r).getCoordinateSequence(), true, -1);
+      }
+      return commands.size == 0 ? 0 : GEOM_TYPE_POLYGON;
+    }
+    return 0;
+  }
+
+  private void encodePoints(Geometry geometry) {
+    points.clear();
+    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+      Point point = (Point) geometry.getGeometryN(i);
+      if (!point.isEmpty())
+        addPoint(point.getX(), point.getY());
+    }
+    if (points.size == 0)
+      return;
+    commands.add(command(CMD_MOVE_TO, points.size / 2));
+    for (int i = 0; i < points.size; i += 2)
+      moveCursor(points.data[i], points.data[i + 1]);
+  }
+
+  /**
+   * Writes the commands for one line string or ring. Repeated points are removed after rounding them to the pixel grid.
+   *
+   * @param orientation The sign the area of a ring must have, the ring's points are reversed if necessary
+   * @return true if the line was written, false if it degenerated
+   */
+  private boolean encodeLine(CoordinateSequence seq, boolean ring, int orientation) {
+    points.clear();
+    for (int i = 0; i < seq.size(); i++)
+      addPoint(seq.getX(i), seq.getY(i));
+    if (ring && points.size >= 4 && points.data[0] == points.data[points.size - 2] && points.data[1] == points.data[points.size - 1])
+      points.size -= 2;
+
+    int pointCount = points.size / 2;
+    if (pointCount < (ring ? 3 : 2))
+      return false;
+
+    if (ring) {
+      long area = 0;
+      for (int i = 0; i < points.size; i += 2) {
+        int j = (i + 2) % points.size;
+        area += (long) points.data[i] * points.data[j + 1] - (long) points.data[j] * points.data[i + 1];
+      }
+      if (area == 0)
+        return false;
+      if (Long.signum(area) != orientation)
+        points.reversePoints();
+    }
+
+    commands.add(command(CMD_MOVE_TO, 1));
+    moveCursor(points.data[0], points.data[1]);
+    commands.add(command(CMD_LINE_TO, pointCount - 1));
+    for (int i = 2; i < points.size; i += 2)
+      moveCursor(points.data[i], points.data[i + 1]);
+    if (ring)
+      commands.add(command(CMD_CLOSE_PATH, 1));
+    return true;
+  }
+
+  private void addPoint(double x, double y) {
+    int px = (int) Math.round(x);
+    int py = (int) Math.round(y);
+    if (points.size > 0 && points.data[points.size - 2] == px && points.data[points.size - 1] == py)
+      return;
+    points.add(px);
+    points.add(py);
+  }
+
+  private void moveCursor(int x, int y) {
+    commands.add(zigZag(x - cursorX));
+    commands.add(zigZag(y - cursorY));
+    cursorX = x;
+    cursorY = y;
+  }
+
+  private static int command(int id, int count) {
+    return (id & 0x7) | (count << 3);
+  }
+
+  private static int zigZag(int n) {
+    return (n << 1) ^ (n >> 31);
+  }
+
+  private void encodeTags(Feature feature) throws IOException {
+    tags.clear();
+    if (flattened)
+      addMap("", feature.toMap());
+    else {
+      addProperty("", "id", feature.getId());
+      if (feature.getProperties() != null)
+        addProperties("", feature.getProperties().toMap());
+    }
+  }
+
+  private void addProperties(final String prefix, final Map<String, Object> map) throws IOException {
+    for (final Map.Entry<String, Object> entry : map.entrySet()) {
+      final String key = entry.getKey();
+      //When this is the root map, so it is the feature object itself, ignore two special keys.
+      if (prefix.length() == 0 && ("geometry".equals(key) || "type".equals(key)))
+        continue;
+
+      final Object raw = entry.getValue();
+      if (raw == null)
+        continue;
+      addProperty(prefix, key, raw instanceof Map || raw instanceof List ? Json.encode(raw) : raw);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addMap(final String prefix, final Map<String, Object> map) throws IOException {
+    for (final Map.Entry<String, Object> entry : map.entrySet()) {
+      final String key = entry.getKey();
+      //When this is the root map, so it is the feature object itself, ignore two special keys.
+      if (prefix.length() == 0 && ("geometry".equals(key) || "type".equals(key)))
+        continue;
+
+      final Object raw = entry.getValue();
+      if (raw instanceof Map)
+        addMap(newPrefix(prefix, key), (Map<String, Object>) raw);
+      else if (raw instanceof List)
+        addList(newPrefix(prefix, key), (List<Object>) raw);
+      else if (raw != null)
+        addProperty(prefix, key, raw);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addList(final String prefix, final List<Object> list) throws IOException {
+    for (int i = 0; i < list.size(); i++) {
+      final Object raw = list.get(i);
+      if (raw instanceof Map)
+        addMap(newPrefix(prefix, "" + i), (Map<String, Object>) raw);
+      else if (raw instanceof List)
+        addList(newPrefix(prefix, "" + i), (List<Object>) raw);
+      else if (raw != null)
+        addProperty(prefix, "" + i, raw);
+    }
+  }
+
+  private static String newPrefix(final String prefix, String key) {
+    if (key.indexOf('.') >= 0 || key.indexOf('~') >= 0)
+      key = key.replace("~", "~~").replace(".", "~");
+    if (prefix == null || prefix.length() == 0)
+      return key;
+    return prefix + "." + key;
+  }
+
+  private void addProperty(final String prefix, final String key, final Object raw) throws IOException {
+    final Object value;
+    if (raw instanceof Boolean)
+      value = (Boolean) raw ? 1 : 0;
+    else if (raw instanceof String || raw instanceof Integer || raw instanceof Long || raw instanceof Float || raw instanceof Double)
+      value = raw;
+    else if (raw instanceof Number)
+      value = ((Number) raw).doubleValue();
+    else
+      return;
+
+    tags.add(keyIndex(newPrefix(prefix, key)));
+    tags.add(valueIndex(value));
+  }
+
+  private int keyIndex(String key) throws IOException {
+    Integer index = keyIndexes.get(key);
+    if (index == null) {
+      index = keyIndexes.size();
+      keyIndexes.put(key, index);
+      keys.out.writeString(LAYER_KEYS, key);
+    }
+    return index;
+  }
+
+  private int valueIndex(Object value) throws IOException {
+    Integer index = valueIndexes.get(value);
+    if (index == null) {
+      index = valueIndexes.size();
+      valueIndexes.put(value, index);
+      writeValue(value);
+    }
+    return index;
+  }
+
+  private void writeValue(Object value) throws IOException {
+    final CodedOutputStream out = values.out;
+    out.writeTag(LAYER_VALUES, WIRETYPE_LENGTH_DELIMITED);
+    if (value instanceof String) {
+      out.writeUInt32NoTag(CodedOutputStream.computeStringSize(VALUE_STRING, (String) value));
+      out.writeString(VALUE_STRING, (String) value);
+    }
+    else if (value instanceof Float) {
+      out.writeUInt32NoTag(CodedOutputStream.computeFloatSize(VALUE_FLOAT, (Float) value));
+      out.writeFloat(VALUE_FLOAT, (Float) value);
+    }
+    else if (value instanceof Double) {
+      out.writeUInt32NoTag(CodedOutputStream.computeDoubleSize(VALUE_DOUBLE, (Double) value));
+      out.writeDouble(VALUE_DOUBLE, (Double) value);
+    }
+    else {
+      long longValue = ((Number) value).longValue();
+      out.writeUInt32NoTag(CodedOutputStream.computeSInt64Size(VALUE_SINT, longValue));
+      out.writeSInt64(VALUE_SINT, longValue);
+    }
+  }
+
+  private void writeFeature(int geomType) throws IOException {
+    final int tagsSize = tags.packedSize();
+    final int commandsSize = commands.packedSize();
+    final int featureSize = (tags.size == 0 ? 0 : CodedOutputStream.computeTagSize(FEATURE_TAGS)
+        + CodedOutputStream.computeUInt32SizeNoTag(tagsSize) + tagsSize)
+        + CodedOutputStream.computeEnumSize(FEATURE_TYPE, geomType)
+        + CodedOutputStream.computeTagSize(FEATURE_GEOMETRY) + CodedOutputStream.computeUInt32SizeNoTag(commandsSize) + commandsSize;
+
+    final CodedOutputStream out = features.out;
+    out.writeTag(LAYER_FEATURES, WIRETYPE_LENGTH_DELIMITED);
+    out.writeUInt32NoTag(featureSize);
+    if (tags.size > 0)
+      tags.writePacked(out, FEATURE_TAGS, tagsSize);
+    out.writeEnum(FEATURE_TYPE, geomType);
+    commands.writePacked(out, FEATURE_GEOMETRY, commandsSize);
+  }
+
+  /**
+   * Finishes the layer and returns the encoded tile.
+   */
+  public byte[] toByteArray() throws IOException {
+    features.out.flush();
+    keys.out.flush();
+    values.out.flush();
+
+    final int layerSize = CodedOutputStream.computeUInt32Size(LAYER_VERSION, VERSION)
+        + CodedOutputStream.computeStringSize(LAYER_NAME, layerName)
+        + features.size() + keys.size() + values.size()
+        + CodedOutputStream.computeUInt32Size(LAYER_EXTENT, EXTENT);
+    final byte[] tile = new byte[CodedOutputStream.computeTagSize(TILE_LAYERS) + CodedOutputStream.computeUInt32SizeNoTag(layerSize)
+        + layerSize];
+
+    final CodedOutputStream out = CodedOutputStream.newInstance(tile);
+    out.writeTag(TILE_LAYERS, WIRETYPE_LENGTH_DELIMITED);
+    out.writeUInt32NoTag(layerSize);
+    out.writeUInt32(LAYER_VERSION, VERSION);
+    out.writeString(LAYER_NAME, layerName);
+    features.writeTo(out);
+    keys.writeTo(out);
+    values.writeTo(out);
+    out.writeUInt32(LAYER_EXTENT, EXTENT);
+    out.checkNoSpaceLeft();
+    return tile;
+  }
+
+  private static class ByteSink extends ByteArrayOutputStream {
+
+    private final CodedOutputStream out = CodedOutputStream.newInstance(this);
+
+    private void writeTo(CodedOutputStream target) throws IOException {
+      target.writeRawBytes(buf, 0, count);
+    }
+  }
+
+  private static class IntBuffer {
+
+    private int[] data = new int[64];
+    private int size;
+
+    private void add(int value) {
+      if (size == data.length)
+        data = Arrays.copyOf(data, size * 2);
+      data[size++] = value;
+    }
+
+    private void clear() {
+      size = 0;
+    }
+
+    /**
+     * Reverses the order of the x/y pairs in this buffer.
+     */
+    private void reversePoints() {
+      for (int i = 0, j = size - 2; i < j; i += 2, j -= 2) {
+        int x = data[i];
+        int y = data[i + 1];
+        data[i] = data[j];
+        data[i + 1] = data[j + 1];
+        data[j] = x;
+        data[j + 1] = y;
+      }
+    }
+
+    private int packedSize() {
+      int packedSize = 0;
+      for (int i = 0; i < size; i++)
+        packedSize += CodedOutputStream.computeUInt32SizeNoTag(data[i]);
+      return packedSize;
+    }
+
+    private void writePacked(CodedOutputStream out, int fieldNumber, int packedSize) throws IOException {
+      out.writeTag(fieldNumber, WIRETYPE_LENGTH_DELIMITED);
+      out.writeUInt32NoTag(packedSize);
+      for (int i = 0; i < size; i++)
+        out.writeUInt32NoTag(data[i]);
+    }
+  }
+}
@@ -175,6 +175,7 @@ public class RemoteFunctionHealthCheck extends ExecutableCheck {
       rfcData.put("queueByteSize", rfc.getQueueByteSize());
       rfcData.put("minConnections", rfc.getMinConnections());
       rfcData.put("maxConnections", rfc.getMaxConnections());
+      rfcData.put("concurrencyLimit", rfc.getConcurrencyLimit());
       rfcData.put("weightedMaxConnections", rfc.getWeightedMaxConnections());
       rfcData.put("usedConnections", rfc.getUsedConnections());
       rfcData.put("rateOfService", rfc.getRateOfService());
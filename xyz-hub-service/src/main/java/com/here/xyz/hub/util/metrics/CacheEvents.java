@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.metrics;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.COUNT;
+
+import com.here.xyz.hub.cache.CacheStatistics;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollector;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the event counts (hits, misses, evictions, expirations) of a cache.
+ */
+public class CacheEvents extends AttributedMetricCollector<Collection<Double>> {
+
+  static final String CACHE = "cache";
+  static final String EVENT = "event";
+
+  private final String cacheName;
+  private final CacheStatistics statistics;
+
+  public CacheEvents(String metricName, String cacheName, CacheStatistics statistics) {
+    super(metricName, COUNT);
+    this.cacheName = cacheName;
+    this.statistics = statistics;
+  }
+
+  @Override
+  protected Map<Collection<Attribute>, Collection<Double>> gatherValues() {
+    return statistics.getAndReset().entrySet().stream().collect(Collectors.toMap(
+        e -> Arrays.asList(new Attribute<>(CACHE, cacheName), new Attribute<>(EVENT, e.getKey())),
+        e -> Collections.singleton((double) e.getValue())
+    ));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.metrics;
+
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollector;
+import com.here.xyz.util.db.datasource.HikariPooledDataSources;
+import com.here.xyz.util.db.datasource.HikariPooledDataSources.PoolMetrics;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes one value of the {@link PoolMetrics} of each database connection pool of this JVM, e.g. of the embedded connectors.
+ * The value is either a gauge (e.g., the current utilization) or a cumulative counter of the pool (e.g., the number of checkouts so far).
+ */
+public class DbConnectionPoolMetric extends AttributedMetricCollector<Collection<Double>> {
+
+  static final String POOL = "pool";
+
+  private final ToDoubleFunction<PoolMetrics> value;
+  private final boolean cumulative;
+
+  /**
+   * @param metricName The name of the metric
+   * @param unit The unit of the values being returned by the value function
+   * @param value The function which is reading the value from the metrics of a pool
+   * @param cumulative Whether the value function is returning a monotonic counter of the pool
+   */
+  public DbConnectionPoolMetric(String metricName, MetricUnit unit, ToDoubleFunction<PoolMetrics> value, boolean cumulative) {
+    super(metricName, unit);
+    this.value = value;
+    this.cumulative = cumulative;
+  }
+
+  @Override
+  public boolean isCumulative() {
+    return cumulative;
+  }
+
+  @Override
+  protected Map<Collection<Attribute>, Collection<Double>> gatherValues() {
+    return HikariPooledDataSources.getLivePoolMetrics().entrySet().stream().collect(Collectors.toMap(
+        e -> Collections.singletonList(new Attribute<>(POOL, e.getKey())),
+        e -> Collections.singleton(value.applyAsDouble(e.getValue()))
+    ));
+  }
+}
@@ -19,9 +19,15 @@
 
 package com.here.xyz.hub.util.metrics.base;
 
+import com.amazonaws.services.cloudwatch.model.Dimension;
 import com.amazonaws.services.cloudwatch.model.MetricDatum;
 import com.amazonaws.services.cloudwatch.model.StatisticSet;
 import com.here.xyz.hub.util.metrics.base.AggregatingMetric.AggregatedValues;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public class CWAggregatedValuesPublisher extends CloudWatchMetricPublisher<AggregatedValues> {
 
@@ -31,7 +37,31 @@ public class CWAggregatedValuesPublisher extends CloudWatchMetricPublisher<Aggre
 
   @Override
   protected void publishValues(AggregatedValues values) {
-    publishValues(new MetricDatum().withStatisticValues(toStatisticSet(values)));
+    publishValues(toMetricData(values, Collections.emptyList()));
+  }
+
+  /**
+   * Converts the aggregated values into the metric data to be published. For {@link HistogramValues} the published percentiles are
+   * added as separate data, which have an additional "Percentile" dimension.
+   */
+  public static List<MetricDatum> toMetricData(AggregatedValues values, Collection<Dimension> dimensions) {
+    List<MetricDatum> data = new ArrayList<>();
+    data.add(new MetricDatum()
+        .withDimensions(dimensions)
+        .withStatisticValues(toStatisticSet(values)));
+
+    if (values instanceof HistogramValues histogramValues)
+      for (double percentile : HistogramValues.PUBLISHED_PERCENTILES)
+        data.add(new MetricDatum()
+            .withDimensions(dimensions)
+            .withDimensions(new Dimension().withName("Percentile").withValue("p" + formatPercentile(percentile)))
+            .withValue(histogramValues.getPercentile(percentile)));
+
+    return data;
+  }
+
+  private static String formatPercentile(double percentile) {
+    return percentile == (long) percentile ? Long.toString((long) percentile) : Double.toString(percentile);
   }
 
   public static StatisticSet toStatisticSet(AggregatedValues values) {
@@ -24,6 +24,7 @@ import com.amazonaws.services.cloudwatch.model.MetricDatum;
 import com.here.xyz.hub.util.metrics.base.AggregatingMetric.AggregatedValues;
 import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -42,8 +43,7 @@ public class CWAttributedMetricCollectionPublisher<V> extends CloudWatchMetricPu
   protected void publishValues(Map<Collection<Attribute>, V> values) {
     List<MetricDatum> metricData = values
         .entrySet()
-        .stream().map(e -> convertToMetricDatum(e.getKey(), e.getValue()))
-        .filter(datum -> datum != null)
+        .stream().flatMap(e -> convertToMetricData(e.getKey(), e.getValue()).stream())
         .collect(Collectors.toList());
     if (metricData.size() == 0) {
       logger.debug("Nothing to publish for metric {}", getMetricName());
@@ -52,27 +52,26 @@ public class CWAttributedMetricCollectionPublisher<V> extends CloudWatchMetricPu
     publishValues(metricData);
   }
 
-  private MetricDatum convertToMetricDatum(Collection<Attribute> attributes, V value) {
+  private List<MetricDatum> convertToMetricData(Collection<Attribute> attributes, V value) {
     //Set all dimensions using the attributes
-    MetricDatum datum = new MetricDatum()
-        .withDimensions(attributes
-            .stream()
-            .map(attr -> new Dimension().withName(attr.key.toString()).withValue(attr.value.toString()))
-            .collect(Collectors.toList()));
+    List<Dimension> dimensions = attributes
+        .stream()
+        .map(attr -> new Dimension().withName(attr.key.toString()).withValue(attr.value.toString()))
+        .collect(Collectors.toList());
 
     //Convert the metric value
     if (value instanceof AggregatedValues) {
       AggregatedValues aggregatedValues = (AggregatedValues) value;
       if (aggregatedValues.sampleCount == 0)
-        return null;
-      return datum
-          .withStatisticValues(CWAggregatedValuesPublisher.toStatisticSet(aggregatedValues));
+        return Collections.emptyList();
+      return CWAggregatedValuesPublisher.toMetricData(aggregatedValues, dimensions);
     }
     else if (value instanceof Collection) {
       if (((Collection<?>) value).size() == 0)
-        return null;
-      return datum
-          .withValues((Collection<Double>) value);
+        return Collections.emptyList();
+      return Collections.singletonList(new MetricDatum()
+          .withDimensions(dimensions)
+          .withValues((Collection<Double>) value));
     }
     else
       throw new IllegalArgumentException("Can not publish metric value of type " + value.getClass().getSimpleName());
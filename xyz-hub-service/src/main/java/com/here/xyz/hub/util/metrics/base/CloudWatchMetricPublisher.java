@@ -25,6 +25,7 @@ import com.amazonaws.services.cloudwatch.model.Dimension;
 import com.amazonaws.services.cloudwatch.model.MetricDatum;
 import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
 import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.google.common.collect.Lists;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.util.metrics.base.Metric.MetricUnit;
 import java.util.Collections;
@@ -61,8 +62,13 @@ public abstract class CloudWatchMetricPublisher<V> extends MetricPublisher<V> {
   }
 
   protected void publishValues(List<MetricDatum> data) {
+    //The metric might only be gathered to be exposed by the admin metrics endpoint
+    if (!Service.configuration.PUBLISH_METRICS)
+      return;
+
     if (data.size() > MAX_DATA_BATCH_SIZE) {
-      //TODO: Implement once GcDurationMetric was refactored to be an AggregatingMetric
+      Lists.partition(data, MAX_DATA_BATCH_SIZE).forEach(this::publishValues);
+      return;
     }
 
     data.forEach(datum -> datum
@@ -87,6 +93,7 @@ public abstract class CloudWatchMetricPublisher<V> extends MetricPublisher<V> {
       case COUNT: return StandardUnit.Count;
       case PERCENT: return StandardUnit.Percent;
       case BYTES: return StandardUnit.Bytes;
+      case MICROSECONDS: return StandardUnit.Microseconds;
       case MILLISECONDS: return StandardUnit.Milliseconds;
       default: return StandardUnit.None;
     }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.metrics.base;
+
+import com.here.xyz.hub.util.metrics.base.AggregatingMetric.AggregatedValues;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A metric which records the distribution of its values in a histogram, so that percentiles can be published in addition to the
+ * aggregated values of the {@link AggregatingMetric}.
+ *
+ * The histogram uses HDR-style buckets: Each power of two is split into {@link #SUB_BUCKETS} linear sub-buckets, so the value of each
+ * bucket is accurate to about 3% of the actual value. Values are recorded as whole numbers in the range from 0 to 2^32, larger values are
+ * recorded into the highest bucket.
+ *
+ * Recording a value does not allocate and does not lock. To reduce contention, all recording threads are spread over a few stripes
+ * of counters. Two recorders are used alternately, so that the inactive one can be drained by {@link #gatherValues()} while new values
+ * are already being recorded into the other one.
+ * As each stripe takes about 7KB, the stripes are only created once they are used and get released again if no value was recorded into
+ * them during one publishing interval.
+ */
+public class HistogramMetric extends Metric<HistogramValues> {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_VALUE_BITS = 32;
+  static final int BUCKETS = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  //Additional slots of each stripe following the bucket counts
+  private static final int SUM = BUCKETS;
+  private static final int MIN = BUCKETS + 1;
+  private static final int MAX = BUCKETS + 2;
+  private static final int WRITERS = BUCKETS + 3;
+  private static final int STRIPE_LENGTH = BUCKETS + 4;
+
+  private static final int STRIPES = Math.min(4, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+  private volatile Recorder active = new Recorder();
+  private Recorder inactive = new Recorder();
+
+  public HistogramMetric(String metricName, MetricUnit unit) {
+    super(metricName, unit);
+  }
+
+  /**
+   * Records a new value into this metric.
+   * @param value The value to add, it will be rounded to a whole number
+   */
+  public void addValue(double value) {
+    final long roundedValue = value > 0 ? Math.round(value) : 0;
+    final int stripeIndex = (int) Thread.currentThread().getId() & (STRIPES - 1);
+    while (true) {
+      final Recorder recorder = active;
+      final AtomicLongArray stripe = recorder.getStripe(stripeIndex);
+      stripe.incrementAndGet(WRITERS);
+      try {
+        //Only record into the recorder if it has not been swapped by #gatherValues() in the meantime and the stripe is still in use
+        if (recorder == active && recorder.stripes.get(stripeIndex) == stripe) {
+          record(stripe, roundedValue);
+          return;
+        }
+      }
+      finally {
+        stripe.decrementAndGet(WRITERS);
+      }
+    }
+  }
+
+  private static void record(AtomicLongArray stripe, long value) {
+    stripe.incrementAndGet(bucketIndex(value));
+    stripe.addAndGet(SUM, value);
+
+    long min = stripe.get(MIN);
+    while (value < min && !stripe.compareAndSet(MIN, min, value))
+      min = stripe.get(MIN);
+
+    long max = stripe.get(MAX);
+    while (value > max && !stripe.compareAndSet(MAX, max, value))
+      max = stripe.get(MAX);
+  }
+
+  @Override
+  protected synchronized HistogramValues gatherValues() {
+    final Recorder recorder = active;
+    active = inactive;
+    //Wait for the threads which are still recording into the swapped recorder
+    while (recorder.getWriters() > 0)
+      Thread.onSpinWait();
+
+    final HistogramValues values = recorder.drain();
+    inactive = recorder;
+    if (values.sampleCount == 0) return null; //Nothing to publish
+    return values;
+  }
+
+  static int bucketIndex(long value) {
+    if (value < 2 * SUB_BUCKETS)
+      return (int) value;
+    if (value >= 1L << MAX_VALUE_BITS)
+      return BUCKETS - 1;
+    final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  static long lowestValue(int bucketIndex) {
+    if (bucketIndex < 2 * SUB_BUCKETS)
+      return bucketIndex;
+    final int shift = bucketIndex / SUB_BUCKETS - 1;
+    return (long) (bucketIndex % SUB_BUCKETS + SUB_BUCKETS) << shift;
+  }
+
+  static long highestValue(int bucketIndex) {
+    return bucketIndex == BUCKETS - 1 ? Long.MAX_VALUE : lowestValue(bucketIndex + 1) - 1;
+  }
+
+  private static class Recorder {
+
+    //The stripes are created lazily, so that metrics which are only recorded by few threads stay small
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    private AtomicLongArray getStripe(int index) {
+      AtomicLongArray stripe = stripes.get(index);
+      if (stripe == null) {
+        stripe = new AtomicLongArray(STRIPE_LENGTH);
+        stripe.set(MIN, Long.MAX_VALUE);
+        if (!stripes.compareAndSet(index, null, stripe))
+          stripe = stripes.get(index);
+      }
+      return stripe;
+    }
+
+    private long getWriters() {
+      long writers = 0;
+      for (int i = 0; i < STRIPES; i++) {
+        final AtomicLongArray stripe = stripes.get(i);
+        if (stripe != null)
+          writers += stripe.get(WRITERS);
+      }
+      return writers;
+    }
+
+    /**
+     * Reads all values of this recorder and resets it.
+     * Must only be called while no thread is recording into this recorder.
+     */
+    private HistogramValues drain() {
+      final long[] counts = new long[BUCKETS];
+      long sampleCount = 0, sum = 0, min = Long.MAX_VALUE, max = 0;
+      for (int i = 0; i < STRIPES; i++) {
+        final AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null)
+          continue;
+        long stripeCount = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+          final long count = stripe.get(bucket);
+          if (count > 0) {
+            counts[bucket] += count;
+            stripeCount += count;
+            stripe.set(bucket, 0);
+          }
+        }
+        sampleCount += stripeCount;
+        if (stripeCount == 0) {
+          //Release the unused stripe, a thread which still holds a reference to it will notice that it has been released
+          stripes.set(i, null);
+          continue;
+        }
+        sum += stripe.get(SUM);
+        min = Math.min(min, stripe.get(MIN));
+        max = Math.max(max, stripe.get(MAX));
+        stripe.set(SUM, 0);
+        stripe.set(MIN, Long.MAX_VALUE);
+        stripe.set(MAX, 0);
+      }
+      return new HistogramValues(counts, sampleCount, sum, min, max);
+    }
+  }
+
+  public static class HistogramValues extends AggregatedValues {
+
+    /**
+     * The percentiles which are published in addition to the aggregated values.
+     */
+    public static final double[] PUBLISHED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private final long[] counts;
+
+    HistogramValues(long[] counts, long sampleCount, long sum, long minimum, long maximum) {
+      this.counts = counts;
+      this.sampleCount = sampleCount;
+      this.sum = sum;
+      this.minimum = sampleCount == 0 ? 0 : minimum;
+      this.maximum = maximum;
+    }
+
+    /**
+     * Returns the value below which the given percentage of all recorded values fall.
+     * The returned value is the upper bound of the according histogram bucket, limited by the recorded maximum.
+     *
+     * @param percentile The percentile in the range from 0 to 100
+     * @return The value at the given percentile or 0 if no values have been recorded
+     */
+    public double getPercentile(double percentile) {
+      if (sampleCount == 0)
+        return 0;
+      final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * sampleCount));
+      long cumulativeCount = 0;
+      for (int bucket = 0; bucket < counts.length; bucket++) {
+        cumulativeCount += counts[bucket];
+        if (cumulativeCount >= rank)
+          return Math.max(minimum, Math.min(maximum, highestValue(bucket)));
+      }
+      return maximum;
+    }
+  }
+}
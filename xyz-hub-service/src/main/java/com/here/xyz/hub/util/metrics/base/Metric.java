@@ -39,10 +39,19 @@ public abstract class Metric<V> {
 
   protected abstract V gatherValues();
 
+  /**
+   * @return Whether the values of this metric are monotonic counters, which are accumulated since the start of the service.
+   *  Those values are never reset, the rates have to be computed by the metrics backend.
+   */
+  public boolean isCumulative() {
+    return false;
+  }
+
   public enum MetricUnit {
     COUNT,
     PERCENT,
     BYTES,
+    MICROSECONDS,
     MILLISECONDS
   }
 }
@@ -21,6 +21,7 @@ public abstract class MetricPublisher<V> {
     executor.scheduleAtFixedRate(() -> {
       try {
         final V values = metric.gatherValues();
+        OpenMetricsExposition.record(metric, values);
         if (values == null) {
           logger.debug("Nothing to publish for metric {}", getMetricName());
           return;
@@ -53,6 +54,7 @@ public abstract class MetricPublisher<V> {
 
   public void stop() {
     executor.shutdown();
+    OpenMetricsExposition.remove(metric);
     logger.info("Stopped publishing metric {}", getMetricName());
   }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.util.metrics.base;
+
+import com.here.xyz.hub.util.metrics.base.AggregatingMetric.AggregatedValues;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
+import com.here.xyz.hub.util.metrics.base.Metric.MetricUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps the most recently gathered values of all published metrics and renders them in the OpenMetrics text format.
+ * The values are handed over by the {@link MetricPublisher}s right after gathering them, so a scrape never gathers (and thereby resets)
+ * a metric itself. It only reads the immutable snapshots which have been taken by the publishers.
+ *
+ * Aggregated values are rendered as summaries. Their sum and count are accumulated over all gathering periods, while the
+ * quantiles (of histogram metrics) and the additional minimum / maximum gauges always refer to the latest gathering period.
+ * Bare values are rendered as gauges holding the sum of the values of the latest gathering period.
+ * Bare values of {@link Metric#isCumulative() cumulative} metrics are rendered as counters.
+ */
+public class OpenMetricsExposition {
+
+  public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+  private static final String PREFIX = "xyz_hub_";
+
+  private static final Logger logger = LogManager.getLogger();
+  private static final Map<Metric<?>, Map<String, Sample>> snapshots = new ConcurrentHashMap<>();
+  private static final Set<String> mismatchingFamilies = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Takes over the values which have just been gathered from the specified metric.
+   * @param metric The metric
+   * @param values The gathered values, may be null if the metric had nothing to publish
+   */
+  static void record(Metric<?> metric, Object values) {
+    snapshots.compute(metric, (m, previous) -> merge(previous, values, metric.isCumulative()));
+  }
+
+  static void remove(Metric<?> metric) {
+    snapshots.remove(metric);
+  }
+
+  /**
+   * @return All recorded metrics in the OpenMetrics text format
+   */
+  public static String render() {
+    //Metrics with the same name (e.g. attributed collections for different caches) are rendered as one metric family
+    Map<String, List<Entry<Metric<?>, Map<String, Sample>>>> families = snapshots.entrySet().stream()
+        .collect(Collectors.groupingBy(e -> familyName(e.getKey().getName(), e.getKey().getUnit()), TreeMap::new, Collectors.toList()));
+
+    StringBuilder sb = new StringBuilder();
+    families.forEach((name, metrics) -> {
+      Map<String, Sample> samples = new TreeMap<>();
+      metrics.forEach(e -> samples.putAll(e.getValue()));
+      if (samples.isEmpty())
+        return;
+      //All samples of a family must have the same type, samples of metrics with the same name but a different type are skipped
+      Class<? extends Sample> type = samples.values().iterator().next().getClass();
+      if (samples.values().removeIf(sample -> sample.getClass() != type) && mismatchingFamilies.add(name))
+        logger.warn("Skipping samples of metric family {} which are not of type {}.", name, type.getSimpleName());
+      MetricUnit unit = metrics.get(0).getKey().getUnit();
+      if (type == Summary.class)
+        renderSummaries(sb, metrics.get(0).getKey().getName(), unit, samples);
+      else if (type == Counter.class)
+        renderCounters(sb, name, unit, samples);
+      else
+        renderGauges(sb, name, unit, samples);
+    });
+    return sb.append("# EOF\n").toString();
+  }
+
+  private static Map<String, Sample> merge(Map<String, Sample> previous, Object values, boolean cumulative) {
+    Map<String, Sample> merged = new HashMap<>();
+    //Summaries keep their accumulated sum & count, even if nothing was gathered in the latest period
+    if (previous != null)
+      previous.forEach((labels, sample) -> {
+        if (sample instanceof Summary summary)
+          merged.put(labels, new Summary(summary.sum, summary.count, null));
+      });
+
+    if (values instanceof Map<?, ?> attributedValues)
+      attributedValues.forEach((attributes, value) -> merge(merged, labels((Collection<Attribute>) attributes), value, cumulative));
+    else if (values != null)
+      merge(merged, "", values, cumulative);
+    return merged;
+  }
+
+  private static void merge(Map<String, Sample> merged, String labels, Object value, boolean cumulative) {
+    if (value instanceof AggregatedValues aggregatedValues) {
+      if (aggregatedValues.sampleCount == 0)
+        return;
+      Summary previous = merged.get(labels) instanceof Summary summary ? summary : new Summary(0, 0, null);
+      merged.put(labels, new Summary(previous.sum + aggregatedValues.sum, previous.count + aggregatedValues.sampleCount,
+          aggregatedValues));
+    }
+    else if (value instanceof Collection<?> bareValues) {
+      double sum = bareValues.stream().mapToDouble(v -> ((Number) v).doubleValue()).sum();
+      merged.put(labels, cumulative ? new Counter(sum) : new Gauge(sum));
+    }
+  }
+
+  private static void renderGauges(StringBuilder sb, String name, MetricUnit unit, Map<String, Sample> samples) {
+    header(sb, name, "gauge", unit);
+    samples.forEach((labels, sample) -> line(sb, name, labels, ((Gauge) sample).value));
+  }
+
+  private static void renderCounters(StringBuilder sb, String name, MetricUnit unit, Map<String, Sample> samples) {
+    header(sb, name, "counter", unit);
+    samples.forEach((labels, sample) -> line(sb, name + "_total", labels, ((Counter) sample).value));
+  }
+
+  private static void renderSummaries(StringBuilder sb, String metricName, MetricUnit unit, Map<String, Sample> samples) {
+    String name = familyName(metricName, unit);
+    header(sb, name, "summary", unit);
+    samples.forEach((labels, sample) -> {
+      Summary summary = (Summary) sample;
+      if (summary.window instanceof HistogramValues histogramValues)
+        for (double percentile : HistogramValues.PUBLISHED_PERCENTILES)
+          line(sb, name, withLabel(labels, "quantile", format(percentile / 100)), histogramValues.getPercentile(percentile));
+      line(sb, name + "_sum", labels, summary.sum);
+      line(sb, name + "_count", labels, summary.count);
+    });
+
+    //The minimum & maximum are only known for the latest gathering period
+    Map<String, Summary> windows = samples.entrySet().stream()
+        .filter(e -> ((Summary) e.getValue()).window != null)
+        .collect(Collectors.toMap(Entry::getKey, e -> (Summary) e.getValue(), (s1, s2) -> s1, TreeMap::new));
+    if (windows.isEmpty())
+      return;
+    String minName = familyName(metricName + "Min", unit);
+    header(sb, minName, "gauge", unit);
+    windows.forEach((labels, summary) -> line(sb, minName, labels, summary.window.minimum));
+    String maxName = familyName(metricName + "Max", unit);
+    header(sb, maxName, "gauge", unit);
+    windows.forEach((labels, summary) -> line(sb, maxName, labels, summary.window.maximum));
+  }
+
+  private static void header(StringBuilder sb, String name, String type, MetricUnit unit) {
+    sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    if (unitName(unit) != null)
+      sb.append("# UNIT ").append(name).append(' ').append(unitName(unit)).append('\n');
+  }
+
+  private static void line(StringBuilder sb, String name, String labels, double value) {
+    sb.append(name);
+    if (!labels.isEmpty())
+      sb.append('{').append(labels).append('}');
+    sb.append(' ').append(format(value)).append('\n');
+  }
+
+  static String familyName(String metricName, MetricUnit unit) {
+    String name = PREFIX + metricName
+        .replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+        .replaceAll("([A-Z]+)([A-Z][a-z])", "$1_$2")
+        .toLowerCase()
+        .replaceAll("[^a-z0-9_]", "_");
+    String unitName = unitName(unit);
+    return unitName == null || name.endsWith("_" + unitName) ? name : name + "_" + unitName;
+  }
+
+  private static String unitName(MetricUnit unit) {
+    switch (unit) {
+      case PERCENT: return "percent";
+      case BYTES: return "bytes";
+      case MICROSECONDS: return "microseconds";
+      case MILLISECONDS: return "milliseconds";
+      default: return null;
+    }
+  }
+
+  private static String labels(Collection<Attribute> attributes) {
+    return attributes.stream()
+        .map(attr -> label(attr.key.toString().replaceAll("[^a-zA-Z0-9_]", "_"), String.valueOf(attr.value)))
+        .collect(Collectors.joining(","));
+  }
+
+  private static String withLabel(String labels, String key, String value) {
+    return labels.isEmpty() ? label(key, value) : labels + "," + label(key, value);
+  }
+
+  private static String label(String key, String value) {
+    return key + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+  }
+
+  private static String format(double value) {
+    if (Double.isNaN(value)) return "NaN";
+    if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+    return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+  }
+
+  private interface Sample {}
+
+  private record Gauge(double value) implements Sample {}
+
+  private record Counter(double value) implements Sample {}
+
+  private record Summary(double sum, double count, AggregatedValues window) implements Sample {}
+}
@@ -31,6 +31,8 @@ import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection;
 import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
 import com.here.xyz.hub.util.metrics.base.CWAggregatedValuesPublisher;
 import com.here.xyz.hub.util.metrics.base.CWAttributedMetricCollectionPublisher;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric;
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
 import com.here.xyz.hub.util.metrics.base.MetricPublisher;
 import com.here.xyz.util.service.Core;
 import io.vertx.core.VertxOptions;
@@ -70,7 +72,7 @@ public class ConnectionMetrics {
   public static String TCP_READ_BYTES_METRIC_NAME = "TcpReadBytes";
   public static AttributedMetricCollection<AggregatedValues> tcpWrittenBytes;
   public static String TCP_WRITTEN_BYTES_METRIC_NAME = "TcpWrittenBytes";
-  public static AttributedMetricCollection<AggregatedValues> httpRequestLatency;
+  public static AttributedMetricCollection<HistogramValues> httpRequestLatency;
   public static String HTTP_REQUEST_LATENCY_METRIC_NAME = "HttpRequestLatency";
 
   private static String REDIS_HOST = "";
@@ -114,6 +116,16 @@ public class ConnectionMetrics {
     }).addValue(valueToAggregate);
   }
 
+  private static void record(String target, Map<String, HistogramMetric> metricsMap,
+      AttributedMetricCollection<HistogramValues> metricCollection, double valueToRecord) {
+    if (metricCollection == null) return;
+    metricsMap.computeIfAbsent(target, t -> {
+      HistogramMetric m = new HistogramMetric(metricCollection.getName(), metricCollection.getUnit());
+      metricCollection.addMetric(m, new Attribute(TARGET, target));
+      return m;
+    }).addValue(valueToRecord);
+  }
+
   public static Collection<MetricPublisher> startConnectionMetricPublishers() {
     List<MetricPublisher> publishers = new ArrayList<>();
     //HTTP client queueing time
@@ -258,7 +270,7 @@ public class ConnectionMetrics {
     public int maxPoolSize;
     public String target;
 
-    private static final Map<String, AggregatingMetric> httpRequestLatencyMetrics = new ConcurrentHashMap<>();
+    private static final Map<String, HistogramMetric> httpRequestLatencyMetrics = new ConcurrentHashMap<>();
     public static final Map<String, LongAdder> resetHttpRequests = new ConcurrentHashMap<>();
     public static final Map<String, LongAdder> httpRequestsInflight = new ConcurrentHashMap<>();
     public static final Map<String, LongAdder> httpRequests = new ConcurrentHashMap<>();
@@ -363,7 +375,7 @@ public class ConnectionMetrics {
       try {
         if (requestMetric == null) return;
         //System.out.println("######### METRICS(" + ((RequestMetric) requestMetric).target + "): responseEnd, bytesRead: " + bytesRead);
-        aggregate(((RequestMetric) requestMetric).target, httpRequestLatencyMetrics, httpRequestLatency,
+        record(((RequestMetric) requestMetric).target, httpRequestLatencyMetrics, httpRequestLatency,
             Core.currentTimeMillis() - ((RequestMetric) requestMetric).requestStart);
         removeInflight((RequestMetric) requestMetric);
       }
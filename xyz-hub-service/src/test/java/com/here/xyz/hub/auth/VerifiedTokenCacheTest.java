@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.here.xyz.hub.auth.VerifiedTokenCache.VerifiedToken;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import com.here.xyz.models.hub.jwt.AttributeMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+  private static JsonObject principal(long expiresInSeconds) {
+    return new JsonObject()
+        .put("aid", "someApp")
+        .put("exp", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + expiresInSeconds)
+        .put("urm", new JsonObject().put("xyz-hub", new JsonObject()
+            .put("readFeatures", new JsonObject[]{new JsonObject().put("owner", "someOwner")})));
+  }
+
+  private static VerifiedToken verifiedToken(JsonObject principal) {
+    return new VerifiedToken(User.create(principal), "decoded", VerifiedJWTPayload.fromPrincipal(principal));
+  }
+
+  @Test
+  void returnsCachedToken() {
+    VerifiedTokenCache cache = new VerifiedTokenCache();
+    VerifiedToken token = verifiedToken(principal(60));
+
+    assertThat(cache.get("someToken")).isNull();
+    cache.put("someToken", token);
+
+    assertThat(cache.get("someToken")).isSameAs(token);
+    assertThat(cache.get("otherToken")).isNull();
+    assertThat(cache.getStatistics().getHitCount()).isEqualTo(1);
+    assertThat(cache.getStatistics().getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  void doesNotCacheExpiredToken() {
+    VerifiedTokenCache cache = new VerifiedTokenCache();
+    cache.put("someToken", verifiedToken(principal(-1)));
+
+    assertThat(cache.get("someToken")).isNull();
+  }
+
+  @Test
+  void providesCompiledActionMatrix() {
+    VerifiedJWTPayload payload = VerifiedJWTPayload.fromPrincipal(principal(60));
+
+    assertThat(Authorization.getCompiledXyzHubMatrix(payload)).isSameAs(Authorization.getCompiledXyzHubMatrix(payload));
+    assertThat(Authorization.getXyzHubMatrix(payload).get(XyzHubActionMatrix.READ_FEATURES)).hasSize(1);
+  }
+
+  @Test
+  void sharesTheUnmodifiableActionMatrix() {
+    VerifiedJWTPayload payload = VerifiedJWTPayload.fromPrincipal(principal(60));
+
+    XyzHubActionMatrix matrix = Authorization.getXyzHubMatrix(payload);
+    assertThat(Authorization.getXyzHubMatrix(payload)).isSameAs(matrix);
+    assertThat(Authorization.getCompiledXyzHubMatrix(payload).getActionMatrix()).isSameAs(matrix);
+    assertThatThrownBy(() -> matrix.get(XyzHubActionMatrix.READ_FEATURES).add(new AttributeMap()))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
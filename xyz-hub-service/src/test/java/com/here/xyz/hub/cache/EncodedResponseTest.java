@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.vertx.core.buffer.Buffer;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class EncodedResponseTest {
+
+  private static final byte VALUE_TYPE = 3;
+
+  @Test
+  void cacheValueRoundTrip() {
+    EncodedResponse original = new EncodedResponse("application/geo+json", Buffer.buffer("{\"type\":\"FeatureCollection\"}"), false, 28)
+        .withEtag("\"abc\"");
+
+    byte[] value = original.toCacheValue(VALUE_TYPE);
+    EncodedResponse restored = EncodedResponse.fromCacheValue(value);
+
+    assertThat(value[0]).isEqualTo(VALUE_TYPE);
+    assertThat(restored.getContentType()).isEqualTo("application/geo+json");
+    assertThat(restored.getEtag()).isEqualTo("\"abc\"");
+    assertThat(restored.isGzipped()).isFalse();
+    assertThat(restored.getUncompressedLength()).isEqualTo(28);
+    assertThat(restored.getBody().toString()).isEqualTo("{\"type\":\"FeatureCollection\"}");
+  }
+
+  @Test
+  void cacheValueRoundTripWithoutEtag() {
+    byte[] body = {31, -117, 8, 0, 1, 2, 3};
+    EncodedResponse original = new EncodedResponse("application/vnd.mapbox-vector-tile", Buffer.buffer(body), true, 1024);
+
+    EncodedResponse restored = EncodedResponse.fromCacheValue(original.toCacheValue(VALUE_TYPE));
+
+    assertThat(restored.getEtag()).isNull();
+    assertThat(restored.isGzipped()).isTrue();
+    assertThat(restored.getUncompressedLength()).isEqualTo(1024);
+    assertThat(restored.getBody().getBytes()).isEqualTo(body);
+  }
+
+  @Test
+  void cacheValueRoundTripFromView() {
+    byte[] value = new EncodedResponse("application/json", Buffer.buffer("{}"), false, 2).toCacheValue(VALUE_TYPE);
+    byte[] prefixed = new byte[value.length + 5];
+    System.arraycopy(value, 0, prefixed, 5, value.length);
+
+    EncodedResponse restored = EncodedResponse.fromCacheValue(ByteBuffer.wrap(prefixed, 5, value.length).slice());
+
+    assertThat(restored.getContentType()).isEqualTo("application/json");
+    assertThat(restored.getBody().toString()).isEqualTo("{}");
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.here.xyz.hub.cache.MultiLevelCacheClient.CacheEntry;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class MultiLevelCacheClientTest {
+
+  private static final byte[] VALUE = {1, 2, 3};
+
+  @Test
+  void servesExpiredValuesOnlyAsStaleEntries() throws InterruptedException {
+    MultiLevelCacheClient cache = new MultiLevelCacheClient(new OffHeapCacheClient(1024 * 1024, 1));
+
+    cache.set("a", VALUE, 1, 60);
+    assertThat(cache.get("a").result()).isEqualTo(VALUE);
+    assertThat(cache.getEntry("a").result().isStale()).isFalse();
+    Thread.sleep(1_100);
+
+    CacheEntry entry = cache.getEntry("a").result();
+    assertThat(entry.isStale()).isTrue();
+    assertThat(entry.getBytes()).isEqualTo(VALUE);
+    assertThat(cache.get("a").result()).isNull();
+  }
+
+  @Test
+  void promotesValuesFromLowerLevels() {
+    OffHeapCacheClient upper = new OffHeapCacheClient(1024 * 1024, 1);
+    OffHeapCacheClient lower = new OffHeapCacheClient(1024 * 1024, 1);
+    new MultiLevelCacheClient(lower).set("a", VALUE, 60, 60);
+
+    MultiLevelCacheClient cache = new MultiLevelCacheClient(upper, lower);
+    assertThat(upper.getValue("a")).isNull();
+    assertThat(cache.get("a").result()).isEqualTo(VALUE);
+    assertThat(new MultiLevelCacheClient(upper).get("a").result()).isEqualTo(VALUE);
+  }
+
+  @Test
+  void doesNotAdmitLargeValuesToUpperLevels() {
+    OffHeapCacheClient upper = new OffHeapCacheClient(1024 * 1024, 1);
+    OffHeapCacheClient lower = new OffHeapCacheClient(1024 * 1024, 1);
+    MultiLevelCacheClient cache = new MultiLevelCacheClient(upper, lower).withMaxUpperLevelValueSize(100);
+
+    cache.set("small", VALUE, 60, 60);
+    cache.set("large", new byte[1000], 60, 60);
+
+    assertThat(upper.getValue("small")).isNotNull();
+    assertThat(upper.getValue("large")).isNull();
+    CacheEntry entry = cache.getEntry("large").result();
+    assertThat(entry.getValue().remaining()).isEqualTo(1000);
+    assertThat(entry.level).isEqualTo("OffHeap");
+    assertThat(upper.getValue("large")).isNull();
+  }
+
+  @Test
+  void servesValuesAsViewWithoutCopying() {
+    MultiLevelCacheClient cache = new MultiLevelCacheClient(new OffHeapCacheClient(1024 * 1024, 1));
+    cache.set("a", VALUE, 60, 60);
+
+    ByteBuffer value = cache.getEntry("a").result().getValue();
+    assertThat(value.position()).isZero();
+    assertThat(value.remaining()).isEqualTo(VALUE.length);
+    //The view starts behind the expiration header of the cache value
+    assertThat(value.arrayOffset()).isPositive();
+    assertThat(value.get(0)).isEqualTo(VALUE[0]);
+  }
+
+  @Test
+  void treatsValuesOfOtherFormatsAsMiss() {
+    OffHeapCacheClient upper = new OffHeapCacheClient(1024 * 1024, 1);
+    OffHeapCacheClient lower = new OffHeapCacheClient(1024 * 1024, 1);
+    //A value without header and a value of the previous format, which did not contain a format version yet
+    upper.set("a", VALUE, 60);
+    upper.set("b", new byte[]{0x7E, 0, 0, 0, 0, 0, 0, 0, 0, 1}, 60);
+    new MultiLevelCacheClient(lower).set("b", VALUE, 60, 60);
+
+    MultiLevelCacheClient cache = new MultiLevelCacheClient(upper, lower);
+    assertThat(cache.getEntry("a").result()).isNull();
+    assertThat(cache.getEntry("b").result().getBytes()).isEqualTo(VALUE);
+  }
+
+  @Test
+  void grantsTheRevalidationLockOnlyOnce() {
+    MultiLevelCacheClient cache = new MultiLevelCacheClient(new OffHeapCacheClient(1024 * 1024, 1));
+
+    assertThat(cache.acquireRevalidationLock("a").result()).isTrue();
+    assertThat(cache.acquireRevalidationLock("a").result()).isFalse();
+    assertThat(cache.acquireRevalidationLock("b").result()).isTrue();
+  }
+}
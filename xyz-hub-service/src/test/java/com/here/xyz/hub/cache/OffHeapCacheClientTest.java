@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import static com.here.xyz.hub.cache.OffHeapCacheClient.BLOCK_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheClientTest {
+
+  private static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    new Random(length).nextBytes(bytes);
+    return bytes;
+  }
+
+  @Test
+  void storesValuesSpanningMultipleBlocks() {
+    OffHeapCacheClient cache = new OffHeapCacheClient(16 * BLOCK_SIZE, 1);
+    byte[] value = randomBytes(3 * BLOCK_SIZE + 17);
+
+    cache.set("a", value, 60);
+    cache.set("empty", new byte[0], 60);
+
+    assertThat(cache.getValue("a")).isEqualTo(value);
+    assertThat(cache.getValue("empty")).isEmpty();
+    assertThat(cache.getValue("b")).isNull();
+    assertThat(cache.getStatistics().getHitCount()).isEqualTo(2);
+    assertThat(cache.getStatistics().getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void overwritesAndRemovesValues() {
+    OffHeapCacheClient cache = new OffHeapCacheClient(4 * BLOCK_SIZE, 1);
+
+    cache.set("a", randomBytes(3 * BLOCK_SIZE), 60);
+    byte[] value = randomBytes(2 * BLOCK_SIZE);
+    cache.set("a", value, 60);
+    assertThat(cache.getValue("a")).isEqualTo(value);
+
+    cache.remove("a");
+    assertThat(cache.getValue("a")).isNull();
+    //All blocks have been released again
+    cache.set("b", randomBytes(4 * BLOCK_SIZE), 60);
+    assertThat(cache.getValue("b")).hasSize(4 * BLOCK_SIZE);
+    assertThat(cache.getStatistics().getEvictionCount()).isZero();
+  }
+
+  @Test
+  void ignoresValuesLargerThanTheSegment() {
+    OffHeapCacheClient cache = new OffHeapCacheClient(2 * BLOCK_SIZE, 1);
+
+    cache.set("a", randomBytes(3 * BLOCK_SIZE), 60);
+
+    assertThat(cache.getValue("a")).isNull();
+  }
+
+  @Test
+  void expiresValuesAfterTtl() throws InterruptedException {
+    OffHeapCacheClient cache = new OffHeapCacheClient(4 * BLOCK_SIZE, 1);
+
+    cache.set("a", randomBytes(10), 1);
+    cache.set("b", randomBytes(10), Integer.MAX_VALUE);
+    assertThat(cache.getValue("a")).isNotNull();
+    Thread.sleep(1_100);
+
+    assertThat(cache.getValue("a")).isNull();
+    assertThat(cache.getValue("b")).isNotNull();
+    assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(1);
+  }
+
+  @Test
+  void sweepsExpiredValues() throws InterruptedException {
+    OffHeapCacheClient cache = new OffHeapCacheClient(4 * BLOCK_SIZE, 1);
+
+    cache.set("a", randomBytes(2 * BLOCK_SIZE), 1);
+    cache.getValue("a");
+    cache.set("b", randomBytes(BLOCK_SIZE), 1);
+    Thread.sleep(1_100);
+    cache.sweepExpired();
+
+    assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(2);
+    //The blocks of the expired values have been released without reading them
+    cache.set("c", randomBytes(4 * BLOCK_SIZE), 60);
+    assertThat(cache.getValue("c")).hasSize(4 * BLOCK_SIZE);
+    assertThat(cache.getStatistics().getEvictionCount()).isZero();
+  }
+
+  @Test
+  void protectsFrequentlyUsedValuesFromScans() {
+    OffHeapCacheClient cache = new OffHeapCacheClient(10 * BLOCK_SIZE, 1);
+    cache.set("hot", randomBytes(BLOCK_SIZE), 60);
+    //Reading the value again promotes it to the protected area
+    cache.getValue("hot");
+
+    for (int i = 0; i < 100; i++)
+      cache.set("scan" + i, randomBytes(BLOCK_SIZE), 60);
+
+    assertThat(cache.getValue("hot")).isNotNull();
+    assertThat(cache.getValue("scan99")).isNotNull();
+    assertThat(cache.getValue("scan0")).isNull();
+    assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(91);
+  }
+
+  @Test
+  void concurrentReadsNeverReturnReusedBlocks() throws Exception {
+    //A small segment, so that the blocks are reused all the time
+    OffHeapCacheClient cache = new OffHeapCacheClient(8 * BLOCK_SIZE, 1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicBoolean running = new AtomicBoolean(true);
+    try {
+      Future<?> writer = executor.submit(() -> {
+        for (int i = 0; running.get(); i++) {
+          byte[] value = new byte[2 * BLOCK_SIZE + 1];
+          Arrays.fill(value, (byte) i);
+          cache.set("key" + i % 8, value, 60);
+        }
+      });
+      Future<?>[] readers = new Future[3];
+      for (int r = 0; r < readers.length; r++)
+        readers[r] = executor.submit(() -> {
+          for (int i = 0; i < 200_000; i++) {
+            byte[] value = cache.getValue("key" + i % 8);
+            if (value != null)
+              for (byte b : value)
+                assertThat(b).isEqualTo(value[0]);
+          }
+        });
+
+      for (Future<?> reader : readers)
+        reader.get(60, TimeUnit.SECONDS);
+      running.set(false);
+      writer.get(10, TimeUnit.SECONDS);
+    }
+    finally {
+      running.set(false);
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void segmentCountIsProportionalToTheCores() {
+    long capacity = 2048L * 1024 * 1024;
+    assertThat(OffHeapCacheClient.segmentCount(capacity, 1)).isEqualTo(4);
+    assertThat(OffHeapCacheClient.segmentCount(capacity, 6)).isEqualTo(16);
+    assertThat(OffHeapCacheClient.segmentCount(capacity, 16)).isEqualTo(32);
+    //The segments are not getting smaller than 32MB
+    assertThat(OffHeapCacheClient.segmentCount(capacity, 64)).isEqualTo(64);
+    assertThat(OffHeapCacheClient.segmentCount(16 * 1024 * 1024, 16)).isEqualTo(1);
+  }
+}
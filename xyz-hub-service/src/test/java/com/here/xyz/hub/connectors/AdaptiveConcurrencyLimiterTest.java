@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long RTT = MILLISECONDS.toNanos(50);
+
+  @Test
+  void keepsLimitWhileLatencyIsStable() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 64);
+    for (int i = 0; i < 1000; i++)
+      limiter.onSample(RTT, 64, false);
+
+    assertThat(limiter.getLimit()).isEqualTo(64);
+  }
+
+  @Test
+  void shrinksLimitWhenLatencyIncreases() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 64);
+    for (int i = 0; i < 100; i++)
+      limiter.onSample(RTT, 64, false);
+    for (int i = 0; i < 20; i++)
+      limiter.onSample(RTT * 10, 64, false);
+
+    assertThat(limiter.getLimit()).isLessThan(32);
+  }
+
+  @Test
+  void recoversWhenLatencyDecreasesAgain() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 64);
+    for (int i = 0; i < 100; i++)
+      limiter.onSample(RTT, 64, false);
+    for (int i = 0; i < 20; i++)
+      limiter.onSample(RTT * 10, 64, false);
+    int reducedLimit = limiter.getLimit();
+    for (int i = 0; i < 200; i++)
+      limiter.onSample(RTT, limiter.getLimit(), false);
+
+    assertThat(limiter.getLimit()).isGreaterThan(reducedLimit);
+  }
+
+  @Test
+  void backsOffOnDrops() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 100);
+    limiter.onSample(RTT, 100, true, 0);
+    assertThat(limiter.getLimit()).isEqualTo(90);
+
+    for (int i = 1; i <= 100; i++)
+      limiter.onSample(RTT, 100, true, i * RTT);
+    assertThat(limiter.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  void backsOffOnlyOncePerRtt() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 100);
+    //A burst of drops caused by the same latency spike
+    for (int i = 0; i < 20; i++)
+      limiter.onSample(RTT, 100, true, i);
+    assertThat(limiter.getLimit()).isEqualTo(90);
+
+    limiter.onSample(RTT, 100, true, RTT);
+    assertThat(limiter.getLimit()).isEqualTo(81);
+  }
+
+  @Test
+  void startsAtTheUpdatedMaxLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 4);
+    limiter.setMaxLimit(64);
+    assertThat(limiter.getLimit()).isEqualTo(64);
+
+    for (int i = 0; i < 20; i++)
+      limiter.onSample(RTT, 64, false);
+    limiter.setMaxLimit(128);
+    assertThat(limiter.getLimit()).isEqualTo(64);
+    limiter.setMaxLimit(32);
+    assertThat(limiter.getLimit()).isEqualTo(32);
+  }
+
+  @Test
+  void estimatesFeasibleQueueSize() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10);
+    assertThat(limiter.getMaxFeasibleQueueSize(1000)).isEqualTo(Long.MAX_VALUE);
+
+    limiter.onSample(RTT, 10, false);
+    assertThat(limiter.getMaxFeasibleQueueSize(1000)).isEqualTo(200);
+  }
+}
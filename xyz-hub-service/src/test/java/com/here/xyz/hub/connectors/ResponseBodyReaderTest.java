@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.xyz.hub.rest.Api;
+import com.here.xyz.util.service.HttpException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ResponseBodyReaderTest {
+
+  private final HttpClientRequest request = mock(HttpClientRequest.class);
+  private final HttpClientResponse response = mock(HttpClientResponse.class);
+  private final List<AsyncResult<byte[]>> results = new ArrayList<>();
+
+  @Test
+  void rejectsTooLargeContentLength() {
+    mockResponse("11");
+
+    ResponseBodyReader.read(response, 10, results::add);
+
+    verify(request).reset();
+    verify(response, never()).handler(any());
+    assertPayloadTooLarge();
+  }
+
+  @Test
+  void rejectsTooLargeBodyWhileReading() {
+    mockResponse(null);
+
+    ResponseBodyReader.read(response, 10, results::add);
+    Handler<Buffer> chunkHandler = chunkHandler();
+    Handler<Void> endHandler = endHandler();
+
+    chunkHandler.handle(Buffer.buffer("123456"));
+    assertThat(results).isEmpty();
+    chunkHandler.handle(Buffer.buffer("78901"));
+    chunkHandler.handle(Buffer.buffer("2"));
+    endHandler.handle(null);
+
+    verify(request).reset();
+    assertPayloadTooLarge();
+  }
+
+  @Test
+  void readsBodyInChunks() {
+    mockResponse("10");
+
+    ResponseBodyReader.read(response, 10, results::add);
+    Handler<Buffer> chunkHandler = chunkHandler();
+    Handler<Void> endHandler = endHandler();
+
+    chunkHandler.handle(Buffer.buffer("12345"));
+    chunkHandler.handle(Buffer.buffer("67890"));
+    endHandler.handle(null);
+
+    verify(request, never()).reset();
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).succeeded()).isTrue();
+    assertThat(new String(results.get(0).result())).isEqualTo("1234567890");
+  }
+
+  private void mockResponse(String contentLength) {
+    when(response.getHeader(CONTENT_LENGTH)).thenReturn(contentLength);
+    when(response.request()).thenReturn(request);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Handler<Buffer> chunkHandler() {
+    ArgumentCaptor<Handler<Buffer>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(response).handler(captor.capture());
+    return captor.getValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Handler<Void> endHandler() {
+    ArgumentCaptor<Handler<Void>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(response).endHandler(captor.capture());
+    return captor.getValue();
+  }
+
+  private void assertPayloadTooLarge() {
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).failed()).isTrue();
+    assertThat(results.get(0).cause()).isInstanceOf(HttpException.class);
+    assertThat(((HttpException) results.get(0).cause()).status).isEqualTo(Api.RESPONSE_PAYLOAD_TOO_LARGE);
+  }
+}
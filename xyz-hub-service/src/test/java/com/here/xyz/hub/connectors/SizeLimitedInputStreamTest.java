@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.hub.connectors.RpcClient.ResponseSizeExceededException;
+import com.here.xyz.hub.connectors.RpcClient.SizeLimitedInputStream;
+import com.here.xyz.hub.rest.Api;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.util.service.HttpException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.junit.jupiter.api.Test;
+
+class SizeLimitedInputStreamTest {
+
+  private static final byte[] RESPONSE = "{\"type\":\"FeatureCollection\",\"features\":[]}".getBytes();
+
+  @Test
+  void readsResponseWithinLimit() throws Exception {
+    FeatureCollection fc = XyzSerializable.deserializeRaw(limit(RESPONSE.length));
+    assertThat(fc.getFeatures()).isEmpty();
+  }
+
+  @Test
+  void failsResponseExceedingLimit() {
+    Throwable t = catchThrowable(() -> XyzSerializable.deserializeRaw(limit(RESPONSE.length - 1)));
+
+    assertThat(t).isInstanceOf(ResponseSizeExceededException.class);
+    assertThat(((ResponseSizeExceededException) t).httpException.status).isEqualTo(Api.RESPONSE_PAYLOAD_TOO_LARGE);
+  }
+
+  private static InputStream limit(long maxSize) {
+    return new SizeLimitedInputStream(new ByteArrayInputStream(RESPONSE), maxSize, () -> {
+      throw new HttpException(Api.RESPONSE_PAYLOAD_TOO_LARGE, Api.RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE);
+    });
+  }
+}
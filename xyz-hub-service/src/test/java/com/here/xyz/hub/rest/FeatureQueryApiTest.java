@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.rest;
+
+import static com.here.xyz.hub.rest.ApiResponseType.FEATURE_COLLECTION;
+import static com.here.xyz.util.service.BaseHttpServerVerticle.HeaderValues.APPLICATION_GEO_JSON;
+import static com.here.xyz.util.service.BaseHttpServerVerticle.JWT;
+import static io.vertx.core.http.HttpHeaders.CONTENT_ENCODING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.xyz.events.GetFeaturesByIdEvent;
+import com.here.xyz.hub.cache.EncodedResponse;
+import com.here.xyz.hub.connectors.models.Space.CacheProfile;
+import com.here.xyz.hub.task.FeatureTask.IdsQuery;
+import com.here.xyz.hub.util.CpuWorkerPool;
+import com.here.xyz.models.hub.jwt.JWTPayload;
+import com.here.xyz.util.service.BaseConfig;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.openapi.router.RouterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FeatureQueryApiTest extends ApiUnitTest {
+
+  private static Vertx vertx;
+  private static FeatureQueryApi api;
+
+  @BeforeAll
+  static void setUp() {
+    vertx = Vertx.vertx();
+    BaseConfig.instance = new BaseConfig();
+    api = new FeatureQueryApi(mock(RouterBuilder.class, RETURNS_DEEP_STUBS));
+  }
+
+  @AfterAll
+  static void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  void largeCachedResponseIsNotDecompressedOnTheEventLoop() throws Exception {
+    byte[] body = "{\"type\":\"FeatureCollection\",\"features\":[]}".repeat(CpuWorkerPool.OFFLOAD_BYTES / 32).getBytes(UTF_8);
+    HttpServerResponse httpResponse = mockHttpResponse();
+    CompletableFuture<Boolean> endedOnEventLoop = new CompletableFuture<>();
+    CompletableFuture<Buffer> sentBody = new CompletableFuture<>();
+    when(httpResponse.end(any(Buffer.class))).thenAnswer(inv -> {
+      endedOnEventLoop.complete(Context.isOnEventLoopThread());
+      sentBody.complete(inv.getArgument(0));
+      return null;
+    });
+
+    IdsQuery task = newTask(httpResponse);
+    task.setResponse(new EncodedResponse(APPLICATION_GEO_JSON, Buffer.buffer(gzip(body)), true, body.length));
+    CompletableFuture<Boolean> sentSynchronously = new CompletableFuture<>();
+    vertx.runOnContext(v -> {
+      api.sendResponse(task);
+      sentSynchronously.complete(sentBody.isDone());
+    });
+
+    assertThat(sentBody.get(10, TimeUnit.SECONDS).getBytes()).isEqualTo(body);
+    //The decompression of the large body must have been handed over to a worker
+    assertThat(sentSynchronously.get()).isFalse();
+    assertThat(endedOnEventLoop.get()).isTrue();
+    verify(httpResponse, never()).putHeader(CONTENT_ENCODING, "gzip");
+  }
+
+  private static HttpServerResponse mockHttpResponse() {
+    HttpServerResponse httpResponse = mock(HttpServerResponse.class);
+    when(httpResponse.setStatusCode(anyInt())).thenReturn(httpResponse);
+    when(httpResponse.putHeader(any(CharSequence.class), any(CharSequence.class))).thenReturn(httpResponse);
+    when(httpResponse.putHeader(anyString(), anyString())).thenReturn(httpResponse);
+    return httpResponse;
+  }
+
+  private static IdsQuery newTask(HttpServerResponse httpResponse) {
+    Map<String, Object> data = new HashMap<>();
+    data.put(JWT, new JWTPayload());
+    RoutingContext context = mock(RoutingContext.class, RETURNS_DEEP_STUBS);
+    when(context.get(anyString())).thenAnswer(inv -> data.get(inv.<String>getArgument(0)));
+    when(context.put(anyString(), any())).thenAnswer(inv -> {
+      data.put(inv.getArgument(0), inv.getArgument(1));
+      return context;
+    });
+    when(context.pathParam(anyString())).thenReturn(null);
+    when(context.request().getHeader(anyString())).thenReturn(null);
+    when(context.response()).thenReturn(httpResponse);
+    return new IdsQuery(new GetFeaturesByIdEvent(), context, FEATURE_COLLECTION, false) {
+      @Override
+      public CacheProfile getCacheProfile() {
+        return CacheProfile.NO_CACHE;
+      }
+    };
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(bytes);
+    }
+    return out.toByteArray();
+  }
+}
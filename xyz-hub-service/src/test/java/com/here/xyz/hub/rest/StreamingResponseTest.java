@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.here.xyz.hub.rest.StreamingResponse.ResponseTooLargeException;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StreamingResponseTest {
+
+  private Vertx vertx;
+  private HttpServerResponse response;
+  private final Buffer written = Buffer.buffer();
+  private final AtomicInteger inflightBytes = new AtomicInteger();
+  private final AtomicBoolean ended = new AtomicBoolean();
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+    response = mock(HttpServerResponse.class);
+    when(response.write(any(Buffer.class))).thenAnswer(inv -> {
+      written.appendBuffer(inv.getArgument(0));
+      return Future.succeededFuture();
+    });
+    when(response.end()).thenAnswer(inv -> {
+      ended.set(true);
+      return Future.succeededFuture();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  void writeInChunks() throws Exception {
+    byte[] body = new byte[3 * StreamingResponse.CHUNK_SIZE + 123];
+    new Random(1).nextBytes(body);
+    StreamingResponse stream = new StreamingResponse(vertx.getOrCreateContext(), response, Long.MAX_VALUE, 5_000, inflightBytes::addAndGet);
+
+    stream.write(body, 0, 1000);
+    stream.write(body[1000]);
+    stream.write(body, 1001, body.length - 1001);
+    stream.close();
+    assertThat(ended).isFalse();
+    stream.end();
+
+    awaitEnded();
+    assertThat(written.getBytes()).isEqualTo(body);
+    assertThat(stream.getLength()).isEqualTo(body.length);
+    assertThat(inflightBytes).hasValue(0);
+  }
+
+  @Test
+  void waitForDrainIfWriteQueueIsFull() throws Exception {
+    AtomicReference<Handler<Void>> drainHandler = new AtomicReference<>();
+    when(response.writeQueueFull()).thenReturn(true, false);
+    when(response.drainHandler(any())).thenAnswer(inv -> {
+      drainHandler.set(inv.getArgument(0));
+      return response;
+    });
+    StreamingResponse stream = new StreamingResponse(vertx.getOrCreateContext(), response, Long.MAX_VALUE, 5_000, inflightBytes::addAndGet);
+
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+      try {
+        stream.write(new byte[2 * StreamingResponse.CHUNK_SIZE + 1]);
+        stream.end();
+      }
+      catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    //The second chunk must not be written before the write-queue was drained
+    Thread.sleep(200);
+    assertThat(written.length()).isEqualTo(StreamingResponse.CHUNK_SIZE);
+    assertThat(writer).isNotDone();
+
+    vertx.runOnContext(v -> drainHandler.get().handle(null));
+    writer.get(5, TimeUnit.SECONDS);
+    awaitEnded();
+    assertThat(written.length()).isEqualTo(2 * StreamingResponse.CHUNK_SIZE + 1);
+  }
+
+  @Test
+  void failIfClientDoesNotReceiveWithinWriteTimeout() {
+    when(response.writeQueueFull()).thenReturn(true);
+    when(response.drainHandler(any())).thenReturn(response);
+    StreamingResponse stream = new StreamingResponse(vertx.getOrCreateContext(), response, Long.MAX_VALUE, 200, inflightBytes::addAndGet);
+
+    //The drain handler is never called, so the writer must give up instead of blocking its thread
+    assertThatThrownBy(() -> stream.write(new byte[2 * StreamingResponse.CHUNK_SIZE + 1]))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Timed out");
+    assertThat(stream.getWaitingNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+  }
+
+  @Test
+  void reserveBoundedNumberOfWriters() {
+    int reserved = 0;
+    while (StreamingResponse.reserveWriter())
+      reserved++;
+    assertThat(reserved).isGreaterThan(0);
+
+    StreamingResponse.releaseWriter();
+    assertThat(StreamingResponse.reserveWriter()).isTrue();
+    for (int i = 0; i < reserved; i++)
+      StreamingResponse.releaseWriter();
+  }
+
+  @Test
+  void failIfResponseIsTooLarge() throws Exception {
+    StreamingResponse stream = new StreamingResponse(vertx.getOrCreateContext(), response, StreamingResponse.CHUNK_SIZE, 5_000,
+        inflightBytes::addAndGet);
+
+    stream.write(new byte[StreamingResponse.CHUNK_SIZE]);
+    stream.write(new byte[1]);
+    assertThatThrownBy(stream::end).isInstanceOf(ResponseTooLargeException.class);
+    assertThat(ended).isFalse();
+  }
+
+  private void awaitEnded() throws InterruptedException {
+    for (int i = 0; i < 50 && !ended.get(); i++)
+      Thread.sleep(100);
+    assertThat(ended).isTrue();
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.task;
+
+import static com.here.xyz.hub.rest.ApiResponseType.FEATURE_COLLECTION;
+import static com.here.xyz.util.service.BaseHttpServerVerticle.JWT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.here.xyz.events.GetFeaturesByIdEvent;
+import com.here.xyz.hub.cache.EncodedResponse;
+import com.here.xyz.hub.task.FeatureTask.IdsQuery;
+import com.here.xyz.hub.task.TaskPipeline.Callback;
+import com.here.xyz.hub.util.CpuWorkerPool;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.models.hub.jwt.JWTPayload;
+import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.service.BaseConfig;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.RoutingContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FeatureTaskHandlerTest {
+
+  private static Vertx vertx;
+
+  @BeforeAll
+  static void setUp() {
+    vertx = Vertx.vertx();
+    BaseConfig.instance = new BaseConfig();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  void largeResponseIsNotEncodedOnTheEventLoop() throws Exception {
+    IdsQuery task = newTask();
+    task.storageResponseSize = CpuWorkerPool.OFFLOAD_BYTES;
+    AtomicBoolean encodedOnEventLoop = new AtomicBoolean(true);
+    task.setResponse(recordingResponse(encodedOnEventLoop));
+
+    assertThat(encodeOnEventLoop(task)).isInstanceOf(EncodedResponse.class);
+    assertThat(encodedOnEventLoop).isFalse();
+  }
+
+  @Test
+  void smallResponseIsEncodedRightAway() throws Exception {
+    IdsQuery task = newTask();
+    task.storageResponseSize = CpuWorkerPool.OFFLOAD_BYTES - 1;
+    AtomicBoolean encodedOnEventLoop = new AtomicBoolean(false);
+    task.setResponse(recordingResponse(encodedOnEventLoop));
+
+    assertThat(encodeOnEventLoop(task)).isInstanceOf(EncodedResponse.class);
+    assertThat(encodedOnEventLoop).isTrue();
+  }
+
+  @Test
+  void coalescedRequestsShareTheEncodedResponse() throws Exception {
+    IdsQuery task = newTask();
+    task.storageResponseSize = CpuWorkerPool.OFFLOAD_BYTES - 1;
+    task.setResponse(new FeatureCollection());
+    AtomicReference<XyzResponse> released = new AtomicReference<>();
+    task.coalescedRequestsRelease = released::set;
+
+    CompletableFuture<XyzResponse> result = new CompletableFuture<>();
+    vertx.runOnContext(v -> FeatureTaskHandler.writeCache(task, new Callback<>() {
+      @Override
+      public void exception(Throwable e) {
+        result.completeExceptionally(e);
+      }
+
+      @Override
+      public void call(IdsQuery value) {
+        result.complete(value.getResponse());
+      }
+    }));
+
+    XyzResponse response = result.get(10, TimeUnit.SECONDS);
+    assertThat(response).isInstanceOf(EncodedResponse.class);
+    assertThat(released.get()).isSameAs(response);
+  }
+
+  private static XyzResponse encodeOnEventLoop(IdsQuery task) throws Exception {
+    CompletableFuture<XyzResponse> result = new CompletableFuture<>();
+    vertx.runOnContext(v -> FeatureTaskHandler.encodeResponse(task).onComplete(ar -> result.complete(task.getResponse())));
+    return result.get(10, TimeUnit.SECONDS);
+  }
+
+  private static FeatureCollection recordingResponse(AtomicBoolean encodedOnEventLoop) {
+    //The etag is read once the response was serialized
+    return new FeatureCollection() {
+      @Override
+      public String getEtag() {
+        encodedOnEventLoop.set(Context.isOnEventLoopThread());
+        return super.getEtag();
+      }
+    };
+  }
+
+  private static IdsQuery newTask() {
+    Map<String, Object> data = new HashMap<>();
+    data.put(JWT, new JWTPayload());
+    RoutingContext context = mock(RoutingContext.class, RETURNS_DEEP_STUBS);
+    when(context.get(anyString())).thenAnswer(inv -> data.get(inv.<String>getArgument(0)));
+    when(context.put(anyString(), any())).thenAnswer(inv -> {
+      data.put(inv.getArgument(0), inv.getArgument(1));
+      return context;
+    });
+    when(context.pathParam(anyString())).thenReturn(null);
+    return new IdsQuery(new GetFeaturesByIdEvent(), context, FEATURE_COLLECTION, false);
+  }
+}
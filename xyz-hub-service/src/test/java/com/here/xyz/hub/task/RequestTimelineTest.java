@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.task;
+
+import static com.here.xyz.hub.task.RequestTimeline.Stage.AUTH;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.READ_CACHE;
+import static com.here.xyz.hub.task.RequestTimeline.Stage.SERIALIZATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RequestTimelineTest {
+
+  @Test
+  void pipelineRecordsMeasuredStages() {
+    RequestTimeline timeline = new RequestTimeline();
+    List<String> results = new ArrayList<>();
+
+    TaskPipeline.create("task")
+        .then(AUTH, (task, callback) -> callback.call(task))
+        .then((task, callback) -> callback.call(task))
+        .then(READ_CACHE, (task, callback) -> {
+          TimeUnit.MILLISECONDS.sleep(5);
+          callback.call(task);
+        })
+        .then(AUTH, (task, callback) -> callback.call(task))
+        .finish(results::add, (task, e) -> {})
+        .withTimeline(timeline)
+        .execute();
+
+    assertThat(results).containsExactly("task");
+    assertThat(timeline.get(AUTH)).isGreaterThanOrEqualTo(0).isLessThan(TimeUnit.MILLISECONDS.toNanos(5));
+    assertThat(timeline.get(READ_CACHE)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    assertThat(timeline.get(SERIALIZATION)).isEqualTo(-1);
+  }
+
+  @Test
+  void failingStageIsRecorded() {
+    RequestTimeline timeline = new RequestTimeline();
+    List<Throwable> errors = new ArrayList<>();
+
+    TaskPipeline.create("task")
+        .then(AUTH, (task, callback) -> {
+          throw new IllegalStateException("forbidden");
+        })
+        .finish(task -> {}, (task, e) -> errors.add(e))
+        .withTimeline(timeline)
+        .execute();
+
+    assertThat(errors).hasSize(1);
+    assertThat(timeline.get(AUTH)).isGreaterThanOrEqualTo(0);
+  }
+
+  @Test
+  void serverTiming() {
+    RequestTimeline timeline = new RequestTimeline();
+    timeline.add(SERIALIZATION, 2_500_000);
+    timeline.add(AUTH, 100_000);
+    timeline.add(AUTH, 23_000);
+
+    assertThat(timeline.toServerTiming()).isEqualTo("auth;dur=0.123, serialization;dur=2.500");
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.coordinates.LinearRingCoordinates;
+import com.here.xyz.models.geojson.coordinates.PointCoordinates;
+import com.here.xyz.models.geojson.coordinates.PolygonCoordinates;
+import com.here.xyz.models.geojson.coordinates.Position;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.Geometry;
+import com.here.xyz.models.geojson.implementation.Point;
+import com.here.xyz.models.geojson.implementation.Polygon;
+import com.here.xyz.models.geojson.implementation.Properties;
+import com.wdtinc.mapbox_vector_tile.VectorTile.Tile;
+import com.wdtinc.mapbox_vector_tile.VectorTile.Tile.GeomType;
+import com.wdtinc.mapbox_vector_tile.VectorTile.Tile.Layer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class StreamingMvtEncoderTest {
+
+  private static final WebMercatorTile WORLD = WebMercatorTile.forWeb(0, 0, 0);
+
+  @Test
+  void encodePointWithProperties() throws Exception {
+    Feature feature = feature("f1", point(0, 0), new Properties().with("name", "a").with("size", 5).with("flag", true));
+
+    Layer layer = decode(StreamingMvtEncoder.encode(WORLD, 0, "space1", List.of(feature), false));
+
+    assertThat(layer.getName()).isEqualTo("space1");
+    assertThat(layer.getVersion()).isEqualTo(2);
+    assertThat(layer.getExtent()).isEqualTo(4096);
+    assertThat(layer.getFeaturesCount()).isEqualTo(1);
+    Tile.Feature f = layer.getFeatures(0);
+    assertThat(f.getType()).isEqualTo(GeomType.POINT);
+    //MoveTo(1) to the tile center (2048, 2048)
+    assertThat(f.getGeometryList()).containsExactly(9, 4096, 4096);
+
+    Map<String, Object> tags = tags(layer, f);
+    assertThat(tags).containsEntry("id", "f1").containsEntry("name", "a").containsEntry("size", 5L).containsEntry("flag", 1L);
+  }
+
+  @Test
+  void clipPolygonAndFixWinding() throws Exception {
+    //A polygon covering the whole world (counter-clockwise in WGS'84 coordinates)
+    Feature feature = feature("p1", polygon(-179, -80, 179, -80, 179, 80, -179, 80, -179, -80), null);
+
+    Layer layer = decode(StreamingMvtEncoder.encode(WebMercatorTile.forWeb(2, 1, 1), 0, "l", List.of(feature), false));
+
+    assertThat(layer.getFeaturesCount()).isEqualTo(1);
+    Tile.Feature f = layer.getFeatures(0);
+    assertThat(f.getType()).isEqualTo(GeomType.POLYGON);
+    List<int[]> ring = decodeRing(f.getGeometryList());
+    assertThat(ring).hasSize(4);
+    //The exterior ring must have a positive area in tile coordinates
+    assertThat(area(ring)).isEqualTo(2L * 4096 * 4096);
+    for (int[] p : ring) {
+      assertThat(p[0]).isIn(0, 4096);
+      assertThat(p[1]).isIn(0, 4096);
+    }
+  }
+
+  @Test
+  void skipFeaturesOutsideOfTile() throws Exception {
+    Feature inside = feature("in", point(-90, 45), null);
+    Feature outside = feature("out", point(90, -45), null);
+
+    Layer layer = decode(StreamingMvtEncoder.encode(WebMercatorTile.forWeb(1, 0, 0), 0, "l", List.of(inside, outside), false));
+
+    assertThat(layer.getFeaturesCount()).isEqualTo(1);
+    assertThat(tags(layer, layer.getFeatures(0))).containsEntry("id", "in");
+  }
+
+  @Test
+  void internKeysAndValues() throws Exception {
+    List<Feature> features = new ArrayList<>();
+    for (int i = 0; i < 10; i++)
+      features.add(feature("f" + i, point(i, i), new Properties().with("category", i % 2 == 0 ? "even" : "odd")));
+
+    Layer layer = decode(StreamingMvtEncoder.encode(WORLD, 0, "l", features, false));
+
+    assertThat(layer.getFeaturesCount()).isEqualTo(10);
+    assertThat(layer.getKeysList()).containsExactly("id", "category");
+    //10 ids and 2 categories
+    assertThat(layer.getValuesCount()).isEqualTo(12);
+  }
+
+  @Test
+  void encodeNestedProperties() throws Exception {
+    Properties properties = new Properties().with("address", Map.of("city", "Berlin"));
+    Feature feature = feature("f1", point(0, 0), properties);
+
+    Map<String, Object> nested = tags(decode(StreamingMvtEncoder.encode(WORLD, 0, "l", List.of(feature), false)));
+    assertThat(nested).containsEntry("address", "{\"city\":\"Berlin\"}");
+
+    Map<String, Object> flattened = tags(decode(StreamingMvtEncoder.encode(WORLD, 0, "l", List.of(feature), true)));
+    assertThat(flattened).containsEntry("id", "f1").containsEntry("properties.address.city", "Berlin");
+  }
+
+  @Test
+  void encodeInParallelChunks() throws Exception {
+    List<Feature> features = new ArrayList<>();
+    for (int i = 0; i < 5000; i++)
+      features.add(feature("f" + i, i % 3 == 0 ? polygon(-10, -10, 10 + i % 50, -10, 10, 10, -10, -10) : point(i % 360 - 180, i % 170 - 85),
+          new Properties().with("i", i)));
+    WebMercatorTile tile = WebMercatorTile.forWeb(1, 0, 0);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      byte[] sequential = StreamingMvtEncoder.encode(tile, 16, "l", features, false);
+      byte[] parallel = StreamingMvtEncoder.encode(tile, 16, "l", features, false, executor, 4);
+
+      assertThat(decode(parallel).getFeaturesCount()).isGreaterThan(0);
+      assertThat(parallel).isEqualTo(sequential);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void submitsBoundedNumberOfHelpers() throws Exception {
+    List<Feature> features = new ArrayList<>();
+    for (int i = 0; i < 5000; i++)
+      features.add(feature("f" + i, point(i % 360 - 180, i % 170 - 85), new Properties().with("i", i)));
+    WebMercatorTile tile = WebMercatorTile.forWeb(1, 0, 0);
+    //An executor which never runs the helpers, so the calling thread has to process all chunks itself
+    List<Runnable> submitted = new ArrayList<>();
+
+    byte[] parallel = StreamingMvtEncoder.encode(tile, 16, "l", features, false, submitted::add, 3);
+
+    assertThat(submitted).hasSize(2);
+    assertThat(parallel).isEqualTo(StreamingMvtEncoder.encode(tile, 16, "l", features, false));
+    //The helpers which are started late have nothing left to do
+    submitted.forEach(Runnable::run);
+  }
+
+  private static Feature feature(String id, Geometry geometry, Properties properties) {
+    return Feature.createEmptyFeature().withId(id).withGeometry(geometry).withProperties(properties);
+  }
+
+  private static Point point(double lon, double lat) {
+    return new Point().withCoordinates(new PointCoordinates(lon, lat));
+  }
+
+  private static Polygon polygon(double... lonLats) {
+    LinearRingCoordinates ring = new LinearRingCoordinates();
+    for (int i = 0; i < lonLats.length; i += 2)
+      ring.add(new Position(lonLats[i], lonLats[i + 1]));
+    PolygonCoordinates coordinates = new PolygonCoordinates();
+    coordinates.add(ring);
+    return new Polygon().withCoordinates(coordinates);
+  }
+
+  private static Layer decode(byte[] mvt) throws Exception {
+    Tile tile = Tile.parseFrom(mvt);
+    assertThat(tile.getLayersCount()).isEqualTo(1);
+    return tile.getLayers(0);
+  }
+
+  private static Map<String, Object> tags(Layer layer) {
+    assertThat(layer.getFeaturesCount()).isEqualTo(1);
+    return tags(layer, layer.getFeatures(0));
+  }
+
+  private static Map<String, Object> tags(Layer layer, Tile.Feature feature) {
+    Map<String, Object> tags = new java.util.HashMap<>();
+    for (int i = 0; i < feature.getTagsCount(); i += 2) {
+      Tile.Value value = layer.getValues(feature.getTags(i + 1));
+      tags.put(layer.getKeys(feature.getTags(i)), value.hasStringValue() ? value.getStringValue()
+          : value.hasSintValue() ? (Object) value.getSintValue() : value.getDoubleValue());
+    }
+    return tags;
+  }
+
+  private static List<int[]> decodeRing(List<Integer> geometry) {
+    List<int[]> points = new ArrayList<>();
+    int x = 0, y = 0, i = 0;
+    while (i < geometry.size()) {
+      int command = geometry.get(i++);
+      int id = command & 0x7;
+      int count = command >> 3;
+      if (id == 7)
+        continue;
+      for (int c = 0; c < count; c++) {
+        x += zigZagDecode(geometry.get(i++));
+        y += zigZagDecode(geometry.get(i++));
+        points.add(new int[]{x, y});
+      }
+    }
+    return points;
+  }
+
+  private static int zigZagDecode(int n) {
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  private static long area(List<int[]> ring) {
+    long area = 0;
+    for (int i = 0; i < ring.size(); i++) {
+      int[] p = ring.get(i);
+      int[] q = ring.get((i + 1) % ring.size());
+      area += (long) p[0] * q[1] - (long) q[0] * p[1];
+    }
+    return area;
+  }
+}
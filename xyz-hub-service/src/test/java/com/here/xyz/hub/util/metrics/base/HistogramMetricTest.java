@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.metrics.base;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.here.xyz.hub.util.metrics.base.HistogramMetric.HistogramValues;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class HistogramMetricTest {
+
+  @Test
+  void bucketBoundaries() {
+    for (long value : new long[]{0, 1, 63, 64, 65, 127, 128, 1000, 123_456_789, (1L << 32) - 1}) {
+      int bucket = HistogramMetric.bucketIndex(value);
+      assertThat(HistogramMetric.lowestValue(bucket)).isLessThanOrEqualTo(value);
+      assertThat(HistogramMetric.highestValue(bucket)).isGreaterThanOrEqualTo(value);
+    }
+    assertThat(HistogramMetric.bucketIndex(1L << 40)).isEqualTo(HistogramMetric.BUCKETS - 1);
+  }
+
+  @Test
+  void percentiles() {
+    HistogramMetric metric = new HistogramMetric("Test", MILLISECONDS);
+    for (int i = 1; i <= 10_000; i++)
+      metric.addValue(i);
+
+    HistogramValues values = metric.gatherValues();
+    assertThat(values.sampleCount).isEqualTo(10_000);
+    assertThat(values.minimum).isEqualTo(1);
+    assertThat(values.maximum).isEqualTo(10_000);
+    assertThat(values.sum).isEqualTo(10_000d * 10_001 / 2);
+    assertThat(values.getPercentile(50)).isCloseTo(5_000, within(5_000 / 16d));
+    assertThat(values.getPercentile(99)).isCloseTo(9_900, within(9_900 / 16d));
+    assertThat(values.getPercentile(99.9)).isCloseTo(9_990, within(9_990 / 16d));
+    assertThat(values.getPercentile(100)).isEqualTo(10_000);
+  }
+
+  @Test
+  void gatherResetsValues() {
+    HistogramMetric metric = new HistogramMetric("Test", MILLISECONDS);
+    assertThat(metric.gatherValues()).isNull();
+
+    metric.addValue(42);
+    assertThat(metric.gatherValues().sampleCount).isEqualTo(1);
+    assertThat(metric.gatherValues()).isNull();
+
+    metric.addValue(7);
+    HistogramValues values = metric.gatherValues();
+    assertThat(values.minimum).isEqualTo(7);
+    assertThat(values.maximum).isEqualTo(7);
+  }
+
+  @Test
+  void concurrentRecordingLosesNoValues() throws Exception {
+    HistogramMetric metric = new HistogramMetric("Test", MILLISECONDS);
+    int threads = 8, valuesPerThread = 100_000;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> writers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread writer = new Thread(() -> {
+        try {
+          start.await();
+        }
+        catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < valuesPerThread; i++)
+          metric.addValue(i % 1000);
+      });
+      writer.start();
+      writers.add(writer);
+    }
+
+    start.countDown();
+    double sampleCount = 0;
+    while (writers.stream().anyMatch(Thread::isAlive)) {
+      HistogramValues values = metric.gatherValues();
+      if (values != null)
+        sampleCount += values.sampleCount;
+    }
+    for (Thread writer : writers)
+      writer.join();
+    HistogramValues values = metric.gatherValues();
+    if (values != null)
+      sampleCount += values.sampleCount;
+
+    assertThat(sampleCount).isEqualTo((double) threads * valuesPerThread);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.util.metrics.base;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.BYTES;
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.COUNT;
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.here.xyz.hub.util.metrics.base.AggregatingMetric.AggregatedValues;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OpenMetricsExpositionTest {
+
+  @Test
+  void familyNames() {
+    assertThat(OpenMetricsExposition.familyName("JvmMemoryUtilization", COUNT)).isEqualTo("xyz_hub_jvm_memory_utilization");
+    assertThat(OpenMetricsExposition.familyName("RequestLatency", MILLISECONDS)).isEqualTo("xyz_hub_request_latency_milliseconds");
+    assertThat(OpenMetricsExposition.familyName("TcpReadBytes", BYTES)).isEqualTo("xyz_hub_tcp_read_bytes");
+    assertThat(OpenMetricsExposition.familyName("HTTPRequests", COUNT)).isEqualTo("xyz_hub_http_requests");
+  }
+
+  @Test
+  void bareValuesAreRenderedAsGauges() {
+    BareValuesMetric metric = new BareValuesMetric("TestGcDuration", MILLISECONDS) {
+      @Override
+      protected Collection<Double> gatherValues() {
+        return List.of(10d, 15d);
+      }
+    };
+    OpenMetricsExposition.record(metric, metric.gatherValues());
+
+    assertThat(OpenMetricsExposition.render())
+        .contains("# TYPE xyz_hub_test_gc_duration_milliseconds gauge\n"
+            + "# UNIT xyz_hub_test_gc_duration_milliseconds milliseconds\n"
+            + "xyz_hub_test_gc_duration_milliseconds 25\n")
+        .endsWith("# EOF\n");
+    OpenMetricsExposition.remove(metric);
+  }
+
+  @Test
+  void cumulativeValuesAreRenderedAsCounters() {
+    BareValuesMetric metric = new BareValuesMetric("TestWaitTime", MILLISECONDS) {
+      @Override
+      protected Collection<Double> gatherValues() {
+        return List.of(42d);
+      }
+
+      @Override
+      public boolean isCumulative() {
+        return true;
+      }
+    };
+    OpenMetricsExposition.record(metric, metric.gatherValues());
+
+    assertThat(OpenMetricsExposition.render())
+        .contains("# TYPE xyz_hub_test_wait_time_milliseconds counter\n"
+            + "# UNIT xyz_hub_test_wait_time_milliseconds milliseconds\n"
+            + "xyz_hub_test_wait_time_milliseconds_total 42\n");
+    OpenMetricsExposition.remove(metric);
+  }
+
+  @Test
+  void summariesAccumulateSumAndCount() {
+    HistogramMetric metric = new HistogramMetric("TestLatency", MILLISECONDS);
+    for (int i = 1; i <= 100; i++)
+      metric.addValue(i);
+    OpenMetricsExposition.record(metric, metric.gatherValues());
+    metric.addValue(50);
+    OpenMetricsExposition.record(metric, metric.gatherValues());
+
+    String rendered = OpenMetricsExposition.render();
+    assertThat(rendered)
+        .contains("# TYPE xyz_hub_test_latency_milliseconds summary\n")
+        .contains("xyz_hub_test_latency_milliseconds{quantile=\"0.5\"} 50\n")
+        .contains("xyz_hub_test_latency_milliseconds_sum 5100\n")
+        .contains("xyz_hub_test_latency_milliseconds_count 101\n")
+        .contains("xyz_hub_test_latency_min_milliseconds 50\n")
+        .contains("xyz_hub_test_latency_max_milliseconds 50\n");
+
+    //Nothing gathered in the latest period
+    OpenMetricsExposition.record(metric, metric.gatherValues());
+    assertThat(OpenMetricsExposition.render())
+        .contains("xyz_hub_test_latency_milliseconds_count 101\n")
+        .doesNotContain("xyz_hub_test_latency_milliseconds{quantile=")
+        .doesNotContain("xyz_hub_test_latency_max_milliseconds");
+    OpenMetricsExposition.remove(metric);
+  }
+
+  @Test
+  void attributedValuesAreRenderedWithLabels() {
+    AttributedMetricCollection<AggregatedValues> collection = new AttributedMetricCollection<>("TestConnectorLatency", MILLISECONDS);
+    AggregatingMetric connectorA = new AggregatingMetric("TestConnectorLatency", MILLISECONDS);
+    AggregatingMetric connectorB = new AggregatingMetric("TestConnectorLatency", MILLISECONDS);
+    collection.addMetric(connectorA, new Attribute<>("connector", "a"));
+    collection.addMetric(connectorB, new Attribute<>("connector", "b\"1"));
+    connectorA.addValue(3);
+    connectorB.addValue(4);
+    connectorB.addValue(6);
+
+    Map<Collection<Attribute>, AggregatedValues> values = collection.gatherValues();
+    OpenMetricsExposition.record(collection, values);
+
+    assertThat(OpenMetricsExposition.render())
+        .contains("xyz_hub_test_connector_latency_milliseconds_sum{connector=\"a\"} 3\n"
+            + "xyz_hub_test_connector_latency_milliseconds_count{connector=\"a\"} 1\n"
+            + "xyz_hub_test_connector_latency_milliseconds_sum{connector=\"b\\\"1\"} 10\n"
+            + "xyz_hub_test_connector_latency_milliseconds_count{connector=\"b\\\"1\"} 2\n");
+    OpenMetricsExposition.remove(collection);
+  }
+
+  @Test
+  void samplesOfMismatchingTypesAreSkipped() {
+    BareValuesMetric gauge = new BareValuesMetric("TestMixed", MILLISECONDS) {
+      @Override
+      protected Collection<Double> gatherValues() {
+        return List.of(7d);
+      }
+    };
+    AttributedMetricCollection<AggregatedValues> collection = new AttributedMetricCollection<>("TestMixed", MILLISECONDS);
+    AggregatingMetric summary = new AggregatingMetric("TestMixed", MILLISECONDS);
+    collection.addMetric(summary, new Attribute<>("connector", "a"));
+    summary.addValue(3);
+    OpenMetricsExposition.record(gauge, gauge.gatherValues());
+    OpenMetricsExposition.record(collection, collection.gatherValues());
+
+    assertThat(OpenMetricsExposition.render())
+        .contains("# TYPE xyz_hub_test_mixed_milliseconds gauge\n"
+            + "# UNIT xyz_hub_test_mixed_milliseconds milliseconds\n"
+            + "xyz_hub_test_mixed_milliseconds 7\n")
+        .doesNotContain("xyz_hub_test_mixed_milliseconds_sum");
+    OpenMetricsExposition.remove(gauge);
+    OpenMetricsExposition.remove(collection);
+  }
+}
@@ -0,0 +1,138 @@
+package com.here.xyz.benchmarks.auth;
+
+import static com.here.xyz.hub.auth.XyzHubActionMatrix.ADMIN_SPACES;
+import static com.here.xyz.hub.auth.XyzHubActionMatrix.CREATE_FEATURES;
+import static com.here.xyz.hub.auth.XyzHubActionMatrix.DELETE_FEATURES;
+import static com.here.xyz.hub.auth.XyzHubActionMatrix.MANAGE_SPACES;
+import static com.here.xyz.hub.auth.XyzHubActionMatrix.READ_FEATURES;
+import static com.here.xyz.hub.auth.XyzHubActionMatrix.UPDATE_FEATURES;
+
+import com.here.xyz.hub.auth.XyzHubActionMatrix;
+import com.here.xyz.hub.auth.XyzHubAttributeMap;
+import com.here.xyz.models.hub.jwt.ActionMatrix;
+import com.here.xyz.models.hub.jwt.AttributeMap;
+import com.here.xyz.models.hub.jwt.CompiledActionMatrix;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link CompiledActionMatrix} with matching the plain {@link ActionMatrix} of a token.
+ * The token matrix resembles the one of a large organization: Per owner there are some space specific rights for all feature actions, some
+ * owner-wide rights, package rights and wildcard space prefixes. The checked resources are spread over the whole matrix, half of them are
+ * not granted.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ActionMatrixBenchmark {
+
+    private static final List<String> ACTIONS = Arrays.asList(READ_FEATURES, CREATE_FEATURES, UPDATE_FEATURES, DELETE_FEATURES,
+        MANAGE_SPACES, ADMIN_SPACES);
+    private static final int RESOURCES = 1024;
+
+    @Param({"current", "legacy"})
+    public String IMPLEMENTATION;
+
+    @Param({"100", "1000", "10000"})
+    public int SPACES;
+
+    private ActionMatrix tokenRights;
+    private CompiledActionMatrix compiledTokenRights;
+    private XyzHubActionMatrix[] featureRequests;
+    private XyzHubAttributeMap[] spaceResources;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(42);
+        final int owners = Math.max(1, SPACES / 50);
+
+        tokenRights = new XyzHubActionMatrix();
+        for (int i = 0; i < SPACES; i++) {
+            final AttributeMap spaceRights = new XyzHubAttributeMap()
+                .withValue(XyzHubAttributeMap.OWNER, owner(i % owners))
+                .withValue(XyzHubAttributeMap.SPACE, space(i));
+            for (String action : ACTIONS.subList(0, 1 + random.nextInt(ACTIONS.size())))
+                tokenRights.addAction(action, spaceRights);
+        }
+        for (int o = 0; o < owners; o += 2) {
+            tokenRights.addAction(READ_FEATURES, new XyzHubAttributeMap().withValue(XyzHubAttributeMap.OWNER, owner(o)));
+            tokenRights.addAction(READ_FEATURES, new XyzHubAttributeMap().withValue(XyzHubAttributeMap.PACKAGES, "package-" + o));
+            tokenRights.addAction(MANAGE_SPACES, new XyzHubAttributeMap().withValue(XyzHubAttributeMap.SPACE, "prefix-" + o + "-*"));
+        }
+        compiledTokenRights = CompiledActionMatrix.compile(tokenRights);
+
+        featureRequests = new XyzHubActionMatrix[RESOURCES];
+        spaceResources = new XyzHubAttributeMap[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) {
+            //Every second resource belongs to a space which is not part of the token
+            final int space = random.nextInt(SPACES * 2);
+            final int owner = space % owners;
+            final List<String> packages = random.nextBoolean() ? Arrays.asList("package-" + random.nextInt(owners)) : null;
+            spaceResources[i] = XyzHubAttributeMap.forValues(owner(owner), space < SPACES ? space(space) : "prefix-" + owner + "-" + space,
+                packages);
+            featureRequests[i] = new XyzHubActionMatrix().readFeatures(spaceResources[i]);
+        }
+    }
+
+    private static String owner(int i) {
+        return "owner-" + i;
+    }
+
+    private static String space(int i) {
+        return "space-" + Integer.toHexString(i * 7919);
+    }
+
+    @Benchmark
+    public void authorizeFeatureRead(Blackhole bh) {
+        final XyzHubActionMatrix requestRights = featureRequests[next++ & (RESOURCES - 1)];
+        bh.consume("legacy".equals(IMPLEMENTATION) ? tokenRights.matches(requestRights) : compiledTokenRights.matches(requestRights));
+    }
+
+    @Benchmark
+    public void listSpaceRights(Blackhole bh) {
+        final XyzHubAttributeMap resource = spaceResources[next++ & (RESOURCES - 1)];
+        for (String action : ACTIONS) {
+            if ("legacy".equals(IMPLEMENTATION))
+                bh.consume(tokenRights.matches(new ActionMatrix().addAction(action, resource)));
+            else
+                bh.consume(compiledTokenRights.matches(action, resource));
+        }
+    }
+
+    @Benchmark
+    public void authorizeSpaceRead(Blackhole bh) {
+        final XyzHubAttributeMap resource = spaceResources[next++ & (RESOURCES - 1)];
+        if ("legacy".equals(IMPLEMENTATION))
+            bh.consume(tokenRights.values().stream().flatMap(List::stream).anyMatch(access -> access.matches(resource)));
+        else
+            bh.consume(compiledTokenRights.matchesAnyAction(resource));
+    }
+
+    @Benchmark
+    public CompiledActionMatrix compile() {
+        return CompiledActionMatrix.compile(tokenRights);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
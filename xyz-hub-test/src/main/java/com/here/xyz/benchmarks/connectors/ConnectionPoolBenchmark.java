@@ -0,0 +1,94 @@
+package com.here.xyz.benchmarks.connectors;
+
+import static com.here.xyz.benchmarks.tools.PerformanceTestHelper.createDBSettings;
+
+import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.db.datasource.HikariPooledDataSources;
+import com.here.xyz.util.db.datasource.PooledDataSources;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the checkout latency of the c3p0 based {@link PooledDataSources} with the HikariCP based {@link HikariPooledDataSources}.
+ * Many more threads than connections are requesting a connection concurrently, so that the contention of the pool is measured.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(128)
+public class ConnectionPoolBenchmark {
+  private static final Logger logger = LogManager.getLogger();
+
+  @Param({"c3p0", "hikari"})
+  public String pool;
+
+  @Param({"localhost"})
+  public String PG_HOST;
+
+  @Param({"postgres"})
+  public String PG_USER;
+
+  @Param({"postgres"})
+  public String PG_DB;
+
+  @Param({"password"})
+  public String PG_PASSWORD;
+
+  @Param({"32"})
+  public int PG_MAX_POOLSIZE;
+
+  private DataSourceProvider dataSourceProvider;
+  private DataSource dataSource;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    dataSourceProvider = "hikari".equals(pool)
+        ? new HikariPooledDataSources(createDBSettings(PG_HOST, PG_USER, PG_DB, PG_PASSWORD, PG_MAX_POOLSIZE))
+        : new PooledDataSources(createDBSettings(PG_HOST, PG_USER, PG_DB, PG_PASSWORD, PG_MAX_POOLSIZE));
+    dataSource = dataSourceProvider.getWriter();
+    //Fill the pool before measuring
+    Connection[] connections = new Connection[PG_MAX_POOLSIZE];
+    for (int i = 0; i < connections.length; i++)
+      connections[i] = dataSource.getConnection();
+    for (Connection connection : connections)
+      connection.close();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    if (dataSourceProvider instanceof HikariPooledDataSources hikariPooledDataSources)
+      logger.info("Metrics of the writer pool: {}", hikariPooledDataSources.getMetrics(false));
+    dataSourceProvider.close();
+  }
+
+  @Benchmark
+  public boolean checkoutConnection() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      return connection.isClosed();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{".*ConnectionPoolBenchmark.*"});
+  }
+}
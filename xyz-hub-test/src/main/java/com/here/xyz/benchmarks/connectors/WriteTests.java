@@ -12,6 +12,7 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 
 import java.util.List;
+import java.util.Map;
 
 import static com.here.xyz.benchmarks.tools.PerformanceTestHelper.SEEDING_STRATEGY;
 import static com.here.xyz.benchmarks.tools.PerformanceTestHelper.generateRandomFeatureCollection;
@@ -42,6 +43,12 @@ public class WriteTests extends BaseTest{
         writeFeatureCollection(psqlConnector, state.data);
     }
 
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    @Benchmark
+    public void testWritesWithPSQLConnectorColumnarInput(BenchmarkState state) throws Exception {
+        writeFeatureCollection(psqlConnector, state.data, Map.of("columnarWriteInput", true));
+    }
+
     //Quadkey: 1202032
     static final private float xmin = 5.625f, ymin = 48.92249926375824f, xmax = 8.4375f, ymax = 50.736455137010644f;
 
@@ -56,15 +63,22 @@ public class WriteTests extends BaseTest{
     }
 
     private void writeFeatureCollection(StorageConnector testConnector, FeatureCollection fc) throws Exception {
+        writeFeatureCollection(testConnector, fc, null);
+    }
+
+    private void writeFeatureCollection(StorageConnector testConnector, FeatureCollection fc, Map<String, Object> connectorParams)
+            throws Exception {
         writeFeatureCollectionIntoSpace(testConnector,
                 List.of(getSpaceName(testConnector, SPACE_ID)),
                 SEEDING_STRATEGY,
-                fc
+                fc,
+                connectorParams
         );
     }
 
     public static void main(String[] args) throws Exception {
-        String[] jmhArgs = {
+        //E.g. ".*WriteTests.testWritesWithPSQLConnector.*" -rf json -rff write-tests.json to compare both PSQL input variants
+        String[] jmhArgs = args.length > 0 ? args : new String[] {
                 ".*WriteTests.testWritesWithNLConnector.*",
                // ".*WriteTests.testWritesWithPSQLConnector.*"
         };
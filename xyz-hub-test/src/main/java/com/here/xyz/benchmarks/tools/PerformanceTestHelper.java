@@ -66,6 +66,12 @@ public class PerformanceTestHelper {
   public static Typed writeFeatureCollectionIntoSpace(StorageConnector connector, List<String> spaceNames, UpdateStrategy updateStrategy,
                                                       FeatureCollection fc)
           throws Exception {
+    return writeFeatureCollectionIntoSpace(connector, spaceNames, updateStrategy, fc, null);
+  }
+
+  public static Typed writeFeatureCollectionIntoSpace(StorageConnector connector, List<String> spaceNames, UpdateStrategy updateStrategy,
+                                                      FeatureCollection fc, Map<String, Object> connectorParams)
+          throws Exception {
 
     WriteFeaturesEvent writeFeaturesEvent = new WriteFeaturesEvent()
             .withModifications(Set.of(
@@ -73,7 +79,8 @@ public class PerformanceTestHelper {
                             .withFeatureData(fc.copy())
                             .withUpdateStrategy(updateStrategy)
             ))
-            .withResponseDataExpected(false);
+            .withResponseDataExpected(false)
+            .withConnectorParams(connectorParams);
 
     return handleRequest(connector, writeFeaturesEvent, spaceNames);
   }
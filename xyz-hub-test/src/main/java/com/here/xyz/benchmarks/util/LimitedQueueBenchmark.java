@@ -0,0 +1,188 @@
+package com.here.xyz.benchmarks.util;
+
+import com.here.xyz.hub.util.ByteSizeAware;
+import com.here.xyz.hub.util.LimitedQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link LimitedQueue} with its former implementation, which was backed by a {@link ConcurrentLinkedQueue} and had to
+ * traverse the whole queue to determine its size on every add.
+ * The queue is kept full, so that every add also has to discard the oldest element, just like the RemoteFunctionClient's queue does
+ * under load.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(64)
+public class LimitedQueueBenchmark {
+
+    @Param({"current", "legacy"})
+    public String IMPLEMENTATION;
+
+    @Param({"1000", "10000"})
+    public int MAX_SIZE;
+
+    @Param({"1024"})
+    public int PAYLOAD_BYTES;
+
+    private Queue queue;
+    private Element element;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = "legacy".equals(IMPLEMENTATION) ? new LegacyQueue(MAX_SIZE, Long.MAX_VALUE) : new CurrentQueue(MAX_SIZE, Long.MAX_VALUE);
+        element = new Element(PAYLOAD_BYTES);
+        for (int i = 0; i < MAX_SIZE; i++)
+            queue.add(element);
+    }
+
+    @Benchmark
+    public void addAndDiscard(Blackhole bh) {
+        bh.consume(queue.add(element));
+    }
+
+    @Benchmark
+    public void addAndRemove(Blackhole bh) {
+        queue.add(element);
+        bh.consume(queue.remove());
+    }
+
+    @Benchmark
+    public void readSizes(Blackhole bh) {
+        bh.consume(queue.getSize());
+        bh.consume(queue.getByteSize());
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private static class Element implements ByteSizeAware {
+
+        private final long byteSize;
+
+        private Element(long byteSize) {
+            this.byteSize = byteSize;
+        }
+
+        @Override
+        public long getByteSize() {
+            return byteSize;
+        }
+    }
+
+    private interface Queue {
+
+        List<Element> add(Element element);
+
+        Element remove();
+
+        long getSize();
+
+        long getByteSize();
+    }
+
+    private static class CurrentQueue implements Queue {
+
+        private final LimitedQueue<Element> queue;
+
+        private CurrentQueue(long maxSize, long maxByteSize) {
+            queue = new LimitedQueue<>(maxSize, maxByteSize);
+        }
+
+        @Override
+        public List<Element> add(Element element) {
+            return queue.add(element);
+        }
+
+        @Override
+        public Element remove() {
+            return queue.remove();
+        }
+
+        @Override
+        public long getSize() {
+            return queue.getSize();
+        }
+
+        @Override
+        public long getByteSize() {
+            return queue.getByteSize();
+        }
+    }
+
+    /**
+     * The former implementation of the {@link LimitedQueue}, kept as the baseline.
+     */
+    private static class LegacyQueue implements Queue {
+
+        private final ConcurrentLinkedQueue<Element> _queue = new ConcurrentLinkedQueue<>();
+        private final LongAdder byteSize = new LongAdder();
+        private final long maxByteSize;
+        private final long maxSize;
+
+        private LegacyQueue(long maxSize, long maxByteSize) {
+            this.maxSize = maxSize;
+            this.maxByteSize = maxByteSize;
+        }
+
+        @Override
+        public List<Element> add(Element element) {
+            if (element.getByteSize() > maxByteSize)
+                return Collections.singletonList(element);
+            byteSize.add(element.getByteSize());
+            _queue.add(element);
+            return discard();
+        }
+
+        @Override
+        public Element remove() {
+            Element removed = _queue.poll();
+            if (removed != null)
+                byteSize.add(-removed.getByteSize());
+            return removed;
+        }
+
+        private List<Element> discard() {
+            List<Element> discardedElements = new ArrayList<>();
+            while (byteSize.longValue() > maxByteSize || _queue.size() > maxSize) {
+                Element discarded = remove();
+                if (discarded != null)
+                    discardedElements.add(discarded);
+            }
+            return discardedElements;
+        }
+
+        @Override
+        public long getSize() {
+            return _queue.size();
+        }
+
+        @Override
+        public long getByteSize() {
+            return byteSize.longValue();
+        }
+    }
+}
@@ -37,6 +37,8 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import com.wdtinc.mapbox_vector_tile.adapt.jts.MvtReader;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.TagKeyValueMapConverter;
@@ -47,7 +49,11 @@ import io.vertx.core.json.JsonObject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -699,6 +705,68 @@ public class ReadFeatureApiIT extends TestSpaceWithFeature {
     assertEquals(Double.NaN, coordinates[0].z, 0);
   }
 
+  @Test
+  public void testMVTResponseFromNewTableLayoutMatchesServiceEncoding() throws IOException {
+    testDatabaseEncodedMVTMatchesServiceEncoding(false);
+  }
+
+  @Test
+  public void testMVTFResponseFromNewTableLayoutMatchesServiceEncoding() throws IOException {
+    testDatabaseEncodedMVTMatchesServiceEncoding(true);
+  }
+
+  /**
+   * Compares the tile which is encoded within the database (using the new table layout) with the tile which is encoded by the service
+   * for a storage without MVT support.
+   */
+  private void testDatabaseEncodedMVTMatchesServiceEncoding(boolean flattened) throws IOException {
+    final String serviceEncodedSpace = CUSTOM_SPACE + RandomStringUtils.randomAlphabetic(3);
+    cleanUpId = CUSTOM_SPACE + RandomStringUtils.randomAlphabetic(3);
+    try {
+      final String dbLayerId = createSpaceWithCustomStorage(cleanUpId, "psql-new-table-layout", null);
+      addFeatures(cleanUpId);
+      final String serviceLayerId = createSpaceWithCustomStorage(serviceEncodedSpace, "inMemory", null);
+      addFeatures(serviceEncodedSpace);
+
+      //In the flattened format the service encodes the ID as "id", while the database encodes it as "properties.id"
+      Map<Object, Map<String, Object>> dbFeatures = readMVTFeatures(cleanUpId, dbLayerId, flattened, flattened ? "properties.id" : "id");
+      Map<Object, Map<String, Object>> serviceFeatures = readMVTFeatures(serviceEncodedSpace, serviceLayerId, flattened, "id");
+
+      assertFalse(dbFeatures.isEmpty());
+      assertEquals(serviceFeatures, dbFeatures);
+    }
+    finally {
+      removeSpace(serviceEncodedSpace);
+    }
+  }
+
+  /**
+   * Reads the features of the tile by their ID. Each feature is represented by its tags and the coordinates of its geometry.
+   * The tags of the XYZ namespace are ignored as they contain timestamps.
+   *
+   * @param idKey The tag which must contain the ID of each feature
+   */
+  private Map<Object, Map<String, Object>> readMVTFeatures(String spaceId, String layerId, boolean flattened, String idKey)
+      throws IOException {
+    Response r = given()
+        .headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN))
+        .when()
+        .get(getSpacesPath() + "/" + spaceId + "/tile/quadkey/120203302032.mvt" + (flattened ? "f" : ""));
+    r.then().statusCode(OK.code());
+
+    JtsLayer layer = MvtReader.loadMvt(r.getBody().asInputStream(), new GeometryFactory(), new TagKeyValueMapConverter())
+        .getLayer(layerId);
+    Map<Object, Map<String, Object>> features = new HashMap<>();
+    for (Geometry geometry : layer.getGeometries()) {
+      Map<String, Object> feature = new TreeMap<>((Map<String, Object>) geometry.getUserData());
+      feature.keySet().removeIf(key -> key.contains("@ns:com:here:xyz"));
+      feature.put("coordinates", Arrays.toString(geometry.getCoordinates()));
+      assertTrue("The feature does not contain the tag " + idKey + ": " + feature, feature.containsKey(idKey));
+      features.put(feature.remove(idKey), feature);
+    }
+    return features;
+  }
+
   @Test
   public void testGetFeatureWithForce2D() {
     given().
@@ -188,4 +188,25 @@ public class LimitedQueueTest {
     assertEquals("Expected was that element 1 was discarded first.", element1, discarded.get(0));
     assertEquals("Expected was that element 2 was discarded second.", element2, discarded.get(1));
   }
+
+  @Test
+  public void priorityLane() {
+    LimitedQueue<TestElement> queue = new LimitedQueue<>(3, 100);
+    TestElement element1 = new TestElement(1);
+    TestElement element2 = new TestElement(1);
+    TestElement priorityElement = new TestElement(1);
+
+    queue.add(element1);
+    queue.add(element2);
+    queue.add(priorityElement, true);
+    assertEquals("Expected were 3 elements.", 3, queue.getSize());
+
+    List<TestElement> discarded = queue.add(new TestElement(1));
+    assertEquals("The oldest element of the normal lane must be discarded.", element1, discarded.get(0));
+
+    assertEquals("Expected the priority element was removed first", priorityElement, queue.remove());
+    assertEquals("Expected element 2 was removed", element2, queue.remove());
+    assertEquals("Expected was 1 element.", 1, queue.getSize());
+    assertEquals("Expected was 1 byte.", 1, queue.getByteSize());
+  }
 }
@@ -34,6 +34,7 @@ import com.here.xyz.jobs.steps.resources.ExecutionResource;
 import com.here.xyz.jobs.steps.resources.TooManyResourcesClaimed;
 import com.here.xyz.util.db.SQLQuery;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.db.datasource.DataSourceProvider.BoundedTask;
 import com.here.xyz.util.db.datasource.DatabaseSettings;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -148,13 +149,14 @@ public abstract class DatabaseBasedStep<T extends DatabaseBasedStep> extends Lam
       query.withRetryableErrorCodesAndMaximumRetries(RETRYABLE_SQL_CODES, MAXIMUM_RETRIES);
     }
 
-    Object result;
-    if (query.isBatch() && isWriteQuery)
-      result = query.writeBatch(requestResource(db, estimatedMaxAcuLoad));
-    else
-      result = isWriteQuery
-          ? query.write(requestResource(db, estimatedMaxAcuLoad))
-          : query.run(requestResource(db, estimatedMaxAcuLoad), resultSetHandler);
+    DataSourceProvider dataSources = requestResource(db, estimatedMaxAcuLoad);
+    final SQLQuery stepQuery = query;
+    //Bound the concurrent database calls by the pool size of the DataSourceProvider
+    Object result = runBounded(dataSources, () -> {
+      if (stepQuery.isBatch() && isWriteQuery)
+        return stepQuery.writeBatch(dataSources);
+      return isWriteQuery ? stepQuery.write(dataSources) : stepQuery.run(dataSources, resultSetHandler);
+    });
 
     if (async)
       runningQueries.add(new RunningQuery(query.getQueryId(), db.getName(), db.getId()));
@@ -162,6 +164,22 @@ public abstract class DatabaseBasedStep<T extends DatabaseBasedStep> extends Lam
     return result;
   }
 
+  private static Object runBounded(DataSourceProvider dataSources, BoundedTask<Object> task) throws SQLException {
+    try {
+      return dataSources.runBounded(task, false);
+    }
+    catch (SQLException | RuntimeException e) {
+      throw e;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a database connection.", e);
+    }
+    catch (Exception e) {
+      throw new SQLException(e);
+    }
+  }
+
   /**
    * Wraps the provided SQL query provided by the step implementation into an outer query which takes care about
    * success- / error-handling.
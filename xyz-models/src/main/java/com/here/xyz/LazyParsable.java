@@ -28,6 +28,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -37,8 +38,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.util.ChunkedJsonBuffer;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 public class LazyParsable<T> {
@@ -46,7 +51,18 @@ public class LazyParsable<T> {
   private static final TypeReference FEATURE_LIST = new TypeReference<List<Feature>>() {
   };
   private static final String FEATURE_TYPE = "Feature";
+  /**
+   * If this deserialization attribute is set to true, values which are read from a byte source are kept as raw bytes rather than being
+   * parsed. See {@link XyzSerializable#deserializeRaw(InputStream)}.
+   */
+  static final String CAPTURE_RAW_BYTES = "captureRawBytes";
+  /**
+   * If this deserialization attribute is set to the byte array which is being parsed, raw values are kept as views on that array rather
+   * than being copied. See {@link XyzSerializable#deserializeRaw(byte[])}.
+   */
+  static final String RAW_SOURCE_BYTES = "rawSourceBytes";
   private String valueString;
+  private ChunkedJsonBuffer valueBytes;
   private T value;
 
   public LazyParsable() {
@@ -56,6 +72,16 @@ public class LazyParsable<T> {
     this.valueString = valueString;
   }
 
+  /**
+   * Creates a lazy parsable value from raw UTF-8 encoded JSON.
+   * When serialized, the bytes are written to the output as they are, without ever being decoded into a String.
+   *
+   * @param valueBytes The raw JSON value
+   */
+  public LazyParsable(ChunkedJsonBuffer valueBytes) {
+    this.valueBytes = valueBytes;
+  }
+
   @SuppressWarnings("unchecked")
   @JsonValue
   public T get() throws JsonProcessingException {
@@ -64,6 +90,19 @@ public class LazyParsable<T> {
       value = (T) DEFAULT_MAPPER.get().readValue(valueString, FEATURE_LIST);
       valueString = null;
     }
+    else if (valueBytes != null) {
+      try {
+        value = (T) DEFAULT_MAPPER.get().readValue(valueBytes.toInputStream(), FEATURE_LIST);
+      }
+      catch (JsonProcessingException e) {
+        throw e;
+      }
+      catch (IOException e) {
+        //Can not happen, as the bytes are read from memory
+        throw new UncheckedIOException(e);
+      }
+      valueBytes = null;
+    }
     return value;
   }
 
@@ -72,6 +111,7 @@ public class LazyParsable<T> {
     if (valueString != null) {
       valueString = null;
     }
+    valueBytes = null;
   }
 
   private String getValueString() {
@@ -104,6 +144,31 @@ public class LazyParsable<T> {
         return source.substring(start - 1, end);
       }
 
+      if (source == null && jp.currentToken() == JsonToken.START_ARRAY && ctxt.getAttribute(RAW_SOURCE_BYTES) instanceof byte[] bytes) {
+        //Keep a view on the bytes of the value without copying them
+        final int valueStart = (int) jp.currentTokenLocation().getByteOffset();
+        jp.skipChildren();
+        return ChunkedJsonBuffer.wrap(bytes, valueStart, (int) jp.currentLocation().getByteOffset() - valueStart);
+      }
+
+      if (source == null && jp.currentToken() == JsonToken.START_ARRAY && Boolean.TRUE.equals(ctxt.getAttribute(CAPTURE_RAW_BYTES))) {
+        //Copy the tokens of the value into a byte buffer without binding them to any objects
+        final ChunkedJsonBuffer valueBytes = new ChunkedJsonBuffer();
+        try (JsonGenerator gen = jp.getCodec().getFactory().createGenerator(valueBytes.asOutputStream())) {
+          int depth = 0;
+          do {
+            if (jp.currentToken().isStructStart())
+              depth++;
+            else if (jp.currentToken().isStructEnd())
+              depth--;
+            //Keep the exact textual representation of floating point numbers
+            gen.copyCurrentEventExact(jp);
+          }
+          while (depth > 0 && jp.nextToken() != null);
+        }
+        return valueBytes;
+      }
+
       // necessary to allow Feature objects which has no type attribute (for backward compatibility)
       final JsonNode node = jp.readValueAsTree();
       for (JsonNode currNode : node) {
@@ -124,8 +189,11 @@ public class LazyParsable<T> {
     public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
       if (value instanceof LazyParsable) {
         final String valueString = ((LazyParsable) value).valueString;
+        final ChunkedJsonBuffer valueBytes = ((LazyParsable) value).valueBytes;
         if (valueString != null) {
           gen.writeRawValue(valueString);
+        } else if (valueBytes != null) {
+          writeRawBytes(valueBytes, gen);
         } else {
           //TODO: Make generic
           serializers.findTypedValueSerializer(serializers.getTypeFactory().constructType(FEATURE_LIST), true, null)
@@ -137,6 +205,17 @@ public class LazyParsable<T> {
             .serialize(value, gen, serializers);
       }
     }
+
+    private static void writeRawBytes(ChunkedJsonBuffer valueBytes, JsonGenerator gen) throws IOException {
+      if (gen.getOutputTarget() instanceof OutputStream os) {
+        //Let the generator write a separator (if necessary) and flush its own buffer, then stream the bytes directly into the target
+        gen.writeRawValue("");
+        gen.flush();
+        valueBytes.writeTo(os);
+      }
+      else
+        gen.writeRawValue(valueBytes.toString());
+    }
   }
 
   /**
@@ -28,9 +28,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.here.xyz.LazyParsable.ProxyStringReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -223,7 +225,32 @@ public interface XyzSerializable {
   }
 
   static byte[] toByteArray(Object object, Class<? extends SerializationView> view) {
-    return serialize(object, view).getBytes();
+    try {
+      //Encode to UTF-8 directly, so that raw byte values (see LazyParsable) are not decoded into an intermediate String
+      return byteWriter(view).writeValueAsBytes(object);
+    }
+    catch (JsonProcessingException e) {
+      throw new RuntimeException("Failed to encode as JSON: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Writes the same bytes as {@link #toByteArray()} into the specified stream without buffering them.
+   * The stream is closed afterwards.
+   *
+   * @param os The target stream
+   */
+  default void writeTo(OutputStream os) throws IOException {
+    writeTo(this, null, os);
+  }
+
+  static void writeTo(Object object, Class<? extends SerializationView> view, OutputStream os) throws IOException {
+    byteWriter(view).writeValue(os, object);
+  }
+
+  private static ObjectWriter byteWriter(Class<? extends SerializationView> view) {
+    ObjectMapper mapper = getMapperForView(view);
+    return Mappers.alwaysSerializePretty ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer();
   }
 
   @SuppressWarnings("UnusedReturnValue")
@@ -279,6 +306,32 @@ public interface XyzSerializable {
     }
   }
 
+  /**
+   * Parses the UTF-8 encoded JSON from the specified stream without reading it into a String first.
+   * Raw values (see {@link LazyParsable}) are kept as bytes instead of being parsed, so e.g. the features of a large FeatureCollection
+   * are only held once in memory as they were read.
+   *
+   * @param is The stream to read the JSON from
+   * @return The deserialized object
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Typed> T deserializeRaw(InputStream is) throws IOException {
+    return (T) DEFAULT_MAPPER.get().readerFor(Typed.class).withAttribute(LazyParsable.CAPTURE_RAW_BYTES, true).readValue(is);
+  }
+
+  /**
+   * Parses the UTF-8 encoded JSON from the specified byte array.
+   * Raw values (see {@link LazyParsable}) are kept as views on the byte array, so they are neither parsed nor copied.
+   * The array must not be modified afterwards.
+   *
+   * @param bytes The UTF-8 encoded JSON
+   * @return The deserialized object
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Typed> T deserializeRaw(byte[] bytes) throws IOException {
+    return (T) DEFAULT_MAPPER.get().readerFor(Typed.class).withAttribute(LazyParsable.RAW_SOURCE_BYTES, bytes).readValue(bytes);
+  }
+
   static <T> MappingIterator<T> deserializeJsonLines(InputStream stream, Class<T> klass) throws IOException {
     return DEFAULT_MAPPER.get().readerFor(klass).readValues(stream);
   }
@@ -33,6 +33,7 @@ import com.here.xyz.LazyParsable.RawDeserializer;
 import com.here.xyz.LazyParsable.RawSerializer;
 import com.here.xyz.models.geojson.coordinates.BBox;
 import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.ChunkedJsonBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -145,6 +146,8 @@ public class FeatureCollection extends XyzResponse<FeatureCollection> {
   public void _setFeatures(Object features) {
     if (features instanceof String) {
       this.features = new LazyParsable<>((String) features);
+    } else if (features instanceof ChunkedJsonBuffer) {
+      this.features = new LazyParsable<>((ChunkedJsonBuffer) features);
     } else if (features instanceof List) {
       this.features = new LazyParsable<>();
       //noinspection unchecked
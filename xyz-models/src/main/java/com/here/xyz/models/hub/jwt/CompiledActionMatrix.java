@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.models.hub.jwt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An immutable, pre-compiled form of an {@link ActionMatrix} being used as access matrix. It produces exactly the same results as
+ * {@link ActionMatrix#matches(ActionMatrix)} and {@link AttributeMap#matches(Map)}, but it does not have to iterate all attribute maps
+ * and compare all their values for every resource being checked.
+ * <p>
+ * For every action, the attribute maps of the access matrix are numbered and each of their attribute values becomes a condition. The
+ * conditions are indexed per (interned) attribute key, exact values by a hash map and wildcard values by a prefix trie. Checking a
+ * resource then only requires a lookup of each of the resource's values in the index of the respective key. The conditions being
+ * fulfilled by the resource are collected in a bitset, which is then used to clear the attribute maps not matching the resource from the
+ * bitset of candidate attribute maps of the action.
+ */
+public final class CompiledActionMatrix {
+
+  private final ActionMatrix actionMatrix;
+  private final Map<String, CompiledAction> actions = new HashMap<>();
+
+  private CompiledActionMatrix(final ActionMatrix actionMatrix) {
+    this.actionMatrix = actionMatrix;
+    final Map<String, String> internedKeys = new HashMap<>();
+    for (final Entry<String, List<AttributeMap>> entry : actionMatrix.entrySet()) {
+      final List<AttributeMap> accessList = entry.getValue();
+      if (entry.getKey() != null && accessList != null && accessList.size() > 0) {
+        actions.put(entry.getKey(), new CompiledAction(accessList, internedKeys));
+      }
+    }
+  }
+
+  /**
+   * Compiles the given access matrix. The access matrix must not be modified afterwards, otherwise the compiled matrix would not reflect
+   * the modifications.
+   *
+   * @param actionMatrix the access matrix to compile; may be null.
+   * @return the compiled access matrix or null, if the given access matrix was null.
+   */
+  public static CompiledActionMatrix compile(final ActionMatrix actionMatrix) {
+    return actionMatrix == null ? null : new CompiledActionMatrix(actionMatrix);
+  }
+
+  /**
+   * Returns the access matrix this matrix was compiled from. The returned access matrix must not be modified.
+   *
+   * @return the access matrix this matrix was compiled from.
+   */
+  public ActionMatrix getActionMatrix() {
+    return actionMatrix;
+  }
+
+  /**
+   * Tests whether this access matrix grants all access rights of the given request matrix.
+   *
+   * @param requestMatrix the request matrix.
+   * @return true if all resources of all actions of the request matrix are matched by this access matrix; false otherwise.
+   * @see ActionMatrix#matches(ActionMatrix)
+   */
+  public boolean matches(final ActionMatrix requestMatrix) {
+    if (actionMatrix.size() == 0) {
+      return requestMatrix.size() == 0;
+    }
+    if (actionMatrix.size() < requestMatrix.size()) {
+      return false;
+    }
+
+    for (final Entry<String, List<AttributeMap>> entry : requestMatrix.entrySet()) {
+      if (entry.getKey() == null) {
+        return false;
+      }
+      final List<AttributeMap> resourceList = entry.getValue();
+      if (resourceList == null || resourceList.size() == 0) {
+        continue;
+      }
+      final CompiledAction action = actions.get(entry.getKey());
+      if (action == null) {
+        return false;
+      }
+      for (final AttributeMap resource : resourceList) {
+        if (resource != null && !action.matches(resource)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tests whether this access matrix grants the given action on the given resource. This is the same as testing a request matrix that
+   * only contains the given resource for the given action.
+   *
+   * @param action the action.
+   * @param resourceAttributesMap the map that describes the attributes of the resource.
+   * @return true if any attribute map of the given action matches the given resource; false otherwise.
+   */
+  public boolean matches(final String action, final Map<String, Object> resourceAttributesMap) {
+    final CompiledAction compiledAction = actions.get(action);
+    return compiledAction != null && compiledAction.matches(resourceAttributesMap);
+  }
+
+  /**
+   * Tests whether any attribute map of any action of this access matrix matches the given resource.
+   *
+   * @param resourceAttributesMap the map that describes the attributes of the resource.
+   * @return true if any attribute map of this access matrix matches the given resource; false otherwise.
+   */
+  public boolean matchesAnyAction(final Map<String, Object> resourceAttributesMap) {
+    for (final CompiledAction action : actions.values()) {
+      if (action.matches(resourceAttributesMap)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The compiled attribute maps of one action.
+   */
+  private static final class CompiledAction {
+
+    /**
+     * Whether the action contains the empty attribute map, which matches all resources.
+     */
+    private boolean matchesAll;
+
+    /**
+     * All attribute maps which may match at all, attribute maps containing an empty list of values never match.
+     */
+    private final BitSet candidates = new BitSet();
+
+    private final CompiledKey[] keys;
+
+    private CompiledAction(final List<AttributeMap> accessList, final Map<String, String> internedKeys) {
+      final Map<String, CompiledKey> keysByName = new LinkedHashMap<>();
+      int index = 0;
+      for (final AttributeMap access : accessList) {
+        if (access == null) {
+          continue;
+        }
+        if (access.size() == 0) {
+          matchesAll = true;
+        }
+
+        boolean mayMatch = true;
+        for (final Entry<String, Object> attribute : access.entrySet()) {
+          final String key = internedKeys.computeIfAbsent(attribute.getKey(), k -> k);
+          final List<?> values = attribute.getValue() instanceof List ? (List<?>) attribute.getValue()
+              : Arrays.asList(attribute.getValue());
+          mayMatch &= values.size() > 0;
+          keysByName.computeIfAbsent(key, CompiledKey::new).addConditions(index, values);
+        }
+        if (mayMatch) {
+          candidates.set(index);
+        }
+        index++;
+      }
+      keys = keysByName.values().toArray(new CompiledKey[0]);
+      for (final CompiledKey key : keys) {
+        key.freeze(index);
+      }
+    }
+
+    private boolean matches(final Map<String, Object> resourceAttributesMap) {
+      if (matchesAll) {
+        return true;
+      }
+      if (resourceAttributesMap == null || candidates.isEmpty()) {
+        return false;
+      }
+
+      final BitSet remaining = (BitSet) candidates.clone();
+      for (final CompiledKey key : keys) {
+        key.filter(resourceAttributesMap.get(key.name), remaining);
+        if (remaining.isEmpty()) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * The conditions of all attribute maps of an action for one attribute key. The conditions of one attribute map are numbered
+   * consecutively, so that an attribute map is fulfilled for this key, if the range of its conditions is completely set in the bitset of
+   * the fulfilled conditions.
+   */
+  private static final class CompiledKey {
+
+    private final String name;
+    private final BitSet constrained = new BitSet();
+    private final BitSet unconstrained = new BitSet();
+    private final Map<Object, int[]> exactValues = new HashMap<>();
+    private PrefixTrie wildcardValues;
+    private int conditionsCount;
+    private int[] conditionOwners = new int[8];
+    private int[] conditionsStart = new int[8];
+    private int[] conditionsEnd = new int[8];
+
+    private CompiledKey(final String name) {
+      this.name = name;
+    }
+
+    private void addConditions(final int attributeMapIndex, final List<?> values) {
+      constrained.set(attributeMapIndex);
+      if (attributeMapIndex >= conditionsStart.length) {
+        conditionsStart = Arrays.copyOf(conditionsStart, Math.max(attributeMapIndex + 1, conditionsStart.length * 2));
+        conditionsEnd = Arrays.copyOf(conditionsEnd, conditionsStart.length);
+      }
+      conditionsStart[attributeMapIndex] = conditionsCount;
+      for (final Object value : values) {
+        final int condition = conditionsCount++;
+        if (condition == conditionOwners.length) {
+          conditionOwners = Arrays.copyOf(conditionOwners, condition * 2);
+        }
+        conditionOwners[condition] = attributeMapIndex;
+        if (value instanceof String && ((String) value).endsWith(AttributeMap.WILDCARD)) {
+          final String prefix = ((String) value).substring(0, ((String) value).length() - 1);
+          if (wildcardValues == null) {
+            wildcardValues = new PrefixTrie();
+          }
+          wildcardValues.add(prefix, condition);
+        } else {
+          exactValues.merge(value, new int[]{condition}, CompiledKey::concat);
+        }
+      }
+      conditionsEnd[attributeMapIndex] = conditionsCount;
+    }
+
+    private void freeze(final int attributeMapsCount) {
+      unconstrained.set(0, attributeMapsCount);
+      unconstrained.andNot(constrained);
+      if (wildcardValues != null) {
+        wildcardValues.freeze();
+      }
+    }
+
+    /**
+     * Clears all attribute maps from the given candidates, which constrain this key but are not fulfilled by the given resource value.
+     */
+    private void filter(final Object resourceValue, final BitSet candidates) {
+      final BitSet fulfilled = new BitSet();
+      if (resourceValue instanceof List) {
+        for (final Object value : (List<?>) resourceValue) {
+          collect(value, fulfilled);
+        }
+      } else {
+        collect(resourceValue, fulfilled);
+      }
+
+      final BitSet matching = (BitSet) unconstrained.clone();
+      for (int condition = fulfilled.nextSetBit(0); condition >= 0; condition = fulfilled.nextSetBit(condition + 1)) {
+        final int owner = conditionOwners[condition];
+        if (fulfilled.nextClearBit(conditionsStart[owner]) >= conditionsEnd[owner]) {
+          matching.set(owner);
+        }
+      }
+      candidates.and(matching);
+    }
+
+    private void collect(final Object resourceValue, final BitSet fulfilled) {
+      final int[] conditions = exactValues.get(resourceValue);
+      if (conditions != null) {
+        for (final int condition : conditions) {
+          fulfilled.set(condition);
+        }
+      }
+      if (wildcardValues != null && resourceValue instanceof String) {
+        wildcardValues.collect((String) resourceValue, fulfilled);
+      }
+    }
+
+    private static int[] concat(final int[] a, final int[] b) {
+      final int[] result = Arrays.copyOf(a, a.length + b.length);
+      System.arraycopy(b, 0, result, a.length, b.length);
+      return result;
+    }
+  }
+
+  /**
+   * A trie of the prefixes of wildcard values. Walking a resource value through the trie collects the conditions of all prefixes of the
+   * resource value.
+   */
+  private static final class PrefixTrie {
+
+    private char[] labels = new char[0];
+    private PrefixTrie[] children = new PrefixTrie[0];
+    private int[] conditions = new int[0];
+
+    private Map<Character, PrefixTrie> pendingChildren = new HashMap<>();
+
+    private void add(final String prefix, final int condition) {
+      PrefixTrie node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.pendingChildren.computeIfAbsent(prefix.charAt(i), c -> new PrefixTrie());
+      }
+      node.conditions = CompiledKey.concat(node.conditions, new int[]{condition});
+    }
+
+    private void freeze() {
+      final List<Character> sortedLabels = new ArrayList<>(pendingChildren.keySet());
+      sortedLabels.sort(null);
+      labels = new char[sortedLabels.size()];
+      children = new PrefixTrie[sortedLabels.size()];
+      for (int i = 0; i < labels.length; i++) {
+        labels[i] = sortedLabels.get(i);
+        children[i] = pendingChildren.get(labels[i]);
+        children[i].freeze();
+      }
+      pendingChildren = null;
+    }
+
+    private void collect(final String value, final BitSet fulfilled) {
+      PrefixTrie node = this;
+      for (int i = 0; ; i++) {
+        for (final int condition : node.conditions) {
+          fulfilled.set(condition);
+        }
+        if (i == value.length()) {
+          return;
+        }
+        final int child = Arrays.binarySearch(node.labels, value.charAt(i));
+        if (child < 0) {
+          return;
+        }
+        node = node.children[child];
+      }
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An append-only buffer for UTF-8 encoded JSON which is kept as a list of byte chunks.
+ * Growing the buffer never copies the already written bytes, which makes it suitable to assemble large raw JSON values
+ * (e.g., the features of a FeatureCollection) directly from the bytes of a database result.
+ * A buffer may also be a view on a slice of an existing byte array (see {@link #wrap(byte[], int, int)}), in which case the slice is
+ * never modified, but further bytes are appended to separate chunks.
+ */
+public class ChunkedJsonBuffer {
+
+  private static final int INITIAL_CHUNK_SIZE = 1024;
+  private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+  /**
+   * The slice of an existing byte array which precedes all chunks, if this buffer was created by {@link #wrap(byte[], int, int)}.
+   */
+  private byte[] wrapped;
+  private int wrappedOffset;
+  private int wrappedLength;
+  /**
+   * All chunks which are completely filled.
+   */
+  private final List<byte[]> chunks = new ArrayList<>();
+  private byte[] current;
+  private int position;
+  private long length;
+
+  public ChunkedJsonBuffer() {
+    current = new byte[INITIAL_CHUNK_SIZE];
+  }
+
+  private ChunkedJsonBuffer(byte[] bytes, int offset, int len) {
+    wrapped = bytes;
+    wrappedOffset = offset;
+    wrappedLength = len;
+    length = len;
+    //The first chunk is only allocated once something gets appended
+    current = new byte[0];
+  }
+
+  /**
+   * Creates a buffer which is a view on the specified slice of the byte array, without copying it.
+   * The slice must not be modified as long as the buffer is in use.
+   *
+   * @param bytes The array holding the raw JSON
+   * @param offset The offset of the raw JSON within the array
+   * @param len The length of the raw JSON
+   * @return The buffer
+   */
+  public static ChunkedJsonBuffer wrap(byte[] bytes, int offset, int len) {
+    return new ChunkedJsonBuffer(bytes, offset, len);
+  }
+
+  public ChunkedJsonBuffer append(byte b) {
+    if (position == current.length)
+      nextChunk();
+    current[position++] = b;
+    length++;
+    return this;
+  }
+
+  public ChunkedJsonBuffer append(byte[] bytes) {
+    return append(bytes, 0, bytes.length);
+  }
+
+  public ChunkedJsonBuffer append(byte[] bytes, int offset, int len) {
+    while (len > 0) {
+      if (position == current.length)
+        nextChunk();
+      int n = Math.min(len, current.length - position);
+      System.arraycopy(bytes, offset, current, position, n);
+      position += n;
+      offset += n;
+      len -= n;
+      length += n;
+    }
+    return this;
+  }
+
+  /**
+   * Appends the UTF-8 encoding of the specified string.
+   * This method is meant for short fragments only, larger values should be appended as bytes.
+   */
+  public ChunkedJsonBuffer append(String s) {
+    return append(s.getBytes(UTF_8));
+  }
+
+  /**
+   * @return An output stream which appends all bytes written to it to this buffer
+   */
+  public OutputStream asOutputStream() {
+    return new OutputStream() {
+      @Override
+      public void write(int b) {
+        append((byte) b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        append(b, off, len);
+      }
+    };
+  }
+
+  /**
+   * @return The number of bytes in this buffer
+   */
+  public long length() {
+    return length;
+  }
+
+  /**
+   * @return The last byte of this buffer
+   * @throws IllegalStateException if the buffer is empty
+   */
+  public byte lastByte() {
+    if (length == 0)
+      throw new IllegalStateException("The buffer is empty");
+    if (position > 0)
+      return current[position - 1];
+    if (chunks.isEmpty())
+      return wrapped[wrappedOffset + wrappedLength - 1];
+    byte[] lastChunk = chunks.get(chunks.size() - 1);
+    return lastChunk[lastChunk.length - 1];
+  }
+
+  /**
+   * Removes the specified amount of bytes from the end of this buffer.
+   *
+   * @param n The number of bytes to remove
+   */
+  public void truncate(int n) {
+    if (n > length)
+      throw new IllegalArgumentException("Can not truncate " + n + " bytes from a buffer of length " + length);
+    length -= n;
+    while (n > 0) {
+      if (position == 0 && chunks.isEmpty()) {
+        //Only the wrapped slice is left
+        wrappedLength -= n;
+        return;
+      }
+      if (position == 0) {
+        current = chunks.remove(chunks.size() - 1);
+        position = current.length;
+      }
+      int removed = Math.min(n, position);
+      position -= removed;
+      n -= removed;
+    }
+  }
+
+  private void nextChunk() {
+    if (current.length > 0)
+      chunks.add(current);
+    current = new byte[Math.max(INITIAL_CHUNK_SIZE, Math.min(current.length * 2, MAX_CHUNK_SIZE))];
+    position = 0;
+  }
+
+  /**
+   * Writes all bytes of this buffer to the specified output stream without copying them.
+   *
+   * @param os The target stream
+   */
+  public void writeTo(OutputStream os) throws IOException {
+    if (wrapped != null)
+      os.write(wrapped, wrappedOffset, wrappedLength);
+    for (byte[] chunk : chunks)
+      os.write(chunk);
+    os.write(current, 0, position);
+  }
+
+  /**
+   * @return An input stream which reads the bytes of this buffer without copying them
+   */
+  public InputStream toInputStream() {
+    List<InputStream> streams = new ArrayList<>(chunks.size() + 2);
+    if (wrapped != null)
+      streams.add(new ByteArrayInputStream(wrapped, wrappedOffset, wrappedLength));
+    for (byte[] chunk : chunks)
+      streams.add(new ByteArrayInputStream(chunk));
+    streams.add(new ByteArrayInputStream(current, 0, position));
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  /**
+   * @return The content of this buffer decoded as UTF-8
+   */
+  @Override
+  public String toString() {
+    if (wrapped == null && chunks.isEmpty())
+      return new String(current, 0, position, UTF_8);
+    if (position == 0 && chunks.isEmpty())
+      return new String(wrapped, wrappedOffset, wrappedLength, UTF_8);
+    byte[] bytes = new byte[(int) length];
+    int offset = 0;
+    if (wrapped != null) {
+      System.arraycopy(wrapped, wrappedOffset, bytes, 0, wrappedLength);
+      offset = wrappedLength;
+    }
+    for (byte[] chunk : chunks) {
+      System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+      offset += chunk.length;
+    }
+    System.arraycopy(current, 0, bytes, offset, position);
+    return new String(bytes, UTF_8);
+  }
+}
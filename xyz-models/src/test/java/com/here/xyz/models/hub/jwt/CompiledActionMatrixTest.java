@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.models.hub.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class CompiledActionMatrixTest {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static ActionMatrix matrix(String json) throws Exception {
+    return mapper.readValue(json.replace('\'', '"'), ActionMatrix.class);
+  }
+
+  private static void assertSameResult(ActionMatrix rights, ActionMatrix request) {
+    assertEquals("Rights: " + rights + ", request: " + request, rights.matches(request),
+        CompiledActionMatrix.compile(rights).matches(request));
+  }
+
+  @Test
+  public void matchesLikeActionMatrix() throws Exception {
+    ActionMatrix rights = matrix("{'readFeatures': [{'owner': 'O1'}, {'owner': 'O2', 'space': 'S2'}], 'manageSpaces': [{}]}");
+    CompiledActionMatrix compiled = CompiledActionMatrix.compile(rights);
+
+    assertTrue(compiled.matches(matrix("{'readFeatures': [{'owner': 'O1', 'space': 'S1'}, {'owner': 'O2', 'space': 'S2'}], "
+        + "'manageSpaces': [{'owner': 'O1', 'space': 'S1'}]}")));
+    assertFalse(compiled.matches(matrix("{'readFeatures': [{'owner': 'O2', 'space': 'S1'}]}")));
+    assertFalse(compiled.matches(matrix("{'adminSpaces': [{'owner': 'O1'}]}")));
+    assertTrue(compiled.matches(matrix("{'readFeatures': []}")));
+  }
+
+  @Test
+  public void matchesWildcardsAndLists() throws Exception {
+    ActionMatrix rights = matrix("{'readFeatures': [{'space': 'abc*'}, {'packages': ['P1', 'P2']}, {'tag': ['x*', 'y']}]}");
+    CompiledActionMatrix compiled = CompiledActionMatrix.compile(rights);
+
+    assertTrue(compiled.matches("readFeatures", matrix("{'a': [{'space': 'abcdef'}]}").get("a").get(0)));
+    assertTrue(compiled.matches("readFeatures", matrix("{'a': [{'space': 'abc'}]}").get("a").get(0)));
+    assertFalse(compiled.matches("readFeatures", matrix("{'a': [{'space': 'ab'}]}").get("a").get(0)));
+    assertTrue(compiled.matches("readFeatures", matrix("{'a': [{'packages': ['P0', 'P2', 'P1']}]}").get("a").get(0)));
+    assertFalse(compiled.matches("readFeatures", matrix("{'a': [{'packages': ['P1']}]}").get("a").get(0)));
+    assertFalse(compiled.matches("readFeatures", matrix("{'a': [{'packages': 'P1'}]}").get("a").get(0)));
+    assertTrue(compiled.matches("readFeatures", matrix("{'a': [{'tag': ['xyz', 'y']}]}").get("a").get(0)));
+    assertFalse(compiled.matches("readFeatures", matrix("{'a': [{'tag': 'xyz'}]}").get("a").get(0)));
+    assertFalse(compiled.matches("manageSpaces", matrix("{'a': [{'space': 'abc'}]}").get("a").get(0)));
+
+    assertTrue(compiled.matchesAnyAction(matrix("{'a': [{'space': 'abc1'}]}").get("a").get(0)));
+    assertFalse(compiled.matchesAnyAction(matrix("{'a': [{'owner': 'O1'}]}").get("a").get(0)));
+  }
+
+  @Test
+  public void emptyListNeverMatches() throws Exception {
+    assertSameResult(matrix("{'readFeatures': [{'packages': []}]}"), matrix("{'readFeatures': [{'packages': []}]}"));
+    assertSameResult(matrix("{'readFeatures': [{'packages': []}]}"), matrix("{'readFeatures': [{'packages': 'P1'}]}"));
+  }
+
+  @Test
+  public void compileNull() {
+    assertNull(CompiledActionMatrix.compile(null));
+  }
+
+  @Test
+  public void randomMatricesMatchLikeActionMatrix() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      assertSameResult(randomMatrix(random, 4, 6), randomMatrix(random, 3, 2));
+    }
+  }
+
+  private static ActionMatrix randomMatrix(Random random, int maxActions, int maxAttributeMaps) {
+    final List<String> actions = Arrays.asList("readFeatures", "createFeatures", "manageSpaces", "adminSpaces");
+    final ActionMatrix matrix = new ActionMatrix();
+    for (int a = random.nextInt(maxActions) + 1; a > 0; a--) {
+      final String action = actions.get(random.nextInt(actions.size()));
+      for (int m = random.nextInt(maxAttributeMaps) + 1; m > 0; m--) {
+        matrix.addAction(action, randomAttributeMap(random));
+      }
+    }
+    return matrix;
+  }
+
+  private static AttributeMap randomAttributeMap(Random random) {
+    final List<String> keys = Arrays.asList("owner", "space", "packages");
+    final AttributeMap attributeMap = new AttributeMap();
+    for (int k = random.nextInt(3); k > 0; k--) {
+      final String key = keys.get(random.nextInt(keys.size()));
+      if (random.nextInt(3) == 0) {
+        final List<Object> values = new ArrayList<>();
+        for (int v = random.nextInt(3); v > 0; v--) {
+          values.add(randomValue(random));
+        }
+        attributeMap.put(key, values);
+      }
+      else {
+        attributeMap.put(key, randomValue(random));
+      }
+    }
+    return attributeMap;
+  }
+
+  private static Object randomValue(Random random) {
+    return switch (random.nextInt(8)) {
+      case 0 -> null;
+      case 1 -> random.nextInt(3);
+      case 2 -> "*";
+      case 3 -> "a" + random.nextInt(3) + "*";
+      default -> "a" + random.nextInt(3) + (random.nextBoolean() ? "" : "b");
+    };
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.Test;
+
+public class ChunkedJsonBufferTest {
+
+  @Test
+  public void appendAcrossChunks() throws IOException {
+    StringBuilder expected = new StringBuilder();
+    ChunkedJsonBuffer buffer = new ChunkedJsonBuffer();
+    for (int i = 0; i < 5000; i++) {
+      String s = "{\"i\":" + i + ",\"ä\":\"€\"}";
+      expected.append(s);
+      buffer.append(s.getBytes(UTF_8));
+    }
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    buffer.writeTo(os);
+
+    assertEquals(expected.toString().getBytes(UTF_8).length, buffer.length());
+    assertEquals(expected.toString(), buffer.toString());
+    assertEquals(expected.toString(), os.toString(UTF_8));
+    assertEquals(expected.toString(), new String(buffer.toInputStream().readAllBytes(), UTF_8));
+  }
+
+  @Test
+  public void truncateAcrossChunks() {
+    ChunkedJsonBuffer buffer = new ChunkedJsonBuffer();
+    for (int i = 0; i < 1024; i++)
+      buffer.append((byte) 'a');
+    buffer.append((byte) ',');
+    assertEquals(',', buffer.lastByte());
+
+    buffer.truncate(1);
+    assertEquals('a', buffer.lastByte());
+    assertEquals(1024, buffer.length());
+
+    buffer.truncate(24);
+    buffer.append("b");
+    assertEquals("a".repeat(1000) + "b", buffer.toString());
+  }
+
+  @Test
+  public void rawFeatures() throws JsonProcessingException {
+    ChunkedJsonBuffer features = new ChunkedJsonBuffer()
+        .append("[{\"type\":\"Feature\",\"id\":\"a\",\"properties\":{\"name\":\"ü\"}}]");
+    FeatureCollection fc = new FeatureCollection();
+    fc._setFeatures(features);
+
+    Map<String, Object> fromBytes = XyzSerializable.deserialize(new String(fc.toByteArray(), UTF_8), Map.class);
+    Map<String, Object> fromString = XyzSerializable.deserialize(fc.serialize(), Map.class);
+
+    assertEquals(fromString, fromBytes);
+    assertEquals("ü", fc.getFeatures().get(0).getProperties().get("name"));
+  }
+
+  @Test
+  public void deserializeRawFeaturesFromStream() throws IOException {
+    String json = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"a\","
+        + "\"properties\":{\"name\":\"ü\",\"value\":0.10000000000000000555}}],\"nextPageToken\":\"t\"}";
+
+    FeatureCollection fc = XyzSerializable.deserializeRaw(new ByteArrayInputStream(json.getBytes(UTF_8)));
+
+    assertEquals("t", fc.getNextPageToken());
+    //The features are written as they were read
+    assertEquals(json, new String(fc.toByteArray(), UTF_8));
+    assertEquals("ü", fc.getFeatures().get(0).getProperties().get("name"));
+  }
+
+  @Test
+  public void deserializeRawFeaturesFromBytes() throws IOException {
+    String json = "{\"type\":\"FeatureCollection\",\"features\": [{\"type\":\"Feature\",\"id\":\"a\","
+        + "\"properties\":{\"name\":\"ü\",\"value\":0.10000000000000000555}}] ,\"nextPageToken\":\"t\"}";
+
+    FeatureCollection fc = XyzSerializable.deserializeRaw(json.getBytes(UTF_8));
+
+    assertEquals("t", fc.getNextPageToken());
+    assertEquals(json.replace(": [", ":[").replace("] ,", "],"), new String(fc.toByteArray(), UTF_8));
+    assertEquals("ü", fc.getFeatures().get(0).getProperties().get("name"));
+  }
+
+  @Test
+  public void wrapSlice() throws IOException {
+    byte[] bytes = "xx[1,2,3]yy".getBytes(UTF_8);
+    ChunkedJsonBuffer buffer = ChunkedJsonBuffer.wrap(bytes, 2, 7);
+    assertEquals("[1,2,3]", buffer.toString());
+    assertEquals(']', buffer.lastByte());
+
+    buffer.truncate(1);
+    buffer.append(",4]");
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    buffer.writeTo(os);
+    assertEquals("[1,2,3,4]", os.toString(UTF_8));
+    assertEquals("[1,2,3,4]", new String(buffer.toInputStream().readAllBytes(), UTF_8));
+    assertEquals(9, buffer.length());
+    //The wrapped array is never modified
+    assertEquals("xx[1,2,3]yy", new String(bytes, UTF_8));
+  }
+}
@@ -107,6 +107,8 @@ public abstract class DatabaseHandler extends StorageConnector {
             ECPSTool.decryptToMap(FunctionRuntime.getInstance().getEnvironmentVariable(ECPS_PHRASE), connectorParams.getEcps()))
             .withApplicationName(FunctionRuntime.getInstance().getApplicationName())
             .withScriptResourcePaths(SCRIPT_RESOURCE_PATHS);
+        if (connectorParams.getConnectionPool() != null)
+            dbSettings.setConnectionPool(connectorParams.getConnectionPool());
 
         initialize(dbSettings, null);
     }
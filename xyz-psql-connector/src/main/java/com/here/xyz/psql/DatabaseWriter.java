@@ -43,10 +43,12 @@ import com.here.xyz.util.db.datasource.DatabaseSettings;
 import com.here.xyz.util.runtime.FunctionRuntime;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -123,6 +125,13 @@ public class DatabaseWriter {
     }
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The maximum number of rows written by one call of xyz_write_features_pipelined().
+     * PostgreSQL caches the IDs of up to 64 sub-transactions per backend, more sub-transactions within one transaction are slowing
+     * down the visibility checks of all sessions.
+     */
+    static final int PIPELINED_CHUNK_SIZE = 64;
+
     private static final String UPDATE_ERROR_GENERAL = "Update has failed";
     public static final String UPDATE_ERROR_NOT_EXISTS = UPDATE_ERROR_GENERAL + " - Object does not exist";
     public static final String UPDATE_ERROR_CONCURRENCY = UPDATE_ERROR_GENERAL + " - Object does not exist or concurrent modification";
@@ -250,56 +259,161 @@ public class DatabaseWriter {
         long version, boolean uniqueConstraintExists) throws SQLException, JsonProcessingException {
         boolean transactional = event.getTransaction();
         connection.setAutoCommit(!transactional);
-        SQLQuery modificationQuery = buildModificationStmtQuery(dbh, event, action, uniqueConstraintExists).withLabel("streamId", getStreamId());
-
-        List<String> idList = transactional ? new ArrayList<>() : null;
 
         logger.info("{} Executing action {} for {} features.", getStreamId(), action.name(), inputData.size());
 
+        if (!transactional) {
+            modifyFeaturesPipelined(dbh, event, action, responseCollection, fails, inputData, connection, version, uniqueConstraintExists);
+            return;
+        }
+
+        SQLQuery modificationQuery = buildModificationStmtQuery(dbh, event, action, uniqueConstraintExists).withLabel("streamId", getStreamId());
+        List<String> idList = new ArrayList<>();
+
         try {
             for (final Object inputDatum : inputData) {
-                try {
-                    fillModificationQueryFromInput(modificationQuery, event, action, inputDatum, version);
-                    PreparedStatement ps = modificationQuery.getPreparedStatement(connection);
+                fillModificationQueryFromInput(modificationQuery, event, action, inputDatum, version);
+                modificationQuery.getPreparedStatement(connection).addBatch();
+                idList.add(getIdFromInput(action, inputDatum));
+                if (action != DELETE)
+                    responseCollection.getFeatures().add((Feature) inputDatum);
+            }
 
-                    if (transactional) {
-                        ps.addBatch();
-                        idList.add(getIdFromInput(action, inputDatum));
-                    }
-                    else
-                        ps.setQueryTimeout(DatabaseHandler.calculateTimeout());
+            executeBatchesAndCheckOnFailures(idList, modificationQuery.getPreparedStatement(connection), fails, event, action);
 
-                    if (transactional || ps.execute() || ps.getUpdateCount() != 0) {
-                        if (action != DELETE)
-                            responseCollection.getFeatures().add((Feature) inputDatum);
-                    }
-                    else
-                        throw new WriteFeatureException(getFailedRowErrorMsg(action, event));
-                }
-                catch (Exception e) {
-                    if (transactional)
-                        throw e;
+            if (fails.size() > 0) {
+                logException(null, action, event);
+                throw new SQLException(getGeneralErrorMsg(action));
+            }
+        }
+        finally {
+            modificationQuery.closeStatement();
+        }
+    }
 
-                    if (e instanceof SQLException sqlException && "42P01".equalsIgnoreCase(sqlException.getSQLState()))
-                        throw (SQLException) e;
+    /**
+     * Writes the rows of a non-transactional modification with one round trip per chunk of {@link #PIPELINED_CHUNK_SIZE} rows.
+     * The rows are sent as parallel arrays to the DB function xyz_write_features_pipelined(), which performs the per-row write
+     * operations each within its own sub-transaction and returns the positions of the rows which failed.
+     * That way a failing row does not affect the other rows, and it's still possible to report a failure for each affected feature.
+     * Each chunk is committed on its own, so the locks are only held for the chunk and a timeout only rolls back the rows of that chunk.
+     */
+    private static void modifyFeaturesPipelined(DatabaseHandler dbh, ModifyFeaturesEvent event, ModificationType action,
+        FeatureCollection responseCollection, List<FeatureCollection.ModificationFailure> fails, List inputData, Connection connection,
+        long version, boolean uniqueConstraintExists) throws SQLException, JsonProcessingException {
+        List<Object> rowInputs = new ArrayList<>(inputData.size());
+        PipelinedRows rows = new PipelinedRows(inputData.size());
+
+        for (final Object inputDatum : inputData) {
+            try {
+                SQLQuery rowQuery = new SQLQuery("");
+                fillModificationQueryFromInput(rowQuery, event, action, inputDatum, version);
+                rows.add(rowQuery.getNamedParameters());
+                rowInputs.add(inputDatum);
+            }
+            catch (Exception e) {
+                fails.add(new FeatureCollection.ModificationFailure().withId(getIdFromInput(action, inputDatum))
+                    .withMessage(e instanceof WriteFeatureException ? e.getMessage() : getFailedRowErrorMsg(action, event)));
+                logException(e, action, event);
+            }
+        }
 
-                    fails.add(new FeatureCollection.ModificationFailure().withId(getIdFromInput(action, inputDatum))
-                        .withMessage(e instanceof WriteFeatureException ? e.getMessage() : getFailedRowErrorMsg(action, event)));
-                    logException(e, action, event);
+        if (rowInputs.isEmpty())
+            return;
+
+        boolean[] failedRows = new boolean[rowInputs.size()];
+        for (int chunkStart = 0; chunkStart < rowInputs.size(); chunkStart += PIPELINED_CHUNK_SIZE) {
+            final int chunkEnd = Math.min(chunkStart + PIPELINED_CHUNK_SIZE, rowInputs.size());
+            SQLQuery pipelinedQuery = buildPipelinedStmtQuery(dbh, event, action, version, uniqueConstraintExists)
+                .withLabel("streamId", getStreamId());
+            try {
+                rows.setNamedParameters(pipelinedQuery, connection, chunkStart, chunkEnd);
+                PreparedStatement ps = pipelinedQuery.getPreparedStatement(connection);
+                ps.setQueryTimeout(DatabaseHandler.calculateTimeout());
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        //The returned row index is 1-based, just like the SQL arrays
+                        failedRows[chunkStart + rs.getInt("row_index") - 1] = true;
+                        logException(new SQLException(rs.getString("error_message"), rs.getString("error_code")), action, event);
+                    }
                 }
             }
+            catch (SQLException e) {
+                if ("42P01".equalsIgnoreCase(e.getSQLState()))
+                    throw e;
 
-            if (transactional) {
-                executeBatchesAndCheckOnFailures(idList, modificationQuery.getPreparedStatement(connection), fails, event, action);
-
-                if (fails.size() > 0) {
-                    logException(null, action, event);
-                    throw new SQLException(getGeneralErrorMsg(action));
-                }
+                //The whole statement has failed, so none of the rows of this chunk has been written
+                Arrays.fill(failedRows, chunkStart, chunkEnd, true);
+                logException(e, action, event);
+            }
+            finally {
+                pipelinedQuery.closeStatement();
             }
         }
-        finally {
-            modificationQuery.closeStatement();
+
+        for (int i = 0; i < failedRows.length; i++) {
+            Object inputDatum = rowInputs.get(i);
+            if (failedRows[i])
+                fails.add(new FeatureCollection.ModificationFailure().withId(getIdFromInput(action, inputDatum))
+                    .withMessage(getFailedRowErrorMsg(action, event)));
+            else if (action != DELETE)
+                responseCollection.getFeatures().add((Feature) inputDatum);
+        }
+    }
+
+    private static SQLQuery buildPipelinedStmtQuery(DatabaseHandler dbHandler, ModifyFeaturesEvent event, ModificationType action,
+        long version, boolean uniqueConstraintExists) {
+        return setCommonParams(new SQLQuery("SELECT row_index, error_code, error_message FROM xyz_write_features_pipelined(#{action}, "
+            + "#{ids}, #{operations}, #{authors}, #{jsondatas}, #{geos}, #{baseVersions}, #{version}, #{schema}, #{table}, "
+            + "#{concurrencyCheck}, #{uniqueConstraintExists}, #{partitionSize}, #{versionsToKeep}, #{pw}, #{minTagVersion})"),
+            dbHandler, event)
+            .withNamedParameter("action", action.shortValue)
+            .withNamedParameter("version", version)
+            .withNamedParameter("uniqueConstraintExists", uniqueConstraintExists)
+            .withNamedParameter("partitionSize", PARTITION_SIZE)
+            .withNamedParameter("versionsToKeep", event.getVersionsToKeep())
+            .withNamedParameter("minTagVersion", event.getMinVersion())
+            .withNamedParameter("pw", dbHandler.getDatabaseSettings().getPassword());
+    }
+
+    /**
+     * Collects the per-row parameters of the single-row write statements into columns, which are bound as SQL arrays.
+     */
+    private static class PipelinedRows {
+        private final List<String> ids;
+        private final List<String> operations;
+        private final List<String> authors;
+        private final List<String> jsondatas;
+        private final List<byte[]> geos;
+        private final List<Long> baseVersions;
+
+        PipelinedRows(int size) {
+            ids = new ArrayList<>(size);
+            operations = new ArrayList<>(size);
+            authors = new ArrayList<>(size);
+            jsondatas = new ArrayList<>(size);
+            geos = new ArrayList<>(size);
+            baseVersions = new ArrayList<>(size);
+        }
+
+        void add(Map<String, Object> rowParams) {
+            ids.add((String) rowParams.get("id"));
+            operations.add((String) rowParams.get("operation"));
+            authors.add((String) rowParams.get("author"));
+            jsondatas.add(rowParams.get("jsondata") instanceof PGobject jsondata ? jsondata.getValue() : null);
+            geos.add((byte[]) rowParams.get("geo"));
+            baseVersions.add(rowParams.get("baseVersion") instanceof Number baseVersion ? baseVersion.longValue() : null);
+        }
+
+        void setNamedParameters(SQLQuery query, Connection connection, int from, int to) throws SQLException {
+            query
+                .withNamedParameter("ids", connection.createArrayOf("text", ids.subList(from, to).toArray()))
+                .withNamedParameter("operations", connection.createArrayOf("char", operations.subList(from, to).toArray()))
+                .withNamedParameter("authors", connection.createArrayOf("text", authors.subList(from, to).toArray()))
+                .withNamedParameter("jsondatas", connection.createArrayOf("jsonb", jsondatas.subList(from, to).toArray()))
+                .withNamedParameter("geos", connection.createArrayOf("bytea", geos.subList(from, to).toArray(new byte[0][])))
+                .withNamedParameter("baseVersions", connection.createArrayOf("int8", baseVersions.subList(from, to).toArray()));
         }
     }
 
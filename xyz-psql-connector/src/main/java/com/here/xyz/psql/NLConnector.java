@@ -69,6 +69,7 @@ import com.here.xyz.responses.BinaryResponse;
 import com.here.xyz.responses.ChangesetsStatisticsResponse;
 import com.here.xyz.responses.StatisticsResponse;
 import com.here.xyz.responses.SuccessResponse;
+import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.responses.changesets.ChangesetCollection;
 import com.here.xyz.util.Random;
 import io.vertx.core.json.JsonObject;
@@ -97,6 +98,9 @@ import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.GLOBAL_VERSION_PROPERT
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.REFERENCES_PROPERTY_KEY;
 
 import static com.here.xyz.responses.XyzError.NOT_IMPLEMENTED;
+import static com.here.xyz.responses.XyzError.EXCEPTION;
+import static com.here.xyz.responses.XyzError.ILLEGAL_ARGUMENT;
+import static com.here.xyz.events.GetFeaturesByTileEvent.ResponseType.BINARY;
 
 public class NLConnector extends PSQLXyzConnector {
   private static final Logger logger = LogManager.getLogger();
@@ -130,10 +134,26 @@ public class NLConnector extends PSQLXyzConnector {
   }
 
   private FeatureCollection getBBox(GetFeaturesByBBoxEvent event) throws ErrorResponseException, SQLException {
+    return runBBoxQuery(event, FeatureCollection.class);
+  }
+
+  /**
+   * Runs the bbox query with the new table layout.
+   * The response type depends on the requested response type of the event, which is a {@link BinaryResponse} for MVT requests.
+   *
+   * @param responseType The type of the response which is expected for the event
+   */
+  private <R extends XyzResponse> R runBBoxQuery(GetFeaturesByBBoxEvent event, Class<R> responseType)
+      throws ErrorResponseException, SQLException {
     if (event.getClusteringType() != null || event.getTweakType() != null)
       throw new ErrorResponseException(NOT_IMPLEMENTED, "Method not implemented in NLConnector!");
-    //TODO: Check Cast
-    return (FeatureCollection) run(new GetFeaturesByBBox<>(event).withTableLayout(NEW_LAYOUT));
+    GetFeaturesByBBox<GetFeaturesByBBoxEvent, XyzResponse> runner = new GetFeaturesByBBox<>(event);
+    runner.withTableLayout(NEW_LAYOUT);
+    XyzResponse response = run(runner);
+    if (!responseType.isInstance(response))
+      throw new ErrorResponseException(EXCEPTION, "Unexpected response type of the bbox query: "
+          + (response == null ? null : response.getClass().getSimpleName()) + ", expected: " + responseType.getSimpleName());
+    return responseType.cast(response);
   }
 
   @Override
@@ -337,7 +357,15 @@ public class NLConnector extends PSQLXyzConnector {
 
   @Override
   protected BinaryResponse processBinaryGetFeaturesByTileEvent(GetFeaturesByTileEvent event) throws Exception {
-    throw new ErrorResponseException(NOT_IMPLEMENTED, "Method not implemented in NLConnector!");
+    if (event.getResponseType() == BINARY)
+      throw new ErrorResponseException(NOT_IMPLEMENTED, "Method not implemented in NLConnector!");
+    if (!mvtSupported(event))
+      //NOTE: Like for the PSQLXyzConnector, we never want to fall back to the MVT transformation within the service
+      throw new ErrorResponseException(ILLEGAL_ARGUMENT, "MVT format is not supported");
+
+    //The tile is encoded within the database using ST_AsMVT()
+    checkForInvalidHereTileClustering(event);
+    return runBBoxQuery(event, BinaryResponse.class);
   }
 
   @Override
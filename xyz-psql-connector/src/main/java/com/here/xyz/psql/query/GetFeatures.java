@@ -32,6 +32,7 @@ import static com.here.xyz.responses.XyzError.EXCEPTION;
 import static com.here.xyz.responses.XyzError.PAYLOAD_TO_LARGE;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.events.ContextAwareEvent;
@@ -40,6 +41,7 @@ import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.hub.Ref;
 import com.here.xyz.psql.DatabaseWriter.ModificationType;
 import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.ChunkedJsonBuffer;
 import com.here.xyz.util.db.ConnectorParameters;
 import com.here.xyz.util.db.SQLQuery;
 import java.sql.ResultSet;
@@ -54,6 +56,9 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
   public static final long GEOMETRY_DECIMAL_DIGITS = 8;
   public static final String NO_GEOMETRY = "!geometry";
   public static long MAX_BIGINT = Long.MAX_VALUE;
+  private static final byte[] NAMESPACE_KEY = "\"@ns:com:here:xyz\"".getBytes(UTF_8);
+  private static final byte[] GEOMETRY_KEY = ",\"geometry\":".getBytes(UTF_8);
+  private static final byte[] NULL_VALUE = "null".getBytes(UTF_8);
   private boolean historyEnabled;
 
   public GetFeatures(E event) throws SQLException, ErrorResponseException {
@@ -404,55 +409,105 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
     return (R) fc.build();
   }
 
-  protected void handleFeature(ResultSet rs, StringBuilder result) throws SQLException {
-    String geom = rs.getString("geo");
-    if(getTableLayout().equals(ConnectorParameters.TableLayout.OLD_LAYOUT))
-      result.append(rs.getString("jsondata"));
-    else if(getTableLayout().equals(ConnectorParameters.TableLayout.NEW_LAYOUT))
-      result.append(injectValuesIntoNameSpace(rs.getString("jsondata"), rs.getLong("version"), rs.getString("author")));
-    result.setLength(result.length() - 1);
-    result.append(",\"geometry\":");
-    result.append(geom == null ? "null" : geom);
-    result.append("}");
+  protected void handleFeature(ResultSet rs, ChunkedJsonBuffer result) throws SQLException {
+    //Read the raw bytes of the JSON values to prevent decoding / re-encoding of the content
+    byte[] jsonData = rs.getBytes("jsondata");
+    byte[] geom = rs.getBytes("geo");
+    //Omit the closing bracket of the feature to be able to add the geometry
+    if (getTableLayout().equals(ConnectorParameters.TableLayout.OLD_LAYOUT))
+      result.append(jsonData, 0, jsonData.length - 1);
+    else if (getTableLayout().equals(ConnectorParameters.TableLayout.NEW_LAYOUT))
+      appendWithValuesInNameSpace(result, jsonData, jsonData.length - 1, rs.getLong("version"), rs.getString("author"));
+    result.append(GEOMETRY_KEY);
+    if (geom == null)
+      result.append(NULL_VALUE);
+    else
+      result.append(geom);
+    result.append((byte) '}');
   }
 
-  private String injectValuesIntoNameSpace(String jsonData, long version, String author) {
-    String namespacePattern = "(\"@ns:com:here:xyz\"\\s*:\\s*\\{)";
-    //The NS always contains the updatedAt property, so we need a trailing comma.
-    String versionAuthor = "$1\"version\":" + version + ",\"author\":\"" + author + "\",";
+  /**
+   * Appends the specified JSON data while injecting the version and the author into each XYZ namespace object.
+   *
+   * @param result The buffer to append to
+   * @param jsonData The UTF-8 encoded JSON data of the feature
+   * @param end The end index (exclusive) of the bytes to be appended
+   * @param version The version to be injected
+   * @param author The author to be injected
+   */
+  static void appendWithValuesInNameSpace(ChunkedJsonBuffer result, byte[] jsonData, int end, long version, String author) {
+    byte[] versionAuthor = null;
+    int start = 0;
+    int keyStart;
+    while ((keyStart = indexOf(jsonData, NAMESPACE_KEY, start, end)) >= 0) {
+      int pos = skipWhitespaces(jsonData, keyStart + NAMESPACE_KEY.length, end);
+      if (pos < end && jsonData[pos] == ':') {
+        pos = skipWhitespaces(jsonData, pos + 1, end);
+        if (pos < end && jsonData[pos] == '{') {
+          if (versionAuthor == null)
+            //The NS always contains the updatedAt property, so we need a trailing comma.
+            versionAuthor = ("\"version\":" + version + ",\"author\":\"" + author + "\",").getBytes(UTF_8);
+          result.append(jsonData, start, pos + 1 - start);
+          result.append(versionAuthor);
+          start = pos + 1;
+          continue;
+        }
+      }
+      result.append(jsonData, start, keyStart + 1 - start);
+      start = keyStart + 1;
+    }
+    result.append(jsonData, start, end - start);
+  }
+
+  private static int indexOf(byte[] bytes, byte[] pattern, int from, int end) {
+    outer:
+    for (int i = from; i <= end - pattern.length; i++) {
+      if (bytes[i] != pattern[0])
+        continue;
+      for (int j = 1; j < pattern.length; j++)
+        if (bytes[i + j] != pattern[j])
+          continue outer;
+      return i;
+    }
+    return -1;
+  }
 
-    return jsonData.replaceAll(namespacePattern, versionAuthor);
+  private static int skipWhitespaces(byte[] bytes, int pos, int end) {
+    while (pos < end && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\n' || bytes[pos] == '\r'))
+      pos++;
+    return pos;
   }
 
   protected static class LazyParsableFeatureCollection {
     public static final String PREFIX = "[";
     public static final String SUFFIX = "]";
 
-    private StringBuilder content = new StringBuilder().append(PREFIX);
+    private final ChunkedJsonBuffer content = new ChunkedJsonBuffer().append(PREFIX);
 
     public void addFeature(FeatureAppender featureAppender) throws ErrorResponseException, SQLException {
+      long lengthBefore = content.length();
       featureAppender.appendFeature(content);
 
-      if( content.length() > PREFIX.length() && content.charAt(content.length() - 1) != ',' ) //prevent inserting additionals ',' in case featureAppender.appendFeature(content) does nop
-       content = content.append(",");
+      if (content.length() > lengthBefore) //prevent inserting additionals ',' in case featureAppender.appendFeature(content) does nop
+        content.append((byte) ',');
 
       if (content.length() > MAX_RESULT_SIZE)
-        throw new ErrorResponseException(PAYLOAD_TO_LARGE, "Maximum response char limit of " + MAX_RESULT_SIZE + " reached");
+        throw new ErrorResponseException(PAYLOAD_TO_LARGE, "Maximum response byte limit of " + MAX_RESULT_SIZE + " reached");
     }
 
     public FeatureCollection build() {
       final FeatureCollection featureCollection = new FeatureCollection();
 
-      if (content.length() > PREFIX.length() && content.charAt(content.length() - 1) == ',' )
-       content.setLength(content.length() - 1); //Removes the last extra comma
+      if (content.lastByte() == ',')
+        content.truncate(1); //Removes the last extra comma
 
-      featureCollection._setFeatures(content.append(SUFFIX).toString());
+      featureCollection._setFeatures(content.append(SUFFIX));
       return featureCollection;
     }
 
     @FunctionalInterface
     interface FeatureAppender {
-      void appendFeature(StringBuilder content) throws ErrorResponseException, SQLException;
+      void appendFeature(ChunkedJsonBuffer content) throws ErrorResponseException, SQLException;
     }
   }
 
@@ -22,6 +22,7 @@ package com.here.xyz.psql.query;
 import static com.here.xyz.events.GetFeaturesByTileEvent.ResponseType.GEO_JSON;
 import static com.here.xyz.events.GetFeaturesByTileEvent.ResponseType.MVT;
 import static com.here.xyz.events.GetFeaturesByTileEvent.ResponseType.MVT_FLATTENED;
+import static com.here.xyz.util.db.ConnectorParameters.TableLayout.NEW_LAYOUT;
 
 import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.events.GetFeaturesByBBoxEvent;
@@ -39,9 +40,9 @@ import java.sql.SQLException;
 public class GetFeaturesByBBox<E extends GetFeaturesByBBoxEvent, R extends XyzResponse> extends Spatial<E, R> {
 
   private static final String APPLICATION_VND_MAPBOX_VECTOR_TILE = "application/vnd.mapbox-vector-tile";
-  private static String mvtPropertiesFlattenSql = "( select jsonb_object_agg('properties.' || jkey,jval) from prj_flatten( jsonb_set((jsondata)->'properties','{id}', to_jsonb( jsondata->>'id' )) ))";
+  private static String mvtPropertiesFlattenSql = "( select jsonb_object_agg('properties.' || jkey,jval) from prj_flatten( jsonb_set((${{jsonData}})->'properties','{id}', to_jsonb( (${{jsonData}})->>'id' )) ))";
   private static String
-      mvtPropertiesSql        = "( select jsonb_object_agg(key, case when jsonb_typeof(value) in ('object', 'array') then to_jsonb(value::text) else value end) from jsonb_each(jsonb_set((jsondata)->'properties','{id}', to_jsonb(jsondata->>'id'))))";
+      mvtPropertiesSql        = "( select jsonb_object_agg(key, case when jsonb_typeof(value) in ('object', 'array') then to_jsonb(value::text) else value end) from jsonb_each(jsonb_set((${{jsonData}})->'properties','{id}', to_jsonb((${{jsonData}})->>'id'))))";
   private boolean isMvtRequested;
 
   public GetFeaturesByBBox(E event) throws SQLException, ErrorResponseException {
@@ -57,8 +58,9 @@ public class GetFeaturesByBBox<E extends GetFeaturesByBBoxEvent, R extends XyzRe
     SQLQuery query = super.buildQuery(event);
 
     if (isMvtRequested = isMvtRequested(event))
-      return buildMvtEncapsuledQuery((GetFeaturesByTileEvent) event, query);
-    return query;
+      query = buildMvtEncapsuledQuery((GetFeaturesByTileEvent) event, query);
+    //Tile requests are the most frequent queries, so they should re-use the prepared statements
+    return query.withStatementCachingEnabled(true);
   }
 
   @Override
@@ -120,7 +122,9 @@ public class GetFeaturesByBBox<E extends GetFeaturesByBBoxEvent, R extends XyzRe
           )
           .withQueryFragment("bounds", new SQLQuery(hereTile == null ? "st_transform(${{tileBbox}}, 3857)" : "${{tileBbox}}")
           .withQueryFragment("tileBbox", buildGeoFilterFromBbox(tileBbox)))
-          .withQueryFragment("mvtProperties", !isFlattened ? mvtPropertiesSql : mvtPropertiesFlattenSql)
+          .withQueryFragment("mvtProperties", new SQLQuery(!isFlattened ? mvtPropertiesSql : mvtPropertiesFlattenSql)
+              //The new table layout stores the feature as text, so it has to be cast before the properties can be extracted
+              .withQueryFragment("jsonData", getTableLayout() == NEW_LAYOUT ? "jsondata::jsonb" : "jsondata"))
           .withNamedParameter("extent", extent)
           .withNamedParameter("buffer", buffer)
           .withQueryFragment("geoFrag", hereTile == null ? "st_transform(geo, 3857)" : "geo")
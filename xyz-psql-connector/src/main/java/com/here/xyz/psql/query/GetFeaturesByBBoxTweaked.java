@@ -36,6 +36,7 @@ import com.here.xyz.psql.query.bbox.GetSamplingStrengthEstimation;
 import com.here.xyz.psql.query.bbox.GetSamplingStrengthEstimation.SamplingStrengthEstimation;
 import com.here.xyz.psql.tools.DhString;
 import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.ChunkedJsonBuffer;
 import com.here.xyz.util.db.SQLQuery;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -110,7 +111,7 @@ public class GetFeaturesByBBoxTweaked<E extends GetFeaturesByBBoxEvent, R extend
   }
 
   @Override
-  protected void handleFeature(ResultSet rs, StringBuilder result) throws SQLException {
+  protected void handleFeature(ResultSet rs, ChunkedJsonBuffer result) throws SQLException {
     //Skip features which have no geometry
     if (rs.getString("geo") == null)
       return;
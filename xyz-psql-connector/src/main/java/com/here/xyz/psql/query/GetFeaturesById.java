@@ -40,6 +40,12 @@ public class GetFeaturesById extends GetFeatures<GetFeaturesByIdEvent, FeatureCo
     return emptyRequest ? new FeatureCollection() : super.run(dataSourceProvider);
   }
 
+  @Override
+  protected SQLQuery buildQuery(GetFeaturesByIdEvent event) throws SQLException, ErrorResponseException {
+    //Reading features by ID is one of the most frequent queries, so it should re-use the prepared statements
+    return super.buildQuery(event).withStatementCachingEnabled(true);
+  }
+
   @Override
   protected SQLQuery buildFilterWhereClause(GetFeaturesByIdEvent event) {
     return new SQLQuery("id = ANY(#{ids})")
@@ -32,6 +32,7 @@ import com.here.xyz.psql.query.helpers.versioning.GetHeadVersion;
 import com.here.xyz.psql.query.helpers.versioning.GetMinVersion;
 import com.here.xyz.responses.changesets.Changeset;
 import com.here.xyz.responses.changesets.ChangesetCollection;
+import com.here.xyz.util.ChunkedJsonBuffer;
 import com.here.xyz.util.db.SQLQuery;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
 import java.sql.ResultSet;
@@ -297,7 +298,7 @@ public class IterateChangesets extends IterateFeatures<IterateChangesetsEvent, C
   }
 
   @Override
-  protected void handleFeature(ResultSet rs, StringBuilder result) throws SQLException {
+  protected void handleFeature(ResultSet rs, ChunkedJsonBuffer result) throws SQLException {
     super.handleFeature(rs, result);
     nextTokenVersion = rs.getLong("version");
     nextTokenId = rs.getString("id");
@@ -24,6 +24,7 @@ import com.here.xyz.events.ContextAwareEvent;
 import com.here.xyz.events.IterateFeaturesEvent;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.ChunkedJsonBuffer;
 import com.here.xyz.util.db.ECPSTool;
 import com.here.xyz.util.db.SQLQuery;
 import java.security.GeneralSecurityException;
@@ -116,7 +117,7 @@ public class IterateFeatures<E extends IterateFeaturesEvent, R extends XyzRespon
   }
 
   @Override
-  protected void handleFeature(ResultSet rs, StringBuilder result) throws SQLException {
+  protected void handleFeature(ResultSet rs, ChunkedJsonBuffer result) throws SQLException {
     super.handleFeature(rs, result);
     numFeatures++;
     nextIOffset = rs.getString("i");
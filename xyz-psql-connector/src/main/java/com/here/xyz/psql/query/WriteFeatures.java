@@ -37,8 +37,10 @@ import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.psql.QueryRunner;
 import com.here.xyz.responses.XyzError;
 import com.here.xyz.util.NodeExecutableLocator;
+import com.here.xyz.util.db.ConnectorParameters;
 import com.here.xyz.util.db.SQLQuery;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.db.pg.FeatureWriterQueryBuilder;
 import com.here.xyz.util.db.pg.FeatureWriterQueryBuilder.FeatureWriterQueryContextBuilder;
 import com.here.xyz.util.db.pg.SQLError;
 import com.here.xyz.util.runtime.FunctionRuntime;
@@ -106,6 +108,18 @@ public class WriteFeatures extends ExtendedSpace<WriteFeaturesEvent, FeatureColl
     if (event.getRef() != null && event.getRef().isSingleVersion() && !event.getRef().isHead())
       queryContextBuilder.withBaseVersion(event.getRef().getVersion());
 
+    if (ConnectorParameters.fromEvent(event).isColumnarWriteInput())
+      return new FeatureWriterQueryBuilder()
+          .withModifications(new ArrayList<>(event.getModifications()))
+          .withAuthor(event.getAuthor())
+          .withReturnResult(event.isResponseDataExpected())
+          .withQueryContext(queryContextBuilder.build())
+          .withColumnarInput(true)
+          .withSelect(true)
+          .build()
+          .withLoggingEnabled(false)
+          .withRetryableErrorCodes(Set.of(RETRYABLE_VERSION_CONFLICT.errorCode));
+
     return new SQLQuery("SELECT write_features(#{modifications}, 'Modifications', #{author}, #{responseDataExpected});")
         .withLoggingEnabled(false)
         .withContext(queryContextBuilder.build())
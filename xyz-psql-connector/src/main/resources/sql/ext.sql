@@ -2072,6 +2072,44 @@ $BODY$
 LANGUAGE plpgsql VOLATILE;
 ------------------------------------------------
 ------------------------------------------------
+-- Performs the (non-transactional) write operations of many features within one single statement.
+-- The rows are passed as parallel arrays. Each row is written within its own sub-transaction, so that a failing row does not affect
+-- the others. Returns one row for each failed write operation containing the (1-based) position of the failed row within the arrays.
+-- NOTE: The caller must not pass more than 64 rows per call, to stay within the sub-transaction cache of the backend.
+CREATE OR REPLACE FUNCTION xyz_write_features_pipelined(action CHAR, ids TEXT[], operations CHAR[], authors TEXT[], jsondatas JSONB[], geos BYTEA[], baseVersions BIGINT[], version BIGINT, schema TEXT, tableName TEXT, concurrencyCheck BOOLEAN, uniqueConstraintExists BOOLEAN, partitionSize BIGINT, versionsToKeep INT, pw TEXT, minTagVersion BIGINT)
+    RETURNS TABLE (row_index INTEGER, error_code TEXT, error_message TEXT) AS
+$BODY$
+    BEGIN
+        FOR i IN 1 .. coalesce(array_length(ids, 1), 0) LOOP
+            BEGIN
+                IF versionsToKeep > 1 THEN
+                    PERFORM xyz_write_versioned_modification_operation(ids[i], version, operations[i], jsondatas[i], geos[i]::GEOMETRY,
+                        schema, tableName, concurrencyCheck, partitionSize, versionsToKeep, pw, baseVersions[i], minTagVersion);
+                ELSIF action = 'I' THEN
+                    PERFORM xyz_simple_upsert(ids[i], version, operations[i], authors[i], jsondatas[i], geos[i]::GEOMETRY,
+                        schema, tableName, concurrencyCheck, uniqueConstraintExists);
+                ELSIF action = 'U' THEN
+                    PERFORM xyz_simple_update(ids[i], version, operations[i], authors[i], jsondatas[i], geos[i]::GEOMETRY,
+                        schema, tableName, concurrencyCheck, baseVersions[i]);
+                ELSE
+                    PERFORM xyz_simple_delete(ids[i], schema, tableName, concurrencyCheck, baseVersions[i]);
+                END IF;
+            EXCEPTION
+                -- A missing table has to be handled by the caller
+                WHEN undefined_table THEN
+                    RAISE;
+                WHEN OTHERS THEN
+                    row_index := i;
+                    error_code := SQLSTATE;
+                    error_message := SQLERRM;
+                    RETURN NEXT;
+            END;
+        END LOOP;
+    END
+$BODY$
+LANGUAGE plpgsql VOLATILE;
+------------------------------------------------
+------------------------------------------------
 CREATE OR REPLACE FUNCTION xyz_simple_conflictCheck(concurrencyCheck BOOLEAN, baseVersion BIGINT)
     RETURNS TEXT AS
 $BODY$
@@ -30,6 +30,8 @@ import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.events.ModifyFeaturesEvent;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.models.geojson.implementation.FeatureCollection.ModificationFailure;
+import com.here.xyz.models.geojson.implementation.Properties;
 import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.XyzError;
 import java.util.ArrayList;
@@ -37,6 +39,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -218,4 +221,36 @@ public class PSQLConcurrencyIT extends PSQLAbstractIT {
         else
             assertEquals(DatabaseWriter.UPDATE_ERROR_NOT_EXISTS, failure1.get("message"));
     }
+
+    @Test
+    public void testModifyFeatureFailuresAcrossChunks() throws Exception {
+        List<Feature> existing = new ArrayList<>();
+        for (int i = 0; i < 2 * DatabaseWriter.PIPELINED_CHUNK_SIZE; i++)
+            existing.add(new Feature().withId("F" + i).withProperties(new Properties().with("value", i)));
+        invokeLambda(new ModifyFeaturesEvent()
+            .withConnectorParams(defaultTestConnectorParams)
+            .withSpace("foo")
+            .withTransaction(true)
+            .withInsertFeatures(existing));
+
+        //Place not existing features into the first and the second chunk of the non-transactional write
+        List<Feature> updates = new ArrayList<>(existing);
+        updates.add(10, new Feature().withId("missing1").withProperties(new Properties().with("value", -1)));
+        updates.add(DatabaseWriter.PIPELINED_CHUNK_SIZE + 10, new Feature().withId("missing2").withProperties(new Properties().with("value", -2)));
+
+        FeatureCollection responseCollection = XyzSerializable.deserialize(invokeLambda(new ModifyFeaturesEvent()
+            .withConnectorParams(defaultTestConnectorParams)
+            .withSpace("foo")
+            .withTransaction(false)
+            .withUpdateFeatures(updates)));
+
+        assertNotNull(responseCollection.getFailed());
+        assertEquals(List.of("missing1", "missing2"),
+            responseCollection.getFailed().stream().map(ModificationFailure::getId).sorted().collect(Collectors.toList()));
+        for (ModificationFailure failure : responseCollection.getFailed())
+            assertEquals(DatabaseWriter.UPDATE_ERROR_NOT_EXISTS, failure.getMessage());
+        assertEquals(existing.size(), responseCollection.getFeatures().size());
+        assertEquals(existing.stream().map(Feature::getId).collect(Collectors.toSet()),
+            responseCollection.getFeatures().stream().map(Feature::getId).collect(Collectors.toSet()));
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.here.xyz.util.ChunkedJsonBuffer;
+import org.junit.jupiter.api.Test;
+
+public class GetFeaturesTest {
+
+  private static String inject(String jsonData) {
+    byte[] bytes = jsonData.getBytes(UTF_8);
+    ChunkedJsonBuffer result = new ChunkedJsonBuffer();
+    GetFeatures.appendWithValuesInNameSpace(result, bytes, bytes.length, 5, "someAuthor");
+    return result.toString();
+  }
+
+  @Test
+  public void injectValuesIntoNameSpace() {
+    assertEquals("{\"properties\":{\"@ns:com:here:xyz\":{\"version\":5,\"author\":\"someAuthor\",\"updatedAt\":1}}}",
+        inject("{\"properties\":{\"@ns:com:here:xyz\":{\"updatedAt\":1}}}"));
+    assertEquals("{\"properties\":{\"@ns:com:here:xyz\" : {\"version\":5,\"author\":\"someAuthor\",\"updatedAt\":1}}}",
+        inject("{\"properties\":{\"@ns:com:here:xyz\" : {\"updatedAt\":1}}}"));
+  }
+
+  @Test
+  public void keepValuesWithoutNameSpace() {
+    assertEquals("{\"properties\":{\"a\":\"@ns:com:here:xyz\",\"ü\":1}}", inject("{\"properties\":{\"a\":\"@ns:com:here:xyz\",\"ü\":1}}"));
+    assertEquals("{\"properties\":{}}", inject("{\"properties\":{}}"));
+  }
+}
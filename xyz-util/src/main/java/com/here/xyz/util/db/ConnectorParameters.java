@@ -22,6 +22,7 @@ package com.here.xyz.util.db;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.events.Event;
+import com.here.xyz.util.db.datasource.DatabaseSettings.ConnectionPool;
 import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -37,6 +38,8 @@ public class ConnectorParameters {
   private boolean enableHashedSpaceId = false;
   private int onDemandIdxLimit = 4;
   private boolean readOnly;
+  private boolean columnarWriteInput = false;
+  private ConnectionPool connectionPool;
 
   private TableLayout tableLayout;
   public enum TableLayout {
@@ -86,6 +89,20 @@ public class ConnectorParameters {
     return this;
   }
 
+  /**
+   * @return Whether features should be passed to the FeatureWriter as arrays rather than as one JSON document
+   */
+  public boolean isColumnarWriteInput() {
+    return columnarWriteInput;
+  }
+
+  /**
+   * @return The connection pool implementation to be used for the connector's database or null to use the default one
+   */
+  public ConnectionPool getConnectionPool() {
+    return connectionPool;
+  }
+
   public TableLayout getTableLayout() { return  tableLayout; }
 
   public  void setTableLayout(TableLayout tableLayout) { this.tableLayout = tableLayout; }
@@ -20,24 +20,24 @@
 package com.here.xyz.util.db;
 
 import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.db.datasource.DataSourceProvider.BoundedTask;
+import com.here.xyz.util.runtime.VirtualThreads;
 import com.mchange.v2.resourcepool.TimeoutException;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import java.sql.SQLException;
 import java.util.Queue;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import org.apache.commons.dbutils.ResultSetHandler;
 
 public class JdbcClient implements AutoCloseable {
-  private static final ExecutorService sharedExec = Executors.newCachedThreadPool();
-
   private DataSourceProvider dataSourceProvider;
-  private ExecutorService exec = sharedExec;
+  //Each task is running on its own (virtual) thread, the number of concurrently running tasks is bound by the DataSourceProvider.
+  //Tasks are only submitted to the executor once the DataSourceProvider granted them a permit.
+  private ExecutorService exec = VirtualThreads.sharedExecutor();
   private boolean queueing;
   private Queue<QueuedTask<?>> taskQueue;
 
@@ -63,19 +63,19 @@ public class JdbcClient implements AutoCloseable {
   }
 
   public <R> Future<R> run(SQLQuery query, ResultSetHandler<R> handler, boolean useReplica) {
-    return runTask(() -> query.run(dataSourceProvider, handler, useReplica));
+    return runTask(() -> query.run(dataSourceProvider, handler, useReplica), useReplica);
   }
 
   public Future<Integer> write(SQLQuery query) {
-    return runTask(() -> query.write(dataSourceProvider));
+    return runTask(() -> query.write(dataSourceProvider), false);
   }
 
-  private <R> Future<R> runTask(ThrowingSupplier<R> task) {
-    return isQueueing() ? runTaskWithQueueing(task).onComplete(v -> checkQueue()) : runTaskWithoutQueueing(task);
+  private <R> Future<R> runTask(BoundedTask<R> task, boolean useReplica) {
+    return isQueueing() ? runTaskWithQueueing(task, useReplica).onComplete(v -> checkQueue()) : runTaskWithoutQueueing(task, useReplica);
   }
 
-  private <R> Future<R> runTaskWithoutQueueing(ThrowingSupplier<R> task) {
-    return Future.fromCompletionStage(CompletableFuture.supplyAsync(task, exec))
+  private <R> Future<R> runTaskWithoutQueueing(BoundedTask<R> task, boolean useReplica) {
+    return Future.fromCompletionStage(dataSourceProvider.submitBounded(task, useReplica, exec))
         .recover(t -> Future.failedFuture(unpackExcecutionException(t)));
   }
 
@@ -86,25 +86,26 @@ public class JdbcClient implements AutoCloseable {
   }
 
   @Deprecated
-  private <R> Future<R> runTaskWithQueueing(ThrowingSupplier<R> task) {
+  private <R> Future<R> runTaskWithQueueing(BoundedTask<R> task, boolean useReplica) {
     if (taskQueue.isEmpty())
-      return tryRunTaskAndEnqueueOnTimeout(task);
+      return tryRunTaskAndEnqueueOnTimeout(task, useReplica);
 
     //If the queue contains tasks already, add the task to the end of the queue
-    return enqueue(task);
+    return enqueue(task, useReplica);
   }
 
   @Deprecated
-  private <R> Future<R> enqueue(ThrowingSupplier<R> task) {
-    QueuedTask<R> queuedTask = new QueuedTask<>(task);
+  private <R> Future<R> enqueue(BoundedTask<R> task, boolean useReplica) {
+    QueuedTask<R> queuedTask = new QueuedTask<>(task, useReplica);
     taskQueue.add(queuedTask);
     return queuedTask.promise.future();
   }
 
   @Deprecated
-  private <R> Future<R> tryRunTaskAndEnqueueOnTimeout(ThrowingSupplier<R> task) {
-    return runTaskWithoutQueueing(task)
-        .recover(t -> t instanceof SQLException && t.getCause() instanceof TimeoutException ? enqueue(task) : Future.failedFuture(t));
+  private <R> Future<R> tryRunTaskAndEnqueueOnTimeout(BoundedTask<R> task, boolean useReplica) {
+    return runTaskWithoutQueueing(task, useReplica)
+        .recover(t -> t instanceof SQLException && t.getCause() instanceof TimeoutException
+            ? enqueue(task, useReplica) : Future.failedFuture(t));
   }
 
   @Deprecated
@@ -113,7 +114,7 @@ public class JdbcClient implements AutoCloseable {
     if (queuedTask == null)
       return;
 
-    runTaskWithoutQueueing(queuedTask.task)
+    runTaskWithoutQueueing(queuedTask.task, queuedTask.useReplica)
         .onComplete(result -> {
           if (result.failed())
             queuedTask.promise.fail(result.cause());
@@ -175,9 +176,11 @@ public class JdbcClient implements AutoCloseable {
   @Deprecated
   private class QueuedTask<R> {
     private final Promise<R> promise = Promise.promise();
-    private final ThrowingSupplier<R> task;
-    private QueuedTask(ThrowingSupplier task) {
+    private final BoundedTask<R> task;
+    private final boolean useReplica;
+    private QueuedTask(BoundedTask<R> task, boolean useReplica) {
       this.task = task;
+      this.useReplica = useReplica;
     }
   }
 
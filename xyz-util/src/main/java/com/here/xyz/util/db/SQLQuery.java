@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.here.xyz.XyzSerializable;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 import java.sql.Connection;
@@ -45,6 +47,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
@@ -79,6 +82,15 @@ public class SQLQuery {
   private static final String FRAGMENT_SUFFIX = "}}";
   public static final String QUERY_ID = "queryId";
   public static final String TEXT_QUOTE = "$a$";
+  private static final int SUBSTITUTION_CACHE_SIZE = 1_024;
+  /**
+   * Caches the results of the substitution of queries for which the statement caching is enabled.
+   * The key is the query template (the text, variables and fragments), the value is the substituted text together with the
+   * names of the parameters at the positions of the placeholders.
+   */
+  private static final Cache<String, SubstitutedTemplate> substitutionCache = CacheBuilder.newBuilder()
+      .maximumSize(SUBSTITUTION_CACHE_SIZE)
+      .build();
   private String statement = "";
   @JsonProperty
   private List<Object> parameters = new ArrayList<>();
@@ -99,6 +111,7 @@ public class SQLQuery {
   private List<ExecutionContext> executions = new CopyOnWriteArrayList<>();
   private boolean labelsEnabled = true;
   private boolean loggingEnabled = true;
+  private boolean statementCachingEnabled = false;
   private List<SQLQuery> queryBatch;
 
   private SQLQuery() {} //Only added as workaround for an issue with Jackson's Include.NON_DEFAULT setting
@@ -363,14 +376,86 @@ public class SQLQuery {
   private synchronized SQLQuery substitute(boolean usePlaceholders) {
     initQueryId();
     injectContext();
-    replaceVars();
-    replaceFragments();
-    replaceNamedParameters(usePlaceholders && !isAsync());
+    if (usePlaceholders && !isAsync() && isStatementCachingEnabled() && parameters.isEmpty())
+      substituteCached();
+    else {
+      replaceVars();
+      replaceFragments();
+      replaceNamedParameters(usePlaceholders && !isAsync());
+    }
     injectLabels();
 
     return this;
   }
 
+  /**
+   * Substitutes this query by using the substitution cache.
+   * If the template of this query was substituted before, only the parameter values have to be collected and assigned to the
+   * cached placeholder positions. Otherwise, the query gets substituted normally and the result is written to the cache.
+   */
+  private void substituteCached() {
+    String templateKey = templateKey(new StringBuilder()).toString();
+    SubstitutedTemplate template = substitutionCache.getIfPresent(templateKey);
+
+    if (template == null) {
+      replaceVars();
+      replaceFragments();
+      replaceNamedParameters(true);
+
+      String[] parameterNames = new String[parameters.size()];
+      namedParams2Positions.forEach((name, positions) -> positions.forEach(position -> parameterNames[position] = name));
+      substitutionCache.put(templateKey, new SubstitutedTemplate(text(), List.of(parameterNames)));
+      return;
+    }
+
+    Map<String, Object> allNamedParameters = collectNamedParameters();
+    for (String parameterName : template.parameterNames()) {
+      if (!allNamedParameters.containsKey(parameterName))
+        throw new IllegalArgumentException("sql: named Parameter [" + parameterName + "] missing");
+      namedParams2Positions.computeIfAbsent(parameterName, name -> new ArrayList<>()).add(parameters.size());
+      parameters.add(allNamedParameters.get(parameterName));
+    }
+    statement = template.text();
+    variables = null;
+    queryFragments = null;
+    namedParameters = null;
+  }
+
+  /**
+   * Writes a key into the specified StringBuilder which identifies everything of this query that has an influence on the
+   * substituted query text. That does not include the values of the named parameters.
+   */
+  private StringBuilder templateKey(StringBuilder key) {
+    key.append(statement.length()).append(':').append(statement);
+    if (variables != null)
+      new TreeMap<>(variables).forEach((name, value) -> key.append("$").append(name).append('=').append(value.length())
+          .append(':').append(value));
+    if (queryFragments != null)
+      new TreeMap<>(queryFragments).forEach((name, fragment) -> fragment.templateKey(key.append("{").append(name).append('='))
+          .append('}'));
+    return key;
+  }
+
+  /**
+   * Collects the named parameters of this query and all of its (nested) fragments the same way as it's done by
+   * {@link #replaceFragments()}.
+   */
+  private Map<String, Object> collectNamedParameters() {
+    Map<String, Object> allNamedParameters = namedParameters == null ? new HashMap<>() : new HashMap<>(namedParameters);
+    if (queryFragments != null)
+      queryFragments.forEach((key, fragment) -> {
+        Map<String, Object> fragmentParameters = fragment.collectNamedParameters();
+        final String clashing = getClashing(allNamedParameters, fragmentParameters);
+        if (clashing != null)
+          throw new RuntimeException("Can not add substitute fragment ${{" + key + "}} into this query. "
+              + "This query contains at least one named parameter (here: " + clashing + ") which clashes with a named parameter of the fragment.");
+        allNamedParameters.putAll(fragmentParameters);
+      });
+    return allNamedParameters;
+  }
+
+  private record SubstitutedTemplate(String text, List<String> parameterNames) {}
+
   private void initQueryId() {
     if (getQueryId() == null)
       setQueryId(UUID.randomUUID().toString());
@@ -850,6 +935,30 @@ public class SQLQuery {
     return this;
   }
 
+  public boolean isStatementCachingEnabled() {
+    return statementCachingEnabled;
+  }
+
+  /**
+   * Enables the statement caching for this query.
+   * That should be used for frequently executed queries, so that the database can re-use the prepared statements and their plans.
+   * The substituted query text will be cached for the query template and the query ID will not be injected into the query text,
+   * as it would be different for every execution.
+   *
+   * NOTE: As the query ID is not part of the query text, queries with statement caching enabled can not be cancelled or killed by
+   *  their query ID.
+   *
+   * @param statementCachingEnabled
+   */
+  public void setStatementCachingEnabled(boolean statementCachingEnabled) {
+    this.statementCachingEnabled = statementCachingEnabled;
+  }
+
+  public SQLQuery withStatementCachingEnabled(boolean statementCachingEnabled) {
+    setStatementCachingEnabled(statementCachingEnabled);
+    return this;
+  }
+
   public boolean isLoggingEnabled() {
     return loggingEnabled;
   }
@@ -868,6 +977,12 @@ public class SQLQuery {
   }
 
   private void injectLabels() {
+    Map<String, String> labels = this.labels;
+    if (isStatementCachingEnabled() && labels.containsKey(QUERY_ID)) {
+      //The query ID is unique per execution, so it would prevent re-using the statement
+      labels = new HashMap<>(labels);
+      labels.remove(QUERY_ID);
+    }
     if (isLabelsEnabled() && !labels.isEmpty())
       statement = "/*labels(" + XyzSerializable.serialize(labels) + ")*/ " + statement;
   }
@@ -19,6 +19,7 @@
 
 package com.here.xyz.util.db.datasource;
 
+import com.here.xyz.util.db.datasource.DatabaseSettings.ConnectionPool;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -89,6 +90,10 @@ public class CachedPooledDataSources extends PooledDataSources {
 
   private Map<String, StaticDataSources> createDataSources(String settingsId, String cacheKey) {
     logger.info("Creating new data sources with ID {} and cache key {}. Current cache size: {}", settingsId, cacheKey, cache.size());
+    if (dbSettings.getConnectionPool() == ConnectionPool.HIKARI) {
+      HikariPooledDataSources dataSources = new HikariPooledDataSources(dbSettings);
+      return Collections.singletonMap(cacheKey, new StaticDataSources(dataSources.getReader(), dataSources.getWriter()));
+    }
     return Collections.singletonMap(cacheKey, new StaticDataSources(super.getReader(), super.getWriter()));
   }
 
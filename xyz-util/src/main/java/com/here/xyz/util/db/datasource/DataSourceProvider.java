@@ -19,16 +19,29 @@
 
 package com.here.xyz.util.db.datasource;
 
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import javax.sql.DataSource;
 
 public abstract class DataSourceProvider implements AutoCloseable {
   static DataSourceProvider defaultProvider;
   protected DatabaseSettings dbSettings;
+  private final BoundedTaskQueue writerTasks;
+  private final BoundedTaskQueue readerTasks;
 
   public DataSourceProvider(DatabaseSettings dbSettings) {
     this.dbSettings = dbSettings;
     if (dbSettings != null)
       dbSettings.init();
+    //Bound the concurrently running tasks to the pool size. Tasks are only handed over to an executor once they got a permit,
+    //so the tasks waiting for a saturated database do not occupy any threads which could be used by the tasks of other providers.
+    int maxPoolSize = dbSettings != null ? Math.max(1, dbSettings.getDbMaxPoolSize()) : 0;
+    writerTasks = maxPoolSize > 0 ? new BoundedTaskQueue(maxPoolSize) : null;
+    readerTasks = maxPoolSize > 0 ? new BoundedTaskQueue(maxPoolSize) : null;
   }
 
   public abstract DataSource getReader();
@@ -50,4 +63,149 @@ public abstract class DataSourceProvider implements AutoCloseable {
   public DatabaseSettings getDatabaseSettings() {
     return dbSettings;
   }
-}
\ No newline at end of file
+
+  /**
+   * Runs the provided blocking task on the calling thread once a permit for the according data source is available.
+   * At most as many tasks as the connection pool can serve are running at the same time, further tasks are waiting for a permit.
+   * If no database settings are known for this provider, the task is run without any bound.
+   *
+   * @param task The task using a connection of the according data source
+   * @param useReplica Whether the task is using the reader
+   * @return The result of the task
+   */
+  public <R> R runBounded(BoundedTask<R> task, boolean useReplica) throws Exception {
+    BoundedTaskQueue tasks = getTaskQueue(useReplica);
+    if (tasks == null)
+      return task.run();
+
+    CompletableFuture<Void> permit = new CompletableFuture<>();
+    //If the waiting caller was interrupted in the meantime, the permit is passed on right away
+    tasks.enqueue(() -> {
+      if (!permit.complete(null))
+        tasks.returnPermit();
+    });
+    try {
+      permit.get();
+    }
+    catch (InterruptedException e) {
+      if (permit.cancel(false))
+        throw e;
+      //The permit was granted concurrently
+      Thread.currentThread().interrupt();
+    }
+
+    try {
+      return task.run();
+    }
+    finally {
+      tasks.release();
+    }
+  }
+
+  /**
+   * Submits the provided blocking task to the executor once a permit for the according data source is available.
+   * Until then, the task is waiting in a queue of this provider without occupying a thread of the executor. That way, a saturated
+   * database can not exhaust an executor which is shared with the tasks of other providers.
+   * If no database settings are known for this provider, the task is submitted right away.
+   *
+   * @param task The task using a connection of the according data source
+   * @param useReplica Whether the task is using the reader
+   * @param executor The executor to run the task on
+   * @return A future which is completed with the result of the task
+   */
+  public <R> CompletableFuture<R> submitBounded(BoundedTask<R> task, boolean useReplica, Executor executor) {
+    BoundedTaskQueue tasks = getTaskQueue(useReplica);
+    CompletableFuture<R> result = new CompletableFuture<>();
+    Runnable execution = () -> {
+      try {
+        executor.execute(() -> {
+          try {
+            result.complete(task.run());
+          }
+          catch (Throwable t) {
+            result.completeExceptionally(t);
+          }
+          finally {
+            if (tasks != null)
+              tasks.release();
+          }
+        });
+      }
+      catch (RejectedExecutionException e) {
+        if (tasks != null)
+          tasks.returnPermit();
+        result.completeExceptionally(e);
+      }
+    };
+
+    if (tasks == null)
+      execution.run();
+    else
+      tasks.enqueue(execution);
+    return result;
+  }
+
+  /**
+   * @param useReplica Whether to return the number for the reader
+   * @return The number of tasks which are currently waiting for a permit of the according data source
+   */
+  public int getQueuedTasks(boolean useReplica) {
+    BoundedTaskQueue tasks = getTaskQueue(useReplica);
+    return tasks == null ? 0 : tasks.size();
+  }
+
+  private BoundedTaskQueue getTaskQueue(boolean useReplica) {
+    return useReplica && hasReader() ? readerTasks : writerTasks;
+  }
+
+  @FunctionalInterface
+  public interface BoundedTask<R> {
+    R run() throws Exception;
+  }
+
+  /**
+   * A FIFO queue of tasks which are waiting for one of a bounded number of permits.
+   * A task is dispatched on the thread which adds it or on the thread which releases the permit it is getting. Dispatching a task must
+   * therefore be cheap, the task must only hand over the actual work (e.g. to an executor) and must eventually release its permit again.
+   */
+  private static class BoundedTaskQueue {
+    private final Semaphore permits;
+    private final Queue<Runnable> waitingTasks = new ConcurrentLinkedQueue<>();
+
+    BoundedTaskQueue(int permits) {
+      this.permits = new Semaphore(permits);
+    }
+
+    void enqueue(Runnable task) {
+      waitingTasks.add(task);
+      dispatch();
+    }
+
+    void release() {
+      permits.release();
+      dispatch();
+    }
+
+    /**
+     * Releases the permit of a task which was not run, while it is being dispatched. The permit is passed on by the ongoing dispatch.
+     */
+    void returnPermit() {
+      permits.release();
+    }
+
+    private void dispatch() {
+      while (!waitingTasks.isEmpty() && permits.tryAcquire()) {
+        Runnable task = waitingTasks.poll();
+        if (task == null)
+          //Another thread took the task in the meantime
+          permits.release();
+        else
+          task.run();
+      }
+    }
+
+    int size() {
+      return waitingTasks.size();
+    }
+  }
+}
@@ -122,7 +122,27 @@ public class DatabaseSettings extends Payload {
     private int dbAcquireRetryDelay = 1_000;
     private boolean dbTestConnectionOnCheckout = true;
     private int dbMaxIdleTime;
+    /**
+     * The number of prepared statements to be cached by the pool per connection. 0 disables the pool's statement cache.
+     * NOTE: The JDBC driver re-uses the server-side prepared statements for identical query texts of a connection anyway.
+     */
+    private int dbMaxStatementsPerConnection;
     private int statementTimeoutSeconds = 23;
+    private ConnectionPool connectionPool = ConnectionPool.C3P0;
+
+    /**
+     * The implementation of the connection pool to be used by the pooled data sources.
+     */
+    public enum ConnectionPool {
+        /**
+         * The c3p0 based {@link PooledDataSources}
+         */
+        C3P0,
+        /**
+         * The HikariCP based {@link HikariPooledDataSources}
+         */
+        HIKARI
+    }
 
     private DatabaseSettings() {}
 
@@ -433,6 +453,19 @@ public class DatabaseSettings extends Payload {
         return this;
     }
 
+    public int getDbMaxStatementsPerConnection() {
+        return dbMaxStatementsPerConnection;
+    }
+
+    public void setDbMaxStatementsPerConnection(int dbMaxStatementsPerConnection) {
+        this.dbMaxStatementsPerConnection = dbMaxStatementsPerConnection;
+    }
+
+    public DatabaseSettings withDbMaxStatementsPerConnection(int dbMaxStatementsPerConnection) {
+        setDbMaxStatementsPerConnection(dbMaxStatementsPerConnection);
+        return this;
+    }
+
     public int getStatementTimeoutSeconds() {
         return statementTimeoutSeconds;
     }
@@ -446,6 +479,19 @@ public class DatabaseSettings extends Payload {
         return this;
     }
 
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public void setConnectionPool(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    public DatabaseSettings withConnectionPool(ConnectionPool connectionPool) {
+        setConnectionPool(connectionPool);
+        return this;
+    }
+
     @JsonIgnore
     private String getApplicationNameForJdbcUrl() {
         return getApplicationName() + "[" + getId() + "_" + getCacheKey() + "]";
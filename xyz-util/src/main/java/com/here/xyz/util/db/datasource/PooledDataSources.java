@@ -72,6 +72,7 @@ public class PooledDataSources extends DataSourceProvider {
     cpds.setCheckoutTimeout(dbSettings.getDbCheckoutTimeout());
     cpds.setMaxIdleTime(dbSettings.getDbMaxIdleTime());
     cpds.setTestConnectionOnCheckout(dbSettings.isDbTestConnectionOnCheckout());
+    cpds.setMaxStatementsPerConnection(dbSettings.getDbMaxStatementsPerConnection());
 
     cpds.setConnectionCustomizerClassName(XyzConnectionCustomizer.class.getName());
     cpds.setExtensions(Map.of(EXTENDED_CONNECTION_SETTINGS, new ExtendedConnectionSettings(dbSettings.getSchema(),
@@ -96,21 +97,12 @@ public class PooledDataSources extends DataSourceProvider {
     public void onAcquire(Connection connection, String connectionId) {
       ExtendedConnectionSettings extendedSettings = getExtendedSettings(connectionId);
 
-      List<String> enrichedSearchPath = new ArrayList<>(List.of(extendedSettings.currentSchema, "public", "topology"));
-      enrichedSearchPath.addAll(extendedSettings.searchPath);
-      final String compiledSearchPath = enrichedSearchPath.stream().map(schema -> "\"" + schema + "\"")
-          .collect(Collectors.joining(", "));
-
       QueryRunner runner = new QueryRunner();
       try {
-        int lock_timeout = ( extendedSettings.statementTimeoutSeconds - 7 > 5 
-                             ? extendedSettings.statementTimeoutSeconds - 7 
-                             : extendedSettings.statementTimeoutSeconds );
-
         runner.execute(connection, "SET enable_seqscan = off;");
         runner.execute(connection, "SET statement_timeout = " + (extendedSettings.statementTimeoutSeconds * 1000) + ";");
-        runner.execute(connection, "SET lock_timeout = " + (lock_timeout * 1000) + ";");
-        runner.execute(connection, "SET search_path = " + compiledSearchPath + ";");
+        runner.execute(connection, "SET lock_timeout = " + (lockTimeoutSeconds(extendedSettings.statementTimeoutSeconds) * 1000) + ";");
+        runner.execute(connection, "SET search_path = " + compileSearchPath(extendedSettings.currentSchema, extendedSettings.searchPath) + ";");
       }
       catch (SQLException e) {
         logger.error("Failed to initialize connection " + connection + " [" + connectionId + "] : {}", e);
@@ -122,5 +114,18 @@ public class PooledDataSources extends DataSourceProvider {
     }
   }
 
+  static String compileSearchPath(String currentSchema, List<String> searchPath) {
+    List<String> enrichedSearchPath = new ArrayList<>(List.of(currentSchema, "public", "topology"));
+    enrichedSearchPath.addAll(searchPath);
+    return enrichedSearchPath.stream().map(schema -> "\"" + schema + "\"")
+        .collect(Collectors.joining(", "));
+  }
+
+  static int lockTimeoutSeconds(int statementTimeoutSeconds) {
+    return statementTimeoutSeconds - 7 > 5
+        ? statementTimeoutSeconds - 7
+        : statementTimeoutSeconds;
+  }
+
   private record ExtendedConnectionSettings(String currentSchema, List<String> searchPath, int statementTimeoutSeconds) {}
 }
@@ -20,6 +20,7 @@
 package com.here.xyz.util.db.datasource;
 
 import com.mchange.v2.c3p0.PooledDataSource;
+import com.zaxxer.hikari.HikariDataSource;
 import javax.sql.DataSource;
 import org.postgresql.ds.PGSimpleDataSource;
 
@@ -68,9 +69,15 @@ public class StaticDataSources extends DataSourceProvider implements AutoCloseab
 
   @Override
   public void close() throws Exception {
-    if (writer instanceof PooledDataSource writer)
-      writer.close();
-    if (reader instanceof PooledDataSource reader && reader != writer)
-      reader.close();
+    close(writer);
+    if (reader != writer)
+      close(reader);
+  }
+
+  private static void close(DataSource dataSource) throws Exception {
+    if (dataSource instanceof PooledDataSource pooledDataSource)
+      pooledDataSource.close();
+    else if (dataSource instanceof HikariDataSource hikariDataSource)
+      hikariDataSource.close();
   }
 }
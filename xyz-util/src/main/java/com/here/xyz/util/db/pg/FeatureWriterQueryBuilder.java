@@ -21,6 +21,7 @@ package com.here.xyz.util.db.pg;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.events.ContextAwareEvent.SpaceContext;
 import com.here.xyz.events.UpdateStrategy;
@@ -28,6 +29,7 @@ import com.here.xyz.events.WriteFeaturesEvent.Modification;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.util.db.SQLQuery;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +45,7 @@ public class FeatureWriterQueryBuilder {
   private boolean isPartial = false;
   private Map<String, Object> queryContext;
   private boolean select = false;
+  private boolean columnarInput = false;
 
   public FeatureWriterQueryBuilder() {}
 
@@ -111,6 +114,16 @@ public class FeatureWriterQueryBuilder {
     return this;
   }
 
+  /**
+   * Whether to bind the features of modifications as arrays (one element per feature) rather than serializing all modifications
+   * into one JSON text.
+   * That way the database does not have to parse one large JSON document before it can start writing.
+   */
+  public FeatureWriterQueryBuilder withColumnarInput(boolean columnarInput) {
+    this.columnarInput = columnarInput;
+    return this;
+  }
+
   public SQLQuery build() {
     if (input == null)
       throw new IllegalArgumentException("No input has been set for the FeatureWriter.");
@@ -127,6 +140,8 @@ public class FeatureWriterQueryBuilder {
     String selectTerm = select ? "SELECT " : "";
 
     if (input instanceof List inputList && inputList.get(0) instanceof Modification) {
+      if (columnarInput)
+        return buildColumnarModificationsQuery(selectTerm, inputList);
       return new SQLQuery(selectTerm + "write_features(#{jsonInput}, 'Modifications', #{author}, #{returnResult}, #{version})")
           .withContext(queryContext)
           .withNamedParameter("jsonInput", XyzSerializable.serialize(inputList))
@@ -154,6 +169,58 @@ public class FeatureWriterQueryBuilder {
         .withNamedParameter("isPartial", isPartial);
   }
 
+  private SQLQuery buildColumnarModificationsQuery(String selectTerm, List<Modification> modifications) {
+    List<Modification> modificationHeaders = new ArrayList<>(modifications.size());
+    List<Integer> modificationIndexes = new ArrayList<>();
+    List<String> featureIds = new ArrayList<>();
+    List<String> features = new ArrayList<>();
+
+    for (int i = 0; i < modifications.size(); i++) {
+      Modification modification = modifications.get(i);
+      modificationHeaders.add(new Modification()
+          .withUpdateStrategy(modification.getUpdateStrategy())
+          .withPartialUpdates(modification.isPartialUpdates())
+          .withFeatureHooks(modification.getFeatureHooks()));
+
+      if (modification.getFeatureData() != null)
+        for (Feature feature : getFeatures(modification.getFeatureData())) {
+          modificationIndexes.add(i);
+          featureIds.add(feature.getId());
+          features.add(XyzSerializable.serialize(feature));
+        }
+      else if (modification.getFeatureIds() != null)
+        for (String featureId : modification.getFeatureIds()) {
+          modificationIndexes.add(i);
+          featureIds.add(featureId);
+          //A NULL feature marks a deletion
+          features.add(null);
+        }
+    }
+
+    //The features are bound as texts, so that each of them is parsed only once when the FeatureWriter assigns it to its modification
+    return new SQLQuery(selectTerm + """
+        write_features(#{modifications}, 'Modifications', #{author}, #{returnResult}, #{version},
+          modification_indexes => #{modificationIndexes}, feature_ids => #{featureIds}, features => #{features})
+        """)
+        .withContext(queryContext)
+        .withNamedParameter("modifications", XyzSerializable.serialize(modificationHeaders))
+        .withNamedParameter("modificationIndexes", modificationIndexes.toArray(new Integer[0]))
+        .withNamedParameter("featureIds", featureIds.toArray(new String[0]))
+        .withNamedParameter("features", features.toArray(new String[0]))
+        .withNamedParameter("author", author)
+        .withNamedParameter("returnResult", returnResult)
+        .withNamedParameter("version", version <= 0 ? null : version);
+  }
+
+  private static List<Feature> getFeatures(FeatureCollection featureData) {
+    try {
+      return featureData.getFeatures();
+    }
+    catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Unable to read the features of a modification.", e);
+    }
+  }
+
   public static class FeatureWriterQueryContextBuilder {
 
     private Map<String, Object> queryContext = new HashMap<>();
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.runtime;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Provides an executor for blocking work (e.g. JDBC calls or S3 transfers) which starts a new virtual thread per task.
+ * If the runtime does not support virtual threads, a bounded pool of platform threads is used instead.
+ */
+public class VirtualThreads {
+  private static final Logger logger = LogManager.getLogger();
+  /**
+   * The maximum number of platform threads of the fallback pool. Further tasks are queued.
+   */
+  private static final int MAX_FALLBACK_THREADS = 64;
+  private static final ExecutorService sharedExecutor = createPerTaskExecutor();
+
+  private VirtualThreads() {}
+
+  /**
+   * @return The shared executor for blocking tasks. It must not be shut down by callers.
+   */
+  public static ExecutorService sharedExecutor() {
+    return sharedExecutor;
+  }
+
+  /**
+   * @return Whether the tasks of the shared executor are running on virtual threads
+   */
+  public static boolean isSupported() {
+    return !(sharedExecutor instanceof ThreadPoolExecutor);
+  }
+
+  /**
+   * Creates a new executor which starts a new virtual thread for each task.
+   * Falls back to a pool of at most {@link #MAX_FALLBACK_THREADS} platform threads if the runtime does not provide virtual threads.
+   * @return The new executor
+   */
+  public static ExecutorService createPerTaskExecutor() {
+    try {
+      //Looked up reflectively to stay compatible with runtimes below Java 21
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException e) {
+      logger.debug("Virtual threads are not supported by this runtime, falling back to a bounded thread pool.");
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_FALLBACK_THREADS, MAX_FALLBACK_THREADS, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>());
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+}
@@ -93,7 +93,7 @@ public class BaseHttpServerVerticle extends AbstractVerticle {
       .setIdleTimeout(300);
   public static final String STREAM_INFO_CTX_KEY = "streamInfo";
   public static final HttpResponseStatus CLIENT_CLOSED_REQUEST = new HttpResponseStatus(499, "Client closed request");
-  private static final String JWT = "jwt";
+  public static final String JWT = "jwt";
   /**
    * The methods the client is allowed to use.
    */
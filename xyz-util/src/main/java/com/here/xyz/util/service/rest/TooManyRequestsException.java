@@ -47,7 +47,8 @@ public class TooManyRequestsException extends HttpException {
     MEMORY("M"),
     QUOTA("Q"),
     STORAGE_QUEUE_FULL("S"),
-    CONNECTOR("C");
+    CONNECTOR("C"),
+    CPU("P");
 
     public final String shortCut;
 
@@ -26,11 +26,18 @@ CREATE EXTENSION IF NOT EXISTS plv8;
  * @param {string} author The ID of the user that is committing the change
  * @param {boolean} return_result = false Whether to return all data that has been actually written. If `false` is specified, only an object containing the written count is returned like: `{"count": 42}`
  * @param {number} version = null The version number to be used for the change. That must be a version larger than the current HEAD version or the current HEAD version. If not specified, HEAD + 1 will be used by default
+ * @param {number[]} modification_indexes = null Only for input_type = "Modifications": For each feature, the (0-based) index of the modification it belongs to
+ * @param {string[]} feature_ids = null Only for input_type = "Modifications": For each feature, the ID of the feature
+ * @param {string[]} features = null Only for input_type = "Modifications": For each feature, the feature to be written or NULL if the feature should be deleted
+ *  If the features are provided that way, json_input only contains the modifications without their featureData / featureIds.
+ *  That way no single large JSON text has to be parsed before the writing can start.
  * @throws VersionConflictError, MergeConflictError, FeatureExistsError
  */
 CREATE OR REPLACE FUNCTION write_features(json_input TEXT, input_type TEXT, author TEXT, return_result BOOLEAN = false, version BIGINT = NULL,
     --The following parameters are not necessary for input_type = "Modifications"
-    on_exists TEXT = NULL, on_not_exists TEXT = NULL, on_version_conflict TEXT = NULL, on_merge_conflict TEXT = NULL, is_partial BOOLEAN = false)
+    on_exists TEXT = NULL, on_not_exists TEXT = NULL, on_version_conflict TEXT = NULL, on_merge_conflict TEXT = NULL, is_partial BOOLEAN = false,
+    --The following parameters are only used for input_type = "Modifications"
+    modification_indexes INT[] = NULL, feature_ids TEXT[] = NULL, features TEXT[] = NULL)
     RETURNS TEXT AS
 $BODY$
     ${{Exception.js}}
@@ -61,6 +68,23 @@ $BODY$
 
       let input = JSON.parse(json_input);
 
+      if (input_type == "Modifications" && feature_ids != null) {
+        //Only the (small) modification headers are part of the JSON input.
+        //Each feature is parsed right before it gets written, so the parsed features do not have to be held all at once.
+        const featureIndexes = input.map(() => []);
+        for (let i = 0; i < feature_ids.length; i++)
+          featureIndexes[modification_indexes[i]].push(i);
+        const readFeatures = function* (indexes) {
+          for (let i of indexes) {
+            const feature = features[i] == null ? FeatureWriter._transformToDeletedFeature(feature_ids[i]) : JSON.parse(features[i]);
+            features[i] = null;
+            yield feature;
+          }
+        };
+        input.forEach((modification, m) =>
+            modification.featureData = {type: "FeatureCollection", features: readFeatures(featureIndexes[m])});
+      }
+
       if (input_type == "FeatureCollection") {
         input = input.features;
         input_type = "Features";
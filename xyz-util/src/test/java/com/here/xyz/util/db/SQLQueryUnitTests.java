@@ -83,4 +83,23 @@ public class SQLQueryUnitTests {
         .withQueryFragment("fragmentB", "World");
     assertEquals("Hello", q.substitute().text());
   }
+
+  @Test
+  public void testCachedSubstitution() {
+    for (String value : new String[]{"firstValue", "secondValue"}) {
+      SQLQuery q = new SQLQuery("${{someFragment}} #{someParameter} ${someVariable}")
+          .withStatementCachingEnabled(true)
+          .withQueryId("someQueryId")
+          .withLabel("queryClass", "SomeQuery")
+          .withVariable("someVariable", "someName")
+          .withNamedParameter("someParameter", value)
+          .withQueryFragment("someFragment", new SQLQuery("#{otherParameter} ==").withNamedParameter("otherParameter", 42));
+      q.substitute();
+      //The query ID must not be part of the query text
+      assertEquals("/*labels({\"queryClass\":\"SomeQuery\"})*/ ? == ? \"someName\"", q.text());
+      assertEquals(2, q.parameters().size());
+      assertEquals(42, q.parameters().get(0));
+      assertEquals(value, q.parameters().get(1));
+    }
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017-2026 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.db.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.xyz.util.runtime.VirtualThreads;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+public class DataSourceProviderTest {
+
+  @Test
+  public void runBoundedByPoolSize() throws Exception {
+    DataSourceProvider dataSources = new TestDataSources(new DatabaseSettings("test").withDbMaxPoolSize(2));
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      int taskNo = i;
+      results.add(VirtualThreads.sharedExecutor().submit(() -> dataSources.runBounded(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(20);
+        running.decrementAndGet();
+        return taskNo;
+      }, false)));
+    }
+
+    for (int i = 0; i < results.size(); i++)
+      assertEquals(i, results.get(i).get());
+    assertTrue(maxRunning.get() <= 2, "At most 2 tasks should run concurrently, but " + maxRunning.get() + " did.");
+    assertEquals(0, dataSources.getQueuedTasks(false));
+  }
+
+  @Test
+  public void saturatedProviderDoesNotStarveOtherProviders() throws Exception {
+    //A small shared executor, like the platform thread pool which is used if virtual threads are not available
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    DataSourceProvider saturated = new TestDataSources(new DatabaseSettings("saturated").withDbMaxPoolSize(1));
+    DataSourceProvider other = new TestDataSources(new DatabaseSettings("other").withDbMaxPoolSize(1));
+    CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      List<CompletableFuture<Integer>> saturatedResults = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        int taskNo = i;
+        saturatedResults.add(saturated.submitBounded(() -> {
+          blocked.await();
+          return taskNo;
+        }, false, executor));
+      }
+      assertEquals(9, saturated.getQueuedTasks(false));
+
+      //The tasks waiting for the saturated provider must not occupy the threads of the shared executor
+      assertEquals(42, other.submitBounded(() -> 42, false, executor).get(5, TimeUnit.SECONDS));
+      assertFalse(saturatedResults.get(0).isDone());
+
+      blocked.countDown();
+      for (int i = 0; i < saturatedResults.size(); i++)
+        assertEquals(i, saturatedResults.get(i).get(5, TimeUnit.SECONDS));
+      assertEquals(0, saturated.getQueuedTasks(false));
+    }
+    finally {
+      blocked.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void submitBoundedFailsIfTheTaskFails() {
+    DataSourceProvider dataSources = new TestDataSources(new DatabaseSettings("test").withDbMaxPoolSize(1));
+    CompletableFuture<Object> result = dataSources.submitBounded(() -> {
+      throw new IllegalStateException("failed");
+    }, false, VirtualThreads.sharedExecutor());
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof IllegalStateException);
+    //The permit of the failed task must have been released again
+    assertEquals(42, dataSources.submitBounded(() -> 42, false, VirtualThreads.sharedExecutor()).join());
+  }
+
+  @Test
+  public void runUnboundedWithoutSettings() throws Exception {
+    DataSourceProvider dataSources = new TestDataSources(null);
+    assertEquals(42, dataSources.runBounded(() -> 42, true));
+  }
+
+  private static class TestDataSources extends DataSourceProvider {
+    TestDataSources(DatabaseSettings dbSettings) {
+      super(dbSettings);
+    }
+
+    @Override
+    public DataSource getReader() {
+      return null;
+    }
+
+    @Override
+    public DataSource getWriter() {
+      return null;
+    }
+
+    @Override
+    public void close() {}
+  }
+}